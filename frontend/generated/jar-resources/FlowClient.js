@@ -0,0 +1,1055 @@
+export function init() {
+function client(){var Jb='',Kb=0,Lb='gwt.codesvr=',Mb='gwt.hosted=',Nb='gwt.hybrid',Ob='client',Pb='#',Qb='?',Rb='/',Sb=1,Tb='img',Ub='clear.cache.gif',Vb='baseUrl',Wb='script',Xb='client.nocache.js',Yb='base',Zb='//',$b='meta',_b='name',ac='gwt:property',bc='content',cc='=',dc='gwt:onPropertyErrorFn',ec='Bad handler "',fc='" for "gwt:onPropertyErrorFn"',gc='gwt:onLoadErrorFn',hc='" for "gwt:onLoadErrorFn"',ic='user.agent',jc='webkit',kc='safari',lc='msie',mc=10,nc=11,oc='ie10',pc=9,qc='ie9',rc=8,sc='ie8',tc='gecko',uc='gecko1_8',vc=2,wc=3,xc=4,yc='Single-script hosted mode not yet implemented. See issue ',zc='http://code.google.com/p/google-web-toolkit/issues/detail?id=2079',Ac='317F6C883693AF40245410D84E629AA9',Bc=':1',Cc=':',Dc='DOMContentLoaded',Ec=50;var l=Jb,m=Kb,n=Lb,o=Mb,p=Nb,q=Ob,r=Pb,s=Qb,t=Rb,u=Sb,v=Tb,w=Ub,A=Vb,B=Wb,C=Xb,D=Yb,F=Zb,G=$b,H=_b,I=ac,J=bc,K=cc,L=dc,M=ec,N=fc,O=gc,P=hc,Q=ic,R=jc,S=kc,T=lc,U=mc,V=nc,W=oc,X=pc,Y=qc,Z=rc,$=sc,_=tc,ab=uc,bb=vc,cb=wc,db=xc,eb=yc,fb=zc,gb=Ac,hb=Bc,ib=Cc,jb=Dc,kb=Ec;var lb=window,mb=document,nb,ob,pb=l,qb={},rb=[],sb=[],tb=[],ub=m,vb,wb;if(!lb.__gwt_stylesLoaded){lb.__gwt_stylesLoaded={}}if(!lb.__gwt_scriptsLoaded){lb.__gwt_scriptsLoaded={}}function xb(){var b=false;try{var c=lb.location.search;return (c.indexOf(n)!=-1||(c.indexOf(o)!=-1||lb.external&&lb.external.gwtOnLoad))&&c.indexOf(p)==-1}catch(a){}xb=function(){return b};return b}
+function yb(){if(nb&&ob){nb(vb,q,pb,ub)}}
+function zb(){function e(a){var b=a.lastIndexOf(r);if(b==-1){b=a.length}var c=a.indexOf(s);if(c==-1){c=a.length}var d=a.lastIndexOf(t,Math.min(c,b));return d>=m?a.substring(m,d+u):l}
+function f(a){if(a.match(/^\w+:\/\//)){}else{var b=mb.createElement(v);b.src=a+w;a=e(b.src)}return a}
+function g(){var a=Cb(A);if(a!=null){return a}return l}
+function h(){var a=mb.getElementsByTagName(B);for(var b=m;b<a.length;++b){if(a[b].src.indexOf(C)!=-1){return e(a[b].src)}}return l}
+function i(){var a=mb.getElementsByTagName(D);if(a.length>m){return a[a.length-u].href}return l}
+function j(){var a=mb.location;return a.href==a.protocol+F+a.host+a.pathname+a.search+a.hash}
+var k=g();if(k==l){k=h()}if(k==l){k=i()}if(k==l&&j()){k=e(mb.location.href)}k=f(k);return k}
+function Ab(){var b=document.getElementsByTagName(G);for(var c=m,d=b.length;c<d;++c){var e=b[c],f=e.getAttribute(H),g;if(f){if(f==I){g=e.getAttribute(J);if(g){var h,i=g.indexOf(K);if(i>=m){f=g.substring(m,i);h=g.substring(i+u)}else{f=g;h=l}qb[f]=h}}else if(f==L){g=e.getAttribute(J);if(g){try{wb=eval(g)}catch(a){alert(M+g+N)}}}else if(f==O){g=e.getAttribute(J);if(g){try{vb=eval(g)}catch(a){alert(M+g+P)}}}}}}
+var Bb=function(a,b){return b in rb[a]};var Cb=function(a){var b=qb[a];return b==null?null:b};function Db(a,b){var c=tb;for(var d=m,e=a.length-u;d<e;++d){c=c[a[d]]||(c[a[d]]=[])}c[a[e]]=b}
+function Eb(a){var b=sb[a](),c=rb[a];if(b in c){return b}var d=[];for(var e in c){d[c[e]]=e}if(wb){wb(a,d,b)}throw null}
+sb[Q]=function(){var a=navigator.userAgent.toLowerCase();var b=mb.documentMode;if(function(){return a.indexOf(R)!=-1}())return S;if(function(){return a.indexOf(T)!=-1&&(b>=U&&b<V)}())return W;if(function(){return a.indexOf(T)!=-1&&(b>=X&&b<V)}())return Y;if(function(){return a.indexOf(T)!=-1&&(b>=Z&&b<V)}())return $;if(function(){return a.indexOf(_)!=-1||b>=V}())return ab;return S};rb[Q]={'gecko1_8':m,'ie10':u,'ie8':bb,'ie9':cb,'safari':db};client.onScriptLoad=function(a){client=null;nb=a;yb()};if(xb()){alert(eb+fb);return}zb();Ab();try{var Fb;Db([ab],gb);Db([S],gb+hb);Fb=tb[Eb(Q)];var Gb=Fb.indexOf(ib);if(Gb!=-1){ub=Number(Fb.substring(Gb+u))}}catch(a){return}var Hb;function Ib(){if(!ob){ob=true;yb();if(mb.removeEventListener){mb.removeEventListener(jb,Ib,false)}if(Hb){clearInterval(Hb)}}}
+if(mb.addEventListener){mb.addEventListener(jb,function(){Ib()},false)}var Hb=setInterval(function(){if(/loaded|complete/.test(mb.readyState)){Ib()}},kb)}
+client();(function () {var $gwt_version = "2.9.0";var $wnd = window;var $doc = $wnd.document;var $moduleName, $moduleBase;var $stats = $wnd.__gwtStatsEvent ? function(a) {$wnd.__gwtStatsEvent(a)} : null;var $strongName = '317F6C883693AF40245410D84E629AA9';function I(){}
+function Ui(){}
+function Qi(){}
+function $i(){}
+function nc(){}
+function uc(){}
+function Bj(){}
+function Mj(){}
+function Qj(){}
+function xk(){}
+function zk(){}
+function Bk(){}
+function Wk(){}
+function _k(){}
+function el(){}
+function gl(){}
+function ql(){}
+function ym(){}
+function Am(){}
+function Cm(){}
+function $m(){}
+function an(){}
+function ar(){}
+function cr(){}
+function er(){}
+function gr(){}
+function Fr(){}
+function Jr(){}
+function bo(){}
+function lo(){}
+function Wp(){}
+function Us(){}
+function Ys(){}
+function _s(){}
+function _w(){}
+function ut(){}
+function du(){}
+function Yu(){}
+function av(){}
+function pv(){}
+function zx(){}
+function Bx(){}
+function ny(){}
+function ry(){}
+function xz(){}
+function fA(){}
+function lB(){}
+function NB(){}
+function NF(){}
+function YF(){}
+function $F(){}
+function cD(){}
+function IE(){}
+function aG(){}
+function rG(){}
+function dz(){az()}
+function T(a){S=a;Jb()}
+function nj(a,b){a.c=b}
+function oj(a,b){a.d=b}
+function pj(a,b){a.e=b}
+function qj(a,b){a.f=b}
+function rj(a,b){a.g=b}
+function sj(a,b){a.h=b}
+function uj(a,b){a.j=b}
+function vj(a,b){a.k=b}
+function wj(a,b){a.l=b}
+function xj(a,b){a.m=b}
+function yj(a,b){a.n=b}
+function zj(a,b){a.o=b}
+function Aj(a,b){a.p=b}
+function Et(a,b){a.b=b}
+function qG(a,b){a.a=b}
+function bc(a){this.a=a}
+function dc(a){this.a=a}
+function Oj(a){this.a=a}
+function hk(a){this.a=a}
+function jk(a){this.a=a}
+function Uk(a){this.a=a}
+function Zk(a){this.a=a}
+function cl(a){this.a=a}
+function kl(a){this.a=a}
+function ml(a){this.a=a}
+function ol(a){this.a=a}
+function sl(a){this.a=a}
+function ul(a){this.a=a}
+function Yl(a){this.a=a}
+function Em(a){this.a=a}
+function Im(a){this.a=a}
+function Um(a){this.a=a}
+function cn(a){this.a=a}
+function Cn(a){this.a=a}
+function Fn(a){this.a=a}
+function Gn(a){this.a=a}
+function Mn(a){this.a=a}
+function Yn(a){this.a=a}
+function $n(a){this.a=a}
+function eo(a){this.a=a}
+function go(a){this.a=a}
+function io(a){this.a=a}
+function mo(a){this.a=a}
+function so(a){this.a=a}
+function Mo(a){this.a=a}
+function bp(a){this.a=a}
+function Fp(a){this.a=a}
+function Up(a){this.a=a}
+function Yp(a){this.a=a}
+function $p(a){this.a=a}
+function Mp(a){this.b=a}
+function Hq(a){this.a=a}
+function Jq(a){this.a=a}
+function Lq(a){this.a=a}
+function Uq(a){this.a=a}
+function Xq(a){this.a=a}
+function Lr(a){this.a=a}
+function Sr(a){this.a=a}
+function Ur(a){this.a=a}
+function gs(a){this.a=a}
+function ks(a){this.a=a}
+function ts(a){this.a=a}
+function Bs(a){this.a=a}
+function Ds(a){this.a=a}
+function Fs(a){this.a=a}
+function Hs(a){this.a=a}
+function Js(a){this.a=a}
+function Ks(a){this.a=a}
+function Ss(a){this.a=a}
+function es(a){this.c=a}
+function Ft(a){this.c=a}
+function jt(a){this.a=a}
+function st(a){this.a=a}
+function wt(a){this.a=a}
+function It(a){this.a=a}
+function Kt(a){this.a=a}
+function Xt(a){this.a=a}
+function bu(a){this.a=a}
+function wu(a){this.a=a}
+function Au(a){this.a=a}
+function $u(a){this.a=a}
+function Av(a){this.a=a}
+function Ev(a){this.a=a}
+function Iv(a){this.a=a}
+function Kv(a){this.a=a}
+function Pv(a){this.a=a}
+function Fx(a){this.a=a}
+function Hx(a){this.a=a}
+function Vx(a){this.a=a}
+function Zx(a){this.a=a}
+function Ex(a){this.b=a}
+function by(a){this.a=a}
+function py(a){this.a=a}
+function vy(a){this.a=a}
+function xy(a){this.a=a}
+function By(a){this.a=a}
+function Iy(a){this.a=a}
+function Ky(a){this.a=a}
+function My(a){this.a=a}
+function Oy(a){this.a=a}
+function Qy(a){this.a=a}
+function Xy(a){this.a=a}
+function Zy(a){this.a=a}
+function oz(a){this.a=a}
+function rz(a){this.a=a}
+function zz(a){this.a=a}
+function Bz(a){this.e=a}
+function dA(a){this.a=a}
+function hA(a){this.a=a}
+function jA(a){this.a=a}
+function FA(a){this.a=a}
+function UA(a){this.a=a}
+function WA(a){this.a=a}
+function YA(a){this.a=a}
+function hB(a){this.a=a}
+function jB(a){this.a=a}
+function zB(a){this.a=a}
+function TB(a){this.a=a}
+function $C(a){this.a=a}
+function aD(a){this.a=a}
+function dD(a){this.a=a}
+function UD(a){this.a=a}
+function qF(a){this.a=a}
+function dF(a){this.c=a}
+function SE(a){this.b=a}
+function uG(a){this.a=a}
+function ck(a){throw a}
+function Hi(a){return a.e}
+function Vi(){Uo();Yo()}
+function Uo(){Uo=Qi;To=[]}
+function R(){this.a=xb()}
+function jj(){this.a=++ij}
+function wB(a){Yz(a.a,a.b)}
+function Os(a,b){IB(a.a,b)}
+function Ow(a,b){Aw(b,a)}
+function Ew(a,b){Xw(b,a)}
+function Kw(a,b){Ww(b,a)}
+function Pz(a,b){Ru(b,a)}
+function tu(a,b){b.jb(a)}
+function MC(b,a){b.log(a)}
+function NC(b,a){b.warn(a)}
+function GC(b,a){b.data=a}
+function KC(b,a){b.debug(a)}
+function LC(b,a){b.error(a)}
+function kp(a,b){a.push(b)}
+function kr(a){a.i||lr(a.a)}
+function kb(){ab.call(this)}
+function jD(){ab.call(this)}
+function hD(){kb.call(this)}
+function _D(){kb.call(this)}
+function kF(){kb.call(this)}
+function $r(a){Zr(a)&&as(a)}
+function hc(a){gc();fc.I(a)}
+function xm(a){return cm(a)}
+function Yb(a){return a.G()}
+function Q(a){return xb()-a.a}
+function Qk(a){Hk();this.a=a}
+function ek(a){S=a;!!a&&Jb()}
+function az(){az=Qi;_y=mz()}
+function pb(){pb=Qi;ob=new I}
+function Qb(){Qb=Qi;Pb=new lo}
+function nt(){nt=Qi;mt=new ut}
+function Gz(){Gz=Qi;Fz=new fA}
+function tj(a,b){a.i=b;$j=!b}
+function Z(a,b){a.e=b;W(a,b)}
+function Zz(a,b,c){a.Rb(c,b)}
+function Pl(a,b,c){Kl(a,c,b)}
+function vm(a,b,c){a.set(b,c)}
+function Ql(a,b){a.a.add(b.d)}
+function px(a,b){b.forEach(a)}
+function AC(b,a){b.display=a}
+function YC(b,a){return a in b}
+function oD(a){return DG(a),a}
+function PD(a){return DG(a),a}
+function fD(a){lb.call(this,a)}
+function SD(a){lb.call(this,a)}
+function TD(a){lb.call(this,a)}
+function bE(a){lb.call(this,a)}
+function aE(a){nb.call(this,a)}
+function aA(a){_z.call(this,a)}
+function CA(a){_z.call(this,a)}
+function RA(a){_z.call(this,a)}
+function gD(a){fD.call(this,a)}
+function EE(a){fD.call(this,a)}
+function dE(a){SD.call(this,a)}
+function KE(a){lb.call(this,a)}
+function BE(){dD.call(this,'')}
+function CE(){dD.call(this,'')}
+function Ki(){Ii==null&&(Ii=[])}
+function Db(){Db=Qi;!!(gc(),fc)}
+function GE(){GE=Qi;FE=new cD}
+function Sy(a){Qw(a.b,a.a,a.c)}
+function tD(a){sD(a);return a.i}
+function Eq(a,b){return a.a>b.a}
+function Wc(a,b){return $c(a,b)}
+function xc(a,b){return BD(a,b)}
+function HE(a){return Ic(a,5).e}
+function XC(a){return Object(a)}
+function pn(a,b){a.d?rn(b):Rk()}
+function gu(a,b){a.c.forEach(b)}
+function dB(a,b){a.e||a.c.add(b)}
+function XF(a,b){Ic(a,103).ac(b)}
+function fG(a,b){bG(a);a.a.ic(b)}
+function GF(a,b,c){b.hb(a.a[c])}
+function lG(a,b,c){b.hb(HE(c))}
+function lx(a,b,c){fB(bx(a,c,b))}
+function vF(a,b){while(a.jc(b));}
+function qm(a,b){rB(new Sm(b,a))}
+function Hw(a,b){rB(new Xx(b,a))}
+function Iw(a,b){rB(new _x(b,a))}
+function Mw(a,b){return mw(b.a,a)}
+function Hz(a,b){return Vz(a.a,b)}
+function tA(a,b){return Vz(a.a,b)}
+function HA(a,b){return Vz(a.a,b)}
+function ox(a,b){return wl(a.b,b)}
+function Wi(b,a){return b.exec(a)}
+function Ub(a){return !!a.b||!!a.g}
+function Kz(a){$z(a.a);return a.g}
+function Oz(a){$z(a.a);return a.c}
+function _v(b,a){Uv();delete b[a]}
+function Hl(a,b){return Nc(a.b[b])}
+function Ok(a,b){++Gk;b.db(a,Dk)}
+function Sj(a,b){this.b=a;this.a=b}
+function Gm(a,b){this.b=a;this.a=b}
+function Km(a,b){this.a=a;this.b=b}
+function Mm(a,b){this.a=a;this.b=b}
+function Om(a,b){this.a=a;this.b=b}
+function Qm(a,b){this.a=a;this.b=b}
+function Sm(a,b){this.a=a;this.b=b}
+function il(a,b){this.a=a;this.b=b}
+function Dl(a,b){this.a=a;this.b=b}
+function Fl(a,b){this.a=a;this.b=b}
+function Ul(a,b){this.a=a;this.b=b}
+function Wl(a,b){this.a=a;this.b=b}
+function Jn(a,b){this.a=a;this.b=b}
+function On(a,b){this.b=a;this.a=b}
+function Qn(a,b){this.b=a;this.a=b}
+function ir(a,b){this.b=a;this.a=b}
+function wo(a,b){this.b=a;this.c=b}
+function Or(a,b){this.a=a;this.b=b}
+function Qr(a,b){this.a=a;this.b=b}
+function Zt(a,b){this.a=a;this.b=b}
+function _t(a,b){this.a=a;this.b=b}
+function uu(a,b){this.a=a;this.b=b}
+function yu(a,b){this.a=a;this.b=b}
+function Cu(a,b){this.a=a;this.b=b}
+function Cv(a,b){this.a=a;this.b=b}
+function Lt(a,b){this.b=a;this.a=b}
+function Jx(a,b){this.b=a;this.a=b}
+function Lx(a,b){this.b=a;this.a=b}
+function Rx(a,b){this.b=a;this.a=b}
+function Xx(a,b){this.b=a;this.a=b}
+function _x(a,b){this.b=a;this.a=b}
+function jy(a,b){this.a=a;this.b=b}
+function ly(a,b){this.a=a;this.b=b}
+function Dy(a,b){this.a=a;this.b=b}
+function Vy(a,b){this.a=a;this.b=b}
+function hz(a,b){this.a=a;this.b=b}
+function jz(a,b){this.b=a;this.a=b}
+function Go(a,b){wo.call(this,a,b)}
+function Sp(a,b){wo.call(this,a,b)}
+function LD(){lb.call(this,null)}
+function Ob(){yb!=0&&(yb=0);Cb=-1}
+function Pt(){this.a=new $wnd.Map}
+function MB(){this.c=new $wnd.Map}
+function xB(a,b){this.a=a;this.b=b}
+function AB(a,b){this.a=a;this.b=b}
+function lA(a,b){this.a=a;this.b=b}
+function $A(a,b){this.a=a;this.b=b}
+function WF(a,b){this.a=a;this.b=b}
+function oG(a,b){this.a=a;this.b=b}
+function vG(a,b){this.b=a;this.a=b}
+function sA(a,b){this.d=a;this.e=b}
+function jC(a,b){wo.call(this,a,b)}
+function rC(a,b){wo.call(this,a,b)}
+function UF(a,b){wo.call(this,a,b)}
+function mq(a,b){eq(a,(Dq(),Bq),b)}
+function Lo(a,b){return Jo(b,Ko(a))}
+function Yc(a){return typeof a===UG}
+function lz(a){a.length=0;return a}
+function bd(a){GG(a==null);return a}
+function Nb(a){$wnd.clearTimeout(a)}
+function aj(a){$wnd.clearTimeout(a)}
+function PC(b,a){b.clearTimeout(a)}
+function OC(b,a){b.clearInterval(a)}
+function cz(a,b){gB(b);_y.delete(a)}
+function sE(a,b){return a.substr(b)}
+function QD(a){return ad((DG(a),a))}
+function dt(a,b,c,d){ct(a,b.d,c,d)}
+function Gw(a,b,c){Uw(a,b);vw(c.e)}
+function jG(a,b,c){XF(b,c);return b}
+function yE(a,b){a.a+=''+b;return a}
+function zE(a,b){a.a+=''+b;return a}
+function AE(a,b){a.a+=''+b;return a}
+function xG(a,b,c){a.splice(b,0,c)}
+function tq(a,b){eq(a,(Dq(),Cq),b.a)}
+function Ol(a,b){return a.a.has(b.d)}
+function H(a,b){return _c(a)===_c(b)}
+function lE(a,b){return a.indexOf(b)}
+function VC(a){return a&&a.valueOf()}
+function WC(a){return a&&a.valueOf()}
+function mF(a){return a!=null?O(a):0}
+function _c(a){return a==null?null:a}
+function oF(){oF=Qi;nF=new qF(null)}
+function rv(){rv=Qi;qv=new $wnd.Map}
+function Uv(){Uv=Qi;Tv=new $wnd.Map}
+function nD(){nD=Qi;lD=false;mD=true}
+function _i(a){$wnd.clearInterval(a)}
+function _j(a){$j&&KC($wnd.console,a)}
+function bk(a){$j&&LC($wnd.console,a)}
+function fk(a){$j&&MC($wnd.console,a)}
+function gk(a){$j&&NC($wnd.console,a)}
+function Sn(a){$j&&LC($wnd.console,a)}
+function Sq(a){this.a=a;$i.call(this)}
+function Hr(a){this.a=a;$i.call(this)}
+function rs(a){this.a=a;$i.call(this)}
+function Rs(a){this.a=new MB;this.c=a}
+function mz(){return new $wnd.WeakMap}
+function Yz(a,b){return a.a.delete(b)}
+function lu(a,b){return a.h.delete(b)}
+function nu(a,b){return a.b.delete(b)}
+function mx(a,b,c){return bx(a,c.a,b)}
+function tG(a,b,c){return jG(a.a,b,c)}
+function kG(a,b,c){qG(a,tG(b,a.a,c))}
+function U(a){a.h=zc(_h,XG,28,0,0,1)}
+function iq(a){!!a.b&&rq(a,(Dq(),Aq))}
+function nq(a){!!a.b&&rq(a,(Dq(),Bq))}
+function wq(a){!!a.b&&rq(a,(Dq(),Cq))}
+function Lk(a){ko((Qb(),Pb),new ol(a))}
+function ap(a){ko((Qb(),Pb),new bp(a))}
+function pp(a){ko((Qb(),Pb),new Fp(a))}
+function vr(a){ko((Qb(),Pb),new Ur(a))}
+function sx(a){ko((Qb(),Pb),new Qy(a))}
+function DE(a){dD.call(this,(DG(a),a))}
+function ab(){U(this);V(this);this.D()}
+function ZE(){this.a=zc(Yh,XG,1,0,5,1)}
+function xE(a){return a==null?$G:Ti(a)}
+function pF(a,b){return a.a!=null?a.a:b}
+function nx(a,b){return im(a.b.root,b)}
+function CC(a,b,c,d){return uC(a,b,c,d)}
+function Sc(a,b){return a!=null&&Hc(a,b)}
+function JG(a){return a.$H||(a.$H=++IG)}
+function nr(a){return SH in a?a[SH]:-1}
+function Ym(a){return ''+Zm(Wm.mb()-a,3)}
+function $z(a){var b;b=nB;!!b&&aB(b,a.b)}
+function Lw(a,b){var c;c=mw(b,a);fB(c)}
+function ms(a,b){b.a.b==(Fo(),Eo)&&os(a)}
+function vA(a,b){$z(a.a);a.c.forEach(b)}
+function IA(a,b){$z(a.a);a.b.forEach(b)}
+function eB(a){if(a.d||a.e){return}cB(a)}
+function os(a){if(a.a){Xi(a.a);a.a=null}}
+function AG(a){if(!a){throw Hi(new hD)}}
+function GG(a){if(!a){throw Hi(new LD)}}
+function BG(a){if(!a){throw Hi(new kF)}}
+function NG(){NG=Qi;KG=new I;MG=new I}
+function Uc(a){return typeof a==='number'}
+function Xc(a){return typeof a==='string'}
+function tb(a){return a==null?null:a.name}
+function DC(a,b){return a.appendChild(b)}
+function EC(b,a){return b.appendChild(a)}
+function nE(a,b){return a.lastIndexOf(b)}
+function mE(a,b,c){return a.indexOf(b,c)}
+function tE(a,b,c){return a.substr(b,c-b)}
+function Sk(a,b,c){Hk();return a.set(c,b)}
+function kc(a){gc();return parseInt(a)||-1}
+function Tc(a){return typeof a==='boolean'}
+function vo(a){return a.b!=null?a.b:''+a.c}
+function sD(a){if(a.i!=null){return}FD(a)}
+function Jc(a){GG(a==null||Tc(a));return a}
+function Kc(a){GG(a==null||Uc(a));return a}
+function Lc(a){GG(a==null||Yc(a));return a}
+function Pc(a){GG(a==null||Xc(a));return a}
+function Tk(a){Hk();Gk==0?a.H():Fk.push(a)}
+function rB(a){oB==null&&(oB=[]);oB.push(a)}
+function sB(a){qB==null&&(qB=[]);qB.push(a)}
+function nA(a,b){Bz.call(this,a);this.a=b}
+function iG(a,b){dG.call(this,a);this.a=b}
+function _z(a){this.a=new $wnd.Set;this.b=a}
+function Jl(){this.a=new $wnd.Map;this.b=[]}
+function Fy(a,b){qx(a.a,a.c,a.d,a.b,Pc(b))}
+function Un(a,b){Vn(a,b,Ic(lk(a.a,td),8).m)}
+function Nq(a,b){b.a.b==(Fo(),Eo)&&Qq(a,-1)}
+function Xb(a,b){a.b=Zb(a.b,[b,false]);Vb(a)}
+function HC(b,a){return b.createElement(a)}
+function ej(a,b){return $wnd.setTimeout(a,b)}
+function oE(a,b,c){return a.lastIndexOf(b,c)}
+function dj(a,b){return $wnd.setInterval(a,b)}
+function pD(a,b){return DG(a),_c(a)===_c(b)}
+function jE(a,b){return DG(a),_c(a)===_c(b)}
+function $c(a,b){return a&&b&&a instanceof b}
+function Eb(a,b,c){return a.apply(b,c);var d}
+function BC(d,a,b,c){d.setProperty(a,b,c)}
+function As(a,b,c){a.set(c,($z(b.a),Pc(b.g)))}
+function $q(a,b,c){a.hb(YD(Lz(Ic(c.e,13),b)))}
+function Fq(a,b,c){wo.call(this,a,b);this.a=c}
+function Nx(a,b,c){this.c=a;this.b=b;this.a=c}
+function Px(a,b,c){this.b=a;this.c=b;this.a=c}
+function uv(a,b,c){this.b=a;this.c=b;this.g=c}
+function Rv(a,b,c){this.b=a;this.a=b;this.c=c}
+function Tx(a,b,c){this.a=a;this.b=b;this.c=c}
+function dy(a,b,c){this.a=a;this.b=b;this.c=c}
+function fy(a,b,c){this.a=a;this.b=b;this.c=c}
+function hy(a,b,c){this.a=a;this.b=b;this.c=c}
+function ty(a,b,c){this.c=a;this.b=b;this.a=c}
+function zy(a,b,c){this.b=a;this.a=b;this.c=c}
+function Ty(a,b,c){this.b=a;this.a=b;this.c=c}
+function Hp(a,b,c){this.a=a;this.c=b;this.b=c}
+function qo(){this.b=(Fo(),Co);this.a=new MB}
+function Hk(){Hk=Qi;Fk=[];Dk=new Wk;Ek=new _k}
+function $D(){$D=Qi;ZD=zc(Th,XG,25,256,0,1)}
+function wv(a){a.c?OC($wnd,a.d):PC($wnd,a.d)}
+function eu(a,b){a.b.add(b);return new Cu(a,b)}
+function fu(a,b){a.h.add(b);return new yu(a,b)}
+function FC(c,a,b){return c.insertBefore(a,b)}
+function zC(b,a){return b.getPropertyValue(a)}
+function sb(a){return a==null?null:a.message}
+function bj(a,b){return RG(function(){a.L(b)})}
+function Mv(a,b){return Nv(new Pv(a),b,19,true)}
+function VE(a,b){a.a[a.a.length]=b;return true}
+function WE(a,b){CG(b,a.a.length);return a.a[b]}
+function Ic(a,b){GG(a==null||Hc(a,b));return a}
+function Oc(a,b){GG(a==null||$c(a,b));return a}
+function SC(a){if(a==null){return 0}return +a}
+function zD(a,b){var c;c=wD(a,b);c.e=2;return c}
+function Rz(a,b){a.d=true;Iz(a,b);sB(new hA(a))}
+function gB(a){a.e=true;cB(a);a.c.clear();bB(a)}
+function pk(a,b,c){ok(a,b,c.cb());a.b.set(b,c)}
+function Tl(a,b,c){return a.set(c,($z(b.a),b.g))}
+function tF(a){oF();return !a?nF:new qF(DG(a))}
+function Xo(a){return $wnd.Vaadin.Flow.getApp(a)}
+function fs(a,b){$wnd.navigator.sendBeacon(a,b)}
+function is(a,b){var c;c=ad(PD(Kc(b.a)));ns(a,c)}
+function HB(a,b,c,d){var e;e=JB(a,b,c);e.push(d)}
+function FB(a,b){a.a==null&&(a.a=[]);a.a.push(b)}
+function yq(a,b){this.a=a;this.b=b;$i.call(this)}
+function Ct(a,b){this.a=a;this.b=b;$i.call(this)}
+function lb(a){U(this);this.g=a;V(this);this.D()}
+function rt(a){nt();this.c=[];this.a=mt;this.d=a}
+function fj(a){a.onreadystatechange=function(){}}
+function Pk(a){++Gk;pn(Ic(lk(a.a,se),56),new gl)}
+function mk(a,b,c){a.a.delete(c);a.a.set(c,b.cb())}
+function xC(a,b,c,d){a.removeEventListener(b,c,d)}
+function Gu(a,b){var c;c=b;return Ic(a.a.get(c),6)}
+function iF(a){return new iG(null,hF(a,a.length))}
+function Vc(a){return a!=null&&Zc(a)&&!(a.mc===Ui)}
+function Bc(a){return Array.isArray(a)&&a.mc===Ui}
+function Rc(a){return !Array.isArray(a)&&a.mc===Ui}
+function Zc(a){return typeof a===SG||typeof a===UG}
+function yC(b,a){return b.getPropertyPriority(a)}
+function hF(a,b){return wF(b,a.length),new HF(a,b)}
+function sm(a,b,c){return a.push(Hz(c,new Qm(c,b)))}
+function xD(a,b,c){var d;d=wD(a,b);JD(c,d);return d}
+function wD(a,b){var c;c=new uD;c.f=a;c.d=b;return c}
+function Zb(a,b){!a&&(a=[]);a[a.length]=b;return a}
+function DG(a){if(a==null){throw Hi(new _D)}return a}
+function Mc(a){GG(a==null||Array.isArray(a));return a}
+function vw(a){var b;b=a.a;ou(a,null);ou(a,b);ov(a)}
+function ak(a){$wnd.setTimeout(function(){a.M()},0)}
+function Lb(a){$wnd.setTimeout(function(){throw a},0)}
+function Jb(){Db();if(zb){return}zb=true;Kb(false)}
+function bG(a){if(!a.b){cG(a);a.c=true}else{bG(a.b)}}
+function BF(a,b){DG(b);while(a.c<a.d){GF(a,b,a.c++)}}
+function gG(a,b){cG(a);return new iG(a,new mG(b,a.a))}
+function Zq(a,b,c,d){var e;e=JA(a,b);Hz(e,new ir(c,d))}
+function pA(a,b,c){Bz.call(this,a);this.b=b;this.a=c}
+function Sl(a){this.a=new $wnd.Set;this.b=[];this.c=a}
+function tw(a){var b;b=new $wnd.Map;a.push(b);return b}
+function aB(a,b){var c;if(!a.e){c=b.Qb(a);a.b.push(c)}}
+function ur(a,b){Qt(Ic(lk(a.i,Sf),84),b['execute'])}
+function oo(a,b){return GB(a.a,(!ro&&(ro=new jj),ro),b)}
+function Ms(a,b){return GB(a.a,(!Xs&&(Xs=new jj),Xs),b)}
+function lF(a,b){return _c(a)===_c(b)||a!=null&&K(a,b)}
+function PB(a,b){return RB(new $wnd.XMLHttpRequest,a,b)}
+function Zm(a,b){return +(Math.round(a+'e+'+b)+'e-'+b)}
+function ux(a){return pD((nD(),lD),Kz(JA(ju(a,0),eI)))}
+function nk(a){a.b.forEach(Ri(cn.prototype.db,cn,[a]))}
+function AF(a,b){this.d=a;this.c=(b&64)!=0?b|16384:b}
+function Mr(a,b,c,d){this.a=a;this.d=b;this.b=c;this.c=d}
+function dG(a){if(!a){this.b=null;new ZE}else{this.b=a}}
+function Gy(a,b,c,d){this.a=a;this.c=b;this.d=c;this.b=d}
+function Cc(a,b,c){AG(c==null||wc(a,c));return a[b]=c}
+function Nc(a){GG(a==null||Zc(a)&&!(a.mc===Ui));return a}
+function V(a){if(a.j){a.e!==YG&&a.D();a.h=null}return a}
+function ps(a){this.b=a;oo(Ic(lk(a,De),12),new ts(this))}
+function gt(a,b){var c;c=Ic(lk(a.a,Hf),34);ot(c,b);qt(c)}
+function uB(a,b){var c;c=nB;nB=a;try{b.H()}finally{nB=c}}
+function dq(a,b){Wn(Ic(lk(a.c,ye),22),'',b,'',null,null)}
+function Vn(a,b,c){Wn(a,c.caption,c.message,b,c.url,null)}
+function Ou(a,b,c,d){Ju(a,b)&&dt(Ic(lk(a.c,Df),32),b,c,d)}
+function IC(a,b,c,d){this.b=a;this.c=b;this.a=c;this.d=d}
+function OB(a,b,c){this.a=a;this.d=b;this.c=null;this.b=c}
+function HF(a,b){this.c=0;this.d=b;this.b=17488;this.a=a}
+function $(a,b){var c;c=tD(a.kc);return b==null?c:c+': '+b}
+function iE(a,b){FG(b,a.length);return a.charCodeAt(b)}
+function ns(a,b){os(a);if(b>=0){a.a=new rs(a);Zi(a.a,b)}}
+function QG(){if(LG==256){KG=MG;MG=new I;LG=0}++LG}
+function gc(){gc=Qi;var a,b;b=!mc();a=new uc;fc=b?new nc:a}
+function jm(a){var b;b=a.f;while(!!b&&!b.a){b=b.f}return b}
+function mu(a,b){_c(b.W(a))===_c((nD(),mD))&&a.b.delete(b)}
+function Gv(a,b){qz(b).forEach(Ri(Kv.prototype.hb,Kv,[a]))}
+function wC(a,b){Rc(a)?a.V(b):(a.handleEvent(b),undefined)}
+function wm(a,b,c,d,e){a.splice.apply(a,[b,c,d].concat(e))}
+function wn(a,b,c){this.b=a;this.d=b;this.c=c;this.a=new R}
+function RC(c,a,b){return c.setTimeout(RG(a.Vb).bind(a),b)}
+function Ho(){Fo();return Dc(xc(Ce,1),XG,59,0,[Co,Do,Eo])}
+function Gq(){Dq();return Dc(xc(Qe,1),XG,62,0,[Aq,Bq,Cq])}
+function sC(){qC();return Dc(xc(wh,1),XG,42,0,[oC,nC,pC])}
+function VF(){TF();return Dc(xc(ti,1),XG,47,0,[QF,RF,SF])}
+function eG(a,b){var c;return hG(a,new ZE,(c=new uG(b),c))}
+function EG(a,b){if(a<0||a>b){throw Hi(new fD(RI+a+SI+b))}}
+function CG(a,b){if(a<0||a>=b){throw Hi(new fD(RI+a+SI+b))}}
+function FG(a,b){if(a<0||a>=b){throw Hi(new EE(RI+a+SI+b))}}
+function _q(a){Yj('applyDefaultTheme',(nD(),a?true:false))}
+function wz(a){if(!uz){return a}return $wnd.Polymer.dom(a)}
+function DD(a){if(a._b()){return null}var b=a.h;return Ni[b]}
+function pt(a){a.a=mt;if(!a.b){return}as(Ic(lk(a.d,nf),18))}
+function QC(c,a,b){return c.setInterval(RG(a.Vb).bind(a),b)}
+function Pw(a,b,c){return a.push(Jz(JA(ju(b.e,1),c),b.b[c]))}
+function Tp(){Rp();return Dc(xc(Je,1),XG,51,0,[Op,Np,Qp,Pp])}
+function kC(){iC();return Dc(xc(vh,1),XG,43,0,[hC,fC,gC,eC])}
+function tz(a,b,c,d){return a.splice.apply(a,[b,c].concat(d))}
+function yn(a,b,c){this.a=a;this.c=b;this.b=c;$i.call(this)}
+function An(a,b,c){this.a=a;this.c=b;this.b=c;$i.call(this)}
+function iD(a,b){U(this);this.f=b;this.g=a;V(this);this.D()}
+function vB(a){this.a=a;this.b=[];this.c=new $wnd.Set;cB(this)}
+function up(a){$wnd.vaadinPush.atmosphere.unsubscribeUrl(a)}
+function Po(a){a?($wnd.location=a):$wnd.location.reload(false)}
+function Qc(a){return a.kc||Array.isArray(a)&&xc(ed,1)||ed}
+function Kp(a,b,c){return tE(a.b,b,$wnd.Math.min(a.b.length,c))}
+function QB(a,b,c,d){return SB(new $wnd.XMLHttpRequest,a,b,c,d)}
+function Dv(a,b){qz(b).forEach(Ri(Iv.prototype.hb,Iv,[a.a]))}
+function Iz(a,b){if(!a.b&&a.c&&lF(b,a.g)){return}Sz(a,b,true)}
+function cF(a){BG(a.a<a.c.a.length);a.b=a.a++;return a.c.a[a.b]}
+function lr(a){a&&a.afterServerUpdate&&a.afterServerUpdate()}
+function _l(a,b){a.updateComplete.then(RG(function(){b.M()}))}
+function rn(a){$wnd.HTMLImports.whenReady(RG(function(){a.M()}))}
+function Qz(a){if(a.c){a.d=true;Sz(a,null,false);sB(new jA(a))}}
+function XB(a){if(a.length>2){_B(a[0],'OS major');_B(a[1],EI)}}
+function Cl(a,b){var c;if(b.length!=0){c=new yz(b);a.e.set(Og,c)}}
+function Qt(a,b){var c,d;for(c=0;c<b.length;c++){d=b[c];St(a,d)}}
+function BD(a,b){var c=a.a=a.a||[];return c[b]||(c[b]=a.Wb(b))}
+function Sz(a,b,c){var d;d=a.g;a.c=c;a.g=b;Xz(a.a,new pA(a,d,b))}
+function lm(a,b,c){var d;d=[];c!=null&&d.push(c);return dm(a,b,d)}
+function yD(a,b,c,d){var e;e=wD(a,b);JD(c,e);e.e=d?8:0;return e}
+function Si(a){function b(){}
+;b.prototype=a||{};return new b}
+function cb(b){if(!('stack' in b)){try{throw b}catch(a){}}return b}
+function rb(a){pb();nb.call(this,a);this.a='';this.b=a;this.a=''}
+function yA(a,b){sA.call(this,a,b);this.c=[];this.a=new CA(this)}
+function kD(a){iD.call(this,a==null?$G:Ti(a),Sc(a,5)?Ic(a,5):null)}
+function ko(a,b){++a.a;a.b=Zb(a.b,[b,false]);Vb(a);Xb(a,new mo(a))}
+function _r(a,b){!!a.b&&mp(a.b)?rp(a.b,b):zt(Ic(lk(a.c,Nf),71),b)}
+function Il(a,b){var c;c=Nc(a.b[b]);if(c){a.b[b]=null;a.a.delete(c)}}
+function aw(a){Uv();var b;b=a[lI];if(!b){b={};Zv(b);a[lI]=b}return b}
+function _o(a){var b=RG(ap);$wnd.Vaadin.Flow.registerWidgetset(a,b)}
+function wp(){return $wnd.vaadinPush&&$wnd.vaadinPush.atmosphere}
+function ad(a){return Math.max(Math.min(a,2147483647),-2147483648)|0}
+function bB(a){while(a.b.length!=0){Ic(a.b.splice(0,1)[0],44).Gb()}}
+function fB(a){if(a.d&&!a.e){try{uB(a,new jB(a))}finally{a.d=false}}}
+function Xi(a){if(!a.f){return}++a.d;a.e?_i(a.f.a):aj(a.f.a);a.f=null}
+function LA(a,b,c){$z(b.a);b.c&&(a[c]=rA(($z(b.a),b.g)),undefined)}
+function Kk(a,b,c,d){Ik(a,d,c).forEach(Ri(kl.prototype.db,kl,[b]))}
+function PF(a,b,c,d){DG(a);DG(b);DG(c);DG(d);return new WF(b,new NF)}
+function Iu(a,b){var c;c=Ku(b);if(!c||!b.f){return c}return Iu(a,b.f)}
+function Nl(a,b){if(Ol(a,b.e.e)){a.b.push(b);return true}return false}
+function rA(a){var b;if(Sc(a,6)){b=Ic(a,6);return hu(b)}else{return a}}
+function Oo(a){var b;b=$doc.createElement('a');b.href=a;return b.href}
+function gj(c,a){var b=c;c.onreadystatechange=RG(function(){a.N(b)})}
+function Zn(a,b){var c;c=b.keyCode;if(c==27){b.preventDefault();Po(a)}}
+function qE(a,b,c){var d;c=wE(c);d=new RegExp(b);return a.replace(d,c)}
+function Wz(a,b){if(!b){debugger;throw Hi(new jD)}return Vz(a,a.Sb(b))}
+function pE(a,b){b=wE(b);return a.replace(new RegExp('[^0-9].*','g'),b)}
+function gq(a,b){bk('Heartbeat exception: '+b.C());eq(a,(Dq(),Aq),null)}
+function KF(a,b){!a.a?(a.a=new DE(a.d)):AE(a.a,a.b);yE(a.a,b);return a}
+function Tz(a,b,c){Gz();this.a=new aA(this);this.f=a;this.e=b;this.b=c}
+function mG(a,b){AF.call(this,b.hc(),b.gc()&-6);DG(a);this.a=a;this.b=b}
+function wA(a,b){var c;c=a.c.splice(0,b);Xz(a.a,new Dz(a,0,c,[],false))}
+function rm(a,b,c){var d;d=c.a;a.push(Hz(d,new Mm(d,b)));rB(new Gm(d,b))}
+function QA(a,b,c,d){var e;$z(c.a);if(c.c){e=xm(($z(c.a),c.g));b[d]=e}}
+function qx(a,b,c,d,e){a.forEach(Ri(Bx.prototype.hb,Bx,[]));xx(b,c,d,e)}
+function qz(a){var b;b=[];a.forEach(Ri(rz.prototype.db,rz,[b]));return b}
+function js(a,b){var c,d;c=ju(a,8);d=JA(c,'pollInterval');Hz(d,new ks(b))}
+function Fw(a,b){var c;c=b.f;yx(Ic(lk(b.e.e.g.c,td),8),a,c,($z(b.a),b.g))}
+function mC(){mC=Qi;lC=xo((iC(),Dc(xc(vh,1),XG,43,0,[hC,fC,gC,eC])))}
+function Wt(a){Ic(lk(a.a,De),12).b==(Fo(),Eo)||po(Ic(lk(a.a,De),12),Eo)}
+function xb(){if(Date.now){return Date.now()}return (new Date).getTime()}
+function KA(a,b){if(!a.b.has(b)){return false}return Oz(Ic(a.b.get(b),13))}
+function Mt(a,b){if(b==null){debugger;throw Hi(new jD)}return a.a.get(b)}
+function Nt(a,b){if(b==null){debugger;throw Hi(new jD)}return a.a.has(b)}
+function CF(a,b){DG(b);if(a.c<a.d){GF(a,b,a.c++);return true}return false}
+function Gb(b){Db();return function(){return Hb(b,this,arguments);var a}}
+function tm(a){return $wnd.customElements&&a.localName.indexOf('-')>-1}
+function nm(a,b){$wnd.customElements.whenDefined(a).then(function(){b.M()})}
+function MA(a,b){sA.call(this,a,b);this.b=new $wnd.Map;this.a=new RA(this)}
+function nb(a){U(this);V(this);this.e=a;W(this,a);this.g=a==null?$G:Ti(a)}
+function mb(a){U(this);this.g=!a?null:$(a,a.C());this.f=a;V(this);this.D()}
+function Ar(a){this.j=new $wnd.Set;this.g=[];this.c=new Hr(this);this.i=a}
+function LF(){this.b=', ';this.d='[';this.e=']';this.c=this.d+(''+this.e)}
+function yz(a){this.a=new $wnd.Set;a.forEach(Ri(zz.prototype.hb,zz,[this.a]))}
+function Sw(a){var b;b=wz(a);while(b.firstChild){b.removeChild(b.firstChild)}}
+function hG(a,b,c){var d;bG(a);d=new rG;d.a=b;a.a.ic(new vG(d,c));return d.a}
+function zc(a,b,c,d,e,f){var g;g=Ac(e,d);e!=10&&Dc(xc(a,f),b,c,e,g);return g}
+function xA(a,b,c,d){var e,f;e=d;f=tz(a.c,b,c,e);Xz(a.a,new Dz(a,b,f,d,false))}
+function kq(a){Qq(Ic(lk(a.c,Ye),55),Ic(lk(a.c,td),8).e);eq(a,(Dq(),Aq),null)}
+function M(a){return Xc(a)?ci:Uc(a)?Mh:Tc(a)?Jh:Rc(a)?a.kc:Bc(a)?a.kc:Qc(a)}
+function yG(a,b){return yc(b)!=10&&Dc(M(b),b.lc,b.__elementTypeId$,yc(b),a),a}
+function yc(a){return a.__elementTypeCategory$==null?10:a.__elementTypeCategory$}
+function lp(a){switch(a.f.c){case 0:case 1:return true;default:return false;}}
+function zs(a){var b;if(a==null){return false}b=Pc(a);return !jE('DISABLED',b)}
+function cv(a,b){var c,d,e;e=ad(WC(a[mI]));d=ju(b,e);c=a['key'];return JA(d,c)}
+function Bo(a,b){var c;DG(b);c=a[':'+b];zG(!!c,Dc(xc(Yh,1),XG,1,5,[b]));return c}
+function Io(a,b,c){jE(c.substr(0,a.length),a)&&(c=b+(''+sE(c,a.length)));return c}
+function XE(a,b,c){for(;c<a.a.length;++c){if(lF(b,a.a[c])){return c}}return -1}
+function tr(a){var b;b=a['meta'];if(!b||!('async' in b)){return true}return false}
+function tx(a){var b;b=Ic(a.e.get(eg),76);!!b&&(!!b.a&&Sy(b.a),b.b.e.delete(eg))}
+function ds(a,b){b&&!a.b?(a.b=new tp(a.c)):!b&&!!a.b&&lp(a.b)&&ip(a.b,new gs(a))}
+function Nw(a,b,c){var d,e;e=($z(a.a),a.c);d=b.d.has(c);e!=d&&(e?fw(c,b):Tw(c,b))}
+function ku(a,b,c,d){var e;e=c.Ub();!!e&&(b[Fu(a.g,ad((DG(d),d)))]=e,undefined)}
+function Ro(a,b,c){c==null?wz(a).removeAttribute(b):wz(a).setAttribute(b,c)}
+function Uu(a){this.a=new $wnd.Map;this.e=new qu(1,this);this.c=a;Nu(this,this.e)}
+function nz(a){var b;b=new $wnd.Set;a.forEach(Ri(oz.prototype.hb,oz,[b]));return b}
+function lv(){var a;lv=Qi;kv=(a=[],a.push(new _w),a.push(new dz),a);jv=new pv}
+function qC(){qC=Qi;oC=new rC('INLINE',0);nC=new rC('EAGER',1);pC=new rC('LAZY',2)}
+function Zo(a){Uo();!$wnd.WebComponents||$wnd.WebComponents.ready?Wo(a):Vo(a)}
+function Zj(a){$wnd.Vaadin.connectionState&&($wnd.Vaadin.connectionState.state=a)}
+function zG(a,b){if(!a){throw Hi(new SD(HG('Enum constant undefined: %s',b)))}}
+function JD(a,b){var c;if(!a){return}b.h=a;var d=DD(b);if(!d){Ni[a]=[b];return}d.kc=b}
+function cC(a,b){var c,d;d=a.substr(b);c=d.indexOf(' ');c==-1&&(c=d.length);return c}
+function Vz(a,b){var c,d;a.a.add(b);d=new xB(a,b);c=nB;!!c&&dB(c,new zB(d));return d}
+function xs(a,b){var c,d;d=zs(b.b);c=zs(b.a);!d&&c?rB(new Ds(a)):d&&!c&&rB(new Fs(a))}
+function dk(a){var b;b=S;T(new jk(b));if(Sc(a,31)){ck(Ic(a,31).F())}else{throw Hi(a)}}
+function Rb(a){var b,c;if(a.c){c=null;do{b=a.c;a.c=null;c=$b(b,c)}while(a.c);a.c=c}}
+function Sb(a){var b,c;if(a.d){c=null;do{b=a.d;a.d=null;c=$b(b,c)}while(a.d);a.d=c}}
+function zv(a){if(a.a.a){Fy(a.a.a,pI);a.a.a=null}else !!a.a.f&&Fy(a.a.f,pI);tv(a.a)}
+function np(a,b){if(b.a.b==(Fo(),Eo)){if(a.f==(Rp(),Qp)||a.f==Pp){return}ip(a,new Wp)}}
+function ys(a){this.a=a;Hz(JA(ju(Ic(lk(this.a,Xf),10).e,5),'pushMode'),new Bs(this))}
+function yt(a){return tC(tC(Ic(lk(a.a,td),8).k,'v-r=uidl'),JH+(''+Ic(lk(a.a,td),8).o))}
+function uA(a){var b;a.b=true;b=a.c.splice(0,a.c.length);Xz(a.a,new Dz(a,0,b,[],true))}
+function Ji(){Ki();var a=Ii;for(var b=0;b<arguments.length;b++){a.push(arguments[b])}}
+function Ri(a,b,c){var d=function(){return a.apply(d,arguments)};b.apply(d,c);return d}
+function jc(a){var b=/function(?:\s+([\w$]+))?\s*\(/;var c=b.exec(a);return c&&c[1]||cH}
+function Vo(a){var b=function(){Wo(a)};$wnd.addEventListener('WebComponentsReady',RG(b))}
+function dp(){if(wp()){return $wnd.vaadinPush.atmosphere.version}else{return null}}
+function Vj(){try{document.createEvent('TouchEvent');return true}catch(a){return false}}
+function Yj(a,b){$wnd.Vaadin.connectionIndicator&&($wnd.Vaadin.connectionIndicator[a]=b)}
+function Mi(a,b){typeof window===SG&&typeof window['$gwt']===SG&&(window['$gwt'][a]=b)}
+function zl(a,b){return !!(a[sH]&&a[sH][tH]&&a[sH][tH][b])&&typeof a[sH][tH][b][uH]!=aH}
+function Dx(a,b,c){this.c=new $wnd.Map;this.d=new $wnd.Map;this.e=a;this.b=b;this.a=c}
+function Bw(a,b,c,d){var e,f,g;g=c[fI];e="id='"+g+"'";f=new ly(a,g);uw(a,b,d,f,g,e)}
+function Qw(a,b,c){var d,e,f,g;for(e=a,f=0,g=e.length;f<g;++f){d=e[f];Cw(d,new Vy(b,d),c)}}
+function Jw(a,b){var c,d;c=a.a;if(c.length!=0){for(d=0;d<c.length;d++){gw(b,Ic(c[d],6))}}}
+function cx(a,b){var c;c=a;while(true){c=c.f;if(!c){return false}if(K(b,c.a)){return true}}}
+function hu(a){var b;b=$wnd.Object.create(null);gu(a,Ri(uu.prototype.db,uu,[a,b]));return b}
+function Tb(a){var b;if(a.b){b=a.b;a.b=null;!a.g&&(a.g=[]);$b(b,a.g)}!!a.g&&(a.g=Wb(a.g))}
+function Bv(a){if(a.a.a){Fy(a.a.a,qI);a.b.has(pI)&&(a.a.f=a.a.a);a.a.a=null}else{tv(a.a)}}
+function Yi(a,b){if(b<0){throw Hi(new SD(fH))}!!a.f&&Xi(a);a.e=false;a.f=YD(ej(bj(a,a.d),b))}
+function Zi(a,b){if(b<=0){throw Hi(new SD(gH))}!!a.f&&Xi(a);a.e=true;a.f=YD(dj(bj(a,a.d),b))}
+function wF(a,b){if(0>a||a>b){throw Hi(new gD('fromIndex: 0, toIndex: '+a+', length: '+b))}}
+function eE(a,b,c){if(a==null){debugger;throw Hi(new jD)}this.a=eH;this.d=a;this.b=b;this.c=c}
+function Qu(a,b,c,d,e){if(!Eu(a,b)){debugger;throw Hi(new jD)}ft(Ic(lk(a.c,Df),32),b,c,d,e)}
+function Pu(a,b,c,d,e,f){if(!Eu(a,b)){debugger;throw Hi(new jD)}et(Ic(lk(a.c,Df),32),b,c,d,e,f)}
+function Dw(a,b,c,d){var e,f,g;g=c[fI];e="path='"+wb(g)+"'";f=new jy(a,g);uw(a,b,d,f,null,e)}
+function Lu(a,b){var c;if(b!=a.e){c=b.a;!!c&&(Uv(),!!c[lI])&&$v((Uv(),c[lI]));Tu(a,b);b.f=null}}
+function uC(e,a,b,c){var d=!b?null:vC(b);e.addEventListener(a,d,c);return new IC(e,a,d,c)}
+function nw(a,b,c,d){var e;e=ju(d,a);IA(e,Ri(Jx.prototype.db,Jx,[b,c]));return HA(e,new Lx(b,c))}
+function Tw(a,b){var c;c=Ic(b.d.get(a),44);b.d.delete(a);if(!c){debugger;throw Hi(new jD)}c.Gb()}
+function Wu(a,b){var c;if(Sc(a,27)){c=Ic(a,27);ad((DG(b),b))==2?wA(c,($z(c.a),c.c.length)):uA(c)}}
+function _b(b,c){Qb();function d(){var a=RG(Yb)(b);a&&$wnd.setTimeout(d,c)}
+$wnd.setTimeout(d,c)}
+function CB(b,c,d){return RG(function(){var a=Array.prototype.slice.call(arguments);d.Cb(b,c,a)})}
+function Qq(a,b){$j&&MC($wnd.console,'Setting heartbeat interval to '+b+'sec.');a.a=b;Oq(a)}
+function lq(a,b,c){mp(b)&&Ns(Ic(lk(a.c,zf),15));qq(c)||fq(a,'Invalid JSON from server: '+c,null)}
+function Dq(){Dq=Qi;Aq=new Fq('HEARTBEAT',0,0);Bq=new Fq('PUSH',1,1);Cq=new Fq('XHR',2,2)}
+function Fo(){Fo=Qi;Co=new Go('INITIALIZING',0);Do=new Go('RUNNING',1);Eo=new Go('TERMINATED',2)}
+function mn(a,b){var c,d;c=new Fn(a);d=new $wnd.Function(a);vn(a,new Mn(d),new On(b,c),new Qn(b,c))}
+function qt(a){if(mt!=a.a||a.c.length==0){return}a.b=true;a.a=new st(a);ko((Qb(),Pb),new wt(a))}
+function At(a){this.a=a;uC($wnd,'beforeunload',new It(this),false);Ms(Ic(lk(a,zf),15),new Kt(this))}
+function Vb(a){if(!a.i){a.i=true;!a.f&&(a.f=new bc(a));_b(a.f,1);!a.h&&(a.h=new dc(a));_b(a.h,50)}}
+function Bt(b){if(b.readyState!=1){return false}try{b.send();return true}catch(a){return false}}
+function sr(a,b){if(b==-1){return true}if(b==a.f+1){return true}if(a.f==-1){return true}return false}
+function gp(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return null}else{return b+''}}
+function fp(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return null}else{return YD(b)}}
+function UC(c){return $wnd.JSON.stringify(c,function(a,b){if(a=='$H'){return undefined}return b},0)}
+function vC(b){var c=b.handler;if(!c){c=RG(function(a){wC(b,a)});c.listener=b;b.handler=c}return c}
+function Jo(a,b){var c;if(a==null){return null}c=Io('context://',b,a);c=Io('base://','',c);return c}
+function Gi(a){var b;if(Sc(a,5)){return a}b=a&&a.__java$exception;if(!b){b=new rb(a);hc(b)}return b}
+function Dc(a,b,c,d,e){e.kc=a;e.lc=b;e.mc=Ui;e.__elementTypeId$=c;e.__elementTypeCategory$=d;return e}
+function ct(a,b,c,d){var e;e={};e[mH]=_H;e[aI]=Object(b);e[_H]=c;!!d&&(e['data']=d,undefined);gt(a,e)}
+function op(a,b,c){kE(b,'true')||kE(b,'false')?(a.a[c]=kE(b,'true'),undefined):(a.a[c]=b,undefined)}
+function dC(a,b,c){var d,e;b<0?(e=0):(e=b);c<0||c>a.length?(d=a.length):(d=c);return a.substr(e,d-e)}
+function Ut(a,b){var c;c=!!b.a&&!pD((nD(),lD),Kz(JA(ju(b,0),eI)));if(!c||!b.f){return c}return Ut(a,b.f)}
+function mj(a,b){var c;c='/'.length;if(!jE(b.substr(b.length-c,c),'/')){debugger;throw Hi(new jD)}a.b=b}
+function Nk(a,b){var c;c=new $wnd.Map;b.forEach(Ri(il.prototype.db,il,[a,c]));c.size==0||Tk(new ml(c))}
+function ac(b,c){Qb();var d=$wnd.setInterval(function(){var a=RG(Yb)(b);!a&&$wnd.clearInterval(d)},c)}
+function fw(a,b){var c;if(b.d.has(a)){debugger;throw Hi(new jD)}c=CC(b.b,a,new By(b),false);b.d.set(a,c)}
+function Lz(a,b){var c;$z(a.a);if(a.c){c=($z(a.a),a.g);if(c==null){return b}return QD(Kc(c))}else{return b}}
+function ep(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return false}else{return nD(),b?true:false}}
+function Y(a){var b,c,d,e;for(b=(a.h==null&&(a.h=(gc(),e=fc.J(a),ic(e))),a.h),c=0,d=b.length;c<d;++c);}
+function bs(a){var b,c,d;b=[];c={};c['UNLOAD']=Object(true);d=Yr(a,b,c);fs(yt(Ic(lk(a.c,Nf),71)),UC(d))}
+function Ps(a){var b,c;c=Ic(lk(a.c,De),12).b==(Fo(),Eo);b=a.b||Ic(lk(a.c,Hf),34).b;(c||!b)&&Zj('connected')}
+function pq(a,b){Wn(Ic(lk(a.c,ye),22),'',b+' could not be loaded. Push will not work.','',null,null)}
+function oq(a,b){$j&&($wnd.console.log('Reopening push connection'),undefined);mp(b)&&eq(a,(Dq(),Bq),null)}
+function Hv(a,b){if(b.d){!!b.a&&Fy(b.a,pI)}else{Fy(b.a,qI);yv(b.e,ad(b.g))}if(b.a){VE(a,b.a);b.a=null}}
+function yv(a,b){if(b<=0){throw Hi(new SD(gH))}a.c?OC($wnd,a.d):PC($wnd,a.d);a.c=true;a.d=QC($wnd,new aD(a),b)}
+function xv(a,b){if(b<0){throw Hi(new SD(fH))}a.c?OC($wnd,a.d):PC($wnd,a.d);a.c=false;a.d=RC($wnd,new $C(a),b)}
+function xx(a,b,c,d){if(d==null){!!c&&(delete c['for'],undefined)}else{!c&&(c={});c['for']=d}Ou(a.g,a,b,c)}
+function ib(a){var b;if(a!=null){b=a.__java$exception;if(b){return b}}return Wc(a,TypeError)?new aE(a):new nb(a)}
+function Nz(a){var b;$z(a.a);if(a.c){b=($z(a.a),a.g);if(b==null){return true}return oD(Jc(b))}else{return true}}
+function ov(a){var b,c;c=nv(a);b=a.a;if(!a.a){b=c.Kb(a);if(!b){debugger;throw Hi(new jD)}ou(a,b)}mv(a,b);return b}
+function jF(a){var b,c,d;d=1;for(c=new dF(a);c.a<c.c.a.length;){b=cF(c);d=31*d+(b!=null?O(b):0);d=d|0}return d}
+function gF(a){var b,c,d,e,f;f=1;for(c=a,d=0,e=c.length;d<e;++d){b=c[d];f=31*f+(b!=null?O(b):0);f=f|0}return f}
+function xo(a){var b,c,d,e,f;b={};for(d=a,e=0,f=d.length;e<f;++e){c=d[e];b[':'+(c.b!=null?c.b:''+c.c)]=c}return b}
+function ZC(c){var a=[];for(var b in c){Object.prototype.hasOwnProperty.call(c,b)&&b!='$H'&&a.push(b)}return a}
+function Ku(a){var b,c;if(!a.c.has(0)){return true}c=ju(a,0);b=Jc(Kz(JA(c,'visible')));return !pD((nD(),lD),b)}
+function YD(a){var b,c;if(a>-129&&a<128){b=a+128;c=($D(),ZD)[b];!c&&(c=ZD[b]=new UD(a));return c}return new UD(a)}
+function qw(a){var b,c;b=iu(a.e,24);for(c=0;c<($z(b.a),b.c.length);c++){gw(a,Ic(b.c[c],6))}return tA(b,new Zx(a))}
+function Hu(a,b){var c,d,e;e=qz(a.a);for(c=0;c<e.length;c++){d=Ic(e[c],6);if(b.isSameNode(d.a)){return d}}return null}
+function qq(a){var b;b=Wi(new RegExp('Vaadin-Refresh(:\\s*(.*?))?(\\s|$)'),a);if(b){Po(b[2]);return true}return false}
+function bw(a){var b;b=Lc(Tv.get(a));if(b==null){b=Lc(new $wnd.Function(_H,sI,'return ('+a+')'));Tv.set(a,b)}return b}
+function mw(a,b){var c,d;d=a.f;if(b.c.has(d)){debugger;throw Hi(new jD)}c=new vB(new zy(a,b,d));b.c.set(d,c);return c}
+function Xz(a,b){var c;if(b.Pb()!=a.b){debugger;throw Hi(new jD)}c=nz(a.a);c.forEach(Ri(AB.prototype.hb,AB,[a,b]))}
+function lw(a){if(!a.b){debugger;throw Hi(new kD('Cannot bind client delegate methods to a Node'))}return Mv(a.b,a.e)}
+function cG(a){if(a.b){cG(a.b)}else if(a.c){throw Hi(new TD("Stream already terminated, can't be modified or used"))}}
+function Mz(a){var b;$z(a.a);if(a.c){b=($z(a.a),a.g);if(b==null){return null}return $z(a.a),Pc(a.g)}else{return null}}
+function ws(a){if(KA(ju(Ic(lk(a.a,Xf),10).e,5),ZH)){return Pc(Kz(JA(ju(Ic(lk(a.a,Xf),10).e,5),ZH)))}return null}
+function Ml(a){var b;if(!Ic(lk(a.c,Xf),10).f){b=new $wnd.Map;a.a.forEach(Ri(Ul.prototype.hb,Ul,[a,b]));sB(new Wl(a,b))}}
+function uq(a,b){var c;Ns(Ic(lk(a.c,zf),15));c=b.b.responseText;qq(c)||fq(a,'Invalid JSON response from server: '+c,b)}
+function cq(a){a.b=null;Ic(lk(a.c,zf),15).b&&Ns(Ic(lk(a.c,zf),15));Zj('connection-lost');Qq(Ic(lk(a.c,Ye),55),0)}
+function jq(a,b){var c;if(b.a.b==(Fo(),Eo)){if(a.b){cq(a);c=Ic(lk(a.c,De),12);c.b!=Eo&&po(c,Eo)}!!a.d&&!!a.d.f&&Xi(a.d)}}
+function Ll(a,b){var c;a.a.clear();while(a.b.length>0){c=Ic(a.b.splice(0,1)[0],13);Rl(c,b)||Ru(Ic(lk(a.c,Xf),10),c);tB()}}
+function bm(a,b){var c;am==null&&(am=mz());c=Oc(am.get(a),$wnd.Set);if(c==null){c=new $wnd.Set;am.set(a,c)}c.add(b)}
+function KB(a,b){var c,d;d=Oc(a.c.get(b),$wnd.Map);if(d==null){return []}c=Mc(d.get(null));if(c==null){return []}return c}
+function sn(a,b,c){var d;d=Mc(c.get(a));if(d==null){d=[];d.push(b);c.set(a,d);return true}else{d.push(b);return false}}
+function om(a){while(a.parentNode&&(a=a.parentNode)){if(a.toString()==='[object ShadowRoot]'){return true}}return false}
+function Qs(a){if(a.b){throw Hi(new TD('Trying to start a new request while another is active'))}a.b=true;Os(a,new Us)}
+function uD(){++rD;this.i=null;this.g=null;this.f=null;this.d=null;this.b=null;this.h=null;this.a=null}
+function qu(a,b){this.c=new $wnd.Map;this.h=new $wnd.Set;this.b=new $wnd.Set;this.e=new $wnd.Map;this.d=a;this.g=b}
+function TF(){TF=Qi;QF=new UF('CONCURRENT',0);RF=new UF('IDENTITY_FINISH',1);SF=new UF('UNORDERED',2)}
+function Wo(a){var b,c,d,e;b=(e=new Bj,e.a=a,$o(e,Xo(a)),e);c=new Gj(b);To.push(c);d=Xo(a).getConfig('uidl');Fj(c,d)}
+function Rl(a,b){var c,d;c=Oc(b.get(a.e.e.d),$wnd.Map);if(c!=null&&c.has(a.f)){d=c.get(a.f);Rz(a,d);return true}return false}
+function kw(a,b){var c,d;c=iu(b,11);for(d=0;d<($z(c.a),c.c.length);d++){wz(a).classList.add(Pc(c.c[d]))}return tA(c,new Iy(a))}
+function LB(a){var b,c;if(a.a!=null){try{for(c=0;c<a.a.length;c++){b=Ic(a.a[c],328);HB(b.a,b.d,b.c,b.b)}}finally{a.a=null}}}
+function Rk(){Hk();var a,b;--Gk;if(Gk==0&&Fk.length!=0){try{for(b=0;b<Fk.length;b++){a=Ic(Fk[b],26);a.H()}}finally{lz(Fk)}}}
+function Mb(a,b){Db();var c;c=S;if(c){if(c==Ab){return}c.u(a);return}if(b){Lb(Sc(a,31)?Ic(a,31).F():a)}else{GE();X(a,FE,'')}}
+function Ti(a){var b;if(Array.isArray(a)&&a.mc===Ui){return tD(M(a))+'@'+(b=O(a)>>>0,b.toString(16))}return a.toString()}
+function gm(a){var b;if(am==null){return}b=Oc(am.get(a),$wnd.Set);if(b!=null){am.delete(a);b.forEach(Ri(Cm.prototype.hb,Cm,[]))}}
+function fq(a,b,c){var d,e;c&&(e=c.b);Wn(Ic(lk(a.c,ye),22),'',b,'',null,null);d=Ic(lk(a.c,De),12);d.b!=(Fo(),Eo)&&po(d,Eo)}
+function Lj(a,b,c){var d;if(a==c.d){d=new $wnd.Function('callback','callback();');d.call(null,b);return nD(),true}return nD(),false}
+function Yv(a,b){if(typeof a.get===UG){var c=a.get(b);if(typeof c===SG&&typeof c[xH]!==aH){return {nodeId:c[xH]}}}return null}
+function Ko(a){var b,c;b=Ic(lk(a.a,td),8).b;c='/'.length;if(!jE(b.substr(b.length-c,c),'/')){debugger;throw Hi(new jD)}return b}
+function JA(a,b){var c;c=Ic(a.b.get(b),13);if(!c){c=new Tz(b,a,jE('innerHTML',b)&&a.d==1);a.b.set(b,c);Xz(a.a,new nA(a,c))}return c}
+function $v(c){Uv();var b=c['}p'].promises;b!==undefined&&b.forEach(function(a){a[1](Error('Client is resynchronizing'))})}
+function Xj(){return /iPad|iPhone|iPod/.test(navigator.platform)||navigator.platform==='MacIntel'&&navigator.maxTouchPoints>1}
+function Wj(){this.a=new bC($wnd.navigator.userAgent);this.a.b?'ontouchstart' in window:this.a.f?!!navigator.msMaxTouchPoints:Vj()}
+function qn(a){this.b=new $wnd.Set;this.a=new $wnd.Map;this.d=!!($wnd.HTMLImports&&$wnd.HTMLImports.whenReady);this.c=a;jn(this)}
+function xq(a){this.c=a;oo(Ic(lk(a,De),12),new Hq(this));uC($wnd,'offline',new Jq(this),false);uC($wnd,'online',new Lq(this),false)}
+function iC(){iC=Qi;hC=new jC('STYLESHEET',0);fC=new jC('JAVASCRIPT',1);gC=new jC('JS_MODULE',2);eC=new jC('DYNAMIC_IMPORT',3)}
+function ht(a,b,c,d,e){var f;f={};f[mH]='mSync';f[aI]=XC(b.d);f['feature']=Object(c);f['property']=d;f[uH]=e==null?null:e;gt(a,f)}
+function cB(a){var b;a.d=true;bB(a);a.e||rB(new hB(a));if(a.c.size!=0){b=a.c;a.c=new $wnd.Set;b.forEach(Ri(lB.prototype.hb,lB,[]))}}
+function pw(a){var b;if(!a.b){debugger;throw Hi(new kD('Cannot bind shadow root to a Node'))}b=ju(a.e,20);hw(a);return HA(b,new Xy(a))}
+function sw(a){var b;b=Pc(Kz(JA(ju(a,0),'tag')));if(b==null){debugger;throw Hi(new kD('New child must have a tag'))}return HC($doc,b)}
+function $l(a){return typeof a.update==UG&&a.updateComplete instanceof Promise&&typeof a.shouldUpdate==UG&&typeof a.firstUpdated==UG}
+function RD(a){var b;b=ND(a);if(b>3.4028234663852886E38){return Infinity}else if(b<-3.4028234663852886E38){return -Infinity}return b}
+function qD(a){if(a>=48&&a<48+$wnd.Math.min(10,10)){return a-48}if(a>=97&&a<97){return a-97+10}if(a>=65&&a<65){return a-65+10}return -1}
+function ID(a,b){var c=0;while(!b[c]||b[c]==''){c++}var d=b[c++];for(;c<b.length;c++){if(!b[c]||b[c]==''){continue}d+=a+b[c]}return d}
+function mc(){if(Error.stackTraceLimit>0){$wnd.Error.stackTraceLimit=Error.stackTraceLimit=64;return true}return 'stack' in new Error}
+function Al(a,b){var c,d;d=ju(a,1);if(!a.a){nm(Pc(Kz(JA(ju(a,0),'tag'))),new Dl(a,b));return}for(c=0;c<b.length;c++){Bl(a,d,Pc(b[c]))}}
+function YE(a,b){var c,d;d=a.a.length;b.length<d&&(b=yG(new Array(d),b));for(c=0;c<d;++c){Cc(b,c,a.a[c])}b.length>d&&Cc(b,d,null);return b}
+function iu(a,b){var c,d;d=b;c=Ic(a.c.get(d),33);if(!c){c=new yA(b,a);a.c.set(d,c)}if(!Sc(c,27)){debugger;throw Hi(new jD)}return Ic(c,27)}
+function ju(a,b){var c,d;d=b;c=Ic(a.c.get(d),33);if(!c){c=new MA(b,a);a.c.set(d,c)}if(!Sc(c,41)){debugger;throw Hi(new jD)}return Ic(c,41)}
+function kE(a,b){DG(a);if(b==null){return false}if(jE(a,b)){return true}return a.length==b.length&&jE(a.toLowerCase(),b.toLowerCase())}
+function Rp(){Rp=Qi;Op=new Sp('CONNECT_PENDING',0);Np=new Sp('CONNECTED',1);Qp=new Sp('DISCONNECT_PENDING',2);Pp=new Sp('DISCONNECTED',3)}
+function rq(a,b){if(a.b!=b){return}a.b=null;a.a=0;Zj('connected');$j&&($wnd.console.log('Re-established connection to server'),undefined)}
+function ft(a,b,c,d,e){var f;f={};f[mH]='attachExistingElementById';f[aI]=XC(b.d);f[bI]=Object(c);f[cI]=Object(d);f['attachId']=e;gt(a,f)}
+function Mk(a){$j&&($wnd.console.log('Finished loading eager dependencies, loading lazy.'),undefined);a.forEach(Ri(ql.prototype.db,ql,[]))}
+function Mu(a){vA(iu(a.e,24),Ri(Yu.prototype.hb,Yu,[]));gu(a.e,Ri(av.prototype.db,av,[]));a.a.forEach(Ri($u.prototype.db,$u,[a]));a.d=true}
+function PG(a){NG();var b,c,d;c=':'+a;d=MG[c];if(d!=null){return ad((DG(d),d))}d=KG[c];b=d==null?OG(a):ad((DG(d),d));QG();MG[c]=b;return b}
+function O(a){return Xc(a)?PG(a):Uc(a)?ad((DG(a),a)):Tc(a)?(DG(a),a)?1231:1237:Rc(a)?a.s():Bc(a)?JG(a):!!a&&!!a.hashCode?a.hashCode():JG(a)}
+function ok(a,b,c){if(a.a.has(b)){debugger;throw Hi(new kD((sD(b),'Registry already has a class of type '+b.i+' registered')))}a.a.set(b,c)}
+function mv(a,b){lv();var c;if(a.g.f){debugger;throw Hi(new kD('Binding state node while processing state tree changes'))}c=nv(a);c.Jb(a,b,jv)}
+function Dz(a,b,c,d,e){this.e=a;if(c==null){debugger;throw Hi(new jD)}if(d==null){debugger;throw Hi(new jD)}this.c=b;this.d=c;this.a=d;this.b=e}
+function Pq(a){Xi(a.c);$j&&($wnd.console.debug('Sending heartbeat request...'),undefined);QB(a.d,null,'text/plain; charset=utf-8',new Uq(a))}
+function Vw(a,b){var c,d;d=JA(b,wI);$z(d.a);d.c||Rz(d,a.getAttribute(wI));c=JA(b,xI);om(a)&&($z(c.a),!c.c)&&!!a.style&&Rz(c,a.style.display)}
+function yl(a,b,c,d){var e,f;if(!d){f=Ic(lk(a.g.c,Vd),58);e=Ic(f.a.get(c),25);if(!e){f.b[b]=c;f.a.set(c,YD(b));return YD(b)}return e}return d}
+function gx(a,b){var c,d;while(b!=null){for(c=a.length-1;c>-1;c--){d=Ic(a[c],6);if(b.isSameNode(d.a)){return d.d}}b=wz(b.parentNode)}return -1}
+function Bl(a,b,c){var d;if(zl(a.a,c)){d=Ic(a.e.get(Og),77);if(!d||!d.a.has(c)){return}Jz(JA(b,c),a.a[c]).M()}else{KA(b,c)||Rz(JA(b,c),null)}}
+function Kl(a,b,c){var d,e;e=Gu(Ic(lk(a.c,Xf),10),ad((DG(b),b)));if(e.c.has(1)){d=new $wnd.Map;IA(ju(e,1),Ri(Yl.prototype.db,Yl,[d]));c.set(b,d)}}
+function JB(a,b,c){var d,e;e=Oc(a.c.get(b),$wnd.Map);if(e==null){e=new $wnd.Map;a.c.set(b,e)}d=Mc(e.get(c));if(d==null){d=[];e.set(c,d)}return d}
+function fx(a){var b;dw==null&&(dw=new $wnd.Map);b=Lc(dw.get(a));if(b==null){b=Lc(new $wnd.Function(_H,sI,'return ('+a+')'));dw.set(a,b)}return b}
+function Br(){if($wnd.performance&&$wnd.performance.timing){return (new Date).getTime()-$wnd.performance.timing.responseStart}else{return -1}}
+function Ov(a,b,c,d){var e,f,g,h,i;i=Nc(a.cb());h=d.d;for(g=0;g<h.length;g++){_v(i,Pc(h[g]))}e=d.a;for(f=0;f<e.length;f++){Vv(i,Pc(e[f]),b,c)}}
+function rx(a,b){var c,d,e,f,g;d=wz(a).classList;g=b.d;for(f=0;f<g.length;f++){d.remove(Pc(g[f]))}c=b.a;for(e=0;e<c.length;e++){d.add(Pc(c[e]))}}
+function yw(a,b){var c,d,e,f,g;g=iu(b.e,2);d=0;f=null;for(e=0;e<($z(g.a),g.c.length);e++){if(d==a){return f}c=Ic(g.c[e],6);if(c.a){f=c;++d}}return f}
+function km(a){var b,c,d,e;d=-1;b=iu(a.f,16);for(c=0;c<($z(b.a),b.c.length);c++){e=b.c[c];if(K(a,e)){d=c;break}}if(d<0){return null}return ''+d}
+function VB(a){var b,c;if(a.indexOf('android')==-1){return}b=dC(a,a.indexOf('android ')+8,a.length);b=dC(b,0,b.indexOf(';'));c=rE(b,'\\.');$B(c)}
+function ZB(a){var b,c;if(a.indexOf('os ')==-1||a.indexOf(' like mac')==-1){return}b=dC(a,a.indexOf('os ')+3,a.indexOf(' like mac'));c=rE(b,'_');$B(c)}
+function Hc(a,b){if(Xc(a)){return !!Gc[b]}else if(a.lc){return !!a.lc[b]}else if(Uc(a)){return !!Fc[b]}else if(Tc(a)){return !!Ec[b]}return false}
+function K(a,b){return Xc(a)?jE(a,b):Uc(a)?(DG(a),_c(a)===_c(b)):Tc(a)?pD(a,b):Rc(a)?a.q(b):Bc(a)?H(a,b):!!a&&!!a.equals?a.equals(b):_c(a)===_c(b)}
+function $B(a){var b,c;a.length>=1&&_B(a[0],'OS major');if(a.length>=2){b=lE(a[1],vE(45));if(b>-1){c=a[1].substr(0,b-0);_B(c,EI)}else{_B(a[1],EI)}}}
+function X(a,b,c){var d,e,f,g,h;Y(a);for(e=(a.i==null&&(a.i=zc(ei,XG,5,0,0,1)),a.i),f=0,g=e.length;f<g;++f){d=e[f];X(d,b,'\t'+c)}h=a.f;!!h&&X(h,b,c)}
+function Tu(a,b){if(!Eu(a,b)){debugger;throw Hi(new jD)}if(b==a.e){debugger;throw Hi(new kD("Root node can't be unregistered"))}a.a.delete(b.d);pu(b)}
+function Eu(a,b){if(!b){debugger;throw Hi(new kD(iI))}if(b.g!=a){debugger;throw Hi(new kD(jI))}if(b!=Gu(a,b.d)){debugger;throw Hi(new kD(kI))}return true}
+function lk(a,b){if(!a.a.has(b)){debugger;throw Hi(new kD((sD(b),'Tried to lookup type '+b.i+' but no instance has been registered')))}return a.a.get(b)}
+function bx(a,b,c){var d,e;e=b.f;if(c.has(e)){debugger;throw Hi(new kD("There's already a binding for "+e))}d=new vB(new Rx(a,b));c.set(e,d);return d}
+function ou(a,b){var c;if(!(!a.a||!b)){debugger;throw Hi(new kD('StateNode already has a DOM node'))}a.a=b;c=nz(a.b);c.forEach(Ri(Au.prototype.hb,Au,[a]))}
+function _B(b,c){var d;try{return OD(b)}catch(a){a=Gi(a);if(Sc(a,7)){d=a;GE();c+' version parsing failed for: '+b+' '+d.C()}else throw Hi(a)}return -1}
+function sq(a,b){var c;if(a.a==1){bq(a,b)}else{a.d=new yq(a,b);Yi(a.d,Lz((c=ju(Ic(lk(Ic(lk(a.c,xf),35).a,Xf),10).e,9),JA(c,'reconnectInterval')),5000))}}
+function Cr(){if($wnd.performance&&$wnd.performance.timing&&$wnd.performance.timing.fetchStart){return $wnd.performance.timing.fetchStart}else{return 0}}
+function Ac(a,b){var c=new Array(b);var d;switch(a){case 14:case 15:d=0;break;case 16:d=false;break;default:return c;}for(var e=0;e<b;++e){c[e]=d}return c}
+function lc(a){gc();var b=a.e;if(b&&b.stack){var c=b.stack;var d=b+'\n';c.substring(0,d.length)==d&&(c=c.substring(d.length));return c.split('\n')}return []}
+function Xr(a){a.b=null;zs(Kz(JA(ju(Ic(lk(Ic(lk(a.c,vf),48).a,Xf),10).e,5),'pushMode')))&&!a.b&&(a.b=new tp(a.c));Ic(lk(a.c,Hf),34).b&&qt(Ic(lk(a.c,Hf),34))}
+function GB(a,b,c){var d;if(!b){throw Hi(new bE('Cannot add a handler with a null type'))}a.b>0?FB(a,new OB(a,b,c)):(d=JB(a,b,null),d.push(c));return new NB}
+function fm(a,b){var c,d,e,f,g;f=a.f;d=a.e.e;g=jm(d);if(!g){gk(yH+d.d+zH);return}c=cm(($z(a.a),a.g));if(pm(g.a)){e=lm(g,d,f);e!=null&&vm(g.a,e,c);return}b[f]=c}
+function Oq(a){if(a.a>0){_j('Scheduling heartbeat in '+a.a+' seconds');Yi(a.c,a.a*1000)}else{$j&&($wnd.console.debug('Disabling heartbeat'),undefined);Xi(a.c)}}
+function uw(a,b,c,d,e,f){var g,h;if(!Zw(a.e,b,e,f)){return}g=Nc(d.cb());if($w(g,b,e,f,a)){if(!c){h=Ic(lk(b.g.c,Xd),50);h.a.add(b.d);Ml(h)}ou(b,g);ov(b)}c||tB()}
+function vs(a){var b,c,d,e;b=JA(ju(Ic(lk(a.a,Xf),10).e,5),'parameters');e=($z(b.a),Ic(b.g,6));d=ju(e,6);c=new $wnd.Map;IA(d,Ri(Hs.prototype.db,Hs,[c]));return c}
+function Ru(a,b){var c,d;if(!b){debugger;throw Hi(new jD)}d=b.e;c=d.e;if(Nl(Ic(lk(a.c,Xd),50),b)||!Ju(a,c)){return}ht(Ic(lk(a.c,Df),32),c,d.d,b.f,($z(b.a),b.g))}
+function fn(){var a,b,c,d;b=$doc.head.childNodes;c=b.length;for(d=0;d<c;d++){a=b.item(d);if(a.nodeType==8&&jE('Stylesheet end',a.nodeValue)){return a}}return null}
+function Uw(a,b){var c,d,e;Vw(a,b);e=JA(b,wI);$z(e.a);e.c&&yx(Ic(lk(b.e.g.c,td),8),a,wI,($z(e.a),e.g));c=JA(b,xI);$z(c.a);if(c.c){d=($z(c.a),Ti(c.g));AC(a.style,d)}}
+function Fj(a,b){if(!b){$r(Ic(lk(a.a,nf),18))}else{Qs(Ic(lk(a.a,zf),15));qr(Ic(lk(a.a,lf),21),b)}uC($wnd,'pagehide',new Oj(a),false);uC($wnd,'pageshow',new Qj,false)}
+function po(a,b){if(b.c!=a.b.c+1){throw Hi(new SD('Tried to move from state '+vo(a.b)+' to '+(b.b!=null?b.b:''+b.c)+' which is not allowed'))}a.b=b;IB(a.a,new so(a))}
+function Er(a){var b;if(a==null){return null}if(!jE(a.substr(0,9),'for(;;);[')||(b=']'.length,!jE(a.substr(a.length-b,b),']'))){return null}return tE(a,9,a.length-1)}
+function Li(b,c,d,e){Ki();var f=Ii;$moduleName=c;$moduleBase=d;Fi=e;function g(){for(var a=0;a<f.length;a++){f[a]()}}
+if(b){try{RG(g)()}catch(a){b(c,a)}}else{RG(g)()}}
+function ic(a){var b,c,d,e;b='hc';c='hb';e=$wnd.Math.min(a.length,5);for(d=e-1;d>=0;d--){if(jE(a[d].d,b)||jE(a[d].d,c)){a.length>=d+1&&a.splice(0,d+1);break}}return a}
+function et(a,b,c,d,e,f){var g;g={};g[mH]='attachExistingElement';g[aI]=XC(b.d);g[bI]=Object(c);g[cI]=Object(d);g['attachTagName']=e;g['attachIndex']=Object(f);gt(a,g)}
+function pm(a){var b=typeof $wnd.Polymer===UG&&$wnd.Polymer.Element&&a instanceof $wnd.Polymer.Element;var c=a.constructor.polymerElementVersion!==undefined;return b||c}
+function Nv(a,b,c,d){var e,f,g,h;h=iu(b,c);$z(h.a);if(h.c.length>0){f=Nc(a.cb());for(e=0;e<($z(h.a),h.c.length);e++){g=Pc(h.c[e]);Vv(f,g,b,d)}}return tA(h,new Rv(a,b,d))}
+function ex(a,b){var c,d,e,f,g;c=wz(b).childNodes;for(e=0;e<c.length;e++){d=Nc(c[e]);for(f=0;f<($z(a.a),a.c.length);f++){g=Ic(a.c[f],6);if(K(d,g.a)){return d}}}return null}
+function wE(a){var b;b=0;while(0<=(b=a.indexOf('\\',b))){FG(b+1,a.length);a.charCodeAt(b+1)==36?(a=a.substr(0,b)+'$'+sE(a,++b)):(a=a.substr(0,b)+(''+sE(a,++b)))}return a}
+function Vt(a){var b,c,d;if(!!a.a||!Gu(a.g,a.d)){return false}if(KA(ju(a,0),fI)){d=Kz(JA(ju(a,0),fI));if(Vc(d)){b=Nc(d);c=b[mH];return jE('@id',c)||jE(gI,c)}}return false}
+function hn(a,b){var c,d,e,f;fk('Loaded '+b.a);f=b.a;e=Mc(a.a.get(f));a.b.add(f);a.a.delete(f);if(e!=null&&e.length!=0){for(c=0;c<e.length;c++){d=Ic(e[c],24);!!d&&d.fb(b)}}}
+function Zr(a){switch(a.d){case 0:$j&&($wnd.console.log('Resynchronize from server requested'),undefined);a.d=1;return true;case 1:return true;case 2:default:return false;}}
+function Su(a,b){if(a.f==b){debugger;throw Hi(new kD('Inconsistent state tree updating status, expected '+(b?'no ':'')+' updates in progress.'))}a.f=b;Ml(Ic(lk(a.c,Xd),50))}
+function qb(a){var b;if(a.c==null){b=_c(a.b)===_c(ob)?null:a.b;a.d=b==null?$G:Vc(b)?tb(Nc(b)):Xc(b)?'String':tD(M(b));a.a=a.a+': '+(Vc(b)?sb(Nc(b)):b+'');a.c='('+a.d+') '+a.a}}
+function kn(a,b,c){var d,e;d=new Fn(b);if(a.b.has(b)){!!c&&c.fb(d);return}if(sn(b,c,a.a)){e=$doc.createElement(EH);e.textContent=b;e.type=rH;tn(e,new Gn(a),d);EC($doc.head,e)}}
+function yr(a){var b,c,d;for(b=0;b<a.g.length;b++){c=Ic(a.g[b],60);d=nr(c.a);if(d!=-1&&d<a.f+1){$j&&MC($wnd.console,'Removing old message with id '+d);a.g.splice(b,1)[0];--b}}}
+function Oi(){Ni={};!Array.isArray&&(Array.isArray=function(a){return Object.prototype.toString.call(a)===TG});function b(){return (new Date).getTime()}
+!Date.now&&(Date.now=b)}
+function zr(a,b){a.j.delete(b);if(a.j.size==0){Xi(a.c);if(a.g.length!=0){$j&&($wnd.console.log('No more response handling locks, handling pending requests.'),undefined);rr(a)}}}
+function ev(a,b){var c,d,e,f,g,h;h=new $wnd.Set;e=b.length;for(d=0;d<e;d++){c=b[d];if(jE('attach',c[mH])){g=ad(WC(c[aI]));if(g!=a.e.d){f=new qu(g,a);Nu(a,f);h.add(f)}}}return h}
+function bz(a,b){var c,d,e;if(!a.c.has(7)){debugger;throw Hi(new jD)}if(_y.has(a)){return}_y.set(a,(nD(),true));d=ju(a,7);e=JA(d,'text');c=new vB(new hz(b,e));fu(a,new jz(a,c))}
+function YB(a){var b,c;b=a.indexOf(' crios/');if(b==-1){b=a.indexOf(' chrome/');b==-1?(b=a.indexOf(FI)+16):(b+=8);c=cC(a,b);aC(dC(a,b,b+c))}else{b+=7;c=cC(a,b);aC(dC(a,b,b+c))}}
+function Xn(a){var b=document.getElementsByTagName(a);for(var c=0;c<b.length;++c){var d=b[c];d.$server.disconnected=function(){};d.parentNode.replaceChild(d.cloneNode(false),d)}}
+function ot(a,b){if(Ic(lk(a.d,De),12).b!=(Fo(),Do)){$j&&($wnd.console.warn('Trying to invoke method on not yet started or stopped application'),undefined);return}a.c[a.c.length]=b}
+function Xm(){if(typeof $wnd.Vaadin.Flow.gwtStatsEvents==SG){delete $wnd.Vaadin.Flow.gwtStatsEvents;typeof $wnd.__gwtStatsEvent==UG&&($wnd.__gwtStatsEvent=function(){return true})}}
+function mp(a){if(a.g==null){return false}if(!jE(a.g,KH)){return false}if(KA(ju(Ic(lk(Ic(lk(a.d,vf),48).a,Xf),10).e,5),'alwaysXhrToServer')){return false}a.f==(Rp(),Op);return true}
+function Hb(b,c,d){var e,f;e=Fb();try{if(S){try{return Eb(b,c,d)}catch(a){a=Gi(a);if(Sc(a,5)){f=a;Mb(f,true);return undefined}else throw Hi(a)}}else{return Eb(b,c,d)}}finally{Ib(e)}}
+function tC(a,b){var c,d;if(b.length==0){return a}c=null;d=lE(a,vE(35));if(d!=-1){c=a.substr(d);a=a.substr(0,d)}a.indexOf('?')!=-1?(a+='&'):(a+='?');a+=b;c!=null&&(a+=''+c);return a}
+function rw(a,b,c){var d;if(!b.b){debugger;throw Hi(new kD(uI+b.e.d+AH))}d=ju(b.e,0);Rz(JA(d,eI),(nD(),Ku(b.e)?true:false));Yw(a,b,c);return Hz(JA(ju(b.e,0),'visible'),new Nx(a,b,c))}
+function RB(b,c,d){var e,f;try{gj(b,new TB(d));b.open('GET',c,true);b.send(null)}catch(a){a=Gi(a);if(Sc(a,31)){e=a;$j&&LC($wnd.console,e);f=e;Sn(f.C());fj(b)}else throw Hi(a)}return b}
+function en(a){var b;b=fn();!b&&$j&&($wnd.console.error("Expected to find a 'Stylesheet end' comment inside <head> but none was found. Appending instead."),undefined);FC($doc.head,a,b)}
+function ND(a){MD==null&&(MD=new RegExp('^\\s*[+-]?(NaN|Infinity|((\\d+\\.?\\d*)|(\\.\\d+))([eE][+-]?\\d+)?[dDfF]?)\\s*$'));if(!MD.test(a)){throw Hi(new dE(NI+a+'"'))}return parseFloat(a)}
+function uE(a){var b,c,d;c=a.length;d=0;while(d<c&&(FG(d,a.length),a.charCodeAt(d)<=32)){++d}b=c;while(b>d&&(FG(b-1,a.length),a.charCodeAt(b-1)<=32)){--b}return d>0||b<c?a.substr(d,b-d):a}
+function gn(a,b){var c,d,e,f;Sn((Ic(lk(a.c,ye),22),'Error loading '+b.a));f=b.a;e=Mc(a.a.get(f));a.a.delete(f);if(e!=null&&e.length!=0){for(c=0;c<e.length;c++){d=Ic(e[c],24);!!d&&d.eb(b)}}}
+function it(a,b,c,d,e){var f;f={};f[mH]='publishedEventHandler';f[aI]=XC(b.d);f['templateEventMethodName']=c;f['templateEventMethodArgs']=d;e!=-1&&(f['promise']=Object(e),undefined);gt(a,f)}
+function mm(a){var b,c,d,e,f,g;e=null;c=ju(a.f,1);f=(g=[],IA(c,Ri(WA.prototype.db,WA,[g])),g);for(b=0;b<f.length;b++){d=Pc(f[b]);if(K(a,Kz(JA(c,d)))){e=d;break}}if(e==null){return null}return e}
+function Wv(a,b,c,d){var e,f,g,h,i,j;if(KA(ju(d,18),c)){f=[];e=Ic(lk(d.g.c,Of),57);i=Pc(Kz(JA(ju(d,18),c)));g=Mc(Mt(e,i));for(j=0;j<g.length;j++){h=Pc(g[j]);f[j]=Xv(a,b,d,h)}return f}return null}
+function dv(a,b){var c;if(!('featType' in a)){debugger;throw Hi(new kD("Change doesn't contain feature type. Don't know how to populate feature"))}c=ad(WC(a[mI]));VC(a['featType'])?iu(b,c):ju(b,c)}
+function vE(a){var b,c;if(a>=65536){b=55296+(a-65536>>10&1023)&65535;c=56320+(a-65536&1023)&65535;return String.fromCharCode(b)+(''+String.fromCharCode(c))}else{return String.fromCharCode(a&65535)}}
+function Ib(a){a&&Sb((Qb(),Pb));--yb;if(yb<0){debugger;throw Hi(new kD('Negative entryDepth value at exit '+yb))}if(a){if(yb!=0){debugger;throw Hi(new kD('Depth not 0'+yb))}if(Cb!=-1){Nb(Cb);Cb=-1}}}
+function vx(a,b,c,d){var e,f,g,h,i,j,k;e=false;for(h=0;h<c.length;h++){f=c[h];k=WC(f[0]);if(k==0){e=true;continue}j=new $wnd.Set;for(i=1;i<f.length;i++){j.add(f[i])}g=sv(vv(a,b,k),j,d);e=e|g}return e}
+function DB(a,b){var c,d,e,f;if(TC(b)==1){c=b;f=ad(WC(c[0]));switch(f){case 0:{e=ad(WC(c[1]));return d=e,Ic(a.a.get(d),6)}case 1:case 2:return null;default:throw Hi(new SD(CI+UC(c)));}}else{return null}}
+function Rq(a){this.c=new Sq(this);this.b=a;Qq(this,Ic(lk(a,td),8).e);this.d=Ic(lk(a,td),8).k;this.d=tC(this.d,'v-r=heartbeat');this.d=tC(this.d,JH+(''+Ic(lk(a,td),8).o));oo(Ic(lk(a,De),12),new Xq(this))}
+function nn(a,b,c,d,e){var f,g,h;h=Oo(b);f=new Fn(h);if(a.b.has(h)){!!c&&c.fb(f);return}if(sn(h,c,a.a)){g=$doc.createElement(EH);g.src=h;g.type=e;g.async=false;g.defer=d;tn(g,new Gn(a),f);EC($doc.head,g)}}
+function Xv(a,b,c,d){var e,f,g,h,i;if(!jE(d.substr(0,5),_H)||jE('event.model.item',d)){return jE(d.substr(0,_H.length),_H)?(g=bw(d),h=g(b,a),i={},i[xH]=XC(WC(h[xH])),i):Yv(c.a,d)}e=bw(d);f=e(b,a);return f}
+function aC(a){var b,c,d,e;b=lE(a,vE(46));b<0&&(b=a.length);d=dC(a,0,b);_B(d,'Browser major');c=mE(a,vE(46),b+1);if(c<0){if(a.substr(b).length==0){return}c=a.length}e=pE(dC(a,b+1,c),'');_B(e,'Browser minor')}
+function as(a){if(Ic(lk(a.c,De),12).b!=(Fo(),Do)){$j&&($wnd.console.warn('Trying to send RPC from not yet started or stopped application'),undefined);return}if(Ic(lk(a.c,zf),15).b||!!a.b&&!lp(a.b));else{Wr(a)}}
+function Fb(){var a;if(yb<0){debugger;throw Hi(new kD('Negative entryDepth value at entry '+yb))}if(yb!=0){a=xb();if(a-Bb>2000){Bb=a;Cb=$wnd.setTimeout(Ob,10)}}if(yb++==0){Rb((Qb(),Pb));return true}return false}
+function Dj(f,b,c){var d=f;var e=$wnd.Vaadin.Flow.clients[b];e.isActive=RG(function(){return d.U()});e.getVersionInfo=RG(function(a){return {'flow':c}});e.debug=RG(function(){var a=d.a;return a.ab().Hb().Eb()})}
+function Lp(a){var b,c,d;if(a.a>=a.b.length){debugger;throw Hi(new jD)}if(a.a==0){c=''+a.b.length+'|';b=4095-c.length;d=c+tE(a.b,0,$wnd.Math.min(a.b.length,b));a.a+=b}else{d=Kp(a,a.a,a.a+4095);a.a+=4095}return d}
+function rr(a){var b,c,d,e;if(a.g.length==0){return false}e=-1;for(b=0;b<a.g.length;b++){c=Ic(a.g[b],60);if(sr(a,nr(c.a))){e=b;break}}if(e!=-1){d=Ic(a.g.splice(e,1)[0],60);pr(a,d.a);return true}else{return false}}
+function hq(a,b){var c,d;c=b.status;$j&&NC($wnd.console,'Heartbeat request returned '+c);if(c==403){Un(Ic(lk(a.c,ye),22),null);d=Ic(lk(a.c,De),12);d.b!=(Fo(),Eo)&&po(d,Eo)}else if(c==404);else{eq(a,(Dq(),Aq),null)}}
+function vq(a,b){var c,d;c=b.b.status;$j&&NC($wnd.console,'Server returned '+c+' for xhr');if(c==401){Ns(Ic(lk(a.c,zf),15));Un(Ic(lk(a.c,ye),22),'');d=Ic(lk(a.c,De),12);d.b!=(Fo(),Eo)&&po(d,Eo);return}else{eq(a,(Dq(),Cq),b.a)}}
+function Qo(c){return JSON.stringify(c,function(a,b){if(b instanceof Node){throw 'Message JsonObject contained a dom node reference which should not be sent to the server and can cause a cyclic dependecy.'}return b})}
+function vv(a,b,c){rv();var d,e,f;e=Oc(qv.get(a),$wnd.Map);if(e==null){e=new $wnd.Map;qv.set(a,e)}f=Oc(e.get(b),$wnd.Map);if(f==null){f=new $wnd.Map;e.set(b,f)}d=Ic(f.get(c),79);if(!d){d=new uv(a,b,c);f.set(c,d)}return d}
+function WB(a){var b,c,d,e,f;f=a.indexOf('; cros ');if(f==-1){return}c=mE(a,vE(41),f);if(c==-1){return}b=c;while(b>=f&&(FG(b,a.length),a.charCodeAt(b)!=32)){--b}if(b==f){return}d=a.substr(b+1,c-(b+1));e=rE(d,'\\.');XB(e)}
+function Ot(a,b){var c,d,e,f,g,h;if(!b){debugger;throw Hi(new jD)}for(d=(g=ZC(b),g),e=0,f=d.length;e<f;++e){c=d[e];if(a.a.has(c)){debugger;throw Hi(new jD)}h=b[c];if(!(!!h&&TC(h)!=5)){debugger;throw Hi(new jD)}a.a.set(c,h)}}
+function Ju(a,b){var c;c=true;if(!b){$j&&($wnd.console.warn(iI),undefined);c=false}else if(K(b.g,a)){if(!K(b,Gu(a,b.d))){$j&&($wnd.console.warn(kI),undefined);c=false}}else{$j&&($wnd.console.warn(jI),undefined);c=false}return c}
+function jw(a){var b,c,d,e,f;d=iu(a.e,2);d.b&&Sw(a.b);for(f=0;f<($z(d.a),d.c.length);f++){c=Ic(d.c[f],6);e=Ic(lk(c.g.c,Vd),58);b=Hl(e,c.d);if(b){Il(e,c.d);ou(c,b);ov(c)}else{b=ov(c);wz(a.b).appendChild(b)}}return tA(d,new Vx(a))}
+function wx(a,b,c,d,e){var f,g,h,i,j,k,l,m,n,o,p;n=true;f=false;for(i=(p=ZC(c),p),j=0,k=i.length;j<k;++j){h=i[j];o=c[h];m=TC(o)==1;if(!m&&!o){continue}n=false;l=!!d&&VC(d[h]);if(m&&l){g='on-'+b+':'+h;l=vx(a,g,o,e)}f=f|l}return n||f}
+function un(b){for(var c=0;c<$doc.styleSheets.length;c++){if($doc.styleSheets[c].href===b){var d=$doc.styleSheets[c];try{var e=d.cssRules;e===undefined&&(e=d.rules);if(e===null){return 1}return e.length}catch(a){return 1}}}return -1}
+function tv(a){var b,c;if(a.e){wv(a.e);a.e=null}if(a.d){wv(a.d);a.d=null}b=Oc(qv.get(a.b),$wnd.Map);if(b==null){return}c=Oc(b.get(a.c),$wnd.Map);if(c==null){return}c.delete(a.g);if(c.size==0){b.delete(a.c);b.size==0&&qv.delete(a.b)}}
+function vn(b,c,d,e){try{var f=c.cb();if(!(f instanceof $wnd.Promise)){throw new Error('The expression "'+b+'" result is not a Promise.')}f.then(function(a){d.M()},function(a){console.error(a);e.M()})}catch(a){console.error(a);e.M()}}
+function ow(g,b,c){if(pm(c)){g.Nb(b,c)}else if(tm(c)){var d=g;try{var e=$wnd.customElements.whenDefined(c.localName);var f=new Promise(function(a){setTimeout(a,1000)});Promise.race([e,f]).then(function(){pm(c)&&d.Nb(b,c)})}catch(a){}}}
+function Ns(a){if(!a.b){throw Hi(new TD('endRequest called when no request is active'))}a.b=false;(Ic(lk(a.c,De),12).b==(Fo(),Do)&&Ic(lk(a.c,Hf),34).b||Ic(lk(a.c,nf),18).d==1)&&as(Ic(lk(a.c,nf),18));ko((Qb(),Pb),new Ss(a));Os(a,new Ys)}
+function Rw(a,b,c){var d;d=Ri(ny.prototype.db,ny,[]);c.forEach(Ri(py.prototype.hb,py,[d]));b.c.forEach(d);b.d.forEach(Ri(ry.prototype.db,ry,[]));a.forEach(Ri(zx.prototype.hb,zx,[]));if(cw==null){debugger;throw Hi(new jD)}cw.delete(b.e)}
+function Pi(a,b,c){var d=Ni,h;var e=d[a];var f=e instanceof Array?e[0]:null;if(e&&!f){_=e}else{_=(h=b&&b.prototype,!h&&(h=Ni[b]),Si(h));_.lc=c;!b&&(_.mc=Ui);d[a]=_}for(var g=3;g<arguments.length;++g){arguments[g].prototype=_}f&&(_.kc=f)}
+function em(a,b){var c,d,e,f,g,h,i,j;c=a.a;e=a.c;i=a.d.length;f=Ic(a.e,27).e;j=jm(f);if(!j){gk(yH+f.d+zH);return}d=[];c.forEach(Ri(Um.prototype.hb,Um,[d]));if(pm(j.a)){g=lm(j,f,null);if(g!=null){wm(j.a,g,e,i,d);return}}h=Mc(b);tz(h,e,i,d)}
+function SB(b,c,d,e,f){var g;try{gj(b,new TB(f));b.open('POST',c,true);b.setRequestHeader('Content-type',e);b.withCredentials=true;b.send(d)}catch(a){a=Gi(a);if(Sc(a,31)){g=a;$j&&LC($wnd.console,g);f.nb(b,g);fj(b)}else throw Hi(a)}return b}
+function sv(a,b,c){var d;d=b.has('leading')&&!a.d&&!a.e;if(!d&&(b.has(pI)||b.has(qI))){a.a=c;a.f=null}if(b.has('leading')||b.has(pI)){!a.d&&(a.d=new Av(a));wv(a.d);xv(a.d,ad(a.g))}if(!a.e&&b.has(qI)){a.e=new Cv(a,b);yv(a.e,ad(a.g))}return d}
+function im(a,b){var c,d,e;c=a;for(d=0;d<b.length;d++){e=b[d];c=hm(c,ad(SC(e)))}if(c){return c}else !c?$j&&NC($wnd.console,"There is no element addressed by the path '"+b+"'"):$j&&NC($wnd.console,'The node addressed by path '+b+AH);return null}
+function Dr(b){var c,d;if(b==null){return null}d=Wm.mb();try{c=JSON.parse(b);fk('JSON parsing took '+(''+Zm(Wm.mb()-d,3))+'ms');return c}catch(a){a=Gi(a);if(Sc(a,7)){$j&&LC($wnd.console,'Unable to parse JSON: '+b);return null}else throw Hi(a)}}
+function Yr(a,b,c){var d,e,f,g,h,i,j,k;i={};d=Ic(lk(a.c,lf),21).b;jE(d,'init')||(i['csrfToken']=d,undefined);i['rpc']=b;i[SH]=XC(Ic(lk(a.c,lf),21).f);i[VH]=XC(a.a++);if(c){for(f=(j=ZC(c),j),g=0,h=f.length;g<h;++g){e=f[g];k=c[e];i[e]=k}}return i}
+function tB(){var a;if(pB){return}try{pB=true;while(oB!=null&&oB.length!=0||qB!=null&&qB.length!=0){while(oB!=null&&oB.length!=0){a=Ic(oB.splice(0,1)[0],14);a.gb()}if(qB!=null&&qB.length!=0){a=Ic(qB.splice(0,1)[0],14);a.gb()}}}finally{pB=false}}
+function zw(a,b){var c,d,e,f,g,h;f=b.b;if(a.b){Sw(f)}else{h=a.d;for(g=0;g<h.length;g++){e=Ic(h[g],6);d=e.a;if(!d){debugger;throw Hi(new kD("Can't find element to remove"))}wz(d).parentNode==f&&wz(f).removeChild(d)}}c=a.a;c.length==0||ew(a.c,b,c)}
+function Ww(a,b){var c,d,e;d=a.f;$z(a.a);if(a.c){e=($z(a.a),a.g);c=b[d];(c===undefined||!(_c(c)===_c(e)||c!=null&&K(c,e)||c==e))&&uB(null,new Tx(b,d,e))}else Object.prototype.hasOwnProperty.call(b,d)?(delete b[d],undefined):(b[d]=null,undefined)}
+function hp(a){var b,c;c=Lo(Ic(lk(a.d,Ee),49),a.h);c=tC(c,'v-r=push');c=tC(c,JH+(''+Ic(lk(a.d,td),8).o));b=Ic(lk(a.d,lf),21).h;b!=null&&(c=tC(c,'v-pushId='+b));$j&&($wnd.console.log('Establishing push connection'),undefined);a.c=c;a.e=jp(a,c,a.a)}
+function Nu(a,b){var c;if(b.g!=a){debugger;throw Hi(new jD)}if(b.i){debugger;throw Hi(new kD("Can't re-register a node"))}c=b.d;if(a.a.has(c)){debugger;throw Hi(new kD('Node '+c+' is already registered'))}a.a.set(c,b);a.f&&Ql(Ic(lk(a.c,Xd),50),b)}
+function FD(a){if(a.$b()){var b=a.c;b._b()?(a.i='['+b.h):!b.$b()?(a.i='[L'+b.Yb()+';'):(a.i='['+b.Yb());a.b=b.Xb()+'[]';a.g=b.Zb()+'[]';return}var c=a.f;var d=a.d;d=d.split('/');a.i=ID('.',[c,ID('$',d)]);a.b=ID('.',[c,ID('.',d)]);a.g=d[d.length-1]}
+function zt(a,b){var c,d,e;d=new Ft(a);d.a=b;Et(d,Wm.mb());c=Qo(b);e=QB(tC(tC(Ic(lk(a.a,td),8).k,'v-r=uidl'),JH+(''+Ic(lk(a.a,td),8).o)),c,MH,d);$j&&MC($wnd.console,'Sending xhr message to server: '+c);a.b&&(!Uj&&(Uj=new Wj),Uj).a.l&&Yi(new Ct(a,e),250)}
+function ww(b,c,d){var e,f,g;if(!c){return -1}try{g=wz(Nc(c));while(g!=null){f=Hu(b,g);if(f){return f.d}g=wz(g.parentNode)}}catch(a){a=Gi(a);if(Sc(a,7)){e=a;_j(vI+c+', returned by an event data expression '+d+'. Error: '+e.C())}else throw Hi(a)}return -1}
+function Zv(f){var e='}p';Object.defineProperty(f,e,{value:function(a,b,c){var d=this[e].promises[a];if(d!==undefined){delete this[e].promises[a];b?d[0](c):d[1](Error('Something went wrong. Check server-side logs for more information.'))}}});f[e].promises=[]}
+function pu(a){var b,c;if(Gu(a.g,a.d)){debugger;throw Hi(new kD('Node should no longer be findable from the tree'))}if(a.i){debugger;throw Hi(new kD('Node is already unregistered'))}a.i=true;c=new du;b=nz(a.h);b.forEach(Ri(wu.prototype.hb,wu,[c]));a.h.clear()}
+function ln(a,b,c){var d,e;d=new Fn(b);if(a.b.has(b)){!!c&&c.fb(d);return}if(sn(b,c,a.a)){e=$doc.createElement('style');e.textContent=b;e.type='text/css';(!Uj&&(Uj=new Wj),Uj).a.j||Xj()||(!Uj&&(Uj=new Wj),Uj).a.i?Yi(new An(a,b,d),5000):tn(e,new Cn(a),d);en(e)}}
+function nv(a){lv();var b,c,d;b=null;for(c=0;c<kv.length;c++){d=Ic(kv[c],303);if(d.Lb(a)){if(b){debugger;throw Hi(new kD('Found two strategies for the node : '+M(b)+', '+M(d)))}b=d}}if(!b){throw Hi(new SD('State node has no suitable binder strategy'))}return b}
+function HG(a,b){var c,d,e,f;a=a;c=new CE;f=0;d=0;while(d<b.length){e=a.indexOf('%s',f);if(e==-1){break}AE(c,a.substr(f,e-f));zE(c,b[d++]);f=e+2}AE(c,a.substr(f));if(d<b.length){c.a+=' [';zE(c,b[d++]);while(d<b.length){c.a+=', ';zE(c,b[d++])}c.a+=']'}return c.a}
+function IB(b,c){var d,e,f,g,h,i;try{++b.b;h=(e=KB(b,c.P()),e);d=null;for(i=0;i<h.length;i++){g=h[i];try{c.O(g)}catch(a){a=Gi(a);if(Sc(a,7)){f=a;d==null&&(d=[]);d[d.length]=f}else throw Hi(a)}}if(d!=null){throw Hi(new mb(Ic(d[0],5)))}}finally{--b.b;b.b==0&&LB(b)}}
+function Kb(g){Db();function h(a,b,c,d,e){if(!e){e=a+' ('+b+':'+c;d&&(e+=':'+d);e+=')'}var f=ib(e);Mb(f,false)}
+;function i(a){var b=a.onerror;if(b&&!g){return}a.onerror=function(){h.apply(this,arguments);b&&b.apply(this,arguments);return false}}
+i($wnd);i(window)}
+function Jz(a,b){var c,d,e;c=($z(a.a),a.c?($z(a.a),a.g):null);(_c(b)===_c(c)||b!=null&&K(b,c))&&(a.d=false);if(!((_c(b)===_c(c)||b!=null&&K(b,c))&&($z(a.a),a.c))&&!a.d){d=a.e.e;e=d.g;if(Iu(e,d)){Iz(a,b);return new lA(a,e)}else{Xz(a.a,new pA(a,c,c));tB()}}return Fz}
+function TC(a){var b;if(a===null){return 5}b=typeof a;if(jE('string',b)){return 2}else if(jE('number',b)){return 3}else if(jE('boolean',b)){return 4}else if(jE(SG,b)){return Object.prototype.toString.apply(a)===TG?1:0}debugger;throw Hi(new kD('Unknown Json Type'))}
+function gv(a,b){var c,d,e,f,g;if(a.f){debugger;throw Hi(new kD('Previous tree change processing has not completed'))}try{Su(a,true);f=ev(a,b);e=b.length;for(d=0;d<e;d++){c=b[d];if(!jE('attach',c[mH])){g=fv(a,c);!!g&&f.add(g)}}return f}finally{Su(a,false);a.d=false}}
+function ip(a,b){if(!b){debugger;throw Hi(new jD)}switch(a.f.c){case 0:a.f=(Rp(),Qp);a.b=b;break;case 1:$j&&($wnd.console.log('Closing push connection'),undefined);up(a.c);a.f=(Rp(),Pp);b.H();break;case 2:case 3:throw Hi(new TD('Can not disconnect more than once'));}}
+function hw(a){var b,c,d,e,f;c=ju(a.e,20);f=Ic(Kz(JA(c,tI)),6);if(f){b=new $wnd.Function(sI,"if ( element.shadowRoot ) { return element.shadowRoot; } else { return element.attachShadow({'mode' : 'open'});}");e=Nc(b.call(null,a.b));!f.a&&ou(f,e);d=new Dx(f,e,a.a);jw(d)}}
+function dm(a,b,c){var d,e,f,g,h,i;f=b.f;if(f.c.has(1)){h=mm(b);if(h==null){return null}c.push(h)}else if(f.c.has(16)){e=km(b);if(e==null){return null}c.push(e)}if(!K(f,a)){return dm(a,f,c)}g=new BE;i='';for(d=c.length-1;d>=0;d--){AE((g.a+=i,g),Pc(c[d]));i='.'}return g.a}
+function sp(a,b){var c,d,e,f,g;if(wp()){pp(b.a)}else{f=(Ic(lk(a.d,td),8).i?(e='VAADIN/static/push/vaadinPush-min.js'):(e='VAADIN/static/push/vaadinPush.js'),e);$j&&MC($wnd.console,'Loading '+f);d=Ic(lk(a.d,se),56);g=Ic(lk(a.d,td),8).k+f;c=new Hp(a,f,b);nn(d,g,c,false,rH)}}
+function EB(a,b){var c,d,e,f,g,h;if(TC(b)==1){c=b;h=ad(WC(c[0]));switch(h){case 0:{g=ad(WC(c[1]));d=(f=g,Ic(a.a.get(f),6)).a;return d}case 1:return e=Mc(c[1]),e;case 2:return CB(ad(WC(c[1])),ad(WC(c[2])),Ic(lk(a.c,Df),32));default:throw Hi(new SD(CI+UC(c)));}}else{return b}}
+function or(a,b){var c,d,e,f,g;$j&&($wnd.console.log('Handling dependencies'),undefined);c=new $wnd.Map;for(e=(qC(),Dc(xc(wh,1),XG,42,0,[oC,nC,pC])),f=0,g=e.length;f<g;++f){d=e[f];YC(b,d.b!=null?d.b:''+d.c)&&c.set(d,b[d.b!=null?d.b:''+d.c])}c.size==0||Nk(Ic(lk(a.i,Sd),72),c)}
+function hv(a,b){var c,d,e,f,g;f=cv(a,b);if(uH in a){e=a[uH];g=e;Rz(f,g)}else if('nodeValue' in a){d=ad(WC(a['nodeValue']));c=Gu(b.g,d);if(!c){debugger;throw Hi(new jD)}c.f=b;Rz(f,c)}else{debugger;throw Hi(new kD('Change should have either value or nodeValue property: '+Qo(a)))}}
+function qp(a,b){a.g=b[LH];switch(a.f.c){case 0:a.f=(Rp(),Np);nq(Ic(lk(a.d,Oe),16));break;case 2:a.f=(Rp(),Np);if(!a.b){debugger;throw Hi(new jD)}ip(a,a.b);break;case 1:break;default:throw Hi(new TD('Got onOpen event when connection state is '+a.f+'. This should never happen.'));}}
+function OG(a){var b,c,d,e;b=0;d=a.length;e=d-4;c=0;while(c<e){b=(FG(c+3,a.length),a.charCodeAt(c+3)+(FG(c+2,a.length),31*(a.charCodeAt(c+2)+(FG(c+1,a.length),31*(a.charCodeAt(c+1)+(FG(c,a.length),31*(a.charCodeAt(c)+31*b)))))));b=b|0;c+=4}while(c<d){b=b*31+iE(a,c++)}b=b|0;return b}
+function Yo(){Uo();if(So||!($wnd.Vaadin.Flow!=null)){$j&&($wnd.console.warn('vaadinBootstrap.js was not loaded, skipping vaadin application configuration.'),undefined);return}So=true;$wnd.performance&&typeof $wnd.performance.now==UG?(Wm=new an):(Wm=new $m);Xm();_o((Db(),$moduleName))}
+function $b(b,c){var d,e,f,g;if(!b){debugger;throw Hi(new kD('tasks'))}for(e=0,f=b.length;e<f;e++){if(b.length!=f){debugger;throw Hi(new kD(bH+b.length+' != '+f))}g=b[e];try{g[1]?g[0].G()&&(c=Zb(c,g)):g[0].H()}catch(a){a=Gi(a);if(Sc(a,5)){d=a;Db();Mb(d,true)}else throw Hi(a)}}return c}
+function St(a,b){var c,d,e,f,g,h,i,j,k,l;l=Ic(lk(a.a,Xf),10);g=b.length-1;i=zc(ci,XG,2,g+1,6,1);j=[];e=new $wnd.Map;for(d=0;d<g;d++){h=b[d];f=EB(l,h);j.push(f);i[d]='$'+d;k=DB(l,h);if(k){if(Vt(k)||!Ut(a,k)){eu(k,new Zt(a,b));return}e.set(f,k)}}c=b[b.length-1];i[i.length-1]=c;Tt(a,i,j,e)}
+function Yw(a,b,c){var d,e;if(!b.b){debugger;throw Hi(new kD(uI+b.e.d+AH))}e=ju(b.e,0);d=b.b;if(ux(b.e)&&Ku(b.e)){Rw(a,b,c);rB(new Px(d,e,b))}else if(Ku(b.e)){Rz(JA(e,eI),(nD(),true));Uw(d,e)}else{Vw(d,e);yx(Ic(lk(e.e.g.c,td),8),d,wI,(nD(),mD));om(d)&&(d.style.display='none',undefined)}}
+function W(d,b){if(b instanceof Object){try{b.__java$exception=d;if(navigator.userAgent.toLowerCase().indexOf('msie')!=-1&&$doc.documentMode<9){return}var c=d;Object.defineProperties(b,{cause:{get:function(){var a=c.B();return a&&a.w()}},suppressed:{get:function(){return c.A()}}})}catch(a){}}}
+function jn(a){var b,c,d,e,f,g,h,i,j,k;b=$doc;j=b.getElementsByTagName(EH);for(f=0;f<j.length;f++){c=j.item(f);k=c.src;k!=null&&k.length!=0&&a.b.add(k)}h=b.getElementsByTagName('link');for(e=0;e<h.length;e++){g=h.item(e);i=g.rel;d=g.href;(kE(FH,i)||kE('import',i))&&d!=null&&d.length!=0&&a.b.add(d)}}
+function cs(a,b,c){if(b==a.a){return}if(c){fk('Forced update of clientId to '+a.a);a.a=b;return}if(b>a.a){a.a==0?$j&&MC($wnd.console,'Updating client-to-server id to '+b+' based on server'):gk('Server expects next client-to-server id to be '+b+' but we were going to use '+a.a+'. Will use '+b+'.');a.a=b}}
+function tn(a,b,c){a.onload=RG(function(){a.onload=null;a.onerror=null;a.onreadystatechange=null;b.fb(c)});a.onerror=RG(function(){a.onload=null;a.onerror=null;a.onreadystatechange=null;b.eb(c)});a.onreadystatechange=function(){('loaded'===a.readyState||'complete'===a.readyState)&&a.onload(arguments[0])}}
+function on(a,b,c){var d,e,f;f=Oo(b);d=new Fn(f);if(a.b.has(f)){!!c&&c.fb(d);return}if(sn(f,c,a.a)){e=$doc.createElement('link');e.rel=FH;e.type='text/css';e.href=f;if((!Uj&&(Uj=new Wj),Uj).a.j||Xj()){ac((Qb(),new wn(a,f,d)),10)}else{tn(e,new Jn(a,f),d);(!Uj&&(Uj=new Wj),Uj).a.i&&Yi(new yn(a,f,d),5000)}en(e)}}
+function Xw(a,b){var c,d,e,f,g,h;c=a.f;d=b.style;$z(a.a);if(a.c){h=($z(a.a),Pc(a.g));e=false;if(h.indexOf('!important')!=-1){f=HC($doc,b.tagName);g=f.style;g.cssText=c+': '+h+';';if(jE('important',yC(f.style,c))){BC(d,c,zC(f.style,c),'important');e=true}}e||(d.setProperty(c,h),undefined)}else{d.removeProperty(c)}}
+function aq(a){var b,c,d,e;Mz((c=ju(Ic(lk(Ic(lk(a.c,xf),35).a,Xf),10).e,9),JA(c,QH)))!=null&&Yj('reconnectingText',Mz((d=ju(Ic(lk(Ic(lk(a.c,xf),35).a,Xf),10).e,9),JA(d,QH))));Mz((e=ju(Ic(lk(Ic(lk(a.c,xf),35).a,Xf),10).e,9),JA(e,RH)))!=null&&Yj('offlineText',Mz((b=ju(Ic(lk(Ic(lk(a.c,xf),35).a,Xf),10).e,9),JA(b,RH))))}
+function hm(a,b){var c,d,e,f,g;c=wz(a).children;e=-1;for(f=0;f<c.length;f++){g=c.item(f);if(!g){debugger;throw Hi(new kD('Unexpected element type in the collection of children. DomElement::getChildren is supposed to return Element chidren only, but got '+Qc(g)))}d=g;kE('style',d.tagName)||++e;if(e==b){return g}}return null}
+function Wn(a,b,c,d,e,f){var g,h,i;if(b==null&&c==null&&d==null){Ic(lk(a.a,td),8).p?(h=Ic(lk(a.a,td),8).k+'web-component/web-component-bootstrap.js',i=tC(h,'v-r=webcomponent-resync'),PB(i,new $n(a)),undefined):Po(e);return}g=Tn(b,c,d,f);if(!Ic(lk(a.a,td),8).p){uC(g,'click',new go(e),false);uC($doc,'keydown',new io(e),false)}}
+function ew(a,b,c){var d,e,f,g,h,i,j,k;j=iu(b.e,2);if(a==0){d=ex(j,b.b)}else if(a<=($z(j.a),j.c.length)&&a>0){k=yw(a,b);d=!k?null:wz(k.a).nextSibling}else{d=null}for(g=0;g<c.length;g++){i=c[g];h=Ic(i,6);f=Ic(lk(h.g.c,Vd),58);e=Hl(f,h.d);if(e){Il(f,h.d);ou(h,e);ov(h)}else{e=ov(h);wz(b.b).insertBefore(e,d)}d=wz(e).nextSibling}}
+function xw(b,c){var d,e,f,g,h;if(!c){return -1}try{h=wz(Nc(c));f=[];f.push(b);for(e=0;e<f.length;e++){g=Ic(f[e],6);if(h.isSameNode(g.a)){return g.d}vA(iu(g,2),Ri(My.prototype.hb,My,[f]))}h=wz(h.parentNode);return gx(f,h)}catch(a){a=Gi(a);if(Sc(a,7)){d=a;_j(vI+c+', which was the event.target. Error: '+d.C())}else throw Hi(a)}return -1}
+function mr(a){if(a.j.size==0){gk('Gave up waiting for message '+(a.f+1)+' from the server')}else{$j&&($wnd.console.warn('WARNING: reponse handling was never resumed, forcibly removing locks...'),undefined);a.j.clear()}if(!rr(a)&&a.g.length!=0){lz(a.g);Zr(Ic(lk(a.i,nf),18));Ic(lk(a.i,zf),15).b&&Ns(Ic(lk(a.i,zf),15));$r(Ic(lk(a.i,nf),18))}}
+function Jk(a,b,c){var d,e;e=Ic(lk(a.a,se),56);d=c==(qC(),oC);switch(b.c){case 0:if(d){return new Uk(e)}return new Zk(e);case 1:if(d){return new cl(e)}return new sl(e);case 2:if(d){throw Hi(new SD('Inline load mode is not supported for JsModule.'))}return new ul(e);case 3:return new el;default:throw Hi(new SD('Unknown dependency type '+b));}}
+function Ik(a,b,c){var d,e,f,g,h;f=new $wnd.Map;for(e=0;e<c.length;e++){d=c[e];h=(iC(),Bo((mC(),lC),d[mH]));g=Jk(a,h,b);if(h==eC){Ok(d[jH],g)}else{switch(b.c){case 1:Ok(Lo(Ic(lk(a.a,Ee),49),d[jH]),g);break;case 2:f.set(Lo(Ic(lk(a.a,Ee),49),d[jH]),g);break;case 0:Ok(d['contents'],g);break;default:throw Hi(new SD('Unknown load mode = '+b));}}}return f}
+function wr(b,c){var d,e,f,g;f=Ic(lk(b.i,Xf),10);g=gv(f,c['changes']);if(!Ic(lk(b.i,td),8).i){try{d=hu(f.e);$j&&($wnd.console.log('StateTree after applying changes:'),undefined);$j&&MC($wnd.console,d)}catch(a){a=Gi(a);if(Sc(a,7)){e=a;$j&&($wnd.console.error('Failed to log state tree'),undefined);$j&&LC($wnd.console,e)}else throw Hi(a)}}sB(new Sr(g))}
+function Vv(n,k,l,m){Uv();n[k]=RG(function(c){var d=Object.getPrototypeOf(this);d[k]!==undefined&&d[k].apply(this,arguments);var e=c||$wnd.event;var f=l.Fb();var g=Wv(this,e,k,l);g===null&&(g=Array.prototype.slice.call(arguments));var h;var i=-1;if(m){var j=this['}p'].promises;i=j.length;h=new Promise(function(a,b){j[i]=[a,b]})}f.Ib(l,k,g,i);return h})}
+function rE(a,b){var c,d,e,f,g,h,i,j;c=new RegExp(b,'g');i=zc(ci,XG,2,0,6,1);d=0;j=a;f=null;while(true){h=c.exec(j);if(h==null||j==''){i[d]=j;break}else{g=h.index;i[d]=j.substr(0,g);j=tE(j,g+h[0].length,j.length);c.lastIndex=0;if(f==j){i[d]=j.substr(0,1);j=j.substr(1)}f=j;++d}}if(a.length>0){e=i.length;while(e>0&&i[e-1]==''){--e}e<i.length&&(i.length=e)}return i}
+function bq(a,b){if(Ic(lk(a.c,De),12).b!=(Fo(),Do)){$j&&($wnd.console.warn('Trying to reconnect after application has been stopped. Giving up'),undefined);return}if(b){$j&&($wnd.console.log('Re-sending last message to the server...'),undefined);_r(Ic(lk(a.c,nf),18),b)}else{$j&&($wnd.console.log('Trying to re-establish server connection...'),undefined);Pq(Ic(lk(a.c,Ye),55))}}
+function OD(a){var b,c,d,e,f;if(a==null){throw Hi(new dE($G))}d=a.length;e=d>0&&(FG(0,a.length),a.charCodeAt(0)==45||(FG(0,a.length),a.charCodeAt(0)==43))?1:0;for(b=e;b<d;b++){if(qD((FG(b,a.length),a.charCodeAt(b)))==-1){throw Hi(new dE(NI+a+'"'))}}f=parseInt(a,10);c=f<-2147483648;if(isNaN(f)){throw Hi(new dE(NI+a+'"'))}else if(c||f>2147483647){throw Hi(new dE(NI+a+'"'))}return f}
+function Zw(a,b,c,d){var e,f,g,h,i;i=iu(a,24);for(f=0;f<($z(i.a),i.c.length);f++){e=Ic(i.c[f],6);if(e==b){continue}if(jE((h=ju(b,0),UC(Nc(Kz(JA(h,fI))))),(g=ju(e,0),UC(Nc(Kz(JA(g,fI))))))){gk('There is already a request to attach element addressed by the '+d+". The existing request's node id='"+e.d+"'. Cannot attach the same element twice.");Qu(b.g,a,b.d,e.d,c);return false}}return true}
+function Wr(a){var b,c,d;d=Ic(lk(a.c,Hf),34);if(d.c.length==0&&a.d!=1){return}c=d.c;d.c=[];d.b=false;d.a=mt;if(c.length==0&&a.d!=1){$j&&($wnd.console.warn('All RPCs filtered out, not sending anything to the server'),undefined);return}b={};if(a.d==1){a.d=2;$j&&($wnd.console.log('Resynchronizing from server'),undefined);b[TH]=Object(true)}Zj('loading');Qs(Ic(lk(a.c,zf),15));_r(a,Yr(a,c,b))}
+function wc(a,b){var c;switch(yc(a)){case 6:return Xc(b);case 7:return Uc(b);case 8:return Tc(b);case 3:return Array.isArray(b)&&(c=yc(b),!(c>=14&&c<=16));case 11:return b!=null&&Yc(b);case 12:return b!=null&&(typeof b===SG||typeof b==UG);case 0:return Hc(b,a.__elementTypeId$);case 2:return Zc(b)&&!(b.mc===Ui);case 1:return Zc(b)&&!(b.mc===Ui)||Hc(b,a.__elementTypeId$);default:return true;}}
+function wl(b,c){if(document.body.$&&document.body.$.hasOwnProperty&&document.body.$.hasOwnProperty(c)){return document.body.$[c]}else if(b.shadowRoot){return b.shadowRoot.getElementById(c)}else if(b.getElementById){return b.getElementById(c)}else if(c&&c.match('^[a-zA-Z0-9-_]*$')){return b.querySelector('#'+c)}else{return Array.from(b.querySelectorAll('[id]')).find(function(a){return a.id==c})}}
+function rp(a,b){var c,d;if(!mp(a)){throw Hi(new TD('This server to client push connection should not be used to send client to server messages'))}if(a.f==(Rp(),Np)){d=Qo(b);fk('Sending push ('+a.g+') message to server: '+d);if(jE(a.g,KH)){c=new Mp(d);while(c.a<c.b.length){kp(a.e,Lp(c))}}else{kp(a.e,d)}return}if(a.f==Op){mq(Ic(lk(a.d,Oe),16),b);return}throw Hi(new TD('Can not push after disconnecting'))}
+function eq(a,b,c){var d;if(Ic(lk(a.c,De),12).b!=(Fo(),Do)){return}Zj('reconnecting');if(a.b){if(Eq(b,a.b)){$j&&NC($wnd.console,'Now reconnecting because of '+b+' failure');a.b=b}}else{a.b=b;$j&&NC($wnd.console,'Reconnecting because of '+b+' failure')}if(a.b!=b){return}++a.a;fk('Reconnect attempt '+a.a+' for '+b);a.a>=Lz((d=ju(Ic(lk(Ic(lk(a.c,xf),35).a,Xf),10).e,9),JA(d,'reconnectAttempts')),10000)?cq(a):sq(a,c)}
+function xl(a,b,c,d){var e,f,g,h,i,j,k,l,m,n,o,p,q,r;j=null;g=wz(a.a).childNodes;o=new $wnd.Map;e=!b;i=-1;for(m=0;m<g.length;m++){q=Nc(g[m]);o.set(q,YD(m));K(q,b)&&(e=true);if(e&&!!q&&kE(c,q.tagName)){j=q;i=m;break}}if(!j){Pu(a.g,a,d,-1,c,-1)}else{p=iu(a,2);k=null;f=0;for(l=0;l<($z(p.a),p.c.length);l++){r=Ic(p.c[l],6);h=r.a;n=Ic(o.get(h),25);!!n&&n.a<i&&++f;if(K(h,j)){k=YD(r.d);break}}k=yl(a,d,j,k);Pu(a.g,a,d,k.a,j.tagName,f)}}
+function iv(a,b){var c,d,e,f,g,h,i,j,k,l,m,n,o,p,q;n=ad(WC(a[mI]));m=iu(b,n);i=ad(WC(a['index']));nI in a?(o=ad(WC(a[nI]))):(o=0);if('add' in a){d=a['add'];c=(j=Mc(d),j);xA(m,i,o,c)}else if('addNodes' in a){e=a['addNodes'];l=e.length;c=[];q=b.g;for(h=0;h<l;h++){g=ad(WC(e[h]));f=(k=g,Ic(q.a.get(k),6));if(!f){debugger;throw Hi(new kD('No child node found with id '+g))}f.f=b;c[h]=f}xA(m,i,o,c)}else{p=m.c.splice(i,o);Xz(m.a,new Dz(m,i,p,[],false))}}
+function fv(a,b){var c,d,e,f,g,h,i;g=b[mH];e=ad(WC(b[aI]));d=(c=e,Ic(a.a.get(c),6));if(!d&&a.d){return d}if(!d){debugger;throw Hi(new kD('No attached node found'))}switch(g){case 'empty':dv(b,d);break;case 'splice':iv(b,d);break;case 'put':hv(b,d);break;case nI:f=cv(b,d);Qz(f);break;case 'detach':Tu(d.g,d);d.f=null;break;case 'clear':h=ad(WC(b[mI]));i=iu(d,h);uA(i);break;default:{debugger;throw Hi(new kD('Unsupported change type: '+g))}}return d}
+function cm(a){var b,c,d,e,f;if(Sc(a,6)){e=Ic(a,6);d=null;if(e.c.has(1)){d=ju(e,1)}else if(e.c.has(16)){d=iu(e,16)}else if(e.c.has(23)){return cm(JA(ju(e,23),uH))}if(!d){debugger;throw Hi(new kD("Don't know how to convert node without map or list features"))}b=d.Tb(new ym);if(!!b&&!(xH in b)){b[xH]=XC(e.d);um(e,d,b)}return b}else if(Sc(a,13)){f=Ic(a,13);if(f.e.d==23){return cm(($z(f.a),f.g))}else{c={};c[f.f]=cm(($z(f.a),f.g));return c}}else{return a}}
+function jp(f,c,d){var e=f;d.url=c;d.onOpen=RG(function(a){e.wb(a)});d.onReopen=RG(function(a){e.yb(a)});d.onMessage=RG(function(a){e.vb(a)});d.onError=RG(function(a){e.ub(a)});d.onTransportFailure=RG(function(a,b){e.zb(a)});d.onClose=RG(function(a){e.tb(a)});d.onReconnect=RG(function(a,b){e.xb(a,b)});d.onClientTimeout=RG(function(a){e.sb(a)});d.headers={'X-Vaadin-LastSeenServerSyncId':function(){return e.rb()}};return $wnd.vaadinPush.atmosphere.subscribe(d)}
+function gw(a,b){var c,d,e;d=(c=ju(b,0),Nc(Kz(JA(c,fI))));e=d[mH];if(jE('inMemory',e)){ov(b);return}if(!a.b){debugger;throw Hi(new kD('Unexpected html node. The node is supposed to be a custom element'))}if(jE('@id',e)){if($l(a.b)){_l(a.b,new dy(a,b,d));return}else if(!(typeof a.b.$!=aH)){bm(a.b,new fy(a,b,d));return}Bw(a,b,d,true)}else if(jE(gI,e)){if(!a.b.root){bm(a.b,new hy(a,b,d));return}Dw(a,b,d,true)}else{debugger;throw Hi(new kD('Unexpected payload type '+e))}}
+function Rt(h,e,f){var g={};g.getNode=RG(function(a){var b=e.get(a);if(b==null){throw new ReferenceError('There is no a StateNode for the given argument.')}return b});g.$appId=h.Db().replace(/-\d+$/,'');g.registry=h.a;g.attachExistingElement=RG(function(a,b,c,d){xl(g.getNode(a),b,c,d)});g.populateModelProperties=RG(function(a,b){Al(g.getNode(a),b)});g.registerUpdatableModelProperties=RG(function(a,b){Cl(g.getNode(a),b)});g.stopApplication=RG(function(){f.M()});return g}
+function yx(a,b,c,d){var e,f,g,h,i;if(d==null||Xc(d)){Ro(b,c,Pc(d))}else{f=d;if(0==TC(f)){g=f;if(!('uri' in g)){debugger;throw Hi(new kD("Implementation error: JsonObject is recieved as an attribute value for '"+c+"' but it has no "+'uri'+' key'))}i=g['uri'];if(a.p&&!i.match(/^(?:[a-zA-Z]+:)?\/\//)){e=a.k;e=(h='/'.length,jE(e.substr(e.length-h,h),'/')?e:e+'/');wz(b).setAttribute(c,e+(''+i))}else{i==null?wz(b).removeAttribute(c):wz(b).setAttribute(c,i)}}else{Ro(b,c,Ti(d))}}}
+function Cw(a,b,c){var d,e,f,g,h,i,j,k,l,m,n,o,p;p=Ic(c.e.get(Og),77);if(!p||!p.a.has(a)){return}k=rE(a,'\\.');g=c;f=null;e=0;j=k.length;for(m=k,n=0,o=m.length;n<o;++n){l=m[n];d=ju(g,1);if(!KA(d,l)&&e<j-1){$j&&KC($wnd.console,"Ignoring property change for property '"+a+"' which isn't defined from server");return}f=JA(d,l);Sc(($z(f.a),f.g),6)&&(g=($z(f.a),Ic(f.g,6)));++e}if(Sc(($z(f.a),f.g),6)){h=($z(f.a),Ic(f.g,6));i=Nc(b.a[b.b]);if(!(xH in i)||h.c.has(16)){return}}Jz(f,b.a[b.b]).M()}
+function qr(a,b){var c,d;if(!b){throw Hi(new SD('The json to handle cannot be null'))}if((SH in b?b[SH]:-1)==-1){c=b['meta'];(!c||!(YH in c))&&$j&&($wnd.console.error("Response didn't contain a server id. Please verify that the server is up-to-date and that the response data has not been modified in transmission."),undefined)}d=Ic(lk(a.i,De),12).b;if(d==(Fo(),Co)){d=Do;po(Ic(lk(a.i,De),12),d)}d==Do?pr(a,b):$j&&($wnd.console.warn('Ignored received message because application has already been stopped'),undefined)}
+function Wb(a){var b,c,d,e,f,g,h;if(!a){debugger;throw Hi(new kD('tasks'))}f=a.length;if(f==0){return null}b=false;c=new R;while(xb()-c.a<16){d=false;for(e=0;e<f;e++){if(a.length!=f){debugger;throw Hi(new kD(bH+a.length+' != '+f))}h=a[e];if(!h){continue}d=true;if(!h[1]){debugger;throw Hi(new kD('Found a non-repeating Task'))}if(!h[0].G()){a[e]=null;b=true}}if(!d){break}}if(b){g=[];for(e=0;e<f;e++){!!a[e]&&(g[g.length]=a[e],undefined)}if(g.length>=f){debugger;throw Hi(new jD)}return g.length==0?null:g}else{return a}}
+function hx(a,b,c,d,e){var f,g,h;h=Gu(e,ad(a));if(!h.c.has(1)){return}if(!cx(h,b)){debugger;throw Hi(new kD('Host element is not a parent of the node whose property has changed. This is an implementation error. Most likely it means that there are several StateTrees on the same page (might be possible with portlets) and the target StateTree should not be passed into the method as an argument but somehow detected from the host element. Another option is that host element is calculated incorrectly.'))}f=ju(h,1);g=JA(f,c);Jz(g,d).M()}
+function Tn(a,b,c,d){var e,f,g,h,i,j;h=$doc;j=h.createElement('div');j.className='v-system-error';if(a!=null){f=h.createElement('div');f.className='caption';f.textContent=a;j.appendChild(f);$j&&LC($wnd.console,a)}if(b!=null){i=h.createElement('div');i.className='message';i.textContent=b;j.appendChild(i);$j&&LC($wnd.console,b)}if(c!=null){g=h.createElement('div');g.className='details';g.textContent=c;j.appendChild(g);$j&&LC($wnd.console,c)}if(d!=null){e=h.querySelector(d);!!e&&DC(Nc(pF(tF(e.shadowRoot),e)),j)}else{EC(h.body,j)}return j}
+function $o(a,b){var c,d,e;c=gp(b,'serviceUrl');Aj(a,ep(b,'webComponentMode'));if(c==null){vj(a,Oo('.'));mj(a,Oo(gp(b,HH)))}else{a.k=c;mj(a,Oo(c+(''+gp(b,HH))))}zj(a,fp(b,'v-uiId').a);pj(a,fp(b,'heartbeatInterval').a);sj(a,fp(b,'maxMessageSuspendTimeout').a);wj(a,(d=b.getConfig(IH),d?d.vaadinVersion:null));e=b.getConfig(IH);dp();xj(a,b.getConfig('sessExpMsg'));tj(a,!ep(b,'debug'));uj(a,ep(b,'requestTiming'));oj(a,b.getConfig('webcomponents'));nj(a,ep(b,'devToolsEnabled'));rj(a,gp(b,'liveReloadUrl'));qj(a,gp(b,'liveReloadBackend'));yj(a,gp(b,'springBootLiveReloadPort'))}
+function qc(a,b){var c,d,e,f,g,h,i,j,k;j='';if(b.length==0){return a.K(eH,cH,-1,-1)}k=uE(b);jE(k.substr(0,3),'at ')&&(k=k.substr(3));k=k.replace(/\[.*?\]/g,'');g=k.indexOf('(');if(g==-1){g=k.indexOf('@');if(g==-1){j=k;k=''}else{j=uE(k.substr(g+1));k=uE(k.substr(0,g))}}else{c=k.indexOf(')',g);j=k.substr(g+1,c-(g+1));k=uE(k.substr(0,g))}g=lE(k,vE(46));g!=-1&&(k=k.substr(g+1));(k.length==0||jE(k,'Anonymous function'))&&(k=cH);h=nE(j,vE(58));e=oE(j,vE(58),h-1);i=-1;d=-1;f=eH;if(h!=-1&&e!=-1){f=j.substr(0,e);i=kc(j.substr(e+1,h-(e+1)));d=kc(j.substr(h+1))}return a.K(f,k,i,d)}
+function wk(a,b){this.a=new $wnd.Map;this.b=new $wnd.Map;ok(this,yd,a);ok(this,td,b);ok(this,se,new qn(this));ok(this,Ee,new Mo(this));ok(this,Sd,new Qk(this));ok(this,ye,new Yn(this));pk(this,De,new xk);ok(this,Xf,new Uu(this));ok(this,zf,new Rs(this));ok(this,lf,new Ar(this));ok(this,nf,new es(this));ok(this,Hf,new rt(this));ok(this,Df,new jt(this));ok(this,Sf,new Xt(this));pk(this,Of,new zk);pk(this,Vd,new Bk);ok(this,Xd,new Sl(this));ok(this,Ye,new Rq(this));ok(this,Oe,new xq(this));ok(this,Nf,new At(this));ok(this,vf,new ys(this));ok(this,xf,new Js(this));ok(this,rf,new ps(this))}
+function wb(b){var c=function(a){return typeof a!=aH};var d=function(a){return a.replace(/\r\n/g,'')};if(c(b.outerHTML))return d(b.outerHTML);c(b.innerHTML)&&b.cloneNode&&$doc.createElement('div').appendChild(b.cloneNode(true)).innerHTML;if(c(b.nodeType)&&b.nodeType==3){return "'"+b.data.replace(/ /g,'\u25AB').replace(/\u00A0/,'\u25AA')+"'"}if(typeof c(b.htmlText)&&b.collapse){var e=b.htmlText;if(e){return 'IETextRange ['+d(e)+']'}else{var f=b.duplicate();f.pasteHTML('|');var g='IETextRange '+d(b.parentElement().outerHTML);f.moveStart('character',-1);f.pasteHTML('');return g}}return b.toString?b.toString():'[JavaScriptObject]'}
+function um(a,b,c){var d,e,f;f=[];if(a.c.has(1)){if(!Sc(b,41)){debugger;throw Hi(new kD('Received an inconsistent NodeFeature for a node that has a ELEMENT_PROPERTIES feature. It should be NodeMap, but it is: '+b))}e=Ic(b,41);IA(e,Ri(Om.prototype.db,Om,[f,c]));f.push(HA(e,new Km(f,c)))}else if(a.c.has(16)){if(!Sc(b,27)){debugger;throw Hi(new kD('Received an inconsistent NodeFeature for a node that has a TEMPLATE_MODELLIST feature. It should be NodeList, but it is: '+b))}d=Ic(b,27);f.push(tA(d,new Em(c)))}if(f.length==0){debugger;throw Hi(new kD('Node should have ELEMENT_PROPERTIES or TEMPLATE_MODELLIST feature'))}f.push(fu(a,new Im(f)))}
+function $w(a,b,c,d,e){var f,g,h,i,j,k,l,m,n,o;l=e.e;o=Pc(Kz(JA(ju(b,0),'tag')));h=false;if(!a){h=true;$j&&NC($wnd.console,yI+d+" is not found. The requested tag name is '"+o+"'")}else if(!(!!a&&kE(o,a.tagName))){h=true;gk(yI+d+" has the wrong tag name '"+a.tagName+"', the requested tag name is '"+o+"'")}if(h){Qu(l.g,l,b.d,-1,c);return false}if(!l.c.has(20)){return true}k=ju(l,20);m=Ic(Kz(JA(k,tI)),6);if(!m){return true}j=iu(m,2);g=null;for(i=0;i<($z(j.a),j.c.length);i++){n=Ic(j.c[i],6);f=n.a;if(K(f,a)){g=YD(n.d);break}}if(g){$j&&NC($wnd.console,yI+d+" has been already attached previously via the node id='"+g+"'");Qu(l.g,l,b.d,g.a,c);return false}return true}
+function Tt(b,c,d,e){var f,g,h,i,j,k,l,m,n;if(c.length!=d.length+1){debugger;throw Hi(new jD)}try{j=new ($wnd.Function.bind.apply($wnd.Function,[null].concat(c)));j.apply(Rt(b,e,new bu(b)),d)}catch(a){a=Gi(a);if(Sc(a,7)){i=a;$j&&ak(new hk(i));$j&&($wnd.console.error('Exception is thrown during JavaScript execution. Stacktrace will be dumped separately.'),undefined);if(!Ic(lk(b.a,td),8).i){g=new DE('[');h='';for(l=c,m=0,n=l.length;m<n;++m){k=l[m];AE((g.a+=h,g),k);h=', '}g.a+=']';f=g.a;FG(0,f.length);f.charCodeAt(0)==91&&(f=f.substr(1));iE(f,f.length-1)==93&&(f=tE(f,0,f.length-1));$j&&LC($wnd.console,"The error has occurred in the JS code: '"+f+"'")}}else throw Hi(a)}}
+function iw(a,b,c,d){var e,f,g,h,i,j,k;g=Ku(b);i=Pc(Kz(JA(ju(b,0),'tag')));if(!(i==null||kE(c.tagName,i))){debugger;throw Hi(new kD("Element tag name is '"+c.tagName+"', but the required tag name is "+Pc(Kz(JA(ju(b,0),'tag')))))}cw==null&&(cw=mz());if(cw.has(b)){return}cw.set(b,(nD(),true));f=new Dx(b,c,d);e=[];h=[];if(g){h.push(lw(f));h.push(Nv(new Ky(f),f.e,17,false));h.push((j=ju(f.e,4),IA(j,Ri(vy.prototype.db,vy,[f])),HA(j,new xy(f))));h.push(qw(f));h.push(jw(f));h.push(pw(f));h.push(kw(c,b));h.push(nw(12,new Fx(c),tw(e),b));h.push(nw(3,new Hx(c),tw(e),b));h.push(nw(1,new by(c),tw(e),b));ow(a,b,c);h.push(fu(b,new ty(h,f,e)))}h.push(rw(h,f,e));k=new Ex(b);b.e.set(eg,k);sB(new Oy(b))}
+function Gj(a){var b,c,d,e,f,g,h,i,j;this.a=new wk(this,a);T((Ic(lk(this.a,ye),22),new Mj));g=Ic(lk(this.a,Xf),10).e;js(g,Ic(lk(this.a,rf),73));new vB(new Ks(Ic(lk(this.a,Oe),16)));i=ju(g,10);Zq(i,'first',new ar,450);Zq(i,'second',new cr,1500);Zq(i,'third',new er,5000);j=JA(i,'theme');Hz(j,new gr);c=$doc.body;ou(g,c);mv(g,c);fk('Starting application '+a.a);b=a.a;b=qE(b,'-\\d+$','');e=a.i;f=a.j;Ej(this,b,e,f,a.d);if(!e){h=a.l;Dj(this,b,h);$j&&MC($wnd.console,'Vaadin application servlet version: '+h);if(a.c&&a.g!=null){d=$doc.createElement('vaadin-dev-tools');wz(d).setAttribute(jH,a.g);a.f!=null&&wz(d).setAttribute('backend',a.f);a.n!=null&&wz(d).setAttribute('springbootlivereloadport',a.n);wz(c).appendChild(d)}}Zj('loading')}
+function Ej(k,e,f,g,h){var i=k;var j={};j.isActive=RG(function(){return i.U()});j.getByNodeId=RG(function(a){return i.S(a)});j.getNodeId=RG(function(a){return i.T(a)});j.getUIId=RG(function(){var a=i.a.X();return a.Q()});j.addDomBindingListener=RG(function(a,b){i.R(a,b)});j.productionMode=f;j.poll=RG(function(){var a=i.a.Z();a.Ab()});j.connectWebComponent=RG(function(a){var b=i.a;var c=b._();var d=b.ab().Hb().d;c.Bb(d,'connect-web-component',a)});g&&(j.getProfilingData=RG(function(){var a=i.a.Y();var b=[a.e,a.l];null!=a.k?(b=b.concat(a.k)):(b=b.concat(-1,-1));b[b.length]=a.a;return b}));j.resolveUri=RG(function(a){var b=i.a.bb();return b.qb(a)});j.sendEventMessage=RG(function(a,b,c){var d=i.a._();d.Bb(a,b,c)});j.initializing=false;j.exportedWebComponents=h;$wnd.Vaadin.Flow.clients[e]=j}
+function tp(a){var b,c,d,e;this.f=(Rp(),Op);this.d=a;oo(Ic(lk(a,De),12),new Up(this));this.a={transport:KH,maxStreamingLength:1000000,fallbackTransport:'long-polling',contentType:MH,reconnectInterval:5000,timeout:-1,maxReconnectOnClose:10000000,trackMessageLength:true,enableProtocol:true,handleOnlineOffline:false,executeCallbackBeforeReconnect:true,messageDelimiter:String.fromCharCode(124)};this.a['logLevel']='debug';vs(Ic(lk(this.d,vf),48)).forEach(Ri(Yp.prototype.db,Yp,[this]));c=ws(Ic(lk(this.d,vf),48));if(c==null||uE(c).length==0||jE('/',c)){this.h=NH;d=Ic(lk(a,td),8).k;if(!jE(d,'.')){e='/'.length;jE(d.substr(d.length-e,e),'/')||(d+='/');this.h=d+(''+this.h)}}else{b=Ic(lk(a,td),8).b;e='/'.length;jE(b.substr(b.length-e,e),'/')&&jE(c.substr(0,1),'/')&&(c=c.substr(1));this.h=b+(''+c)+NH}sp(this,new $p(this))}
+function xr(a,b,c,d){var e,f,g,h,i,j,k,l,m;if(!((SH in b?b[SH]:-1)==-1||(SH in b?b[SH]:-1)==a.f)){debugger;throw Hi(new jD)}try{k=xb();i=b;if('constants' in i){e=Ic(lk(a.i,Of),57);f=i['constants'];Ot(e,f)}'changes' in i&&wr(a,i);'execute' in i&&sB(new Or(a,i));fk('handleUIDLMessage: '+(xb()-k)+' ms');tB();j=b['meta'];if(j){m=Ic(lk(a.i,De),12).b;if(YH in j){if(m!=(Fo(),Eo)){Un(Ic(lk(a.i,ye),22),null);po(Ic(lk(a.i,De),12),Eo)}}else if('appError' in j&&m!=(Fo(),Eo)){g=j['appError'];Wn(Ic(lk(a.i,ye),22),g['caption'],g['message'],g['details'],g[jH],g['querySelector']);po(Ic(lk(a.i,De),12),(Fo(),Eo))}}a.e=ad(xb()-d);a.l+=a.e;if(!a.d){a.d=true;h=Cr();if(h!=0){l=ad(xb()-h);$j&&MC($wnd.console,'First response processed '+l+' ms after fetchStart')}a.a=Br()}}finally{fk(' Processing time was '+(''+a.e)+'ms');tr(b)&&Ns(Ic(lk(a.i,zf),15));zr(a,c)}}
+function Aw(a,b){var c,d,e,f,g,h,i,j,k,l,m,n,o,p,q,r,s,t,u,v,w,A,B,C,D,F,G;if(!b){debugger;throw Hi(new jD)}f=b.b;t=b.e;if(!f){debugger;throw Hi(new kD('Cannot handle DOM event for a Node'))}D=a.type;s=ju(t,4);e=Ic(lk(t.g.c,Of),57);i=Pc(Kz(JA(s,D)));if(i==null){debugger;throw Hi(new jD)}if(!Nt(e,i)){debugger;throw Hi(new jD)}j=Nc(Mt(e,i));p=(A=ZC(j),A);B=new $wnd.Set;p.length==0?(g=null):(g={});for(l=p,m=0,n=l.length;m<n;++m){k=l[m];if(jE(k.substr(0,1),'}')){u=k.substr(1);B.add(u)}else if(jE(k,']')){C=xw(t,a.target);g[']']=Object(C)}else if(jE(k.substr(0,1),']')){r=k.substr(1);h=fx(r);o=h(a,f);C=ww(t.g,o,r);g[k]=Object(C)}else{h=fx(k);o=h(a,f);g[k]=o}}d=[];B.forEach(Ri(Dy.prototype.hb,Dy,[d,b]));v=new Gy(d,t,D,g);w=wx(f,D,j,g,v);if(w){c=false;q=B.size==0;q&&(c=XE((rv(),F=new ZE,G=Ri(Ev.prototype.db,Ev,[F]),qv.forEach(G),F),v,0)!=-1);c||qx(v.a,v.c,v.d,v.b,null)}}
+function Fu(a,b){if(a.b==null){a.b=new $wnd.Map;a.b.set(YD(0),'elementData');a.b.set(YD(1),'elementProperties');a.b.set(YD(2),'elementChildren');a.b.set(YD(3),'elementAttributes');a.b.set(YD(4),'elementListeners');a.b.set(YD(5),'pushConfiguration');a.b.set(YD(6),'pushConfigurationParameters');a.b.set(YD(7),'textNode');a.b.set(YD(8),'pollConfiguration');a.b.set(YD(9),'reconnectDialogConfiguration');a.b.set(YD(10),'loadingIndicatorConfiguration');a.b.set(YD(11),'classList');a.b.set(YD(12),'elementStyleProperties');a.b.set(YD(15),'componentMapping');a.b.set(YD(16),'modelList');a.b.set(YD(17),'polymerServerEventHandlers');a.b.set(YD(18),'polymerEventListenerMap');a.b.set(YD(19),'clientDelegateHandlers');a.b.set(YD(20),'shadowRootData');a.b.set(YD(21),'shadowRootHost');a.b.set(YD(22),'attachExistingElementFeature');a.b.set(YD(24),'virtualChildrenList');a.b.set(YD(23),'basicTypeValue')}return a.b.has(YD(b))?Pc(a.b.get(YD(b))):'Unknown node feature: '+b}
+function pr(a,b){var c,d,e,f,g,h,i,j;f=SH in b?b[SH]:-1;c=TH in b;if(!c&&Ic(lk(a.i,nf),18).d==2){$j&&($wnd.console.warn('Ignoring message from the server as a resync request is ongoing.'),undefined);return}Ic(lk(a.i,nf),18).d=0;if(c&&!sr(a,f)){fk('Received resync message with id '+f+' while waiting for '+(a.f+1));a.f=f-1;yr(a)}e=a.j.size!=0;if(e||!sr(a,f)){if(e){$j&&($wnd.console.log('Postponing UIDL handling due to lock...'),undefined)}else{if(f<=a.f){gk(UH+f+' but have already seen '+a.f+'. Ignoring it');tr(b)&&Ns(Ic(lk(a.i,zf),15));return}fk(UH+f+' but expected '+(a.f+1)+'. Postponing handling until the missing message(s) have been received')}a.g.push(new Lr(b));if(!a.c.f){i=Ic(lk(a.i,td),8).h;Yi(a.c,i)}return}TH in b&&Mu(Ic(lk(a.i,Xf),10));h=xb();d=new I;a.j.add(d);$j&&($wnd.console.log('Handling message from server'),undefined);Os(Ic(lk(a.i,zf),15),new _s);if(VH in b){g=b[VH];cs(Ic(lk(a.i,nf),18),g,TH in b)}f!=-1&&(a.f=f);if('redirect' in b){j=b['redirect'][jH];$j&&MC($wnd.console,'redirecting to '+j);Po(j);return}WH in b&&(a.b=b[WH]);XH in b&&(a.h=b[XH]);or(a,b);a.d||Pk(Ic(lk(a.i,Sd),72));'timings' in b&&(a.k=b['timings']);Tk(new Fr);Tk(new Mr(a,b,d,h))}
+function bC(b){var c,d,e,f,g;b=b.toLowerCase();this.e=b.indexOf('gecko')!=-1&&b.indexOf('webkit')==-1&&b.indexOf(GI)==-1;b.indexOf(' presto/')!=-1;this.k=b.indexOf(GI)!=-1;this.l=!this.k&&b.indexOf('applewebkit')!=-1;this.b=b.indexOf(' chrome/')!=-1||b.indexOf(' crios/')!=-1||b.indexOf(FI)!=-1;this.i=b.indexOf('opera')!=-1;this.f=b.indexOf('msie')!=-1&&!this.i&&b.indexOf('webtv')==-1;this.f=this.f||this.k;this.j=!this.b&&!this.f&&b.indexOf('safari')!=-1;this.d=b.indexOf(' firefox/')!=-1;if(b.indexOf(' edge/')!=-1||b.indexOf(' edg/')!=-1||b.indexOf(HI)!=-1||b.indexOf(II)!=-1){this.c=true;this.b=false;this.i=false;this.f=false;this.j=false;this.d=false;this.l=false;this.e=false}try{if(this.e){f=b.indexOf('rv:');if(f>=0){g=b.substr(f+3);g=qE(g,JI,'$1');this.a=RD(g)}}else if(this.l){g=sE(b,b.indexOf('webkit/')+7);g=qE(g,KI,'$1');this.a=RD(g)}else if(this.k){g=sE(b,b.indexOf(GI)+8);g=qE(g,KI,'$1');this.a=RD(g);this.a>7&&(this.a=7)}else this.c&&(this.a=0)}catch(a){a=Gi(a);if(Sc(a,7)){c=a;GE();'Browser engine version parsing failed for: '+b+' '+c.C()}else throw Hi(a)}try{if(this.f){if(b.indexOf('msie')!=-1){if(this.k);else{e=sE(b,b.indexOf('msie ')+5);e=dC(e,0,lE(e,vE(59)));aC(e)}}else{f=b.indexOf('rv:');if(f>=0){g=b.substr(f+3);g=qE(g,JI,'$1');aC(g)}}}else if(this.d){d=b.indexOf(' firefox/')+9;aC(dC(b,d,d+5))}else if(this.b){YB(b)}else if(this.j){d=b.indexOf(' version/');if(d>=0){d+=9;aC(dC(b,d,d+5))}}else if(this.i){d=b.indexOf(' version/');d!=-1?(d+=9):(d=b.indexOf('opera/')+6);aC(dC(b,d,d+5))}else if(this.c){d=b.indexOf(' edge/')+6;b.indexOf(' edg/')!=-1?(d=b.indexOf(' edg/')+5):b.indexOf(HI)!=-1?(d=b.indexOf(HI)+6):b.indexOf(II)!=-1&&(d=b.indexOf(II)+8);aC(dC(b,d,d+8))}}catch(a){a=Gi(a);if(Sc(a,7)){c=a;GE();'Browser version parsing failed for: '+b+' '+c.C()}else throw Hi(a)}if(b.indexOf('windows ')!=-1){b.indexOf('windows phone')!=-1}else if(b.indexOf('android')!=-1){VB(b)}else if(b.indexOf('linux')!=-1);else if(b.indexOf('macintosh')!=-1||b.indexOf('mac osx')!=-1||b.indexOf('mac os x')!=-1){this.g=b.indexOf('ipad')!=-1;this.h=b.indexOf('iphone')!=-1;(this.g||this.h)&&ZB(b)}else b.indexOf('; cros ')!=-1&&WB(b)}
+var SG='object',TG='[object Array]',UG='function',VG='java.lang',WG='com.google.gwt.core.client',XG={4:1},YG='__noinit__',ZG={4:1,7:1,9:1,5:1},$G='null',_G='com.google.gwt.core.client.impl',aH='undefined',bH='Working array length changed ',cH='anonymous',dH='fnStack',eH='Unknown',fH='must be non-negative',gH='must be positive',hH='com.google.web.bindery.event.shared',iH='com.vaadin.client',jH='url',kH={66:1},lH={30:1},mH='type',nH={46:1},oH={24:1},pH={19:1},qH={26:1},rH='text/javascript',sH='constructor',tH='properties',uH='value',vH='com.vaadin.client.flow.reactive',wH={14:1},xH='nodeId',yH='Root node for node ',zH=' could not be found',AH=' is not an Element',BH={64:1},CH={81:1},DH={45:1},EH='script',FH='stylesheet',GH='com.vaadin.flow.shared',HH='contextRootUrl',IH='versionInfo',JH='v-uiId=',KH='websocket',LH='transport',MH='application/json; charset=UTF-8',NH='VAADIN/push',OH='com.vaadin.client.communication',PH={89:1},QH='dialogText',RH='dialogTextGaveUp',SH='syncId',TH='resynchronize',UH='Received message with server id ',VH='clientId',WH='Vaadin-Security-Key',XH='Vaadin-Push-ID',YH='sessionExpired',ZH='pushServletMapping',_H='event',aI='node',bI='attachReqId',cI='attachAssignedId',dI='com.vaadin.client.flow',eI='bound',fI='payload',gI='subTemplate',hI={44:1},iI='Node is null',jI='Node is not created for this tree',kI='Node id is not registered with this tree',lI='$server',mI='feat',nI='remove',oI='com.vaadin.client.flow.binding',pI='trailing',qI='intermediate',rI='elemental.util',sI='element',tI='shadowRoot',uI='The HTML node for the StateNode with id=',vI='An error occurred when Flow tried to find a state node matching the element ',wI='hidden',xI='styleDisplay',yI='Element addressed by the ',zI='dom-repeat',AI='dom-change',BI='com.vaadin.client.flow.nodefeature',CI='Unsupported complex type in ',DI='com.vaadin.client.gwt.com.google.web.bindery.event.shared',EI='OS minor',FI=' headlesschrome/',GI='trident/',HI=' edga/',II=' edgios/',JI='(\\.[0-9]+).+',KI='([0-9]+\\.[0-9]+).*',LI='com.vaadin.flow.shared.ui',MI='java.io',NI='For input string: "',OI='java.util',QI='java.util.stream',RI='Index: ',SI=', Size: ',TI='user.agent';var _,Ni,Ii,Fi=-1;$wnd.goog=$wnd.goog||{};$wnd.goog.global=$wnd.goog.global||$wnd;Oi();Pi(1,null,{},I);_.q=function J(a){return H(this,a)};_.r=function L(){return this.kc};_.s=function N(){return JG(this)};_.t=function P(){var a;return tD(M(this))+'@'+(a=O(this)>>>0,a.toString(16))};_.equals=function(a){return this.q(a)};_.hashCode=function(){return this.s()};_.toString=function(){return this.t()};var Ec,Fc,Gc;Pi(67,1,{67:1},uD);_.Wb=function vD(a){var b;b=new uD;b.e=4;a>1?(b.c=BD(this,a-1)):(b.c=this);return b};_.Xb=function AD(){sD(this);return this.b};_.Yb=function CD(){return tD(this)};_.Zb=function ED(){sD(this);return this.g};_.$b=function GD(){return (this.e&4)!=0};_._b=function HD(){return (this.e&1)!=0};_.t=function KD(){return ((this.e&2)!=0?'interface ':(this.e&1)!=0?'':'class ')+(sD(this),this.i)};_.e=0;var rD=1;var Yh=xD(VG,'Object',1);var Lh=xD(VG,'Class',67);Pi(94,1,{},R);_.a=0;var cd=xD(WG,'Duration',94);var S=null;Pi(5,1,{4:1,5:1});_.v=function bb(a){return new Error(a)};_.w=function db(){return this.e};_.A=function eb(){var a;return a=Ic(eG(gG(iF((this.i==null&&(this.i=zc(ei,XG,5,0,0,1)),this.i)),new IE),PF(new $F,new YF,new aG,Dc(xc(ti,1),XG,47,0,[(TF(),RF)]))),90),YE(a,zc(Yh,XG,1,a.a.length,5,1))};_.B=function fb(){return this.f};_.C=function gb(){return this.g};_.D=function hb(){Z(this,cb(this.v($(this,this.g))));hc(this)};_.t=function jb(){return $(this,this.C())};_.e=YG;_.j=true;var ei=xD(VG,'Throwable',5);Pi(7,5,{4:1,7:1,5:1});var Ph=xD(VG,'Exception',7);Pi(9,7,ZG,mb);var $h=xD(VG,'RuntimeException',9);Pi(53,9,ZG,nb);var Uh=xD(VG,'JsException',53);Pi(119,53,ZG);var gd=xD(_G,'JavaScriptExceptionBase',119);Pi(31,119,{31:1,4:1,7:1,9:1,5:1},rb);_.C=function ub(){return qb(this),this.c};_.F=function vb(){return _c(this.b)===_c(ob)?null:this.b};var ob;var dd=xD(WG,'JavaScriptException',31);var ed=xD(WG,'JavaScriptObject$',0);Pi(305,1,{});var fd=xD(WG,'Scheduler',305);var yb=0,zb=false,Ab,Bb=0,Cb=-1;Pi(129,305,{});_.e=false;_.i=false;var Pb;var kd=xD(_G,'SchedulerImpl',129);Pi(130,1,{},bc);_.G=function cc(){this.a.e=true;Tb(this.a);this.a.e=false;return this.a.i=Ub(this.a)};var hd=xD(_G,'SchedulerImpl/Flusher',130);Pi(131,1,{},dc);_.G=function ec(){this.a.e&&_b(this.a.f,1);return this.a.i};var jd=xD(_G,'SchedulerImpl/Rescuer',131);var fc;Pi(315,1,{});var od=xD(_G,'StackTraceCreator/Collector',315);Pi(120,315,{},nc);_.I=function oc(a){var b={},j;var c=[];a[dH]=c;var d=arguments.callee.caller;while(d){var e=(gc(),d.name||(d.name=jc(d.toString())));c.push(e);var f=':'+e;var g=b[f];if(g){var h,i;for(h=0,i=g.length;h<i;h++){if(g[h]===d){return}}}(g||(b[f]=[])).push(d);d=d.caller}};_.J=function pc(a){var b,c,d,e;d=(gc(),a&&a[dH]?a[dH]:[]);c=d.length;e=zc(_h,XG,28,c,0,1);for(b=0;b<c;b++){e[b]=new eE(d[b],null,-1)}return e};var ld=xD(_G,'StackTraceCreator/CollectorLegacy',120);Pi(316,315,{});_.I=function rc(a){};_.K=function sc(a,b,c,d){return new eE(b,a+'@'+d,c<0?-1:c)};_.J=function tc(a){var b,c,d,e,f,g;e=lc(a);f=zc(_h,XG,28,0,0,1);b=0;d=e.length;if(d==0){return f}g=qc(this,e[0]);jE(g.d,cH)||(f[b++]=g);for(c=1;c<d;c++){f[b++]=qc(this,e[c])}return f};var nd=xD(_G,'StackTraceCreator/CollectorModern',316);Pi(121,316,{},uc);_.K=function vc(a,b,c,d){return new eE(b,a,-1)};var md=xD(_G,'StackTraceCreator/CollectorModernNoSourceMap',121);Pi(40,1,{});_.L=function cj(a){if(a!=this.d){return}this.e||(this.f=null);this.M()};_.d=0;_.e=false;_.f=null;var pd=xD('com.google.gwt.user.client','Timer',40);Pi(322,1,{});_.t=function hj(){return 'An event type'};var sd=xD(hH,'Event',322);Pi(97,1,{},jj);_.s=function kj(){return this.a};_.t=function lj(){return 'Event type'};_.a=0;var ij=0;var qd=xD(hH,'Event/Type',97);Pi(323,1,{});var rd=xD(hH,'EventBus',323);Pi(8,1,{8:1},Bj);_.Q=function Cj(){return this.o};_.c=false;_.e=0;_.h=0;_.i=false;_.j=false;_.o=0;_.p=false;var td=xD(iH,'ApplicationConfiguration',8);Pi(92,1,{92:1},Gj);_.R=function Hj(a,b){eu(Gu(Ic(lk(this.a,Xf),10),a),new Sj(a,b))};_.S=function Ij(a){var b;b=Gu(Ic(lk(this.a,Xf),10),a);return !b?null:b.a};_.T=function Jj(a){var b;b=Hu(Ic(lk(this.a,Xf),10),wz(a));return !b?-1:b.d};_.U=function Kj(){var a;return Ic(lk(this.a,lf),21).a==0||Ic(lk(this.a,zf),15).b||(a=(Qb(),Pb),!!a&&a.a!=0)};var yd=xD(iH,'ApplicationConnection',92);Pi(146,1,{},Mj);_.u=function Nj(a){var b;b=a;Sc(b,3)?Sn('Assertion error: '+b.C()):Sn(b.C())};var ud=xD(iH,'ApplicationConnection/0methodref$handleError$Type',146);Pi(147,1,{},Oj);_.V=function Pj(a){bs(Ic(lk(this.a.a,nf),18))};var vd=xD(iH,'ApplicationConnection/lambda$1$Type',147);Pi(148,1,{},Qj);_.V=function Rj(a){$wnd.location.reload()};var wd=xD(iH,'ApplicationConnection/lambda$2$Type',148);Pi(149,1,kH,Sj);_.W=function Tj(a){return Lj(this.b,this.a,a)};_.b=0;var xd=xD(iH,'ApplicationConnection/lambda$3$Type',149);Pi(36,1,{},Wj);var Uj;var zd=xD(iH,'BrowserInfo',36);var Ad=zD(iH,'Command');var $j=false;Pi(128,1,{},hk);_.M=function ik(){dk(this.a)};var Bd=xD(iH,'Console/lambda$0$Type',128);Pi(127,1,{},jk);_.u=function kk(a){ek(this.a)};var Cd=xD(iH,'Console/lambda$1$Type',127);Pi(153,1,{});_.X=function qk(){return Ic(lk(this,td),8)};_.Y=function rk(){return Ic(lk(this,lf),21)};_.Z=function sk(){return Ic(lk(this,rf),73)};_._=function tk(){return Ic(lk(this,Df),32)};_.ab=function uk(){return Ic(lk(this,Xf),10)};_.bb=function vk(){return Ic(lk(this,Ee),49)};var ge=xD(iH,'Registry',153);Pi(154,153,{},wk);var Gd=xD(iH,'DefaultRegistry',154);Pi(155,1,lH,xk);_.cb=function yk(){return new qo};var Dd=xD(iH,'DefaultRegistry/0methodref$ctor$Type',155);Pi(156,1,lH,zk);_.cb=function Ak(){return new Pt};var Ed=xD(iH,'DefaultRegistry/1methodref$ctor$Type',156);Pi(157,1,lH,Bk);_.cb=function Ck(){return new Jl};var Fd=xD(iH,'DefaultRegistry/2methodref$ctor$Type',157);Pi(72,1,{72:1},Qk);var Dk,Ek,Fk,Gk=0;var Sd=xD(iH,'DependencyLoader',72);Pi(196,1,nH,Uk);_.db=function Vk(a,b){ln(this.a,a,Ic(b,24))};var Hd=xD(iH,'DependencyLoader/0methodref$inlineStyleSheet$Type',196);var me=zD(iH,'ResourceLoader/ResourceLoadListener');Pi(192,1,oH,Wk);_.eb=function Xk(a){bk("'"+a.a+"' could not be loaded.");Rk()};_.fb=function Yk(a){Rk()};var Id=xD(iH,'DependencyLoader/1',192);Pi(197,1,nH,Zk);_.db=function $k(a,b){on(this.a,a,Ic(b,24))};var Jd=xD(iH,'DependencyLoader/1methodref$loadStylesheet$Type',197);Pi(193,1,oH,_k);_.eb=function al(a){bk(a.a+' could not be loaded.')};_.fb=function bl(a){};var Kd=xD(iH,'DependencyLoader/2',193);Pi(198,1,nH,cl);_.db=function dl(a,b){kn(this.a,a,Ic(b,24))};var Ld=xD(iH,'DependencyLoader/2methodref$inlineScript$Type',198);Pi(201,1,nH,el);_.db=function fl(a,b){mn(a,Ic(b,24))};var Md=xD(iH,'DependencyLoader/3methodref$loadDynamicImport$Type',201);var Zh=zD(VG,'Runnable');Pi(202,1,pH,gl);_.M=function hl(){Rk()};var Nd=xD(iH,'DependencyLoader/4methodref$endEagerDependencyLoading$Type',202);Pi(342,$wnd.Function,{},il);_.db=function jl(a,b){Kk(this.a,this.b,Nc(a),Ic(b,42))};Pi(343,$wnd.Function,{},kl);_.db=function ll(a,b){Sk(this.a,Ic(a,46),Pc(b))};Pi(195,1,qH,ml);_.H=function nl(){Lk(this.a)};var Od=xD(iH,'DependencyLoader/lambda$2$Type',195);Pi(194,1,{},ol);_.H=function pl(){Mk(this.a)};var Pd=xD(iH,'DependencyLoader/lambda$3$Type',194);Pi(344,$wnd.Function,{},ql);_.db=function rl(a,b){Ic(a,46).db(Pc(b),(Hk(),Ek))};Pi(199,1,nH,sl);_.db=function tl(a,b){Hk();nn(this.a,a,Ic(b,24),true,rH)};var Qd=xD(iH,'DependencyLoader/lambda$8$Type',199);Pi(200,1,nH,ul);_.db=function vl(a,b){Hk();nn(this.a,a,Ic(b,24),true,'module')};var Rd=xD(iH,'DependencyLoader/lambda$9$Type',200);Pi(298,1,pH,Dl);_.M=function El(){sB(new Fl(this.a,this.b))};var Td=xD(iH,'ExecuteJavaScriptElementUtils/lambda$0$Type',298);var ih=zD(vH,'FlushListener');Pi(297,1,wH,Fl);_.gb=function Gl(){Al(this.a,this.b)};var Ud=xD(iH,'ExecuteJavaScriptElementUtils/lambda$1$Type',297);Pi(58,1,{58:1},Jl);var Vd=xD(iH,'ExistingElementMap',58);Pi(50,1,{50:1},Sl);var Xd=xD(iH,'InitialPropertiesHandler',50);Pi(345,$wnd.Function,{},Ul);_.hb=function Vl(a){Pl(this.a,this.b,Kc(a))};Pi(209,1,wH,Wl);_.gb=function Xl(){Ll(this.a,this.b)};var Wd=xD(iH,'InitialPropertiesHandler/lambda$1$Type',209);Pi(346,$wnd.Function,{},Yl);_.db=function Zl(a,b){Tl(this.a,Ic(a,13),Pc(b))};var am;Pi(286,1,kH,ym);_.W=function zm(a){return xm(a)};var Yd=xD(iH,'PolymerUtils/0methodref$createModelTree$Type',286);Pi(366,$wnd.Function,{},Am);_.hb=function Bm(a){Ic(a,44).Gb()};Pi(365,$wnd.Function,{},Cm);_.hb=function Dm(a){Ic(a,19).M()};Pi(287,1,BH,Em);_.ib=function Fm(a){qm(this.a,a)};var Zd=xD(iH,'PolymerUtils/lambda$1$Type',287);Pi(88,1,wH,Gm);_.gb=function Hm(){fm(this.b,this.a)};var $d=xD(iH,'PolymerUtils/lambda$10$Type',88);Pi(288,1,{104:1},Im);_.jb=function Jm(a){this.a.forEach(Ri(Am.prototype.hb,Am,[]))};var _d=xD(iH,'PolymerUtils/lambda$2$Type',288);Pi(290,1,CH,Km);_.kb=function Lm(a){rm(this.a,this.b,a)};var ae=xD(iH,'PolymerUtils/lambda$4$Type',290);Pi(289,1,DH,Mm);_.lb=function Nm(a){rB(new Gm(this.a,this.b))};var be=xD(iH,'PolymerUtils/lambda$5$Type',289);Pi(363,$wnd.Function,{},Om);_.db=function Pm(a,b){var c;sm(this.a,this.b,(c=Ic(a,13),Pc(b),c))};Pi(291,1,DH,Qm);_.lb=function Rm(a){rB(new Gm(this.a,this.b))};var ce=xD(iH,'PolymerUtils/lambda$7$Type',291);Pi(292,1,wH,Sm);_.gb=function Tm(){em(this.a,this.b)};var de=xD(iH,'PolymerUtils/lambda$8$Type',292);Pi(364,$wnd.Function,{},Um);_.hb=function Vm(a){this.a.push(cm(a))};var Wm;Pi(112,1,{},$m);_.mb=function _m(){return (new Date).getTime()};var ee=xD(iH,'Profiler/DefaultRelativeTimeSupplier',112);Pi(111,1,{},an);_.mb=function bn(){return $wnd.performance.now()};var fe=xD(iH,'Profiler/HighResolutionTimeSupplier',111);Pi(338,$wnd.Function,{},cn);_.db=function dn(a,b){mk(this.a,Ic(a,30),Ic(b,67))};Pi(56,1,{56:1},qn);_.d=false;var se=xD(iH,'ResourceLoader',56);Pi(185,1,{},wn);_.G=function xn(){var a;a=un(this.d);if(un(this.d)>0){hn(this.b,this.c);return false}else if(a==0){gn(this.b,this.c);return true}else if(Q(this.a)>60000){gn(this.b,this.c);return false}else{return true}};var he=xD(iH,'ResourceLoader/1',185);Pi(186,40,{},yn);_.M=function zn(){this.a.b.has(this.c)||gn(this.a,this.b)};var ie=xD(iH,'ResourceLoader/2',186);Pi(190,40,{},An);_.M=function Bn(){this.a.b.has(this.c)?hn(this.a,this.b):gn(this.a,this.b)};var je=xD(iH,'ResourceLoader/3',190);Pi(191,1,oH,Cn);_.eb=function Dn(a){gn(this.a,a)};_.fb=function En(a){hn(this.a,a)};var ke=xD(iH,'ResourceLoader/4',191);Pi(61,1,{},Fn);var le=xD(iH,'ResourceLoader/ResourceLoadEvent',61);Pi(98,1,oH,Gn);_.eb=function Hn(a){gn(this.a,a)};_.fb=function In(a){hn(this.a,a)};var ne=xD(iH,'ResourceLoader/SimpleLoadListener',98);Pi(184,1,oH,Jn);_.eb=function Kn(a){gn(this.a,a)};_.fb=function Ln(a){var b;if((!Uj&&(Uj=new Wj),Uj).a.b||(!Uj&&(Uj=new Wj),Uj).a.f||(!Uj&&(Uj=new Wj),Uj).a.c){b=un(this.b);if(b==0){gn(this.a,a);return}}hn(this.a,a)};var oe=xD(iH,'ResourceLoader/StyleSheetLoadListener',184);Pi(187,1,lH,Mn);_.cb=function Nn(){return this.a.call(null)};var pe=xD(iH,'ResourceLoader/lambda$0$Type',187);Pi(188,1,pH,On);_.M=function Pn(){this.b.fb(this.a)};var qe=xD(iH,'ResourceLoader/lambda$1$Type',188);Pi(189,1,pH,Qn);_.M=function Rn(){this.b.eb(this.a)};var re=xD(iH,'ResourceLoader/lambda$2$Type',189);Pi(22,1,{22:1},Yn);var ye=xD(iH,'SystemErrorHandler',22);Pi(160,1,{},$n);_.nb=function _n(a,b){var c;c=b;Sn(c.C())};_.ob=function ao(a){var b;fk('Received xhr HTTP session resynchronization message: '+a.responseText);nk(this.a.a);po(Ic(lk(this.a.a,De),12),(Fo(),Do));b=Dr(Er(a.responseText));qr(Ic(lk(this.a.a,lf),21),b);zj(Ic(lk(this.a.a,td),8),b['uiId']);ko((Qb(),Pb),new eo(this))};var ve=xD(iH,'SystemErrorHandler/1',160);Pi(161,1,{},bo);_.hb=function co(a){Xn(Pc(a))};var te=xD(iH,'SystemErrorHandler/1/0methodref$recreateNodes$Type',161);Pi(162,1,{},eo);_.H=function fo(){fG(iF(Ic(lk(this.a.a.a,td),8).d),new bo)};var ue=xD(iH,'SystemErrorHandler/1/lambda$0$Type',162);Pi(158,1,{},go);_.V=function ho(a){Po(this.a)};var we=xD(iH,'SystemErrorHandler/lambda$0$Type',158);Pi(159,1,{},io);_.V=function jo(a){Zn(this.a,a)};var xe=xD(iH,'SystemErrorHandler/lambda$1$Type',159);Pi(133,129,{},lo);_.a=0;var Ae=xD(iH,'TrackingScheduler',133);Pi(134,1,{},mo);_.H=function no(){this.a.a--};var ze=xD(iH,'TrackingScheduler/lambda$0$Type',134);Pi(12,1,{12:1},qo);var De=xD(iH,'UILifecycle',12);Pi(166,322,{},so);_.O=function to(a){Ic(a,89).pb(this)};_.P=function uo(){return ro};var ro=null;var Be=xD(iH,'UILifecycle/StateChangeEvent',166);Pi(20,1,{4:1,29:1,20:1});_.q=function yo(a){return this===a};_.s=function zo(){return JG(this)};_.t=function Ao(){return this.b!=null?this.b:''+this.c};_.c=0;var Nh=xD(VG,'Enum',20);Pi(59,20,{59:1,4:1,29:1,20:1},Go);var Co,Do,Eo;var Ce=yD(iH,'UILifecycle/UIState',59,Ho);Pi(321,1,XG);var uh=xD(GH,'VaadinUriResolver',321);Pi(49,321,{49:1,4:1},Mo);_.qb=function No(a){return Lo(this,a)};var Ee=xD(iH,'URIResolver',49);var So=false,To;Pi(113,1,{},bp);_.H=function cp(){Zo(this.a)};var Fe=xD('com.vaadin.client.bootstrap','Bootstrapper/lambda$0$Type',113);Pi(99,1,{},tp);_.rb=function vp(){return Ic(lk(this.d,lf),21).f};_.sb=function xp(a){this.f=(Rp(),Pp);Wn(Ic(lk(Ic(lk(this.d,Oe),16).c,ye),22),'','Client unexpectedly disconnected. Ensure client timeout is disabled.','',null,null)};_.tb=function yp(a){this.f=(Rp(),Op);Ic(lk(this.d,Oe),16);$j&&($wnd.console.log('Push connection closed'),undefined)};_.ub=function zp(a){this.f=(Rp(),Pp);dq(Ic(lk(this.d,Oe),16),'Push connection using '+a[LH]+' failed!')};_.vb=function Ap(a){var b,c;c=a['responseBody'];b=Dr(Er(c));if(!b){lq(Ic(lk(this.d,Oe),16),this,c);return}else{fk('Received push ('+this.g+') message: '+c);qr(Ic(lk(this.d,lf),21),b)}};_.wb=function Bp(a){fk('Push connection established using '+a[LH]);qp(this,a)};_.xb=function Cp(a,b){this.f==(Rp(),Np)&&(this.f=Op);oq(Ic(lk(this.d,Oe),16),this)};_.yb=function Dp(a){fk('Push connection re-established using '+a[LH]);qp(this,a)};_.zb=function Ep(){gk('Push connection using primary method ('+this.a[LH]+') failed. Trying with '+this.a['fallbackTransport'])};var Ne=xD(OH,'AtmospherePushConnection',99);Pi(242,1,{},Fp);_.H=function Gp(){hp(this.a)};var Ge=xD(OH,'AtmospherePushConnection/0methodref$connect$Type',242);Pi(244,1,oH,Hp);_.eb=function Ip(a){pq(Ic(lk(this.a.d,Oe),16),a.a)};_.fb=function Jp(a){if(wp()){fk(this.c+' loaded');pp(this.b.a)}else{pq(Ic(lk(this.a.d,Oe),16),a.a)}};var He=xD(OH,'AtmospherePushConnection/1',244);Pi(239,1,{},Mp);_.a=0;var Ie=xD(OH,'AtmospherePushConnection/FragmentedMessage',239);Pi(51,20,{51:1,4:1,29:1,20:1},Sp);var Np,Op,Pp,Qp;var Je=yD(OH,'AtmospherePushConnection/State',51,Tp);Pi(241,1,PH,Up);_.pb=function Vp(a){np(this.a,a)};var Ke=xD(OH,'AtmospherePushConnection/lambda$0$Type',241);Pi(240,1,qH,Wp);_.H=function Xp(){};var Le=xD(OH,'AtmospherePushConnection/lambda$1$Type',240);Pi(353,$wnd.Function,{},Yp);_.db=function Zp(a,b){op(this.a,Pc(a),Pc(b))};Pi(243,1,qH,$p);_.H=function _p(){pp(this.a)};var Me=xD(OH,'AtmospherePushConnection/lambda$3$Type',243);var Oe=zD(OH,'ConnectionStateHandler');Pi(213,1,{16:1},xq);_.a=0;_.b=null;var Ue=xD(OH,'DefaultConnectionStateHandler',213);Pi(215,40,{},yq);_.M=function zq(){this.a.d=null;bq(this.a,this.b)};var Pe=xD(OH,'DefaultConnectionStateHandler/1',215);Pi(62,20,{62:1,4:1,29:1,20:1},Fq);_.a=0;var Aq,Bq,Cq;var Qe=yD(OH,'DefaultConnectionStateHandler/Type',62,Gq);Pi(214,1,PH,Hq);_.pb=function Iq(a){jq(this.a,a)};var Re=xD(OH,'DefaultConnectionStateHandler/lambda$0$Type',214);Pi(216,1,{},Jq);_.V=function Kq(a){cq(this.a)};var Se=xD(OH,'DefaultConnectionStateHandler/lambda$1$Type',216);Pi(217,1,{},Lq);_.V=function Mq(a){kq(this.a)};var Te=xD(OH,'DefaultConnectionStateHandler/lambda$2$Type',217);Pi(55,1,{55:1},Rq);_.a=-1;var Ye=xD(OH,'Heartbeat',55);Pi(210,40,{},Sq);_.M=function Tq(){Pq(this.a)};var Ve=xD(OH,'Heartbeat/1',210);Pi(212,1,{},Uq);_.nb=function Vq(a,b){!b?hq(Ic(lk(this.a.b,Oe),16),a):gq(Ic(lk(this.a.b,Oe),16),b);Oq(this.a)};_.ob=function Wq(a){iq(Ic(lk(this.a.b,Oe),16));Oq(this.a)};var We=xD(OH,'Heartbeat/2',212);Pi(211,1,PH,Xq);_.pb=function Yq(a){Nq(this.a,a)};var Xe=xD(OH,'Heartbeat/lambda$0$Type',211);Pi(168,1,{},ar);_.hb=function br(a){Yj('firstDelay',YD(Ic(a,25).a))};var Ze=xD(OH,'LoadingIndicatorConfigurator/0methodref$setFirstDelay$Type',168);Pi(169,1,{},cr);_.hb=function dr(a){Yj('secondDelay',YD(Ic(a,25).a))};var $e=xD(OH,'LoadingIndicatorConfigurator/1methodref$setSecondDelay$Type',169);Pi(170,1,{},er);_.hb=function fr(a){Yj('thirdDelay',YD(Ic(a,25).a))};var _e=xD(OH,'LoadingIndicatorConfigurator/2methodref$setThirdDelay$Type',170);Pi(171,1,DH,gr);_.lb=function hr(a){_q(Nz(Ic(a.e,13)))};var af=xD(OH,'LoadingIndicatorConfigurator/lambda$3$Type',171);Pi(172,1,DH,ir);_.lb=function jr(a){$q(this.b,this.a,a)};_.a=0;var bf=xD(OH,'LoadingIndicatorConfigurator/lambda$4$Type',172);Pi(21,1,{21:1},Ar);_.a=0;_.b='init';_.d=false;_.e=0;_.f=-1;_.h=null;_.l=0;var lf=xD(OH,'MessageHandler',21);Pi(177,1,qH,Fr);_.H=function Gr(){!vz&&$wnd.Polymer!=null&&jE($wnd.Polymer.version.substr(0,'1.'.length),'1.')&&(vz=true,$j&&($wnd.console.log('Polymer micro is now loaded, using Polymer DOM API'),undefined),uz=new xz,undefined)};var cf=xD(OH,'MessageHandler/0methodref$updateApiImplementation$Type',177);Pi(176,40,{},Hr);_.M=function Ir(){mr(this.a)};var df=xD(OH,'MessageHandler/1',176);Pi(341,$wnd.Function,{},Jr);_.hb=function Kr(a){kr(Ic(a,6))};Pi(60,1,{60:1},Lr);var ef=xD(OH,'MessageHandler/PendingUIDLMessage',60);Pi(178,1,qH,Mr);_.H=function Nr(){xr(this.a,this.d,this.b,this.c)};_.c=0;var ff=xD(OH,'MessageHandler/lambda$1$Type',178);Pi(180,1,wH,Or);_.gb=function Pr(){sB(new Qr(this.a,this.b))};var gf=xD(OH,'MessageHandler/lambda$3$Type',180);Pi(179,1,wH,Qr);_.gb=function Rr(){ur(this.a,this.b)};var hf=xD(OH,'MessageHandler/lambda$4$Type',179);Pi(182,1,wH,Sr);_.gb=function Tr(){vr(this.a)};var jf=xD(OH,'MessageHandler/lambda$5$Type',182);Pi(181,1,{},Ur);_.H=function Vr(){this.a.forEach(Ri(Jr.prototype.hb,Jr,[]))};var kf=xD(OH,'MessageHandler/lambda$6$Type',181);Pi(18,1,{18:1},es);_.a=0;_.d=0;var nf=xD(OH,'MessageSender',18);Pi(174,1,qH,gs);_.H=function hs(){Xr(this.a)};var mf=xD(OH,'MessageSender/lambda$0$Type',174);Pi(163,1,DH,ks);_.lb=function ls(a){is(this.a,a)};var of=xD(OH,'PollConfigurator/lambda$0$Type',163);Pi(73,1,{73:1},ps);_.Ab=function qs(){var a;a=Ic(lk(this.b,Xf),10);Ou(a,a.e,'ui-poll',null)};_.a=null;var rf=xD(OH,'Poller',73);Pi(165,40,{},rs);_.M=function ss(){var a;a=Ic(lk(this.a.b,Xf),10);Ou(a,a.e,'ui-poll',null)};var pf=xD(OH,'Poller/1',165);Pi(164,1,PH,ts);_.pb=function us(a){ms(this.a,a)};var qf=xD(OH,'Poller/lambda$0$Type',164);Pi(48,1,{48:1},ys);var vf=xD(OH,'PushConfiguration',48);Pi(223,1,DH,Bs);_.lb=function Cs(a){xs(this.a,a)};var sf=xD(OH,'PushConfiguration/0methodref$onPushModeChange$Type',223);Pi(224,1,wH,Ds);_.gb=function Es(){ds(Ic(lk(this.a.a,nf),18),true)};var tf=xD(OH,'PushConfiguration/lambda$1$Type',224);Pi(225,1,wH,Fs);_.gb=function Gs(){ds(Ic(lk(this.a.a,nf),18),false)};var uf=xD(OH,'PushConfiguration/lambda$2$Type',225);Pi(347,$wnd.Function,{},Hs);_.db=function Is(a,b){As(this.a,Ic(a,13),Pc(b))};Pi(35,1,{35:1},Js);var xf=xD(OH,'ReconnectConfiguration',35);Pi(167,1,qH,Ks);_.H=function Ls(){aq(this.a)};var wf=xD(OH,'ReconnectConfiguration/lambda$0$Type',167);Pi(15,1,{15:1},Rs);_.b=false;var zf=xD(OH,'RequestResponseTracker',15);Pi(175,1,{},Ss);_.H=function Ts(){Ps(this.a)};var yf=xD(OH,'RequestResponseTracker/lambda$0$Type',175);Pi(238,322,{},Us);_.O=function Vs(a){bd(a);null.nc()};_.P=function Ws(){return null};var Af=xD(OH,'RequestStartingEvent',238);Pi(222,322,{},Ys);_.O=function Zs(a){Ic(a,326).a.b=false};_.P=function $s(){return Xs};var Xs;var Bf=xD(OH,'ResponseHandlingEndedEvent',222);Pi(279,322,{},_s);_.O=function at(a){bd(a);null.nc()};_.P=function bt(){return null};var Cf=xD(OH,'ResponseHandlingStartedEvent',279);Pi(32,1,{32:1},jt);_.Bb=function kt(a,b,c){ct(this,a,b,c)};_.Cb=function lt(a,b,c){var d;d={};d[mH]='channel';d[aI]=Object(a);d['channel']=Object(b);d['args']=c;gt(this,d)};var Df=xD(OH,'ServerConnector',32);Pi(34,1,{34:1},rt);_.b=false;var mt;var Hf=xD(OH,'ServerRpcQueue',34);Pi(204,1,pH,st);_.M=function tt(){pt(this.a)};var Ef=xD(OH,'ServerRpcQueue/0methodref$doFlush$Type',204);Pi(203,1,pH,ut);_.M=function vt(){nt()};var Ff=xD(OH,'ServerRpcQueue/lambda$0$Type',203);Pi(205,1,{},wt);_.H=function xt(){this.a.a.M()};var Gf=xD(OH,'ServerRpcQueue/lambda$2$Type',205);Pi(71,1,{71:1},At);_.b=false;var Nf=xD(OH,'XhrConnection',71);Pi(221,40,{},Ct);_.M=function Dt(){Bt(this.b)&&this.a.b&&Yi(this,250)};var If=xD(OH,'XhrConnection/1',221);Pi(218,1,{},Ft);_.nb=function Gt(a,b){var c;c=new Lt(a,this.a);if(!b){vq(Ic(lk(this.c.a,Oe),16),c);return}else{tq(Ic(lk(this.c.a,Oe),16),c)}};_.ob=function Ht(a){var b,c;fk('Server visit took '+Ym(this.b)+'ms');c=a.responseText;b=Dr(Er(c));if(!b){uq(Ic(lk(this.c.a,Oe),16),new Lt(a,this.a));return}wq(Ic(lk(this.c.a,Oe),16));$j&&MC($wnd.console,'Received xhr message: '+c);qr(Ic(lk(this.c.a,lf),21),b)};_.b=0;var Jf=xD(OH,'XhrConnection/XhrResponseHandler',218);Pi(219,1,{},It);_.V=function Jt(a){this.a.b=true};var Kf=xD(OH,'XhrConnection/lambda$0$Type',219);Pi(220,1,{326:1},Kt);var Lf=xD(OH,'XhrConnection/lambda$1$Type',220);Pi(102,1,{},Lt);var Mf=xD(OH,'XhrConnectionError',102);Pi(57,1,{57:1},Pt);var Of=xD(dI,'ConstantPool',57);Pi(84,1,{84:1},Xt);_.Db=function Yt(){return Ic(lk(this.a,td),8).a};var Sf=xD(dI,'ExecuteJavaScriptProcessor',84);Pi(207,1,kH,Zt);_.W=function $t(a){var b;return sB(new _t(this.a,(b=this.b,b))),nD(),true};var Pf=xD(dI,'ExecuteJavaScriptProcessor/lambda$0$Type',207);Pi(206,1,wH,_t);_.gb=function au(){St(this.a,this.b)};var Qf=xD(dI,'ExecuteJavaScriptProcessor/lambda$1$Type',206);Pi(208,1,pH,bu);_.M=function cu(){Wt(this.a)};var Rf=xD(dI,'ExecuteJavaScriptProcessor/lambda$2$Type',208);Pi(296,1,{},du);var Tf=xD(dI,'NodeUnregisterEvent',296);Pi(6,1,{6:1},qu);_.Eb=function ru(){return hu(this)};_.Fb=function su(){return this.g};_.d=0;_.i=false;var Wf=xD(dI,'StateNode',6);Pi(334,$wnd.Function,{},uu);_.db=function vu(a,b){ku(this.a,this.b,Ic(a,33),Kc(b))};Pi(335,$wnd.Function,{},wu);_.hb=function xu(a){tu(this.a,Ic(a,104))};var xh=zD('elemental.events','EventRemover');Pi(151,1,hI,yu);_.Gb=function zu(){lu(this.a,this.b)};var Uf=xD(dI,'StateNode/lambda$2$Type',151);Pi(336,$wnd.Function,{},Au);_.hb=function Bu(a){mu(this.a,Ic(a,66))};Pi(152,1,hI,Cu);_.Gb=function Du(){nu(this.a,this.b)};var Vf=xD(dI,'StateNode/lambda$4$Type',152);Pi(10,1,{10:1},Uu);_.Hb=function Vu(){return this.e};_.Ib=function Xu(a,b,c,d){var e;if(Ju(this,a)){e=Nc(c);it(Ic(lk(this.c,Df),32),a,b,e,d)}};_.d=false;_.f=false;var Xf=xD(dI,'StateTree',10);Pi(339,$wnd.Function,{},Yu);_.hb=function Zu(a){gu(Ic(a,6),Ri(av.prototype.db,av,[]))};Pi(340,$wnd.Function,{},$u);_.db=function _u(a,b){var c;Lu(this.a,(c=Ic(a,6),Kc(b),c))};Pi(325,$wnd.Function,{},av);_.db=function bv(a,b){Wu(Ic(a,33),Kc(b))};var jv,kv;Pi(173,1,{},pv);var Yf=xD(oI,'Binder/BinderContextImpl',173);var Zf=zD(oI,'BindingStrategy');Pi(79,1,{79:1},uv);_.g=0;var qv;var ag=xD(oI,'Debouncer',79);Pi(324,1,{});_.c=false;_.d=0;var Bh=xD(rI,'Timer',324);Pi(299,324,{},Av);var $f=xD(oI,'Debouncer/1',299);Pi(300,324,{},Cv);var _f=xD(oI,'Debouncer/2',300);Pi(368,$wnd.Function,{},Ev);_.db=function Fv(a,b){var c;Dv(this,(c=Oc(a,$wnd.Map),Nc(b),c))};Pi(369,$wnd.Function,{},Iv);_.hb=function Jv(a){Gv(this.a,Oc(a,$wnd.Map))};Pi(370,$wnd.Function,{},Kv);_.hb=function Lv(a){Hv(this.a,Ic(a,79))};Pi(293,1,lH,Pv);_.cb=function Qv(){return aw(this.a)};var bg=xD(oI,'ServerEventHandlerBinder/lambda$0$Type',293);Pi(294,1,BH,Rv);_.ib=function Sv(a){Ov(this.b,this.a,this.c,a)};_.c=false;var cg=xD(oI,'ServerEventHandlerBinder/lambda$1$Type',294);var Tv;Pi(245,1,{303:1},_w);_.Jb=function ax(a,b,c){iw(this,a,b,c)};_.Kb=function dx(a){return sw(a)};_.Mb=function ix(a,b){var c,d,e;d=Object.keys(a);e=new Ty(d,a,b);c=Ic(b.e.get(eg),76);!c?Qw(e.b,e.a,e.c):(c.a=e)};_.Nb=function jx(r,s){var t=this;var u=s._propertiesChanged;u&&(s._propertiesChanged=function(a,b,c){RG(function(){t.Mb(b,r)})();u.apply(this,arguments)});var v=r.Fb();var w=s.ready;s.ready=function(){w.apply(this,arguments);gm(s);var q=function(){var o=s.root.querySelector(zI);if(o){s.removeEventListener(AI,q)}else{return}if(!o.constructor.prototype.$propChangedModified){o.constructor.prototype.$propChangedModified=true;var p=o.constructor.prototype._propertiesChanged;o.constructor.prototype._propertiesChanged=function(a,b,c){p.apply(this,arguments);var d=Object.getOwnPropertyNames(b);var e='items.';var f;for(f=0;f<d.length;f++){var g=d[f].indexOf(e);if(g==0){var h=d[f].substr(e.length);g=h.indexOf('.');if(g>0){var i=h.substr(0,g);var j=h.substr(g+1);var k=a.items[i];if(k&&k.nodeId){var l=k.nodeId;var m=k[j];var n=this.__dataHost;while(!n.localName||n.__dataHost){n=n.__dataHost}RG(function(){hx(l,n,j,m,v)})()}}}}}}};s.root&&s.root.querySelector(zI)?q():s.addEventListener(AI,q)}};_.Lb=function kx(a){if(a.c.has(0)){return true}return !!a.g&&K(a,a.g.e)};var cw,dw;var Jg=xD(oI,'SimpleElementBindingStrategy',245);Pi(358,$wnd.Function,{},zx);_.hb=function Ax(a){Ic(a,44).Gb()};Pi(362,$wnd.Function,{},Bx);_.hb=function Cx(a){Ic(a,19).M()};Pi(100,1,{},Dx);var dg=xD(oI,'SimpleElementBindingStrategy/BindingContext',100);Pi(76,1,{76:1},Ex);var eg=xD(oI,'SimpleElementBindingStrategy/InitialPropertyUpdate',76);Pi(246,1,{},Fx);_.Ob=function Gx(a){Ew(this.a,a)};var fg=xD(oI,'SimpleElementBindingStrategy/lambda$0$Type',246);Pi(247,1,{},Hx);_.Ob=function Ix(a){Fw(this.a,a)};var gg=xD(oI,'SimpleElementBindingStrategy/lambda$1$Type',247);Pi(354,$wnd.Function,{},Jx);_.db=function Kx(a,b){var c;lx(this.b,this.a,(c=Ic(a,13),Pc(b),c))};Pi(256,1,CH,Lx);_.kb=function Mx(a){mx(this.b,this.a,a)};var hg=xD(oI,'SimpleElementBindingStrategy/lambda$11$Type',256);Pi(257,1,DH,Nx);_.lb=function Ox(a){Yw(this.c,this.b,this.a)};var ig=xD(oI,'SimpleElementBindingStrategy/lambda$12$Type',257);Pi(258,1,wH,Px);_.gb=function Qx(){Gw(this.b,this.c,this.a)};var jg=xD(oI,'SimpleElementBindingStrategy/lambda$13$Type',258);Pi(259,1,qH,Rx);_.H=function Sx(){this.b.Ob(this.a)};var kg=xD(oI,'SimpleElementBindingStrategy/lambda$14$Type',259);Pi(260,1,qH,Tx);_.H=function Ux(){this.a[this.b]=cm(this.c)};var lg=xD(oI,'SimpleElementBindingStrategy/lambda$15$Type',260);Pi(262,1,BH,Vx);_.ib=function Wx(a){Hw(this.a,a)};var mg=xD(oI,'SimpleElementBindingStrategy/lambda$16$Type',262);Pi(261,1,wH,Xx);_.gb=function Yx(){zw(this.b,this.a)};var ng=xD(oI,'SimpleElementBindingStrategy/lambda$17$Type',261);Pi(264,1,BH,Zx);_.ib=function $x(a){Iw(this.a,a)};var og=xD(oI,'SimpleElementBindingStrategy/lambda$18$Type',264);Pi(263,1,wH,_x);_.gb=function ay(){Jw(this.b,this.a)};var pg=xD(oI,'SimpleElementBindingStrategy/lambda$19$Type',263);Pi(248,1,{},by);_.Ob=function cy(a){Kw(this.a,a)};var qg=xD(oI,'SimpleElementBindingStrategy/lambda$2$Type',248);Pi(265,1,pH,dy);_.M=function ey(){Bw(this.a,this.b,this.c,false)};var rg=xD(oI,'SimpleElementBindingStrategy/lambda$20$Type',265);Pi(266,1,pH,fy);_.M=function gy(){Bw(this.a,this.b,this.c,false)};var sg=xD(oI,'SimpleElementBindingStrategy/lambda$21$Type',266);Pi(267,1,pH,hy);_.M=function iy(){Dw(this.a,this.b,this.c,false)};var tg=xD(oI,'SimpleElementBindingStrategy/lambda$22$Type',267);Pi(268,1,lH,jy);_.cb=function ky(){return nx(this.a,this.b)};var ug=xD(oI,'SimpleElementBindingStrategy/lambda$23$Type',268);Pi(269,1,lH,ly);_.cb=function my(){return ox(this.a,this.b)};var vg=xD(oI,'SimpleElementBindingStrategy/lambda$24$Type',269);Pi(355,$wnd.Function,{},ny);_.db=function oy(a,b){var c;gB((c=Ic(a,74),Pc(b),c))};Pi(356,$wnd.Function,{},py);_.hb=function qy(a){px(this.a,Oc(a,$wnd.Map))};Pi(357,$wnd.Function,{},ry);_.db=function sy(a,b){var c;(c=Ic(a,44),Pc(b),c).Gb()};Pi(249,1,{104:1},ty);_.jb=function uy(a){Rw(this.c,this.b,this.a)};var wg=xD(oI,'SimpleElementBindingStrategy/lambda$3$Type',249);Pi(359,$wnd.Function,{},vy);_.db=function wy(a,b){var c;Lw(this.a,(c=Ic(a,13),Pc(b),c))};Pi(270,1,CH,xy);_.kb=function yy(a){Mw(this.a,a)};var xg=xD(oI,'SimpleElementBindingStrategy/lambda$31$Type',270);Pi(271,1,qH,zy);_.H=function Ay(){Nw(this.b,this.a,this.c)};var yg=xD(oI,'SimpleElementBindingStrategy/lambda$32$Type',271);Pi(272,1,{},By);_.V=function Cy(a){Ow(this.a,a)};var zg=xD(oI,'SimpleElementBindingStrategy/lambda$33$Type',272);Pi(360,$wnd.Function,{},Dy);_.hb=function Ey(a){Pw(this.a,this.b,Pc(a))};Pi(273,1,{},Gy);_.hb=function Hy(a){Fy(this,a)};var Ag=xD(oI,'SimpleElementBindingStrategy/lambda$35$Type',273);Pi(274,1,BH,Iy);_.ib=function Jy(a){rx(this.a,a)};var Bg=xD(oI,'SimpleElementBindingStrategy/lambda$37$Type',274);Pi(275,1,lH,Ky);_.cb=function Ly(){return this.a.b};var Cg=xD(oI,'SimpleElementBindingStrategy/lambda$38$Type',275);Pi(361,$wnd.Function,{},My);_.hb=function Ny(a){this.a.push(Ic(a,6))};Pi(251,1,wH,Oy);_.gb=function Py(){sx(this.a)};var Dg=xD(oI,'SimpleElementBindingStrategy/lambda$4$Type',251);Pi(250,1,{},Qy);_.H=function Ry(){tx(this.a)};var Eg=xD(oI,'SimpleElementBindingStrategy/lambda$5$Type',250);Pi(253,1,pH,Ty);_.M=function Uy(){Sy(this)};var Fg=xD(oI,'SimpleElementBindingStrategy/lambda$6$Type',253);Pi(252,1,lH,Vy);_.cb=function Wy(){return this.a[this.b]};var Gg=xD(oI,'SimpleElementBindingStrategy/lambda$7$Type',252);Pi(255,1,CH,Xy);_.kb=function Yy(a){rB(new Zy(this.a))};var Hg=xD(oI,'SimpleElementBindingStrategy/lambda$8$Type',255);Pi(254,1,wH,Zy);_.gb=function $y(){hw(this.a)};var Ig=xD(oI,'SimpleElementBindingStrategy/lambda$9$Type',254);Pi(276,1,{303:1},dz);_.Jb=function ez(a,b,c){bz(a,b)};_.Kb=function fz(a){return $doc.createTextNode('')};_.Lb=function gz(a){return a.c.has(7)};var _y;var Mg=xD(oI,'TextBindingStrategy',276);Pi(277,1,qH,hz);_.H=function iz(){az();GC(this.a,Pc(Kz(this.b)))};var Kg=xD(oI,'TextBindingStrategy/lambda$0$Type',277);Pi(278,1,{104:1},jz);_.jb=function kz(a){cz(this.b,this.a)};var Lg=xD(oI,'TextBindingStrategy/lambda$1$Type',278);Pi(333,$wnd.Function,{},oz);_.hb=function pz(a){this.a.add(a)};Pi(337,$wnd.Function,{},rz);_.db=function sz(a,b){this.a.push(a)};var uz,vz=false;Pi(285,1,{},xz);var Ng=xD('com.vaadin.client.flow.dom','PolymerDomApiImpl',285);Pi(77,1,{77:1},yz);var Og=xD('com.vaadin.client.flow.model','UpdatableModelProperties',77);Pi(367,$wnd.Function,{},zz);_.hb=function Az(a){this.a.add(Pc(a))};Pi(86,1,{});_.Pb=function Cz(){return this.e};var nh=xD(vH,'ReactiveValueChangeEvent',86);Pi(52,86,{52:1},Dz);_.Pb=function Ez(){return Ic(this.e,27)};_.b=false;_.c=0;var Pg=xD(BI,'ListSpliceEvent',52);Pi(13,1,{13:1,304:1},Tz);_.Qb=function Uz(a){return Wz(this.a,a)};_.b=false;_.c=false;_.d=false;var Fz;var Yg=xD(BI,'MapProperty',13);Pi(85,1,{});var mh=xD(vH,'ReactiveEventRouter',85);Pi(231,85,{},aA);_.Rb=function bA(a,b){Ic(a,45).lb(Ic(b,78))};_.Sb=function cA(a){return new dA(a)};var Rg=xD(BI,'MapProperty/1',231);Pi(232,1,DH,dA);_.lb=function eA(a){eB(this.a)};var Qg=xD(BI,'MapProperty/1/0methodref$onValueChange$Type',232);Pi(230,1,pH,fA);_.M=function gA(){Gz()};var Sg=xD(BI,'MapProperty/lambda$0$Type',230);Pi(233,1,wH,hA);_.gb=function iA(){this.a.d=false};var Tg=xD(BI,'MapProperty/lambda$1$Type',233);Pi(234,1,wH,jA);_.gb=function kA(){this.a.d=false};var Ug=xD(BI,'MapProperty/lambda$2$Type',234);Pi(235,1,pH,lA);_.M=function mA(){Pz(this.a,this.b)};var Vg=xD(BI,'MapProperty/lambda$3$Type',235);Pi(87,86,{87:1},nA);_.Pb=function oA(){return Ic(this.e,41)};var Wg=xD(BI,'MapPropertyAddEvent',87);Pi(78,86,{78:1},pA);_.Pb=function qA(){return Ic(this.e,13)};var Xg=xD(BI,'MapPropertyChangeEvent',78);Pi(33,1,{33:1});_.d=0;var Zg=xD(BI,'NodeFeature',33);Pi(27,33,{33:1,27:1,304:1},yA);_.Qb=function zA(a){return Wz(this.a,a)};_.Tb=function AA(a){var b,c,d;c=[];for(b=0;b<this.c.length;b++){d=this.c[b];c[c.length]=cm(d)}return c};_.Ub=function BA(){var a,b,c,d;b=[];for(a=0;a<this.c.length;a++){d=this.c[a];c=rA(d);b[b.length]=c}return b};_.b=false;var ah=xD(BI,'NodeList',27);Pi(282,85,{},CA);_.Rb=function DA(a,b){Ic(a,64).ib(Ic(b,52))};_.Sb=function EA(a){return new FA(a)};var _g=xD(BI,'NodeList/1',282);Pi(283,1,BH,FA);_.ib=function GA(a){eB(this.a)};var $g=xD(BI,'NodeList/1/0methodref$onValueChange$Type',283);Pi(41,33,{33:1,41:1,304:1},MA);_.Qb=function NA(a){return Wz(this.a,a)};_.Tb=function OA(a){var b;b={};this.b.forEach(Ri($A.prototype.db,$A,[a,b]));return b};_.Ub=function PA(){var a,b;a={};this.b.forEach(Ri(YA.prototype.db,YA,[a]));if((b=ZC(a),b).length==0){return null}return a};var eh=xD(BI,'NodeMap',41);Pi(226,85,{},RA);_.Rb=function SA(a,b){Ic(a,81).kb(Ic(b,87))};_.Sb=function TA(a){return new UA(a)};var dh=xD(BI,'NodeMap/1',226);Pi(227,1,CH,UA);_.kb=function VA(a){eB(this.a)};var bh=xD(BI,'NodeMap/1/0methodref$onValueChange$Type',227);Pi(348,$wnd.Function,{},WA);_.db=function XA(a,b){this.a.push((Ic(a,13),Pc(b)))};Pi(349,$wnd.Function,{},YA);_.db=function ZA(a,b){LA(this.a,Ic(a,13),Pc(b))};Pi(350,$wnd.Function,{},$A);_.db=function _A(a,b){QA(this.a,this.b,Ic(a,13),Pc(b))};Pi(74,1,{74:1});_.d=false;_.e=false;var hh=xD(vH,'Computation',74);Pi(236,1,wH,hB);_.gb=function iB(){fB(this.a)};var fh=xD(vH,'Computation/0methodref$recompute$Type',236);Pi(237,1,qH,jB);_.H=function kB(){this.a.a.H()};var gh=xD(vH,'Computation/1methodref$doRecompute$Type',237);Pi(352,$wnd.Function,{},lB);_.hb=function mB(a){wB(Ic(a,327).a)};var nB=null,oB,pB=false,qB;Pi(75,74,{74:1},vB);var jh=xD(vH,'Reactive/1',75);Pi(228,1,hI,xB);_.Gb=function yB(){wB(this)};var kh=xD(vH,'ReactiveEventRouter/lambda$0$Type',228);Pi(229,1,{327:1},zB);var lh=xD(vH,'ReactiveEventRouter/lambda$1$Type',229);Pi(351,$wnd.Function,{},AB);_.hb=function BB(a){Zz(this.a,this.b,a)};Pi(101,323,{},MB);_.b=0;var rh=xD(DI,'SimpleEventBus',101);var oh=zD(DI,'SimpleEventBus/Command');Pi(280,1,{},NB);var ph=xD(DI,'SimpleEventBus/lambda$0$Type',280);Pi(281,1,{328:1},OB);var qh=xD(DI,'SimpleEventBus/lambda$1$Type',281);Pi(96,1,{},TB);_.N=function UB(a){if(a.readyState==4){if(a.status==200){this.a.ob(a);fj(a);return}this.a.nb(a,null);fj(a)}};var sh=xD('com.vaadin.client.gwt.elemental.js.util','Xhr/Handler',96);Pi(295,1,XG,bC);_.a=-1;_.b=false;_.c=false;_.d=false;_.e=false;_.f=false;_.g=false;_.h=false;_.i=false;_.j=false;_.k=false;_.l=false;var th=xD(GH,'BrowserDetails',295);Pi(43,20,{43:1,4:1,29:1,20:1},jC);var eC,fC,gC,hC;var vh=yD(LI,'Dependency/Type',43,kC);var lC;Pi(42,20,{42:1,4:1,29:1,20:1},rC);var nC,oC,pC;var wh=yD(LI,'LoadMode',42,sC);Pi(114,1,hI,IC);_.Gb=function JC(){xC(this.b,this.c,this.a,this.d)};_.d=false;var yh=xD('elemental.js.dom','JsElementalMixinBase/Remover',114);Pi(301,1,{},$C);_.Vb=function _C(){zv(this.a)};var zh=xD(rI,'Timer/1',301);Pi(302,1,{},aD);_.Vb=function bD(){Bv(this.a)};var Ah=xD(rI,'Timer/2',302);Pi(317,1,{});var Dh=xD(MI,'OutputStream',317);Pi(318,317,{});var Ch=xD(MI,'FilterOutputStream',318);Pi(124,318,{},cD);var Eh=xD(MI,'PrintStream',124);Pi(83,1,{110:1});_.t=function eD(){return this.a};var Fh=xD(VG,'AbstractStringBuilder',83);Pi(69,9,ZG,fD);var Sh=xD(VG,'IndexOutOfBoundsException',69);Pi(183,69,ZG,gD);var Gh=xD(VG,'ArrayIndexOutOfBoundsException',183);Pi(125,9,ZG,hD);var Hh=xD(VG,'ArrayStoreException',125);Pi(37,5,{4:1,37:1,5:1});var Oh=xD(VG,'Error',37);Pi(3,37,{4:1,3:1,37:1,5:1},jD,kD);var Ih=xD(VG,'AssertionError',3);Ec={4:1,115:1,29:1};var lD,mD;var Jh=xD(VG,'Boolean',115);Pi(117,9,ZG,LD);var Kh=xD(VG,'ClassCastException',117);Pi(82,1,{4:1,82:1});var MD;var Xh=xD(VG,'Number',82);Fc={4:1,29:1,116:1,82:1};var Mh=xD(VG,'Double',116);Pi(17,9,ZG,SD);var Qh=xD(VG,'IllegalArgumentException',17);Pi(38,9,ZG,TD);var Rh=xD(VG,'IllegalStateException',38);Pi(25,82,{4:1,29:1,25:1,82:1},UD);_.q=function VD(a){return Sc(a,25)&&Ic(a,25).a==this.a};_.s=function WD(){return this.a};_.t=function XD(){return ''+this.a};_.a=0;var Th=xD(VG,'Integer',25);var ZD;Pi(470,1,{});Pi(65,53,ZG,_D,aE,bE);_.v=function cE(a){return new TypeError(a)};var Vh=xD(VG,'NullPointerException',65);Pi(54,17,ZG,dE);var Wh=xD(VG,'NumberFormatException',54);Pi(28,1,{4:1,28:1},eE);_.q=function fE(a){var b;if(Sc(a,28)){b=Ic(a,28);return this.c==b.c&&this.d==b.d&&this.a==b.a&&this.b==b.b}return false};_.s=function gE(){return gF(Dc(xc(Yh,1),XG,1,5,[YD(this.c),this.a,this.d,this.b]))};_.t=function hE(){return this.a+'.'+this.d+'('+(this.b!=null?this.b:'Unknown Source')+(this.c>=0?':'+this.c:'')+')'};_.c=0;var _h=xD(VG,'StackTraceElement',28);Gc={4:1,110:1,29:1,2:1};var ci=xD(VG,'String',2);Pi(68,83,{110:1},BE,CE,DE);var ai=xD(VG,'StringBuilder',68);Pi(123,69,ZG,EE);var bi=xD(VG,'StringIndexOutOfBoundsException',123);Pi(474,1,{});var FE;Pi(105,1,kH,IE);_.W=function JE(a){return HE(a)};var di=xD(VG,'Throwable/lambda$0$Type',105);Pi(93,9,ZG,KE);var fi=xD(VG,'UnsupportedOperationException',93);Pi(319,1,{103:1});_.ac=function LE(a){throw Hi(new KE('Add not supported on this collection'))};_.t=function ME(){var a,b,c;c=new LF;for(b=this.bc();b.ec();){a=b.fc();KF(c,a===this?'(this Collection)':a==null?$G:Ti(a))}return !c.a?c.c:c.e.length==0?c.a.a:c.a.a+(''+c.e)};var gi=xD(OI,'AbstractCollection',319);Pi(320,319,{103:1,90:1});_.dc=function NE(a,b){throw Hi(new KE('Add not supported on this list'))};_.ac=function OE(a){this.dc(this.cc(),a);return true};_.q=function PE(a){var b,c,d,e,f;if(a===this){return true}if(!Sc(a,39)){return false}f=Ic(a,90);if(this.a.length!=f.a.length){return false}e=new dF(f);for(c=new dF(this);c.a<c.c.a.length;){b=cF(c);d=cF(e);if(!(_c(b)===_c(d)||b!=null&&K(b,d))){return false}}return true};_.s=function QE(){return jF(this)};_.bc=function RE(){return new SE(this)};var ii=xD(OI,'AbstractList',320);Pi(132,1,{},SE);_.ec=function TE(){return this.a<this.b.a.length};_.fc=function UE(){BG(this.a<this.b.a.length);return WE(this.b,this.a++)};_.a=0;var hi=xD(OI,'AbstractList/IteratorImpl',132);Pi(39,320,{4:1,39:1,103:1,90:1},ZE);_.dc=function $E(a,b){EG(a,this.a.length);xG(this.a,a,b)};_.ac=function _E(a){return VE(this,a)};_.bc=function aF(){return new dF(this)};_.cc=function bF(){return this.a.length};var ki=xD(OI,'ArrayList',39);Pi(70,1,{},dF);_.ec=function eF(){return this.a<this.c.a.length};_.fc=function fF(){return cF(this)};_.a=0;_.b=-1;var ji=xD(OI,'ArrayList/1',70);Pi(150,9,ZG,kF);var li=xD(OI,'NoSuchElementException',150);Pi(63,1,{63:1},qF);_.q=function rF(a){var b;if(a===this){return true}if(!Sc(a,63)){return false}b=Ic(a,63);return lF(this.a,b.a)};_.s=function sF(){return mF(this.a)};_.t=function uF(){return this.a!=null?'Optional.of('+xE(this.a)+')':'Optional.empty()'};var nF;var mi=xD(OI,'Optional',63);Pi(138,1,{});_.ic=function zF(a){vF(this,a)};_.gc=function xF(){return this.c};_.hc=function yF(){return this.d};_.c=0;_.d=0;var qi=xD(OI,'Spliterators/BaseSpliterator',138);Pi(139,138,{});var ni=xD(OI,'Spliterators/AbstractSpliterator',139);Pi(135,1,{});_.ic=function FF(a){vF(this,a)};_.gc=function DF(){return this.b};_.hc=function EF(){return this.d-this.c};_.b=0;_.c=0;_.d=0;var pi=xD(OI,'Spliterators/BaseArraySpliterator',135);Pi(136,135,{},HF);_.ic=function IF(a){BF(this,a)};_.jc=function JF(a){return CF(this,a)};var oi=xD(OI,'Spliterators/ArraySpliterator',136);Pi(122,1,{},LF);_.t=function MF(){return !this.a?this.c:this.e.length==0?this.a.a:this.a.a+(''+this.e)};var ri=xD(OI,'StringJoiner',122);Pi(109,1,kH,NF);_.W=function OF(a){return a};var si=xD('java.util.function','Function/lambda$0$Type',109);Pi(47,20,{4:1,29:1,20:1,47:1},UF);var QF,RF,SF;var ti=yD(QI,'Collector/Characteristics',47,VF);Pi(284,1,{},WF);var ui=xD(QI,'CollectorImpl',284);Pi(107,1,nH,YF);_.db=function ZF(a,b){XF(a,b)};var vi=xD(QI,'Collectors/20methodref$add$Type',107);Pi(106,1,lH,$F);_.cb=function _F(){return new ZE};var wi=xD(QI,'Collectors/21methodref$ctor$Type',106);Pi(108,1,{},aG);var xi=xD(QI,'Collectors/lambda$42$Type',108);Pi(137,1,{});_.c=false;var Ei=xD(QI,'TerminatableStream',137);Pi(95,137,{},iG);var Di=xD(QI,'StreamImpl',95);Pi(140,139,{},mG);_.jc=function nG(a){return this.b.jc(new oG(this,a))};var zi=xD(QI,'StreamImpl/MapToObjSpliterator',140);Pi(142,1,{},oG);_.hb=function pG(a){lG(this.a,this.b,a)};var yi=xD(QI,'StreamImpl/MapToObjSpliterator/lambda$0$Type',142);Pi(141,1,{},rG);_.hb=function sG(a){qG(this,a)};var Ai=xD(QI,'StreamImpl/ValueConsumer',141);Pi(143,1,{},uG);var Bi=xD(QI,'StreamImpl/lambda$4$Type',143);Pi(144,1,{},vG);_.hb=function wG(a){kG(this.b,this.a,a)};var Ci=xD(QI,'StreamImpl/lambda$5$Type',144);Pi(472,1,{});Pi(469,1,{});var IG=0;var KG,LG=0,MG;var RG=(Db(),Gb);var gwtOnLoad=gwtOnLoad=Li;Ji(Vi);Mi('permProps',[[[TI,'gecko1_8']],[[TI,'safari']]]);if (client) client.onScriptLoad(gwtOnLoad);})();
+};
\ No newline at end of file
@@ -0,0 +1 @@
+import{s as e,E as o,p as r,f as a,t}from"../vaadin-dev-tools.js";import"construct-style-sheets-polyfill";import"lit";import"lit/decorators.js";import"lit/directives/class-map.js";import"lit/static-html.js";const m={tagName:"vaadin-button",displayName:"Button",elements:[{selector:"vaadin-button",displayName:"Host",properties:[e.backgroundColor,e.borderColor,e.borderWidth,e.borderRadius,{propertyName:"--lumo-button-size",displayName:"Size",editorType:o.range,presets:r.lumoSize,icon:"square"},a.paddingInline]},{selector:"vaadin-button::part(label)",displayName:"Label",properties:[t.textColor,t.fontSize,t.fontWeight]}]};export{m as default};
@@ -0,0 +1 @@
+import{s as e,E as i,p as n,f as s,t as a}from"../vaadin-dev-tools.js";import"construct-style-sheets-polyfill";import"lit";import"lit/decorators.js";import"lit/directives/class-map.js";import"lit/static-html.js";const c={tagName:"vaadin-menu-bar",displayName:"MenuBar",elements:[{selector:"vaadin-menu-bar vaadin-menu-bar-button",displayName:"Buttons",properties:[e.backgroundColor,e.borderColor,e.borderWidth,e.borderRadius,{propertyName:"--lumo-button-size",displayName:"Size",editorType:i.range,presets:n.lumoSize,icon:"square"},s.paddingInline]},{selector:"vaadin-menu-bar vaadin-menu-bar-button vaadin-menu-bar-item",displayName:"Button labels",properties:[a.textColor,a.fontSize,a.fontWeight]},{selector:"vaadin-menu-bar-overlay::part(overlay)",displayName:"Menus",properties:[e.backgroundColor,e.borderColor,e.borderWidth,e.borderRadius,e.padding]},{selector:"vaadin-menu-bar-overlay vaadin-menu-bar-item",displayName:"Menu items",properties:[a.textColor,a.fontSize,a.fontWeight]}],async setupElement(t){t.overlayClass=t.getAttribute("class");const r=document.createElement("vaadin-menu-bar-item");t.items=[{component:r,children:[{text:"Sub item"}]}],t.querySelector("vaadin-menu-bar-button").click(),await new Promise(o=>setTimeout(o,10))},async cleanupElement(t){t._close()}};export{c as default};
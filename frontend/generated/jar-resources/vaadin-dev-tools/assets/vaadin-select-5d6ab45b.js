@@ -0,0 +1 @@
+import{s as e,f as o,t,i as a}from"../vaadin-dev-tools.js";import{labelProperties as l,helperTextProperties as s,errorMessageProperties as p}from"./vaadin-text-field-e82c445d.js";import"construct-style-sheets-polyfill";import"lit";import"lit/decorators.js";import"lit/directives/class-map.js";import"lit/static-html.js";const b={tagName:"vaadin-select",displayName:"Select",elements:[{selector:"vaadin-select::part(input-field)",displayName:"Field",properties:[e.backgroundColor,e.borderColor,e.borderWidth,e.borderRadius,o.height,o.paddingInline]},{selector:"vaadin-select vaadin-select-value-button>vaadin-select-item",displayName:"Field text",properties:[t.textColor,t.fontSize,t.fontWeight]},{selector:"vaadin-select::part(toggle-button)",displayName:"Field toggle button",properties:[a.iconColor,a.iconSize]},{selector:"vaadin-select::part(label)",displayName:"Label",properties:l},{selector:"vaadin-select::part(helper-text)",displayName:"Helper text",properties:s},{selector:"vaadin-select::part(error-message)",displayName:"Error message",properties:p},{selector:"vaadin-select-overlay::part(overlay)",displayName:"Overlay",properties:[e.backgroundColor,e.borderColor,e.borderWidth,e.borderRadius,e.padding]},{selector:"vaadin-select-overlay vaadin-select-item",displayName:"Overlay items",properties:[t.textColor,t.fontSize,t.fontWeight]},{selector:"vaadin-select-overlay vaadin-select-item::part(checkmark)::before",displayName:"Overlay item checkmark",properties:[a.iconColor,a.iconSize]}],async setupElement(r){r.overlayClass=r.getAttribute("class"),r.items=[{label:"Item",value:"value"}],r.value="value",r.opened=!0,await new Promise(i=>setTimeout(i,10))},async cleanupElement(r){r.opened=!1}};export{b as default};
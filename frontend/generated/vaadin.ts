@@ -0,0 +1,5 @@
+import './vaadin-featureflags.js';
+
+import './index';
+
+import 'Frontend/generated/jar-resources/vaadin-dev-tools/vaadin-dev-tools.js';
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import com.mesofi.collection.charactercatalog.model.CatalogSnapshot;
+import com.mesofi.collection.charactercatalog.service.CharacterFigureService;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Adds the snapshot of the catalog being served to the info endpoint of the
+ * actuator.
+ */
+@Component
+@AllArgsConstructor
+public class CatalogSnapshotInfoContributor implements InfoContributor {
+
+    private final CharacterFigureService characterFigureService;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void contribute(Info.Builder builder) {
+        // the snapshot is not built here, it is reported only once it is ready.
+        CatalogSnapshot snapshot = characterFigureService.findLatestSnapshot();
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("ready", Objects.nonNull(snapshot));
+        if (Objects.nonNull(snapshot)) {
+            details.put("version", snapshot.getVersion());
+            details.put("builtAt", snapshot.getBuiltAt());
+            details.put("figures", snapshot.getFigures().size());
+        }
+        builder.withDetail("catalogSnapshot", details);
+    }
+}
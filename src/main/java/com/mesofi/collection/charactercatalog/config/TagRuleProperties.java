@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The tag rules taken from the configuration, they are applied to the figures
+ * on top of the standard ones.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "catalog.tags")
+public class TagRuleProperties {
+
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * A single rule, when the figure matches the condition the tags are added.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+        private String when; // e.g. revival, lineUp=MYTH_CLOTH_EX or series=SOG & metalBody.
+        private String tags; // comma separated tags.
+    }
+}
@@ -5,10 +5,16 @@
  */
 package com.mesofi.collection.charactercatalog.controllers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
@@ -19,15 +25,27 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mesofi.collection.charactercatalog.model.CatalogPage;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.FieldSelection;
 import com.mesofi.collection.charactercatalog.model.GalleryImage;
+import com.mesofi.collection.charactercatalog.model.LoaderJob;
+import com.mesofi.collection.charactercatalog.service.CatalogLoaderService;
 import com.mesofi.collection.charactercatalog.service.CharacterFigureService;
 import com.mesofi.collection.charactercatalog.service.CharacterFinderService;
+import com.mesofi.collection.charactercatalog.service.LoaderJobService;
 
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -46,20 +64,82 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/characters")
 public class CharacterFigureController {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int EXPORT_FLUSH_LINES = 100; // lines written before the export is flushed.
+    public static final String EXPORT_ETAG_SUFFIX = "-ndjson";
+    public static final String DOCUMENT_SEPARATOR = "-";
+    private static final String ANY_ETAG = "*"; // any version of the response.
+
     private final CharacterFigureService characterFigureService;
+    private final CatalogLoaderService catalogLoaderService;
     private final CharacterFinderService characterFinderService;
+    private final LoaderJobService loaderJobService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Handle all the incoming records.
+     * Handle all the incoming records. A file that was already loaded is not
+     * loaded again, 200 (OK) is returned with the digest of the file instead.
+     * Several files are loaded together as a single catalog, in the order they
+     * are uploaded.
      * 
-     * @param file The records to be uploaded.
+     * @param files  The records to be uploaded.
+     * @param delta  true to apply only the changes to the current catalog.
+     * @param dryRun true to validate the records without loading them.
      */
     @PostMapping("/loader")
-    public ResponseEntity<?> handleFileUpload(@RequestParam("file") MultipartFile file) {
-        log.debug("Loading all the character records from the original source ...");
-        // calls the actual service ...
-        characterFigureService.loadAllCharacters(file);
-        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    public ResponseEntity<?> handleFileUpload(@RequestParam("file") List<MultipartFile> files,
+            @RequestParam(defaultValue = "false") boolean delta, @RequestParam(defaultValue = "false") boolean dryRun) {
+        log.debug("Loading all the character records from the original source, files: {}, delta: {}, dry run: {} ...",
+                files.size(), delta, dryRun);
+        if ((dryRun || delta) && files.size() > 1) {
+            throw new IllegalArgumentException("Only a single file can be validated or loaded as delta");
+        }
+        if (dryRun) {
+            return ResponseEntity.ok(catalogLoaderService.validateCharacters(files.get(0)));
+        }
+        // the files are loaded in background, the changes of a delta load are
+        // reported with the job ...
+        LoaderJob job = delta ? loaderJobService.submitDelta(files.get(0)) : loaderJobService.submit(files);
+        // @formatter:off
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{jobId}").buildAndExpand(job.getJobId()).toUri())
+                .body(job);
+        // @formatter:on
+    }
+
+    /**
+     * Gets the progress of a loader job.
+     *
+     * @param jobId The job identifier.
+     * @return The status of the job.
+     */
+    @GetMapping("/loader/{jobId}")
+    public LoaderJob retrieveLoaderJob(@PathVariable String jobId) {
+        log.debug("Getting the loader job: {}", jobId);
+        return loaderJobService.retrieveJob(jobId);
+    }
+
+    /**
+     * Cancels a loader job.
+     *
+     * @param jobId The job identifier.
+     * @return The status of the job.
+     */
+    @DeleteMapping("/loader/{jobId}")
+    public LoaderJob cancelLoaderJob(@PathVariable String jobId) {
+        log.debug("Cancelling the loader job: {}", jobId);
+        return loaderJobService.cancelJob(jobId);
+    }
+
+    /**
+     * Restores the catalog that was replaced by the latest load.
+     */
+    @PostMapping("/loader/rollback")
+    public ResponseEntity<?> rollbackCatalog() {
+        log.debug("Restoring the previous catalog ...");
+        catalogLoaderService.rollbackCatalog();
+        return ResponseEntity.ok().build();
     }
 
     /**
@@ -76,29 +156,171 @@ public class CharacterFigureController {
 
     /**
      * Get all existing characters by name, when the name is not provided, then all
-     * the characters are retrieved.
+     * the characters are retrieved. The characters are retrieved page by page when
+     * a cursor or a page size is provided. The response is tagged with the version
+     * of the catalog, 304 (Not Modified) is returned while it does not change.
      * 
-     * @param name The optional name of the character, if this is NOT provided, then
-     *             returns all the existing characters.
-     * @return The list of characters found based on the name or return all if no
-     *         name is provided.
+     * @param name        The optional name of the character, if this is NOT
+     *                    provided, then returns all the existing characters.
+     * @param cursor      The cursor of the page, as returned with the previous
+     *                    page.
+     * @param limit       The maximum total of characters in the page.
+     * @param fields      The fields to be retrieved separated by commas, all of
+     *                    them when it is not provided.
+     * @param ifNoneMatch The tags of the responses the client already has.
+     * @return The list of characters found based on the name, a page of
+     *         characters, or all of them if no name is provided.
      */
     @GetMapping
-    public List<CharacterFigure> getAllCharactersByName(final @RequestParam(required = false) String name) {
+    public ResponseEntity<?> getAllCharactersByName(final @RequestParam(required = false) String name,
+            final @RequestParam(required = false) String cursor, final @RequestParam(required = false) Integer limit,
+            final @RequestParam(required = false) String fields,
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Getting all existing characters by name {} ...", name);
-        return StringUtils.hasText(name) ? characterFinderService.findCharacterByName(name)
-                : characterFigureService.retrieveAllCharacters();
+        FieldSelection selection = FieldSelection.parse(fields);
+        // the version is taken before the characters are read, so it is never newer than them.
+        String etag = toETag(characterFigureService.getCatalogVersion());
+        if (matches(parseETags(ifNoneMatch), etag)) {
+            return notModified(etag);
+        }
+        if (StringUtils.hasText(name)) {
+            return ok(etag, select(characterFinderService.findCharacterByName(name), selection));
+        }
+        if (Objects.nonNull(cursor) || Objects.nonNull(limit)) {
+            CatalogPage page = characterFigureService.retrieveCharactersPage(cursor,
+                    Objects.requireNonNullElse(limit, DEFAULT_PAGE_SIZE), selection);
+            return ok(etag, select(page, selection));
+        }
+        // the whole catalog is served from memory, only the requested fields of each
+        // figure are written.
+        return ok(etag, select(characterFigureService.retrieveAllCharacters(), selection));
+    }
+
+    /**
+     * Exports all the characters as newline delimited JSON, one character per
+     * line. The characters are written as they are read from the catalog, the
+     * first ones are sent before the rest are read.
+     *
+     * @param fields      The fields to be exported separated by commas, all of
+     *                    them when it is not provided.
+     * @param ifNoneMatch The tags of the exports the client already has.
+     * @return The stream of characters.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAllCharacters(
+            final @RequestParam(required = false) String fields,
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Exporting all the existing characters ...");
+        FieldSelection selection = FieldSelection.parse(fields);
+        String etag = toETag(characterFigureService.getCatalogVersion() + EXPORT_ETAG_SUFFIX);
+        if (matches(parseETags(ifNoneMatch), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null); // the lines are separated below.
+                long[] lines = { 0 };
+                long total = characterFigureService.exportAllCharacters(selection, $ -> {
+                    try {
+                        writer.writeValue(generator, select($, selection));
+                        generator.writeRaw('\n');
+                        // the first line is sent right away.
+                        if (lines[0]++ % EXPORT_FLUSH_LINES == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.debug("Total of characters exported: {}", total);
+            }
+        };
+        // @formatter:off
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+        // @formatter:on
     }
 
     /**
-     * Get all existing characters.
+     * Get all existing characters. The response is tagged with the version of the
+     * catalog and the version of the character, 304 (Not Modified) is returned
+     * without reading the character while the catalog does not change, and without
+     * sending it while the character does not change.
      *
-     * @return The list of characters.
+     * @param id          The unique identifier.
+     * @param fields      The fields to be retrieved separated by commas, all of
+     *                    them when it is not provided.
+     * @param ifNoneMatch The tags of the responses the client already has.
+     * @return The character found.
      */
     @GetMapping("/{id}")
-    public CharacterFigure retrieveCharactersById(@PathVariable String id) {
+    public ResponseEntity<?> retrieveCharactersById(@PathVariable String id,
+            final @RequestParam(required = false) String fields,
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Getting the character based on id: {}", id);
-        return characterFigureService.retrieveCharactersById(id);
+        FieldSelection selection = FieldSelection.parse(fields);
+        String catalogVersion = characterFigureService.getCatalogVersion();
+        List<String> etags = parseETags(ifNoneMatch);
+        if (!etags.isEmpty()) {
+            String catalogPrefix = "\"" + catalogVersion + DOCUMENT_SEPARATOR;
+            // nothing has changed in the catalog since the response was sent, the
+            // version is shared by every instance, so any of them may have sent it.
+            for (String etag : etags) {
+                if (etag.startsWith(catalogPrefix)) {
+                    return notModified(etag);
+                }
+            }
+            // the character has not changed, even though the catalog has, or the
+            // client has any version of it.
+            String documentVersion = characterFigureService.findDocumentVersion(id);
+            if (etags.contains(ANY_ETAG) || Objects.nonNull(documentVersion)
+                    && etags.stream().anyMatch($ -> $.endsWith(DOCUMENT_SEPARATOR + documentVersion + "\""))) {
+                return notModified(
+                        toETag(catalogVersion + DOCUMENT_SEPARATOR + Objects.toString(documentVersion, "")));
+            }
+        }
+        CharacterFigure figure = Objects.isNull(selection) ? characterFigureService.retrieveCharactersById(id)
+                : characterFigureService.retrieveCharactersById(id, selection);
+        String etag = toETag(catalogVersion + DOCUMENT_SEPARATOR + Objects.toString(figure.getVersion(), ""));
+        return ResponseEntity.ok().eTag(etag).body(select(figure, selection));
+    }
+
+    private Object select(final Object value, final FieldSelection selection) {
+        return Objects.isNull(selection) ? value : selection.select(value);
+    }
+
+    private ResponseEntity<?> ok(final String etag, final Object body) {
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+
+    private ResponseEntity<?> notModified(final String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    private String toETag(final String version) {
+        return "\"" + version + "\"";
+    }
+
+    // the weak tags are compared as if they were strong ones.
+    private boolean matches(final List<String> etags, final String etag) {
+        return etags.contains(ANY_ETAG) || etags.contains(etag);
+    }
+
+    private List<String> parseETags(final String ifNoneMatch) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return List.of();
+        }
+        // @formatter:off
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map($ -> $.startsWith("W/") ? $.substring(2) : $)
+                .filter($ -> ANY_ETAG.equals($) || $.length() > 1 && $.startsWith("\"") && $.endsWith("\""))
+                .toList();
+        // @formatter:on
     }
 
     /**
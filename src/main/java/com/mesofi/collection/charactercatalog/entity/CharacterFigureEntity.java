@@ -54,6 +54,10 @@ public class CharacterFigureEntity extends Figure {
     private List<RestockFigure> restocks;
     private Set<String> tags;
     private List<GalleryImage> images;
+    private Integer position; // position of the figure in the catalog file, it keeps the order of the catalog stable.
+    private String contentHash; // hash of the content loaded from the catalog, used to detect the changes.
+    private String displayableName; // <== Calculated == stored so it is not calculated on every read.
+    private Integer derivedVersion; // version of the rules used to calculate the displayable name and prices.
 
     @Override
     public boolean equals(Object o) {
@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.mesofi.collection.charactercatalog.model.UnchangedCatalog;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -59,6 +61,23 @@ public class ApplicationExceptionHandler extends ResponseEntityExceptionHandler
         return createResponseEntity(body, new HttpHeaders(), HttpStatus.NOT_FOUND, request);
     }
 
+    @ExceptionHandler(value = { LoaderBusyException.class })
+    protected ResponseEntity<Object> handleLoaderBusy(LoaderBusyException ex, final WebRequest request) {
+        log.debug("Handle loader busy exception ...");
+
+        ApiErrorResponse body = new ApiErrorResponse();
+        body.setMessage(ex.getMessage());
+        return createResponseEntity(body, new HttpHeaders(), HttpStatus.TOO_MANY_REQUESTS, request);
+    }
+
+    @ExceptionHandler(value = { CatalogNotModifiedException.class })
+    protected ResponseEntity<Object> handleNotModified(CatalogNotModifiedException ex, final WebRequest request) {
+        log.debug("Handle catalog not modified exception ...");
+
+        // an upload is not a conditional request, so it is answered as a regular one.
+        return ResponseEntity.ok(new UnchangedCatalog(ex.getMessage(), ex.getDigest()));
+    }
+
     @ExceptionHandler(value = { IllegalArgumentException.class })
     protected ResponseEntity<Object> handleBadRequest(RuntimeException ex, final WebRequest request) {
         log.debug("Handle invalid request exception ...");
@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.exception;
+
+import java.io.Serial;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the uploaded catalog is the same one that was loaded the last
+ * time, so there is nothing to be loaded.
+ */
+@Getter
+public class CatalogNotModifiedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String digest; // the digest of the uploaded catalog.
+
+    public CatalogNotModifiedException(String message, String digest) {
+        super(message);
+        this.digest = digest;
+    }
+}
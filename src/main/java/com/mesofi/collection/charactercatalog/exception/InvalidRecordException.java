@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.exception;
+
+import java.io.Serial;
+import java.util.Objects;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a record of the catalog cannot be read, it points to the column
+ * and the value that could not be converted.
+ */
+@Getter
+public class InvalidRecordException extends IllegalArgumentException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int line; // the line in the file starting at 1, 0 when it is unknown.
+    private final int column; // the column starting at 1, 0 when it is unknown.
+    private final String value;
+    private final String reason;
+
+    public InvalidRecordException(int column, String value, String reason) {
+        this(0, column, value, reason);
+    }
+
+    public InvalidRecordException(int line, int column, String value, String reason) {
+        super(createMessage(line, column, value, reason));
+        this.line = line;
+        this.column = column;
+        this.value = value;
+        this.reason = reason;
+    }
+
+    /**
+     * Creates the same error for a given line of the file.
+     *
+     * @param line The line in the file, starting at 1.
+     * @return The error found in the line.
+     */
+    public InvalidRecordException atLine(int line) {
+        return new InvalidRecordException(line, column, value, reason);
+    }
+
+    private static String createMessage(int line, int column, String value, String reason) {
+        StringBuilder sb = new StringBuilder("Invalid record");
+        String separator = " at ";
+        if (line > 0) {
+            sb.append(separator).append("line ").append(line);
+            separator = ", ";
+        }
+        if (column > 0) {
+            sb.append(separator).append("column ").append(column);
+        }
+        if (Objects.nonNull(value)) {
+            sb.append(" ('").append(value).append("')");
+        }
+        return sb.append(": ").append(reason).toString();
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.exception;
+
+import java.io.Serial;
+
+/**
+ * Thrown when a new load cannot be accepted because there are too many loads
+ * in progress.
+ */
+public class LoaderBusyException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public LoaderBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.mappers;
+
+import lombok.Getter;
+
+/**
+ * The columns of the catalog, in the order they have in the original
+ * spreadsheet. The columns are found by their header, so they may come in any
+ * order.
+ */
+@Getter
+public enum CatalogColumn {
+
+    // @formatter:off
+    ORIGINAL_NAME("Myth Cloth Original Name", true),
+    BASE_NAME("Base Name", true),
+    PRICE_JPY("Price (JPY)", true),
+    PRICE_JPY_TAX("Price (JPY) Tax", false),
+    ANNOUNCEMENT_JPY("Announcement (JPY)", true),
+    PREORDER_JPY("Preorder (JPY)", true),
+    RELEASE_JPY("Release (JPY)", true),
+    PRICE_MXN("Price (MXN)", true),
+    PREORDER_MXN("Preorder (MXN)", true),
+    RELEASE_MXN("Release (MXN)", true),
+    LINK("Link", true),
+    DISTRIBUTION("Distribution", true),
+    LINE_UP("LineUp", true),
+    SERIES("Series", true),
+    GROUP("Group", true),
+    METAL("Metal", true),
+    OCE("OCE", true),
+    REVIVAL("Revival", true),
+    RESTOCK("Restock", false),
+    PLAIN_CLOTH("PlainCloth", true),
+    BROKEN("Broken", true),
+    GOLDEN("Golden", true),
+    GOLD("Gold", true),
+    HK("HK", true),
+    MANGA("Manga", true),
+    SURPLICE("Surplice", true),
+    SET("Set", true),
+    ANNIVERSARY("Anniversary", false),
+    REMARKS("Remarks", false),
+    TAGS("tags", false),
+    OFFICIAL_IMAGES("Official Images", false),
+    OTHER_IMAGES("Other Images", false);
+    // @formatter:on
+
+    private final String header;
+    private final boolean required;
+
+    CatalogColumn(String header, boolean required) {
+        this.header = header;
+        this.required = required;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.mappers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import com.mesofi.collection.charactercatalog.exception.InvalidRecordException;
+
+/**
+ * The position of every {@link CatalogColumn} in a catalog. It is compiled once
+ * from the header of the catalog, then every record is read through it: the
+ * missing optional columns point to a negative position, which is never
+ * present in a record, so the records are read without asking for them.
+ */
+public final class CatalogLayout {
+
+    private static final int MISSING = -1;
+    private static final Map<String, CatalogColumn> COLUMNS_BY_HEADER = new HashMap<>();
+
+    static {
+        for (CatalogColumn column : CatalogColumn.values()) {
+            COLUMNS_BY_HEADER.put(normalize(column.getHeader()), column);
+        }
+    }
+
+    /**
+     * The layout of the original spreadsheet, the columns are in the same order
+     * they are declared.
+     */
+    public static final CatalogLayout DEFAULT = createDefault();
+
+    private final int[] positions; // by the ordinal of the column.
+    private final int minColumns;
+
+    private CatalogLayout(final int[] positions) {
+        this.positions = positions;
+        int last = MISSING;
+        for (CatalogColumn column : CatalogColumn.values()) {
+            if (column.isRequired()) {
+                last = Math.max(last, positions[column.ordinal()]);
+            }
+        }
+        this.minColumns = last + 1;
+    }
+
+    /**
+     * Compiles the layout of a catalog, the unknown columns are ignored.
+     *
+     * @param header The first line of the catalog.
+     * @return The position of every column.
+     * @throws InvalidRecordException if a required column is missing or a column
+     *                                is repeated.
+     */
+    public static CatalogLayout compile(final String header) {
+        int[] positions = new int[CatalogColumn.values().length];
+        Arrays.fill(positions, MISSING);
+        if (Objects.nonNull(header)) {
+            String[] headers = header.split("\t", -1);
+            for (int i = 0; i < headers.length; i++) {
+                CatalogColumn column = COLUMNS_BY_HEADER.get(normalize(headers[i]));
+                if (Objects.isNull(column)) {
+                    continue;
+                }
+                if (positions[column.ordinal()] != MISSING) {
+                    throw new InvalidRecordException(1, i + 1, headers[i], "The column is repeated");
+                }
+                positions[column.ordinal()] = i;
+            }
+        }
+
+        StringJoiner missing = new StringJoiner(", ");
+        for (CatalogColumn column : CatalogColumn.values()) {
+            if (column.isRequired() && positions[column.ordinal()] == MISSING) {
+                missing.add(column.getHeader());
+            }
+        }
+        if (missing.length() > 0) {
+            throw new InvalidRecordException(1, 0, null, "Missing required columns: " + missing);
+        }
+        return new CatalogLayout(positions);
+    }
+
+    /**
+     * Gets the position of a column.
+     *
+     * @param column The column.
+     * @return The position, starting at 0, or a negative value if the column is
+     *         not present.
+     */
+    public int position(final CatalogColumn column) {
+        return positions[column.ordinal()];
+    }
+
+    /**
+     * Gets the total of columns a record needs to have all the required columns.
+     *
+     * @return The minimum total of columns.
+     */
+    public int getMinColumns() {
+        return minColumns;
+    }
+
+    private static CatalogLayout createDefault() {
+        int[] positions = new int[CatalogColumn.values().length];
+        Arrays.setAll(positions, $ -> $);
+        return new CatalogLayout(positions);
+    }
+
+    private static String normalize(final String header) {
+        return header.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -5,18 +5,43 @@
  */
 package com.mesofi.collection.charactercatalog.mappers;
 
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.ANNIVERSARY;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.ANNOUNCEMENT_JPY;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.BASE_NAME;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.BROKEN;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.DISTRIBUTION;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.GOLD;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.GOLDEN;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.GROUP;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.HK;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.LINE_UP;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.LINK;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.MANGA;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.METAL;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.OCE;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.OFFICIAL_IMAGES;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.ORIGINAL_NAME;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.OTHER_IMAGES;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.PLAIN_CLOTH;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.PREORDER_JPY;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.PREORDER_MXN;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.PRICE_JPY;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.PRICE_MXN;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.RELEASE_JPY;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.RELEASE_MXN;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.REMARKS;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.REVIVAL;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.SERIES;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.SET;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.SURPLICE;
+import static com.mesofi.collection.charactercatalog.mappers.CatalogColumn.TAGS;
 import static com.mesofi.collection.charactercatalog.service.CharacterFigureService.DEFAULT_JPG_EXT;
 import static com.mesofi.collection.charactercatalog.service.CharacterFigureService.DEFAULT_PNG_EXT;
 import static com.mesofi.collection.charactercatalog.service.CharacterFigureService.HOST_IMAGE_PREFIX;
 import static com.mesofi.collection.charactercatalog.service.CharacterFigureService.NO_IMAGE_URL;
 import static com.mesofi.collection.charactercatalog.utils.CommonUtils.isDayMonthYear;
-import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toBoolean;
 import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toDate;
-import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toInteger;
-import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toListValue;
 import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toPrice;
-import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toSetValue;
-import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toStringValue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,13 +51,11 @@ import java.util.UUID;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import com.mesofi.collection.charactercatalog.exception.InvalidRecordException;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
-import com.mesofi.collection.charactercatalog.model.Distribution;
 import com.mesofi.collection.charactercatalog.model.GalleryImage;
-import com.mesofi.collection.charactercatalog.model.Group;
 import com.mesofi.collection.charactercatalog.model.Issuance;
-import com.mesofi.collection.charactercatalog.model.LineUp;
-import com.mesofi.collection.charactercatalog.model.Series;
+import com.mesofi.collection.charactercatalog.utils.TsvCursor;
 
 /**
  * The actual Character Figure file mapper.
@@ -42,59 +65,80 @@ import com.mesofi.collection.charactercatalog.model.Series;
 @Component
 public class CharacterFigureFileMapper {
 
+    // every thread reuses its own cursor, the lines are parsed in parallel.
+    private static final ThreadLocal<TsvCursor> CURSOR = ThreadLocal.withInitial(TsvCursor::new);
+
     /**
-     * Converts a plain line to a character figure object.
+     * Converts a plain line of the original spreadsheet to a character figure
+     * object.
      *
      * @param line The line to be parsed and converted.
      * @return The character figure.
+     * @throws InvalidRecordException if a column cannot be converted.
      */
     public CharacterFigure fromLineToCharacterFigure(final String line) {
+        return fromLineToCharacterFigure(line, CatalogLayout.DEFAULT);
+    }
+
+    /**
+     * Converts a plain line to a character figure object.
+     *
+     * @param line   The line to be parsed and converted.
+     * @param layout The position of the columns, compiled from the header of the
+     *               catalog.
+     * @return The character figure.
+     * @throws InvalidRecordException if a column cannot be converted.
+     */
+    public CharacterFigure fromLineToCharacterFigure(final String line, final CatalogLayout layout) {
         if (!StringUtils.hasText(line)) {
             return null;
         }
-        String[] columns = line.split("\t");
-
-        CharacterFigure characterFigure = new CharacterFigure();
-        characterFigure.setOriginalName(columns[0]);
-        characterFigure.setBaseName(columns[1]);
-        characterFigure.setIssuanceJPY(createIssuance(columns[2], columns[4], columns[5], columns[6]));
-        characterFigure.setIssuanceMXN(createIssuance(columns[7], null, columns[8], columns[9]));
-        characterFigure.setFutureRelease(!StringUtils.hasText(columns[6]));
-        characterFigure.setUrl(toStringValue(columns[10]));
-        characterFigure.setDistribution(toEnum(columns[11], Distribution.class));
-        characterFigure.setLineUp(toEnum(columns[12], LineUp.class));
-        characterFigure.setSeries(toEnum(columns[13], Series.class));
-        characterFigure.setGroup(toEnum(columns[14], Group.class));
-        characterFigure.setMetalBody(toBoolean(columns[15]));
-        characterFigure.setOce(toBoolean(columns[16]));
-        characterFigure.setRevival(toBoolean(columns[17]));
-        characterFigure.setPlainCloth(toBoolean(columns[19]));
-        characterFigure.setBrokenCloth(toBoolean(columns[20]));
-        characterFigure.setBronzeToGold(toBoolean(columns[21]));
-        characterFigure.setGold(toBoolean(columns[22]));
-        characterFigure.setHongKongVersion(toBoolean(columns[23]));
-        characterFigure.setManga(toBoolean(columns[24]));
-        characterFigure.setSurplice(toBoolean(columns[25]));
-        characterFigure.setSet(toBoolean(columns[26]));
-        if (columns.length >= 28) {
-            characterFigure.setAnniversary(toInteger(columns[27]));
+        TsvCursor columns = CURSOR.get().reset(line);
+        if (columns.getColumns() < layout.getMinColumns()) {
+            throw new InvalidRecordException(columns.getColumns() + 1, null,
+                    "Expected at least " + layout.getMinColumns() + " columns but found " + columns.getColumns());
         }
-        if (columns.length >= 29) {
-            characterFigure.setRemarks(toStringValue(columns[28]));
-        }
-        if (columns.length >= 30) {
-            characterFigure.setTags(toSetValue(columns[29]));
+        try {
+            return toCharacterFigure(columns, layout);
+        } catch (RuntimeException e) {
+            int column = columns.getCurrentColumn();
+            String reason = Objects.nonNull(e.getMessage()) ? e.getMessage() : e.getClass().getSimpleName();
+            throw new InvalidRecordException(column + 1, columns.raw(column), reason);
         }
+    }
 
-        List<String> officialImages = null;
-        List<String> otherImages = null;
-        if (columns.length >= 31) {
-            officialImages = toListValue(columns[30]);
-        }
-        if (columns.length >= 32) {
-            otherImages = toListValue(columns[31]);
-        }
-        characterFigure.setImages(createImages(officialImages, otherImages));
+    private CharacterFigure toCharacterFigure(final TsvCursor columns, final CatalogLayout layout) {
+        // @formatter:off
+        CharacterFigure characterFigure = new CharacterFigure();
+        characterFigure.setOriginalName(columns.raw(layout.position(ORIGINAL_NAME)));
+        characterFigure.setBaseName(columns.raw(layout.position(BASE_NAME)));
+        characterFigure.setIssuanceJPY(createIssuance(columns, layout.position(PRICE_JPY),
+                layout.position(ANNOUNCEMENT_JPY), layout.position(PREORDER_JPY), layout.position(RELEASE_JPY)));
+        characterFigure.setIssuanceMXN(createIssuance(columns, layout.position(PRICE_MXN), -1,
+                layout.position(PREORDER_MXN), layout.position(RELEASE_MXN)));
+        characterFigure.setFutureRelease(!columns.hasText(layout.position(RELEASE_JPY)));
+        characterFigure.setUrl(columns.text(layout.position(LINK)));
+        characterFigure.setDistribution(columns.enumValue(layout.position(DISTRIBUTION), EnumCodec.DISTRIBUTION));
+        characterFigure.setLineUp(columns.enumValue(layout.position(LINE_UP), EnumCodec.LINE_UP));
+        characterFigure.setSeries(columns.enumValue(layout.position(SERIES), EnumCodec.SERIES));
+        characterFigure.setGroup(columns.enumValue(layout.position(GROUP), EnumCodec.GROUP));
+        characterFigure.setMetalBody(columns.bool(layout.position(METAL)));
+        characterFigure.setOce(columns.bool(layout.position(OCE)));
+        characterFigure.setRevival(columns.bool(layout.position(REVIVAL)));
+        characterFigure.setPlainCloth(columns.bool(layout.position(PLAIN_CLOTH)));
+        characterFigure.setBrokenCloth(columns.bool(layout.position(BROKEN)));
+        characterFigure.setBronzeToGold(columns.bool(layout.position(GOLDEN)));
+        characterFigure.setGold(columns.bool(layout.position(GOLD)));
+        characterFigure.setHongKongVersion(columns.bool(layout.position(HK)));
+        characterFigure.setManga(columns.bool(layout.position(MANGA)));
+        characterFigure.setSurplice(columns.bool(layout.position(SURPLICE)));
+        characterFigure.setSet(columns.bool(layout.position(SET)));
+        characterFigure.setAnniversary(columns.integer(layout.position(ANNIVERSARY)));
+        characterFigure.setRemarks(columns.text(layout.position(REMARKS)));
+        characterFigure.setTags(columns.set(layout.position(TAGS)));
+        characterFigure.setImages(createImages(columns.list(layout.position(OFFICIAL_IMAGES)),
+                columns.list(layout.position(OTHER_IMAGES))));
+        // @formatter:on
 
         return characterFigure;
     }
@@ -157,6 +201,21 @@ public class CharacterFigureFileMapper {
                 : null;
     }
 
+    private Issuance createIssuance(TsvCursor columns, int price, int announcement, int preorder, int release) {
+        if (columns.hasText(price) || columns.hasText(announcement) || columns.hasText(preorder)
+                || columns.hasText(release)) {
+            Issuance issuance = new Issuance();
+            issuance.setBasePrice(columns.price(price));
+            issuance.setFirstAnnouncementDate(columns.date(announcement));
+            issuance.setPreorderDate(columns.date(preorder));
+            issuance.setPreorderConfirmationDay(columns.dayMonthYear(preorder));
+            issuance.setReleaseDate(columns.date(release));
+            issuance.setReleaseConfirmationDay(columns.dayMonthYear(release));
+            return issuance;
+        }
+        return null;
+    }
+
     private Issuance createIssuance(String price, String announcement, String preorder, String release) {
         if (StringUtils.hasText(price) || StringUtils.hasText(announcement) || StringUtils.hasText(preorder)
                 || StringUtils.hasText(release)) {
@@ -172,17 +231,4 @@ public class CharacterFigureFileMapper {
         return null;
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T toEnum(String value, Class<?> clazz) {
-        if (clazz.isEnum()) {
-            Object[] constants = clazz.getEnumConstants();
-            for (Object object : constants) {
-                Enum<?> e = (Enum<?>) object;
-                if (e.toString().equals(value)) {
-                    return (T) e;
-                }
-            }
-        }
-        return null;
-    }
 }
@@ -5,6 +5,8 @@
  */
 package com.mesofi.collection.charactercatalog.mappers;
 
+import java.util.Objects;
+
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -23,11 +25,16 @@ public interface CharacterFigureModelMapper {
     @Mapping(source = "metalBody", target = "metal")
     @Mapping(source = "bronzeToGold", target = "golden")
     @Mapping(source = "hongKongVersion", target = "hk")
+    @Mapping(target = "position", ignore = true)
+    @Mapping(target = "contentHash", ignore = true)
+    @Mapping(target = "derivedVersion", ignore = true)
     CharacterFigureEntity toEntity(CharacterFigure characterFigure);
 
     @Mapping(source = "metal", target = "metalBody")
     @Mapping(source = "golden", target = "bronzeToGold")
     @Mapping(source = "hk", target = "hongKongVersion")
+    @Mapping(target = "version", expression = "java(CharacterFigureModelMapper.toVersion("
+            + "characterFigureEntity.getContentHash(), characterFigureEntity.getDerivedVersion()))")
     CharacterFigure toModel(CharacterFigureEntity characterFigureEntity);
 
     @Mapping(source = "issuanceJPY.basePrice", target = "basePriceJPY")
@@ -60,5 +67,19 @@ public interface CharacterFigureModelMapper {
     @Mapping(source = "preorderConfirmationDayMXN", target = "issuanceMXN.preorderConfirmationDay")
     @Mapping(source = "releaseDateMXN", target = "issuanceMXN.releaseDate")
     @Mapping(source = "releaseConfirmationDayMXN", target = "issuanceMXN.releaseConfirmationDay")
+    @Mapping(target = "version", ignore = true)
     CharacterFigure toModel(CharacterFigureView characterFigureView);
+
+    /**
+     * Gets the version of a stored figure, it changes with its content and with
+     * the rules used to calculate its displayable name and prices.
+     *
+     * @param contentHash    The hash of the content.
+     * @param derivedVersion The version of the rules of the derived fields.
+     * @return The version, null if the figure was stored before the versions were
+     *         introduced.
+     */
+    static String toVersion(String contentHash, Integer derivedVersion) {
+        return Objects.nonNull(contentHash) ? contentHash + "." + Objects.toString(derivedVersion, "0") : null;
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.mappers;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.mesofi.collection.charactercatalog.model.Distribution;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.Series;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Converts the friendly names used in the catalog into the constants of an enum.
+ * The names are kept in a map built once per enum, a region of a line is
+ * compared with the names in place, so it is not copied. The unknown names are
+ * rejected and counted in the {@value #REJECTED_METRIC} metric.
+ *
+ * @param <E> The enum type.
+ */
+@Slf4j
+public final class EnumCodec<E extends Enum<E>> {
+
+    public static final String REJECTED_METRIC = "catalog.enum.rejected";
+
+    public static final EnumCodec<Distribution> DISTRIBUTION = new EnumCodec<>(Distribution.class, Map.of());
+    public static final EnumCodec<LineUp> LINE_UP = new EnumCodec<>(LineUp.class, Map.of());
+    // the catalog has been using a misspelled name for a while, those figures
+    // have always been stored without a series, so they keep their identity.
+    public static final EnumCodec<Series> SERIES = new EnumCodec<>(Series.class, Map.of(),
+            Set.of("Legend Of Santuary"));
+    public static final EnumCodec<Group> GROUP = new EnumCodec<>(Group.class, Map.of());
+
+    private final Class<E> type;
+    private final Map<String, E> friendlyNames;
+    private final Map<String, E> constantNames; // in upper case.
+    private final Set<String> blankNames;
+    private final String[] names; // every name accepted, to decode a region.
+
+    /**
+     * Creates a new codec.
+     *
+     * @param type    The enum type, the friendly name of every constant is its
+     *                string representation.
+     * @param aliases Other names accepted for some constants.
+     */
+    public EnumCodec(final Class<E> type, final Map<String, E> aliases) {
+        this(type, aliases, Set.of());
+    }
+
+    /**
+     * Creates a new codec.
+     *
+     * @param type       The enum type, the friendly name of every constant is its
+     *                   string representation.
+     * @param aliases    Other names accepted for some constants.
+     * @param blankNames The names accepted without a constant, they are decoded
+     *                   as null.
+     */
+    public EnumCodec(final Class<E> type, final Map<String, E> aliases, final Set<String> blankNames) {
+        this.type = type;
+        this.blankNames = Set.copyOf(blankNames);
+        Map<String, E> friendly = new HashMap<>(aliases);
+        Map<String, E> constants = new HashMap<>();
+        for (E constant : type.getEnumConstants()) {
+            friendly.put(constant.toString(), constant);
+            constants.put(constant.name().toUpperCase(Locale.ROOT), constant);
+        }
+        this.friendlyNames = Map.copyOf(friendly);
+        this.constantNames = Map.copyOf(constants);
+        Set<String> accepted = new HashSet<>(friendly.keySet());
+        accepted.addAll(blankNames);
+        this.names = accepted.toArray(String[]::new);
+    }
+
+    /**
+     * Gets the constant of a friendly name.
+     *
+     * @param value The friendly name.
+     * @return The constant, or null if the name is accepted without a constant.
+     * @throws IllegalArgumentException if the name is unknown.
+     */
+    public E decode(final String value) {
+        E constant = friendlyNames.get(value);
+        if (Objects.nonNull(constant) || blankNames.contains(value)) {
+            return constant;
+        }
+        return reject(value);
+    }
+
+    /**
+     * Gets the constant of the friendly name found in a region of a text.
+     *
+     * @param value The text.
+     * @param start The start of the region, inclusive.
+     * @param end   The end of the region, exclusive.
+     * @return The constant.
+     * @throws IllegalArgumentException if the name is unknown.
+     */
+    public E decode(final CharSequence value, final int start, final int end) {
+        // only a handful of names per enum, most of them are told apart by their length.
+        for (String name : names) {
+            if (name.length() == end - start && regionEquals(name, value, start)) {
+                return decode(name);
+            }
+        }
+        return reject(value.subSequence(start, end).toString());
+    }
+
+    /**
+     * Gets the constant of a value received in a request, either the name of the
+     * constant or its friendly name is accepted.
+     *
+     * @param value The name of the constant or its friendly name.
+     * @return The constant.
+     * @throws IllegalArgumentException if the name is unknown.
+     */
+    public E parse(final String value) {
+        E constant = constantNames.get(value.toUpperCase(Locale.ROOT));
+        return Objects.nonNull(constant) ? constant : decode(value);
+    }
+
+    public Class<E> getType() {
+        return type;
+    }
+
+    private static boolean regionEquals(final String name, final CharSequence value, final int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != value.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private E reject(final String value) {
+        Metrics.counter(REJECTED_METRIC, "type", type.getSimpleName()).increment();
+        log.warn("Unknown {}: '{}'", type.getSimpleName(), value);
+        throw new IllegalArgumentException("Unknown " + type.getSimpleName() + ": '" + value + "'");
+    }
+}
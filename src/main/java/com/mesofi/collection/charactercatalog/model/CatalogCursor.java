@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The position of a figure in the order of the catalog, a page starts right
+ * after it. It holds the values of every field of the order, the identifier is
+ * the last one so two figures never share the same position. It is handed to
+ * the clients as an opaque text.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class CatalogCursor {
+
+    public static final String INVALID_CURSOR = "The cursor is not valid";
+
+    private static final String SEPARATOR = "|";
+
+    private final boolean futureRelease;
+    private final LocalDate releaseDate;
+    private final Integer position;
+    private final String id;
+
+    /**
+     * Reads a cursor previously encoded by {@link #encode()}.
+     *
+     * @param cursor The encoded cursor.
+     * @return The cursor.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static CatalogCursor decode(final String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] fields = decoded.split("\\" + SEPARATOR, -1);
+            if (fields.length != 4 || fields[3].isEmpty()) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+            // @formatter:off
+            return new CatalogCursor("1".equals(fields[0]),
+                    fields[1].isEmpty() ? null : LocalDate.parse(fields[1]),
+                    fields[2].isEmpty() ? null : Integer.valueOf(fields[2]),
+                    fields[3]);
+            // @formatter:on
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * Encodes the cursor as an opaque text that is safe to be used in a URL.
+     *
+     * @return The encoded cursor.
+     */
+    public String encode() {
+        // @formatter:off
+        String decoded = String.join(SEPARATOR, futureRelease ? "1" : "0",
+                Objects.toString(releaseDate, ""),
+                Objects.toString(position, ""),
+                id);
+        // @formatter:on
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A page of the catalog, in the same order the whole catalog is retrieved.
+ */
+@Getter
+@ToString(exclude = "figures")
+@AllArgsConstructor
+public class CatalogPage {
+
+    private final List<CharacterFigure> figures;
+    private final String nextCursor; // null when this is the last page.
+}
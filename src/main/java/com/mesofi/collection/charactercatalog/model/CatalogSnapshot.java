@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A copy of the whole catalog, sorted and with the prices and names ready to be
+ * displayed. It never changes, a new snapshot replaces it whenever the catalog
+ * changes, so the figures must not be modified by the readers.
+ */
+@Getter
+@ToString(exclude = "figures")
+public class CatalogSnapshot {
+
+    private final long version; // increases every time the catalog changes.
+    private final String catalogVersion; // the version shared by every instance, read before the figures.
+    private final Instant builtAt;
+    private final List<CharacterFigure> figures;
+
+    public CatalogSnapshot(final long version, final String catalogVersion, final Instant builtAt,
+            final List<CharacterFigure> figures) {
+        this.version = version;
+        this.catalogVersion = catalogVersion;
+        this.builtAt = builtAt;
+        this.figures = List.copyOf(figures);
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The result of validating a catalog without loading it.
+ */
+@Getter
+@Setter
+@ToString
+public class CatalogValidation {
+    private boolean valid;
+    private long rows; // the records read, the empty lines are not included.
+    private long effectiveFigures; // the figures that would be loaded.
+    private long restocks; // the records that would be merged as re-stocks.
+    private long totalErrors;
+    private boolean truncated; // true when not all the errors are listed.
+    private List<RecordError> errors = new ArrayList<>();
+}
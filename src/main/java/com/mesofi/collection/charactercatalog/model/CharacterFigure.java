@@ -11,6 +11,7 @@ import static com.mesofi.collection.charactercatalog.service.CharacterFigureServ
 import java.util.List;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import jakarta.validation.constraints.NotBlank;
@@ -83,4 +84,8 @@ public class CharacterFigure extends Figure {
 
     @EqualsAndHashCode.Exclude
     private List<GalleryImage> images; // list of images associated to this character.
+
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private String version; // version of the stored figure, it changes with its content.
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureException;
+
+/**
+ * The identity of a figure. It holds exactly the fields that
+ * {@link CharacterFigure} takes into account in its equals and hashCode, so two
+ * records of the same figure (the original one and its re-stocks) share the
+ * same key.
+ */
+public record CharacterFigureKey(String baseName, LineUp lineUp, Series series, Group group, boolean metalBody,
+        boolean oce, boolean revival, boolean plainCloth, boolean bronzeToGold, boolean gold, boolean hongKongVersion,
+        boolean manga, boolean surplice, Integer anniversary) {
+
+    public static final String ID_ALGORITHM = "SHA-256";
+    public static final int ID_LENGTH = 12; // the same bytes of an ObjectId.
+
+    private static final char SEPARATOR = '\u001f';
+
+    /**
+     * Creates the key of a given figure.
+     *
+     * @param figure The figure.
+     * @return The identity key.
+     */
+    public static CharacterFigureKey of(final CharacterFigure figure) {
+        // @formatter:off
+        return new CharacterFigureKey(figure.getBaseName(), figure.getLineUp(), figure.getSeries(), figure.getGroup(),
+                figure.isMetalBody(), figure.isOce(), figure.isRevival(), figure.isPlainCloth(), figure.isBronzeToGold(),
+                figure.isGold(), figure.isHongKongVersion(), figure.isManga(), figure.isSurplice(),
+                figure.getAnniversary());
+        // @formatter:on
+    }
+
+    /**
+     * Gets the identifier of the figure, it is derived from the identity only, so
+     * the figure keeps the same identifier every time the catalog is loaded. It
+     * has the shape of an ObjectId, so it is stored just like the generated ones.
+     *
+     * @return The identifier, 24 hexadecimal characters.
+     */
+    public String toId() {
+        // @formatter:off
+        StringBuilder sb = new StringBuilder()
+                .append(Objects.toString(baseName, "")).append(SEPARATOR)
+                .append(Objects.nonNull(lineUp) ? lineUp.name() : "").append(SEPARATOR)
+                .append(Objects.nonNull(series) ? series.name() : "").append(SEPARATOR)
+                .append(Objects.nonNull(group) ? group.name() : "").append(SEPARATOR)
+                .append(metalBody ? 1 : 0).append(oce ? 1 : 0).append(revival ? 1 : 0).append(plainCloth ? 1 : 0)
+                .append(bronzeToGold ? 1 : 0).append(gold ? 1 : 0).append(hongKongVersion ? 1 : 0)
+                .append(manga ? 1 : 0).append(surplice ? 1 : 0).append(SEPARATOR)
+                .append(Objects.toString(anniversary, ""));
+        // @formatter:on
+        try {
+            byte[] hash = MessageDigest.getInstance(ID_ALGORITHM).digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, ID_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new CharacterFigureException("Unable to calculate the figure identifier");
+        }
+    }
+}
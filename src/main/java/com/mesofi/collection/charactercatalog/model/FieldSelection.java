@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * The fields of a {@link CharacterFigure} requested by a client, the rest of
+ * them are neither read nor sent. A field is either a property of the figure,
+ * i.e. {@code lineUp}, or a property of one of its nested objects, i.e.
+ * {@code issuanceJPY.releaseDate} or {@code images.url}.
+ */
+@ToString
+@EqualsAndHashCode
+public final class FieldSelection {
+
+    public static final String INVALID_FIELD = "Unknown field: ";
+
+    private static final Pattern NESTED_NAME = Pattern.compile("[a-zA-Z]+");
+    private static final Set<String> NESTED_FIELDS = Set.of("issuanceJPY", "issuanceMXN", "restocks", "images");
+    private static final Map<String, String> ENTITY_FIELDS = new LinkedHashMap<>();
+
+    static {
+        // @formatter:off
+        for (String field : new String[] { "id", "originalName", "baseName", "displayableName", "lineUp", "series",
+                "group", "oce", "revival", "plainCloth", "brokenCloth", "gold", "manga", "surplice", "set",
+                "anniversary", "restocks", "tags", "images", "issuanceJPY", "issuanceMXN", "futureRelease", "url",
+                "distribution", "remarks" }) {
+            ENTITY_FIELDS.put(field, field);
+        }
+        // @formatter:on
+        ENTITY_FIELDS.put("metalBody", "metal");
+        ENTITY_FIELDS.put("bronzeToGold", "golden");
+        ENTITY_FIELDS.put("hongKongVersion", "hk");
+    }
+
+    // every field with the nested fields requested, none when it is requested as
+    // a whole.
+    private final Map<String, Set<String>> fields;
+
+    private FieldSelection(final Map<String, Set<String>> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Reads the fields requested.
+     *
+     * @param fields The fields separated by commas.
+     * @return The fields, or null if no field was requested, meaning all of them.
+     * @throws IllegalArgumentException if a field is not known.
+     */
+    @Nullable
+    public static FieldSelection parse(@Nullable final String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return null;
+        }
+        Map<String, Set<String>> selection = new LinkedHashMap<>();
+        for (String path : StringUtils.commaDelimitedListToSet(fields.replace(" ", ""))) {
+            if (path.isEmpty()) {
+                continue;
+            }
+            int dot = path.indexOf('.');
+            String field = dot < 0 ? path : path.substring(0, dot);
+            String nested = dot < 0 ? null : path.substring(dot + 1);
+            if (!ENTITY_FIELDS.containsKey(field) || Objects.nonNull(nested)
+                    && (!NESTED_FIELDS.contains(field) || !NESTED_NAME.matcher(nested).matches())) {
+                throw new IllegalArgumentException(INVALID_FIELD + path);
+            }
+            Set<String> nestedFields = selection.get(field);
+            if (Objects.isNull(nested)) {
+                selection.put(field, Set.of()); // the whole field wins.
+            } else if (Objects.isNull(nestedFields)) {
+                selection.put(field, new LinkedHashSet<>(List.of(nested)));
+            } else if (!nestedFields.isEmpty()) {
+                nestedFields.add(nested);
+            }
+        }
+        return selection.isEmpty() ? null : new FieldSelection(selection);
+    }
+
+    /**
+     * Gets the fields to be read from the repository, named as they are stored.
+     *
+     * @return The stored fields.
+     */
+    public Set<String> getEntityFields() {
+        Set<String> entityFields = new LinkedHashSet<>();
+        fields.forEach((field, nested) -> {
+            String entityField = ENTITY_FIELDS.get(field);
+            if (nested.isEmpty()) {
+                entityFields.add(entityField);
+            } else {
+                nested.forEach($ -> entityFields.add(entityField + "." + $));
+            }
+        });
+        return entityFields;
+    }
+
+    /**
+     * Wraps the figures so only the requested fields are written, the figures are
+     * neither copied nor written as a whole first.
+     *
+     * @param value A figure, a list of figures or a page of them.
+     * @return The value to be written.
+     */
+    public JsonSerializable select(final Object value) {
+        return new JsonSerializable.Base() {
+            @Override
+            public void serialize(final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+                write(value, gen, provider);
+            }
+
+            @Override
+            public void serializeWithType(final JsonGenerator gen, final SerializerProvider provider,
+                    final TypeSerializer typeSer) throws IOException {
+                write(value, gen, provider);
+            }
+        };
+    }
+
+    private void write(final Object value, final JsonGenerator gen, final SerializerProvider provider)
+            throws IOException {
+        if (value instanceof CharacterFigure figure) {
+            gen.writeStartObject(figure);
+            for (BeanPropertyWriter property : properties(figure, provider)) {
+                Set<String> nested = fields.get(property.getName());
+                if (Objects.isNull(nested)) {
+                    continue;
+                }
+                Object child = get(property, figure, gen);
+                if (nested.isEmpty() || Objects.isNull(child)) {
+                    writeField(property, figure, gen, provider);
+                } else {
+                    gen.writeFieldName(property.getName());
+                    writeNested(child, nested, gen, provider);
+                }
+            }
+            gen.writeEndObject();
+        } else if (value instanceof Iterable<?> values) {
+            gen.writeStartArray();
+            for (Object $ : values) {
+                write($, gen, provider);
+            }
+            gen.writeEndArray();
+        } else if (value instanceof CatalogPage page) {
+            gen.writeStartObject(page);
+            gen.writeFieldName("figures");
+            write(page.getFigures(), gen, provider);
+            provider.defaultSerializeField("nextCursor", page.getNextCursor(), gen);
+            gen.writeEndObject();
+        } else {
+            provider.defaultSerializeValue(value, gen);
+        }
+    }
+
+    // writes a nested object, or every object of a nested list, with the requested
+    // fields only.
+    private void writeNested(final Object value, final Set<String> nested, final JsonGenerator gen,
+            final SerializerProvider provider) throws IOException {
+        if (value instanceof Iterable<?> values) {
+            gen.writeStartArray();
+            for (Object $ : values) {
+                writeNested($, nested, gen, provider);
+            }
+            gen.writeEndArray();
+            return;
+        }
+        gen.writeStartObject(value);
+        for (BeanPropertyWriter property : properties(value, provider)) {
+            if (nested.contains(property.getName())) {
+                writeField(property, value, gen, provider);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeField(final BeanPropertyWriter property, final Object bean, final JsonGenerator gen,
+            final SerializerProvider provider) throws IOException {
+        try {
+            property.serializeAsField(bean, gen, provider);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw JsonMappingException.from(gen, "Unable to write the field: " + property.getName(), e);
+        }
+    }
+
+    private Object get(final BeanPropertyWriter property, final Object bean, final JsonGenerator gen)
+            throws JsonMappingException {
+        try {
+            return property.get(bean);
+        } catch (Exception e) {
+            throw JsonMappingException.from(gen, "Unable to read the field: " + property.getName(), e);
+        }
+    }
+
+    private List<BeanPropertyWriter> properties(final Object bean, final SerializerProvider provider)
+            throws JsonMappingException {
+        List<BeanPropertyWriter> properties = new ArrayList<>();
+        provider.findValueSerializer(bean.getClass()).properties().forEachRemaining($ -> {
+            if ($ instanceof BeanPropertyWriter property) {
+                properties.add(property);
+            }
+        });
+        return properties;
+    }
+}
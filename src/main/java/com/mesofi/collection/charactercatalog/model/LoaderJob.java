@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The status of a job that loads the catalog.
+ */
+@Getter
+@Setter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoaderJob {
+    private String jobId;
+    private LoaderStage stage;
+    private long rowsParsed;
+    private long batchesWritten;
+    private long figuresLoaded;
+    private long elapsedMillis;
+    private String message;
+    private CatalogDelta changes; // the changes applied by a delta load.
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.model;
+
+/**
+ * The stages of a loader job.
+ */
+public enum LoaderStage {
+    QUEUED, PARSING, WRITING, PUBLISHING, COMPLETED, FAILED, CANCELLED;
+
+    /**
+     * Indicates whether the job has finished, no matter the result.
+     *
+     * @return true if the job has finished.
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+
+import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
+import com.mesofi.collection.charactercatalog.model.CatalogCursor;
+import com.mesofi.collection.charactercatalog.model.LoadCheckpoint;
+
+/**
+ * Operations used to replace the whole catalog. A new catalog is written in a
+ * staging collection and it is published once it is complete, so the readers
+ * always see a complete catalog. The catalog replaced is kept so it can be
+ * restored.
+ */
+public interface CharacterFigureCatalogRepository {
+
+    /**
+     * The order of the catalog, the identifier is the last field so every figure
+     * has a single position. It is backed by an index with the same fields.
+     */
+    // @formatter:off
+    Sort CATALOG_ORDER = Sort.by(
+            Sort.Order.desc("futureRelease"),
+            Sort.Order.desc("issuanceJPY.releaseDate"),
+            Sort.Order.desc("position"),
+            Sort.Order.desc("id"));
+    // @formatter:on
+
+    /**
+     * Creates an empty staging collection, any previous staging collection is
+     * removed.
+     */
+    void prepareStaging();
+
+    /**
+     * Saves the figures in the staging collection. They are written by unordered
+     * bulk inserts of {@code catalog.loader.write.batch-size} figures, up to
+     * {@code catalog.loader.write.max-in-flight} of them at the same time, and the
+     * method returns once all of them are written.
+     *
+     * @param entities The figures to be saved.
+     * @return The total of figures saved.
+     */
+    int saveAllInStaging(List<CharacterFigureEntity> entities);
+
+    /**
+     * Keeps the staging collection of a load that was stopped, the figures after
+     * the last checkpoint are removed since their batches may be incomplete.
+     *
+     * @param position The position of the last figure of the checkpoint.
+     * @return true if the staging collection was kept, false if it does not exist
+     *         and it has to be prepared again.
+     */
+    boolean resumeStaging(int position);
+
+    /**
+     * Builds the indexes on the staging collection and replaces the current
+     * catalog with it in a single step. The current catalog is copied aside
+     * first as the previous one.
+     */
+    void publishStaging();
+
+    /**
+     * Removes the staging collection of a load that is not going to be resumed.
+     */
+    void dropStaging();
+
+    /**
+     * Replaces the current catalog with the previous one.
+     *
+     * @return true if there was a previous catalog, false otherwise.
+     */
+    boolean restorePrevious();
+
+    /**
+     * Finds the figures of the catalog that come right after a given position, in
+     * the order of {@link #CATALOG_ORDER}. The figures are read by a range scan of
+     * the index, the figures before the position are not read at all.
+     *
+     * @param after  The position of the last figure of the previous page, null for
+     *               the first page.
+     * @param limit  The maximum total of figures to be retrieved.
+     * @param fields The fields to be retrieved, null to retrieve all of them.
+     * @return The figures found.
+     */
+    List<CharacterFigureEntity> findCatalogPage(@Nullable CatalogCursor after, int limit,
+            @Nullable Collection<String> fields);
+
+    /**
+     * Reads the whole catalog in the order of {@link #CATALOG_ORDER}, the figures
+     * are read from the server as the stream is consumed. The stream has to be
+     * closed.
+     *
+     * @param fields The fields to be retrieved, null to retrieve all of them.
+     * @return The figures of the catalog.
+     */
+    Stream<CharacterFigureEntity> streamCatalog(@Nullable Collection<String> fields);
+
+    /**
+     * Finds a figure by its identifier, only the given fields are retrieved.
+     *
+     * @param id     The identifier.
+     * @param fields The fields to be retrieved.
+     * @return The figure found.
+     */
+    Optional<CharacterFigureEntity> findProjectionById(String id, Collection<String> fields);
+
+    /**
+     * Finds all the figures of the catalog, only the fields that identify the
+     * figure, its content hash, its position and the version of its derived
+     * fields are retrieved.
+     *
+     * @return The figures with their identity and content hash.
+     */
+    List<CharacterFigureEntity> findAllContentHashes();
+
+    /**
+     * Calculates the hash of the content of a figure as it would be stored. The
+     * identifier, the hash itself, the position and the fields derived from the
+     * content are not taken into account.
+     *
+     * @param entity The figure.
+     * @return The content hash.
+     */
+    String computeContentHash(CharacterFigureEntity entity);
+
+    /**
+     * Applies the changes to the catalog in a single unordered bulk operation.
+     *
+     * @param inserts      The new figures.
+     * @param replacements The figures that replace the existing ones with the same
+     *                     identifier.
+     * @param updates      The figures whose content has not changed, only their
+     *                     position and derived fields are set.
+     * @param deletedIds   The identifiers of the figures to be removed.
+     */
+    void applyChanges(List<CharacterFigureEntity> inserts, List<CharacterFigureEntity> replacements,
+            List<CharacterFigureEntity> updates, Collection<String> deletedIds);
+
+    /**
+     * Finds the digest of the file the current catalog was loaded from.
+     *
+     * @return The digest, or null if the catalog has changed since then.
+     */
+    String findCatalogDigest();
+
+    /**
+     * Saves the digest of the file the current catalog was loaded from.
+     *
+     * @param digest The digest, null when the catalog no longer matches any file.
+     */
+    void saveCatalogDigest(String digest);
+
+    /**
+     * Finds the checkpoint of the load in progress.
+     *
+     * @return The checkpoint, or null if there is no load in progress.
+     */
+    LoadCheckpoint findLoadCheckpoint();
+
+    /**
+     * Saves the checkpoint of the load in progress.
+     *
+     * @param checkpoint The checkpoint, null when there is no load in progress.
+     */
+    void saveLoadCheckpoint(LoadCheckpoint checkpoint);
+
+    /**
+     * Finds the version of the catalog shared by every instance of the
+     * application, it is read with a single lookup by identifier.
+     *
+     * @return The version, or null if the catalog has never been written.
+     */
+    @Nullable
+    String findCatalogVersion();
+
+    /**
+     * Moves forward the version of the catalog shared by every instance of the
+     * application, it must be called after every write to the catalog.
+     *
+     * @return The new version.
+     */
+    String incrementCatalogVersion();
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureException;
+import com.mesofi.collection.charactercatalog.model.CatalogCursor;
+import com.mesofi.collection.charactercatalog.model.LoadCheckpoint;
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.RenameCollectionOptions;
+
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The implementation of {@link CharacterFigureCatalogRepository}, the catalog
+ * is swapped by renaming the staging collection as the current catalog in a
+ * single step, the current catalog is copied aside as the previous one before.
+ * The staging collection is written with unordered bulk inserts, several
+ * batches at a time.
+ */
+@Slf4j
+public class CharacterFigureCatalogRepositoryImpl implements CharacterFigureCatalogRepository {
+
+    public static final String STAGING_SUFFIX = "_staging";
+    public static final String PREVIOUS_SUFFIX = "_previous";
+    public static final String METADATA_SUFFIX = "_metadata";
+    public static final String CATALOG_METADATA_ID = "catalog";
+    public static final String CHECKPOINT_METADATA_ID = "checkpoint";
+    public static final String VERSION_METADATA_ID = "version";
+    public static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+    public static final String BATCH_LATENCY_METRIC = "catalog.loader.batch";
+    public static final String CATALOG_ORDER_INDEX = "catalog_order";
+    public static final String DERIVED_VERSION_INDEX = "derived_version";
+
+    // @formatter:off
+    private static final String[] IDENTITY_FIELDS = { "baseName", "lineUp", "series", "group", "metal", "oce",
+            "revival", "plainCloth", "golden", "gold", "hk", "manga", "surplice", "anniversary" };
+    // @formatter:on
+    private static final List<String> NOT_HASHED_FIELDS = List.of("_id", "contentHash", "position", "displayableName",
+            "derivedVersion");
+
+    private final MongoOperations mongoOperations;
+    private final int writeBatchSize;
+    private final int maxInFlight;
+    private final ExecutorService writeExecutor;
+
+    /**
+     * Creates the repository.
+     *
+     * @param mongoOperations The operations on the database.
+     * @param writeBatchSize  The total of figures written by every bulk insert.
+     * @param maxInFlight     The total of bulk inserts running at the same time.
+     */
+    public CharacterFigureCatalogRepositoryImpl(final MongoOperations mongoOperations,
+            @Value("${catalog.loader.write.batch-size:100}") final int writeBatchSize,
+            @Value("${catalog.loader.write.max-in-flight:4}") final int maxInFlight) {
+        this.mongoOperations = mongoOperations;
+        this.writeBatchSize = Math.max(1, writeBatchSize);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        AtomicInteger threads = new AtomicInteger();
+        this.writeExecutor = Executors.newFixedThreadPool(this.maxInFlight, $ -> {
+            Thread thread = new Thread($, "catalog-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.debug("Writing the catalog in batches of {}, at most {} at a time", this.writeBatchSize, this.maxInFlight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void prepareStaging() {
+        String staging = getStagingName();
+        mongoOperations.dropCollection(staging);
+        mongoOperations.createCollection(staging);
+        log.debug("The staging collection {} is ready", staging);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int saveAllInStaging(List<CharacterFigureEntity> entities) {
+        String staging = getStagingName();
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < entities.size(); from += writeBatchSize) {
+            List<CharacterFigureEntity> batch = entities.subList(from, Math.min(from + writeBatchSize, entities.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> insertBatch(batch, staging), writeExecutor));
+        }
+        // every batch is completed before the figures are handed back.
+        int total = 0;
+        RuntimeException failure = null;
+        for (CompletableFuture<Integer> batch : batches) {
+            try {
+                total += batch.join();
+            } catch (CompletionException e) {
+                if (Objects.isNull(failure)) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+        return total;
+    }
+
+    /**
+     * Creates the indexes on the current catalog, the ones published before they
+     * were introduced get them without being loaded again.
+     */
+    @PostConstruct
+    public void createCatalogIndexes() {
+        String catalog = getCatalogName();
+        if (mongoOperations.collectionExists(catalog)) {
+            createIndexes(catalog);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeExecutor.shutdown();
+    }
+
+    // the figures are independent from each other, so the batch is not stopped by
+    // a single failure and the server may write them in any order.
+    private int insertBatch(final List<CharacterFigureEntity> batch, final String collection) {
+        long start = System.nanoTime();
+        batch.forEach($ -> $.setContentHash(computeContentHash($)));
+        // @formatter:off
+        BulkWriteResult result = mongoOperations
+                .bulkOps(BulkOperations.BulkMode.UNORDERED, CharacterFigureEntity.class, collection)
+                .insert(batch)
+                .execute();
+        // @formatter:on
+        long elapsed = System.nanoTime() - start;
+        Metrics.timer(BATCH_LATENCY_METRIC, "collection", collection).record(elapsed, TimeUnit.NANOSECONDS);
+        log.debug("Batch of {} figures written to {} in {} ms", result.getInsertedCount(), collection,
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return result.getInsertedCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean resumeStaging(int position) {
+        String staging = getStagingName();
+        if (!mongoOperations.collectionExists(staging)) {
+            return false;
+        }
+        long removed = mongoOperations.remove(Query.query(Criteria.where("position").gt(position)), staging)
+                .getDeletedCount();
+        log.debug("The staging collection {} is resumed after position {}, figures removed: {}", staging, position,
+                removed);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publishStaging() {
+        String catalog = getCatalogName();
+        String staging = getStagingName();
+        createIndexes(staging);
+
+        // the current catalog is copied aside by the server, then a single rename
+        // replaces it, so the catalog can be read at any time.
+        if (mongoOperations.collectionExists(catalog)) {
+            copy(catalog, getPreviousName());
+        }
+        rename(staging, catalog);
+        log.debug("The collection {} has been published as {}", staging, catalog);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dropStaging() {
+        String staging = getStagingName();
+        mongoOperations.dropCollection(staging);
+        log.debug("The staging collection {} has been dropped", staging);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean restorePrevious() {
+        String previous = getPreviousName();
+        if (!mongoOperations.collectionExists(previous)) {
+            return false;
+        }
+        createIndexes(previous);
+        rename(previous, getCatalogName());
+        log.debug("The collection {} has been restored", previous);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CharacterFigureEntity> findCatalogPage(CatalogCursor after, int limit, Collection<String> fields) {
+        Query query = Objects.isNull(after) ? new Query() : Query.query(after(after));
+        if (Objects.nonNull(fields)) {
+            include(query, fields);
+        }
+        return mongoOperations.find(query.with(CATALOG_ORDER).limit(limit), CharacterFigureEntity.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<CharacterFigureEntity> streamCatalog(Collection<String> fields) {
+        Query query = new Query();
+        if (Objects.nonNull(fields)) {
+            include(query, fields);
+        }
+        return mongoOperations.stream(query.with(CATALOG_ORDER), CharacterFigureEntity.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<CharacterFigureEntity> findProjectionById(String id, Collection<String> fields) {
+        Query query = include(Query.query(Criteria.where("_id").is(id)), fields);
+        return Optional.ofNullable(mongoOperations.findOne(query, CharacterFigureEntity.class));
+    }
+
+    // a field within another one already included is skipped, the server rejects
+    // both of them in the same projection.
+    private Query include(final Query query, final Collection<String> fields) {
+        // @formatter:off
+        fields.stream()
+                .filter($ -> fields.stream().noneMatch(parent -> $.startsWith(parent + ".")))
+                .distinct()
+                .forEach(query.fields()::include);
+        // @formatter:on
+        return query;
+    }
+
+    // a figure comes after the cursor when it has the same values in the first
+    // fields of the order and a lower value in the next one, the empty values are
+    // the lowest ones.
+    private Criteria after(final CatalogCursor cursor) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("futureRelease", cursor.isFutureRelease());
+        keys.put("issuanceJPY.releaseDate", cursor.getReleaseDate());
+        keys.put("position", cursor.getPosition());
+        keys.put("_id", cursor.getId());
+
+        List<Criteria> after = new ArrayList<>();
+        List<Criteria> same = new ArrayList<>();
+        keys.forEach((field, value) -> {
+            if (Objects.nonNull(value)) {
+                Criteria lower = new Criteria().orOperator(Criteria.where(field).lt(value),
+                        Criteria.where(field).is(null));
+                after.add(new Criteria().andOperator(Stream.concat(same.stream(), Stream.of(lower)).toList()));
+            }
+            same.add(Criteria.where(field).is(value));
+        });
+        return new Criteria().orOperator(after);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CharacterFigureEntity> findAllContentHashes() {
+        Query query = new Query();
+        query.fields().include(IDENTITY_FIELDS).include("contentHash", "position", "derivedVersion");
+        return mongoOperations.find(query, CharacterFigureEntity.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String computeContentHash(CharacterFigureEntity entity) {
+        Document document = new Document();
+        mongoOperations.getConverter().write(entity, document);
+        // the position and the derived fields change without any change in the
+        // content of the figure.
+        NOT_HASHED_FIELDS.forEach(document::remove);
+        removeReleasePrice(document);
+        if (document.get("restocks") instanceof List<?> restocks) {
+            restocks.forEach(this::removeReleasePrice);
+        }
+        // the tags are stored in no particular order.
+        if (document.get("tags") instanceof List<?> tags) {
+            document.put("tags", tags.stream().map(Objects::toString).sorted().toList());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+            return HexFormat.of().formatHex(digest.digest(document.toJson().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new CharacterFigureException("Unable to calculate the content hash");
+        }
+    }
+
+    private void removeReleasePrice(final Object figure) {
+        if (figure instanceof Document document) {
+            for (String issuance : new String[] { "issuanceJPY", "issuanceMXN" }) {
+                if (document.get(issuance) instanceof Document price) {
+                    price.remove("releasePrice");
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyChanges(List<CharacterFigureEntity> inserts, List<CharacterFigureEntity> replacements,
+            List<CharacterFigureEntity> updates, Collection<String> deletedIds) {
+        if (inserts.isEmpty() && replacements.isEmpty() && updates.isEmpty() && deletedIds.isEmpty()) {
+            log.debug("No changes to be applied");
+            return;
+        }
+        BulkOperations operations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                CharacterFigureEntity.class);
+        if (!inserts.isEmpty()) {
+            operations.insert(inserts);
+        }
+        replacements.forEach($ -> operations.replaceOne(Query.query(Criteria.where("_id").is($.getId())), $));
+        updates.forEach($ -> operations.updateOne(Query.query(Criteria.where("_id").is($.getId())), toUpdate($)));
+        if (!deletedIds.isEmpty()) {
+            operations.remove(Query.query(Criteria.where("_id").in(deletedIds)));
+        }
+        operations.execute();
+        log.debug("Changes applied, inserted: {}, replaced: {}, updated: {}, deleted: {}", inserts.size(),
+                replacements.size(), updates.size(), deletedIds.size());
+    }
+
+    // only the fields that are not part of the content hash are set.
+    private Update toUpdate(final CharacterFigureEntity entity) {
+        // @formatter:off
+        Update update = Update.update("position", entity.getPosition())
+                .set("displayableName", entity.getDisplayableName())
+                .set("derivedVersion", entity.getDerivedVersion());
+        // @formatter:on
+        if (Objects.nonNull(entity.getIssuanceJPY())) {
+            update.set("issuanceJPY.releasePrice", entity.getIssuanceJPY().getReleasePrice());
+        }
+        if (Objects.nonNull(entity.getIssuanceMXN())) {
+            update.set("issuanceMXN.releasePrice", entity.getIssuanceMXN().getReleasePrice());
+        }
+        if (Objects.nonNull(entity.getRestocks())) {
+            update.set("restocks", mongoOperations.getConverter().convertToMongoType(entity.getRestocks()));
+        }
+        return update;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String findCatalogDigest() {
+        Document metadata = mongoOperations.findById(CATALOG_METADATA_ID, Document.class, getMetadataName());
+        return Objects.nonNull(metadata) ? metadata.getString("digest") : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveCatalogDigest(String digest) {
+        Query query = Query.query(Criteria.where("_id").is(CATALOG_METADATA_ID));
+        if (Objects.isNull(digest)) {
+            mongoOperations.remove(query, getMetadataName());
+        } else {
+            mongoOperations.upsert(query, Update.update("digest", digest).set("loadedAt", new Date()),
+                    getMetadataName());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LoadCheckpoint findLoadCheckpoint() {
+        Document metadata = mongoOperations.findById(CHECKPOINT_METADATA_ID, Document.class, getMetadataName());
+        return Objects.nonNull(metadata)
+                ? new LoadCheckpoint(metadata.getString("digest"), metadata.getInteger("position", 0))
+                : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveLoadCheckpoint(LoadCheckpoint checkpoint) {
+        Query query = Query.query(Criteria.where("_id").is(CHECKPOINT_METADATA_ID));
+        if (Objects.isNull(checkpoint)) {
+            mongoOperations.remove(query, getMetadataName());
+        } else {
+            // @formatter:off
+            mongoOperations.upsert(query, Update.update("digest", checkpoint.getDigest())
+                    .set("position", checkpoint.getPosition())
+                    .set("savedAt", new Date()), getMetadataName());
+            // @formatter:on
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String findCatalogVersion() {
+        Document metadata = mongoOperations.findById(VERSION_METADATA_ID, Document.class, getMetadataName());
+        return Objects.nonNull(metadata) ? toCatalogVersion(metadata) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String incrementCatalogVersion() {
+        // the epoch is created along with the document, so the versions are never
+        // repeated even if the document is removed.
+        // @formatter:off
+        Document metadata = mongoOperations.findAndModify(
+                Query.query(Criteria.where("_id").is(VERSION_METADATA_ID)),
+                new Update().inc("version", 1L).setOnInsert("epoch", new ObjectId().toHexString()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class, getMetadataName());
+        // @formatter:on
+        return toCatalogVersion(Objects.requireNonNull(metadata));
+    }
+
+    private String toCatalogVersion(final Document metadata) {
+        return metadata.getString("epoch") + "." + metadata.get("version", Number.class).longValue();
+    }
+
+    /**
+     * Creates the indexes used to read the catalog, one of them follows
+     * {@link #CATALOG_ORDER} so the catalog is read page by page without sorting
+     * it, another one finds the figures with outdated derived fields.
+     *
+     * @param collectionName The name of the collection.
+     */
+    private void createIndexes(final String collectionName) {
+        // @formatter:off
+        mongoOperations.indexOps(collectionName).ensureIndex(new Index()
+                .on("futureRelease", Sort.Direction.DESC)
+                .on("issuanceJPY.releaseDate", Sort.Direction.DESC)
+                .on("position", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named(CATALOG_ORDER_INDEX));
+        // @formatter:on
+        mongoOperations.indexOps(collectionName)
+                .ensureIndex(new Index().on("derivedVersion", Sort.Direction.ASC).named(DERIVED_VERSION_INDEX));
+    }
+
+    // the target collection is replaced once the copy is complete.
+    private void copy(final String source, final String target) {
+        mongoOperations.aggregate(Aggregation.newAggregation(Aggregation.out(target)), source, Document.class);
+    }
+
+    private void rename(final String source, final String target) {
+        MongoCollection<Document> collection = mongoOperations.getCollection(source);
+        MongoNamespace namespace = new MongoNamespace(collection.getNamespace().getDatabaseName(), target);
+        collection.renameCollection(namespace, new RenameCollectionOptions().dropTarget(true));
+    }
+
+    private String getCatalogName() {
+        return mongoOperations.getCollectionName(CharacterFigureEntity.class);
+    }
+
+    private String getStagingName() {
+        return getCatalogName() + STAGING_SUFFIX;
+    }
+
+    private String getPreviousName() {
+        return getCatalogName() + PREVIOUS_SUFFIX;
+    }
+
+    private String getMetadataName() {
+        return getCatalogName() + METADATA_SUFFIX;
+    }
+}
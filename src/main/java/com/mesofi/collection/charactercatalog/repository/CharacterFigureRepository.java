@@ -5,6 +5,8 @@
  */
 package com.mesofi.collection.charactercatalog.repository;
 
+import java.util.stream.Stream;
+
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
@@ -19,5 +21,24 @@ import org.springframework.stereotype.Repository;
  */
 @Primary // we make it primary because the Integration Tests uses a custom implementation.
 @Repository
-public interface CharacterFigureRepository extends MongoRepository<CharacterFigureEntity, String> {
+public interface CharacterFigureRepository
+        extends MongoRepository<CharacterFigureEntity, String>, CharacterFigureCatalogRepository {
+
+    /**
+     * Finds the figures whose derived fields were calculated with a different
+     * version of the rules, or never calculated.
+     *
+     * @param derivedVersion The current version of the rules.
+     * @return The figures, read one by one from the collection.
+     */
+    Stream<CharacterFigureEntity> streamByDerivedVersionNot(Integer derivedVersion);
+
+    /**
+     * Checks if any figure has its derived fields calculated with a different
+     * version of the rules, or never calculated. Only the index is read.
+     *
+     * @param derivedVersion The current version of the rules.
+     * @return true if at least one figure is outdated.
+     */
+    boolean existsByDerivedVersionNot(Integer derivedVersion);
 }
@@ -0,0 +1,636 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ToIntFunction;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
+import com.mesofi.collection.charactercatalog.exception.CatalogNotModifiedException;
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureException;
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureNotFoundException;
+import com.mesofi.collection.charactercatalog.mappers.CharacterFigureModelMapper;
+import com.mesofi.collection.charactercatalog.model.CatalogDelta;
+import com.mesofi.collection.charactercatalog.model.CatalogValidation;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.CharacterFigureKey;
+import com.mesofi.collection.charactercatalog.model.LoadCheckpoint;
+import com.mesofi.collection.charactercatalog.model.LoaderStage;
+import com.mesofi.collection.charactercatalog.model.RecordError;
+import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
+import com.mesofi.collection.charactercatalog.utils.FileUtils;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the catalog from the uploaded files. The new catalog is written aside
+ * with a checkpoint after every batch, and it replaces the current one only once
+ * it is complete. The figures are prepared to be stored by
+ * {@link CharacterFigureService}.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class CatalogLoaderService {
+
+    public static final int LOADER_BATCH_SIZE = 500;
+    public static final String CATALOG_DIGEST_ALGORITHM = "SHA-256";
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private CharacterFigureRepository repo;
+    private CharacterFigureService characterFigureService;
+    private CharacterFigureModelMapper modelMapper;
+    private CatalogParser catalogParser;
+    private TagRuleEngine tagRuleEngine;
+
+    /**
+     * Loads all the characters.
+     * 
+     * @param file The reference to the file with all the records.
+     * @return The total of records loaded.
+     * @throws CatalogNotModifiedException if the file was already loaded.
+     */
+    public long loadAllCharacters(final MultipartFile file) {
+        return loadAllCharacters(file, null, LoaderProgress.NONE);
+    }
+
+    /**
+     * Loads all the characters and reports the progress of the load. Nothing is
+     * written when the digest of the records matches the one of the current
+     * catalog.
+     *
+     * @param source   The source of the records, it is read twice.
+     * @param digest   The digest of the records, see
+     *                 {@link #createCatalogDigest()}. When it is null, it is
+     *                 calculated while the records are parsed.
+     * @param progress Receives the progress of the load.
+     * @return The total of records loaded.
+     * @throws CatalogNotModifiedException if the records were already loaded.
+     */
+    public long loadAllCharacters(final InputStreamSource source, @Nullable final String digest,
+            final LoaderProgress progress) {
+        return loadAllCharacters(Objects.isNull(source) ? List.of() : List.of(source), digest, progress);
+    }
+
+    /**
+     * Loads all the characters from several sources and reports the progress of
+     * the load. The sources are merged into a single catalog as if they were one
+     * after the other, so the re-stocks are grouped across all of them, and the
+     * catalog is published once all of them are written. Nothing is written when
+     * the digest of the records matches the one of the current catalog.
+     *
+     * @param sources  The sources of the records, each one is read twice.
+     * @param digest   The digest of the records, see
+     *                 {@link #combineCatalogDigests(List)}. When it is null, it is
+     *                 calculated while the records are parsed.
+     * @param progress Receives the progress of the load.
+     * @return The total of records loaded.
+     * @throws CatalogNotModifiedException if the records were already loaded.
+     */
+    public long loadAllCharacters(final List<? extends InputStreamSource> sources, @Nullable final String digest,
+            final LoaderProgress progress) {
+        log.debug("Loading all the records ...");
+
+        if (Objects.isNull(sources) || sources.isEmpty() || sources.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("The uploaded file is missing...");
+        }
+        if (Objects.nonNull(digest)) {
+            checkCatalogModified(digest);
+        }
+
+        // first pass, all the records are validated and we find out the position of
+        // the record that becomes the base figure of each group of re-stocks.
+        progress.stageChanged(LoaderStage.PARSING);
+        CatalogScan scan = findBasePositions(sources, Objects.isNull(digest), progress);
+        log.debug("Total of effective figures to be loaded: {}", scan.basePositions().size());
+        String catalogDigest = Objects.nonNull(digest) ? digest : scan.digest();
+        if (Objects.isNull(digest)) {
+            checkCatalogModified(catalogDigest);
+        }
+
+        // the new catalog is written aside, the current one is still served meanwhile.
+        // A previous load of the same file that was stopped goes on from its checkpoint.
+        progress.stageChanged(LoaderStage.WRITING);
+        int resumeAfter = prepareStaging(catalogDigest);
+
+        // second pass, the figures are saved in batches as soon as they are complete.
+        long total = streamEffectiveCharacters(sources, scan, resumeAfter, $ -> {
+            int saved = repo.saveAllInStaging($);
+            // every figure up to the last one of the batch is already written.
+            repo.saveLoadCheckpoint(new LoadCheckpoint(catalogDigest, $.get($.size() - 1).getPosition()));
+            progress.batchWritten(saved);
+            return saved;
+        });
+
+        // the new catalog replaces the current one only when it is complete, the
+        // checkpoint is removed first so a published catalog is never resumed.
+        progress.stageChanged(LoaderStage.PUBLISHING);
+        repo.saveLoadCheckpoint(null);
+        repo.publishStaging();
+        repo.saveCatalogDigest(catalogDigest);
+        characterFigureService.catalogChanged();
+
+        log.debug("Total of figures loaded correctly: {}", total);
+        return total;
+    }
+
+    /**
+     * Loads only the differences between the records and the current catalog. The
+     * figures are matched by their identity and compared by their content hash,
+     * then the new, changed and removed figures are applied in a single bulk
+     * operation.
+     *
+     * @param file The reference to the file with all the records.
+     * @return The changes applied to the catalog.
+     * @throws CatalogNotModifiedException if the file was already loaded.
+     */
+    public CatalogDelta loadCharactersDelta(final MultipartFile file) {
+        return loadCharactersDelta(file, null, LoaderProgress.NONE);
+    }
+
+    /**
+     * Loads only the differences between the records and the current catalog and
+     * reports the progress of the load. Nothing is written when the digest of the
+     * records matches the one of the current catalog.
+     *
+     * @param source   The source of the records, it is read twice.
+     * @param digest   The digest of the records, see
+     *                 {@link #createCatalogDigest()}. When it is null, it is
+     *                 calculated while the records are parsed.
+     * @param progress Receives the progress of the load.
+     * @return The changes applied to the catalog.
+     * @throws CatalogNotModifiedException if the records were already loaded.
+     */
+    public CatalogDelta loadCharactersDelta(final InputStreamSource source, @Nullable final String digest,
+            final LoaderProgress progress) {
+        log.debug("Loading the changes of the records ...");
+
+        if (Objects.isNull(source)) {
+            throw new IllegalArgumentException("The uploaded file is missing...");
+        }
+        if (Objects.nonNull(digest)) {
+            checkCatalogModified(digest);
+        }
+
+        progress.stageChanged(LoaderStage.PARSING);
+        CatalogScan scan = findBasePositions(List.of(source), Objects.isNull(digest), progress);
+        log.debug("Total of effective figures to be compared: {}", scan.basePositions().size());
+        String catalogDigest = Objects.nonNull(digest) ? digest : scan.digest();
+        if (Objects.isNull(digest)) {
+            checkCatalogModified(catalogDigest);
+        }
+
+        // the current figures, the duplicated ones are removed.
+        Map<CharacterFigureKey, CharacterFigureEntity> existingFigures = new HashMap<>();
+        List<String> deletedIds = new ArrayList<>();
+        for (CharacterFigureEntity existing : repo.findAllContentHashes()) {
+            if (Objects.nonNull(existingFigures.putIfAbsent(characterFigureService.toKey(existing), existing))) {
+                deletedIds.add(existing.getId());
+            }
+        }
+
+        List<CharacterFigureEntity> inserts = new ArrayList<>();
+        List<CharacterFigureEntity> replacements = new ArrayList<>();
+        List<CharacterFigureEntity> updates = new ArrayList<>();
+        progress.stageChanged(LoaderStage.WRITING);
+        long total = streamEffectiveCharacters(List.of(source), scan, 0, batch -> {
+            for (CharacterFigureEntity entity : batch) {
+                entity.setContentHash(repo.computeContentHash(entity));
+                CharacterFigureEntity existing = existingFigures.remove(characterFigureService.toKey(entity));
+                if (Objects.isNull(existing)) {
+                    inserts.add(entity);
+                } else if (!entity.getContentHash().equals(existing.getContentHash())) {
+                    entity.setId(existing.getId());
+                    replacements.add(entity);
+                } else if (!Objects.equals(entity.getPosition(), existing.getPosition())
+                        || !Objects.equals(entity.getDerivedVersion(), existing.getDerivedVersion())) {
+                    // the same content, only the position or the derived fields are set.
+                    entity.setId(existing.getId());
+                    updates.add(entity);
+                }
+            }
+            progress.batchWritten(batch.size());
+            return batch.size();
+        });
+        // the figures that are no longer in the catalog.
+        existingFigures.values().forEach($ -> deletedIds.add($.getId()));
+
+        // nothing is written until every change is known.
+        progress.stageChanged(LoaderStage.PUBLISHING);
+        repo.applyChanges(inserts, replacements, updates, deletedIds);
+        repo.saveCatalogDigest(catalogDigest);
+        characterFigureService.catalogChanged();
+
+        // the figures whose position or derived fields are set are updated too.
+        long updated = replacements.size() + updates.size();
+        CatalogDelta delta = new CatalogDelta(inserts.size(), updated, deletedIds.size(),
+                total - inserts.size() - updated);
+        log.debug("Changes applied to the catalog: {}", delta);
+        return delta;
+    }
+
+    /**
+     * Validates all the records without loading them, every record is read even
+     * when some of them are invalid. The current catalog is not touched.
+     *
+     * @param file The reference to the file with all the records.
+     * @return The errors found, up to {@link #MAX_REPORTED_ERRORS}, and the
+     *         figures that would be loaded.
+     */
+    public CatalogValidation validateCharacters(final MultipartFile file) {
+        log.debug("Validating the records ...");
+
+        if (Objects.isNull(file)) {
+            throw new IllegalArgumentException("The uploaded file is missing...");
+        }
+
+        CatalogValidation validation = new CatalogValidation();
+        Set<CharacterFigureKey> effectiveFigures = new HashSet<>();
+        long[] validRows = { 0 };
+        catalogParser.forEachRecord(openStream(file), (position, figure) -> {
+            effectiveFigures.add(CharacterFigureKey.of(figure));
+            validRows[0]++;
+        }, $ -> {
+            validation.setTotalErrors(validation.getTotalErrors() + 1);
+            if (validation.getErrors().size() < MAX_REPORTED_ERRORS) {
+                validation.getErrors().add(new RecordError($.getLine(), $.getColumn(), $.getValue(), $.getReason()));
+            } else {
+                validation.setTruncated(true);
+            }
+        });
+
+        validation.setValid(validation.getTotalErrors() == 0);
+        validation.setRows(validRows[0] + validation.getTotalErrors());
+        validation.setEffectiveFigures(effectiveFigures.size());
+        validation.setRestocks(validRows[0] - effectiveFigures.size());
+        log.debug("Records validated, total of errors: {}", validation.getTotalErrors());
+        return validation;
+    }
+
+    /**
+     * Finds the digest of the file whose load was stopped before it was
+     * completed.
+     *
+     * @return The digest, or null if there is no load to be resumed.
+     */
+    @Nullable
+    public String findPendingLoad() {
+        LoadCheckpoint checkpoint = repo.findLoadCheckpoint();
+        return Objects.nonNull(checkpoint) ? checkpoint.getDigest() : null;
+    }
+
+    /**
+     * Discards the load that was stopped on purpose, its checkpoint and its
+     * staging collection are removed so it is never resumed.
+     */
+    public void discardPendingLoad() {
+        repo.saveLoadCheckpoint(null);
+        repo.dropStaging();
+    }
+
+    /**
+     * Gets the staging collection ready to receive the figures. When the latest
+     * load of the same file was stopped, its staging collection is kept.
+     *
+     * @param digest The digest of the file being loaded.
+     * @return The position of the last figure already written, zero when the
+     *         load starts from scratch.
+     */
+    private int prepareStaging(final String digest) {
+        LoadCheckpoint checkpoint = repo.findLoadCheckpoint();
+        if (Objects.nonNull(checkpoint) && digest.equals(checkpoint.getDigest())
+                && repo.resumeStaging(checkpoint.getPosition())) {
+            log.debug("Resuming the load after the position: {}", checkpoint.getPosition());
+            return checkpoint.getPosition();
+        }
+        repo.prepareStaging();
+        repo.saveLoadCheckpoint(new LoadCheckpoint(digest, 0));
+        return 0;
+    }
+
+    /**
+     * Restores the catalog that was replaced by the latest load.
+     */
+    public void rollbackCatalog() {
+        log.debug("Restoring the previous catalog ...");
+
+        if (!repo.restorePrevious()) {
+            throw new CharacterFigureNotFoundException("No previous catalog found to be restored");
+        }
+        repo.saveCatalogDigest(null);
+        characterFigureService.catalogChanged();
+        log.debug("The previous catalog has been restored");
+    }
+
+    /**
+     * Creates the digest used to find out whether a file was loaded already. The
+     * version of the parser and of the tag rules are part of it, so the same file
+     * is loaded again when the way it is read changes.
+     *
+     * @return The digest, ready to receive the content of the file.
+     */
+    public MessageDigest createCatalogDigest() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(CATALOG_DIGEST_ALGORITHM);
+            String version = "parser:" + CatalogParser.VERSION + ";tags:" + tagRuleEngine.getVersion() + ";";
+            digest.update(version.getBytes(StandardCharsets.UTF_8));
+            return digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new CharacterFigureException("Unable to calculate the catalog digest");
+        }
+    }
+
+    /**
+     * Combines the digests of several files loaded together, see
+     * {@link #createCatalogDigest()}. The order of the files is part of it, the
+     * digest of a single file is kept as is.
+     *
+     * @param digests The digest of every file, in the order they are loaded.
+     * @return The digest of all the files.
+     */
+    public String combineCatalogDigests(final List<String> digests) {
+        if (digests.size() == 1) {
+            return digests.get(0);
+        }
+        MessageDigest digest = createCatalogDigest();
+        digests.forEach($ -> digest.update($.getBytes(StandardCharsets.UTF_8)));
+        return toHex(digest);
+    }
+
+    /**
+     * Verifies that a file has not been loaded already.
+     *
+     * @param digest The digest of the file.
+     * @throws CatalogNotModifiedException if the current catalog was loaded from
+     *                                     the same file.
+     */
+    public void checkCatalogModified(final String digest) {
+        if (digest.equals(repo.findCatalogDigest())) {
+            log.debug("The catalog has not been modified, digest: {}", digest);
+            throw new CatalogNotModifiedException("The catalog has not been modified", digest);
+        }
+    }
+
+    /**
+     * Gets the value of a digest.
+     *
+     * @param digest The digest, once all the content has been read.
+     * @return The value in hexadecimal.
+     */
+    public static String toHex(final MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private InputStream openStream(final InputStreamSource source) {
+        return openStream(source, null);
+    }
+
+    // the content is decompressed and added to the digest as it is read, so a
+    // compressed file has the same digest as the original one.
+    private InputStream openStream(final InputStreamSource source, @Nullable final MessageDigest digest) {
+        try {
+            String contentType = source instanceof MultipartFile file ? file.getContentType() : null;
+            InputStream inputStream = FileUtils.decompress(source.getInputStream(), contentType);
+            return Objects.nonNull(digest) ? new DigestInputStream(inputStream, digest) : inputStream;
+        } catch (IOException e) {
+            throw new CharacterFigureException("Unable to read characters from file");
+        }
+    }
+
+    /**
+     * Reads the records of every source and finds the position of the last record
+     * of each figure, that record is the base figure and the previous ones are its
+     * re-stocks. The sources are parsed at the same time, then the positions of
+     * every source are placed after the ones of the previous source. Only the keys
+     * are kept in memory.
+     *
+     * @param sources  The sources of the records.
+     * @param digested true to calculate the digest of the records as well.
+     * @param progress Receives every record parsed.
+     * @return The position of the base record of each figure.
+     */
+    private CatalogScan findBasePositions(final List<? extends InputStreamSource> sources, final boolean digested,
+            final LoaderProgress progress) {
+        List<SourceScan> scans = new ArrayList<>(sources.size());
+        if (sources.size() == 1) {
+            scans.add(findBasePositions(sources.get(0), digested, progress));
+        } else {
+            // @formatter:off
+            List<CompletableFuture<SourceScan>> pending = sources.stream()
+                    .map($ -> CompletableFuture.supplyAsync(() -> findBasePositions($, digested, progress)))
+                    .toList();
+            // @formatter:on
+            // every source is parsed before the first failure is reported.
+            RuntimeException failure = null;
+            for (CompletableFuture<SourceScan> scan : pending) {
+                try {
+                    scans.add(scan.join());
+                } catch (CompletionException e) {
+                    if (Objects.isNull(failure)) {
+                        failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                    }
+                }
+            }
+            if (Objects.nonNull(failure)) {
+                throw failure;
+            }
+        }
+
+        Map<CharacterFigureKey, Integer> basePositions = new HashMap<>();
+        int[] offsets = new int[scans.size()];
+        int offset = 0;
+        for (int i = 0; i < scans.size(); i++) {
+            // a figure found in a later source has its base record there.
+            final int sourceOffset = offset;
+            scans.get(i).basePositions().forEach(($, position) -> basePositions.put($, position + sourceOffset));
+            offsets[i] = offset;
+            offset += scans.get(i).lines();
+        }
+        String digest = digested ? combineCatalogDigests(scans.stream().map(SourceScan::digest).toList()) : null;
+        return new CatalogScan(basePositions, offsets, digest);
+    }
+
+    private SourceScan findBasePositions(final InputStreamSource source, final boolean digested,
+            final LoaderProgress progress) {
+        MessageDigest digest = digested ? createCatalogDigest() : null;
+        Map<CharacterFigureKey, Integer> basePositions = new HashMap<>();
+        int lines = catalogParser.forEachRecord(openStream(source, digest), (position, figure) -> {
+            basePositions.put(CharacterFigureKey.of(figure), position);
+            progress.rowParsed();
+        });
+        return new SourceScan(basePositions, lines, digested ? toHex(digest) : null);
+    }
+
+    /**
+     * Reads the records one by one, the re-stocks are kept aside until their base
+     * figure is read, then the figure is completed and sent to the sink in batches
+     * of {@link #LOADER_BATCH_SIZE} elements, so only the figures of a batch and the
+     * pending re-stocks are in memory at any time. Every figure gets the
+     * identifier derived from its identity, see {@link CharacterFigureKey#toId()}.
+     * The sources are read one after the other, so a re-stock waits for its base
+     * figure even when it is in a later source.
+     *
+     * @param sources     The sources of the records.
+     * @param scan        The position of the base record of each figure.
+     * @param resumeAfter The figures up to this position are already saved, they
+     *                    are counted but not sent to the sink.
+     * @param sink        Receives every batch and returns the total of records
+     *                    saved.
+     * @return The total of records saved by the sink, plus the ones already
+     *         saved.
+     */
+    private long streamEffectiveCharacters(final List<? extends InputStreamSource> sources, final CatalogScan scan,
+            final int resumeAfter, final ToIntFunction<List<CharacterFigureEntity>> sink) {
+        Map<CharacterFigureKey, Integer> basePositions = scan.basePositions();
+        Map<CharacterFigureKey, List<CharacterFigure>> pendingRestocks = new HashMap<>();
+        List<CharacterFigureEntity> batch = new ArrayList<>(LOADER_BATCH_SIZE);
+        long[] total = { 0 };
+
+        for (int i = 0; i < sources.size(); i++) {
+            final int offset = scan.offsets()[i];
+            catalogParser.forEachRecord(openStream(sources.get(i)), (line, figure) -> {
+                int position = line + offset;
+                CharacterFigureKey key = CharacterFigureKey.of(figure);
+                if (!Objects.equals(basePositions.get(key), position)) {
+                    // this is a re-stock, it waits until the base figure is read.
+                    pendingRestocks.computeIfAbsent(key, $ -> new ArrayList<>()).add(figure);
+                    return;
+                }
+                // the latest re-stocks are added first, just like the catalog is read.
+                List<CharacterFigure> restocks = pendingRestocks.remove(key);
+                if (position <= resumeAfter) {
+                    total[0]++;
+                    return;
+                }
+                if (Objects.nonNull(restocks)) {
+                    for (ListIterator<CharacterFigure> it = restocks.listIterator(restocks.size()); it.hasPrevious();) {
+                        characterFigureService.mergeRestock(figure, it.previous());
+                    }
+                }
+                addStandardTags(figure);
+
+                CharacterFigureEntity entity = modelMapper.toEntity(figure);
+                entity.setId(key.toId());
+                entity.setPosition(position);
+                characterFigureService.calculateDerivedFields(entity);
+                batch.add(entity);
+                if (batch.size() == LOADER_BATCH_SIZE) {
+                    total[0] += sink.applyAsInt(batch);
+                    batch.clear();
+                }
+            });
+        }
+        if (!batch.isEmpty()) {
+            total[0] += sink.applyAsInt(batch);
+        }
+        return total[0];
+    }
+
+    /**
+     * Converts and process the incoming records and return a list with the
+     * characters ready to be saved in a persistence storage.
+     * 
+     * @param inputStream Reference to the records read from a source.
+     * @return The list or records.
+     */
+    public List<CharacterFigureEntity> convertStreamToEntityList(InputStream inputStream) {
+        List<CharacterFigure> allCharacters = new ArrayList<>();
+        catalogParser.forEachRecord(inputStream, (position, figure) -> allCharacters.add(figure));
+
+        // the records are grouped from the last one to the first one, this way the
+        // latest record becomes the base figure and the previous ones its re-stocks.
+        log.debug("Total of figures to be loaded: {}", allCharacters.size());
+        RestockGrouper grouper = new RestockGrouper(characterFigureService::mergeRestock);
+        for (ListIterator<CharacterFigure> it = allCharacters.listIterator(allCharacters.size()); it.hasPrevious();) {
+            grouper.add(it.previous());
+        }
+        List<CharacterFigure> effectiveCharacters = grouper.getEffectiveCharacters();
+        log.debug("Total of effective figures to be loaded: {}", effectiveCharacters.size());
+
+        // add some tags
+        addStandardTags(effectiveCharacters);
+
+        List<CharacterFigureEntity> entities = new ArrayList<>(effectiveCharacters.size());
+        for (CharacterFigure figure : effectiveCharacters) {
+            CharacterFigureEntity entity = modelMapper.toEntity(figure);
+            entity.setId(CharacterFigureKey.of(figure).toId());
+            characterFigureService.calculateDerivedFields(entity);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    /**
+     * Add some standard tags to the figures. Normally this method should be called
+     * if we want to apply certain tags to a specific set of characters, as opposite
+     * to set them directly in the catalog (tags very specific).
+     * 
+     * @param effectiveCharacters The list of characters.
+     */
+    private void addStandardTags(List<CharacterFigure> effectiveCharacters) {
+        effectiveCharacters.forEach(this::addStandardTags);
+    }
+
+    /**
+     * Add some standard tags to a single figure.
+     *
+     * @param figure The character.
+     */
+    private void addStandardTags(CharacterFigure figure) {
+        tagRuleEngine.addStandardTags(figure);
+    }
+
+    /**
+     * Gets the effective characters, this list contains the records to be saved in
+     * DB.
+     *
+     * @param allCharacters All the characters.
+     * @return The effective characters.
+     */
+    public List<CharacterFigure> getEffectiveCharacters(final List<CharacterFigure> allCharacters) {
+        if (Objects.nonNull(allCharacters)) {
+            RestockGrouper grouper = new RestockGrouper(characterFigureService::mergeRestock);
+            allCharacters.forEach(grouper::add);
+            return grouper.getEffectiveCharacters();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * The base positions found in a single source, numbered from the first line
+     * of the source.
+     */
+    private record SourceScan(Map<CharacterFigureKey, Integer> basePositions, int lines, String digest) {
+    }
+
+    /**
+     * The base positions found in all the sources, the positions of every source
+     * start after its offset.
+     */
+    private record CatalogScan(Map<CharacterFigureKey, Integer> basePositions, int[] offsets, String digest) {
+    }
+}
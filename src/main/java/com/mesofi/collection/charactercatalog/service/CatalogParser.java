@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureException;
+import com.mesofi.collection.charactercatalog.exception.InvalidRecordException;
+import com.mesofi.collection.charactercatalog.mappers.CatalogLayout;
+import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses the records of the catalog. The lines are read in chunks and every
+ * chunk is parsed in parallel on a fork/join pool while the next chunk is read
+ * and the previous one is consumed, the records are delivered in the same order
+ * they have in the catalog.
+ */
+@Slf4j
+@Component
+public class CatalogParser {
+
+    public static final int CHUNK_SIZE = 1024;
+    public static final int VERSION = 2; // increase it whenever the records are read differently.
+
+    private final CharacterFigureFileMapper fileMapper;
+    private final int parallelism;
+    private final ForkJoinPool pool; // null when the records are parsed sequentially.
+
+    /**
+     * Creates a new parser.
+     *
+     * @param fileMapper  The mapper used to parse every line.
+     * @param parallelism The total of threads used to parse the lines, zero or
+     *                    less to use all the available processors.
+     */
+    public CatalogParser(final CharacterFigureFileMapper fileMapper,
+            @Value("${catalog.loader.parallelism:0}") final int parallelism) {
+        this.fileMapper = fileMapper;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+        log.debug("Parsing the catalog with parallelism: {}", this.parallelism);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Reads the records one by one, the columns are found by the header and the
+     * empty lines are skipped.
+     *
+     * @param inputStream Reference to the records read from a source.
+     * @param consumer    Receives the position of the record and the figure, in
+     *                    the same order they are read.
+     * @return The total of lines read after the header, the empty ones included.
+     * @throws InvalidRecordException with the first record that cannot be read, or
+     *                                when the header lacks a required column.
+     */
+    public int forEachRecord(final InputStream inputStream, final BiConsumer<Integer, CharacterFigure> consumer) {
+        return forEachRecord(inputStream, consumer, null);
+    }
+
+    /**
+     * Reads the records one by one, the columns are found by the header and the
+     * empty lines are skipped. The records that cannot be read are reported and the reading goes on.
+     *
+     * @param inputStream  Reference to the records read from a source.
+     * @param consumer     Receives the position of the record and the figure, in
+     *                     the same order they are read.
+     * @param errorHandler Receives every record that cannot be read, in the same
+     *                     order they are read, an invalid header is reported as
+     *                     the only error. When it is null, the first error stops
+     *                     the reading.
+     * @return The total of lines read after the header, the empty ones included.
+     * @throws InvalidRecordException with the first record that cannot be read,
+     *                                only when there is no error handler.
+     */
+    public int forEachRecord(final InputStream inputStream, final BiConsumer<Integer, CharacterFigure> consumer,
+            @Nullable final Consumer<InvalidRecordException> errorHandler) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            // the header tells where every column is, the records are not read without it.
+            CatalogLayout layout;
+            try {
+                layout = CatalogLayout.compile(reader.readLine());
+            } catch (InvalidRecordException e) {
+                if (Objects.isNull(errorHandler)) {
+                    throw e;
+                }
+                errorHandler.accept(e);
+                return 0;
+            }
+            int position = 0;
+            ForkJoinTask<ParsedChunk> pending = null;
+            List<String> lines;
+            while (!(lines = readChunk(reader)).isEmpty()) {
+                final List<String> chunk = lines;
+                if (Objects.isNull(pool)) {
+                    position = deliver(parseChunk(chunk, layout, false), position, consumer, errorHandler);
+                    continue;
+                }
+                // the chunk is parsed meanwhile the previous one is consumed.
+                ForkJoinTask<ParsedChunk> task = pool.submit(() -> parseChunk(chunk, layout, true));
+                if (Objects.nonNull(pending)) {
+                    position = deliver(pending.join(), position, consumer, errorHandler);
+                }
+                pending = task;
+            }
+            if (Objects.nonNull(pending)) {
+                position = deliver(pending.join(), position, consumer, errorHandler);
+            }
+            return position;
+        } catch (IOException e) {
+            throw new CharacterFigureException("Unable to read characters from file");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (Objects.nonNull(pool)) {
+            pool.shutdown();
+        }
+    }
+
+    // the invalid records are kept next to the figures, so they are reported in
+    // the same order they are read no matter which thread parsed them.
+    private ParsedChunk parseChunk(final List<String> lines, final CatalogLayout layout, final boolean parallel) {
+        ParsedChunk chunk = new ParsedChunk(new CharacterFigure[lines.size()],
+                new InvalidRecordException[lines.size()]);
+        IntStream indexes = IntStream.range(0, lines.size());
+        (parallel ? indexes.parallel() : indexes).forEach($ -> {
+            try {
+                chunk.figures()[$] = fileMapper.fromLineToCharacterFigure(lines.get($), layout);
+            } catch (InvalidRecordException e) {
+                chunk.errors()[$] = e;
+            }
+        });
+        return chunk;
+    }
+
+    private List<String> readChunk(final BufferedReader reader) throws IOException {
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while (chunk.size() < CHUNK_SIZE && Objects.nonNull(line = reader.readLine())) {
+            chunk.add(line);
+        }
+        return chunk;
+    }
+
+    private int deliver(final ParsedChunk chunk, int position, final BiConsumer<Integer, CharacterFigure> consumer,
+            @Nullable final Consumer<InvalidRecordException> errorHandler) {
+        for (int i = 0; i < chunk.figures().length; i++) {
+            position++;
+            InvalidRecordException error = chunk.errors()[i];
+            if (Objects.nonNull(error)) {
+                // the header is the first line of the file.
+                error = error.atLine(position + 1);
+                if (Objects.isNull(errorHandler)) {
+                    throw error;
+                }
+                errorHandler.accept(error);
+            } else if (Objects.nonNull(chunk.figures()[i])) {
+                consumer.accept(position, chunk.figures()[i]);
+            }
+        }
+        return position;
+    }
+
+    private record ParsedChunk(CharacterFigure[] figures, InvalidRecordException[] errors) {
+    }
+}
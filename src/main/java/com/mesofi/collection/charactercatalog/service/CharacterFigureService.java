@@ -5,40 +5,45 @@
  */
 package com.mesofi.collection.charactercatalog.service;
 
-import static com.mesofi.collection.charactercatalog.utils.CommonUtils.reverseListElements;
-
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 
 import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
-import com.mesofi.collection.charactercatalog.exception.CharacterFigureException;
 import com.mesofi.collection.charactercatalog.exception.CharacterFigureNotFoundException;
 import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
 import com.mesofi.collection.charactercatalog.mappers.CharacterFigureModelMapper;
+import com.mesofi.collection.charactercatalog.model.CatalogCursor;
+import com.mesofi.collection.charactercatalog.model.CatalogPage;
+import com.mesofi.collection.charactercatalog.model.CatalogSnapshot;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.CharacterFigureKey;
+import com.mesofi.collection.charactercatalog.model.FieldSelection;
 import com.mesofi.collection.charactercatalog.model.Figure;
 import com.mesofi.collection.charactercatalog.model.GalleryImage;
 import com.mesofi.collection.charactercatalog.model.Group;
@@ -48,11 +53,14 @@ import com.mesofi.collection.charactercatalog.model.RestockFigure;
 import com.mesofi.collection.charactercatalog.model.Series;
 import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Handles the business logic of the service.
+ * Handles the business logic of the service. The catalog is loaded by
+ * {@link CatalogLoaderService}.
  * 
  * @author armandorivasarzaluz
  *
@@ -68,6 +76,7 @@ public class CharacterFigureService {
     public static final String INVALID_IMAGE_ID = "Provide a non empty image id";
     public static final String INVALID_IMAGE_URL = "Provide a non empty url for the image";
     public static final String INVALID_ORDER_NUMBER = "Provide positive value fo the order";
+    public static final String DUPLICATED_CHARACTER = "Another character has the same identity, id: ";
 
     public static final String DEFAULT_JPG_EXT = ".jpg";
     public static final String DEFAULT_PNG_EXT = ".png";
@@ -75,192 +84,432 @@ public class CharacterFigureService {
     public static final String HOST_IMAGE_PREFIX = "https://imagizer.imageshack.com/v2/" + HOST_IMAGE_SIZE + "q70/";
     public static final String NO_IMAGE_URL = HOST_IMAGE_PREFIX + "923/3hbcya.png";
 
-    public static final String TAG_EX = "ex";
-    public static final String TAG_SOG = "soul,gold,god";
-    public static final String TAG_REVIVAL = "revival";
-    public static final String TAG_SET = "set";
-    public static final String TAG_BROKEN = "broken";
-    public static final String TAG_METAL = "metal";
-    public static final String TAG_OCE = "oce,original,color";
-    public static final String TAG_HK = "asia";
-    public static final String TAG_BRONZE_TO_GOLD = "golden";
+    public static final int DERIVED_FIELDS_VERSION = 1; // increase it whenever the names or prices change.
+
+    private static final LocalDate TAX_RATE_CHANGE_DATE = LocalDate.of(2019, 10, 1);
+    private static final BigDecimal PREVIOUS_TAX_RATE = new BigDecimal(".08");
+    private static final BigDecimal TAX_RATE = new BigDecimal(".10");
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final String INVALID_PAGE_SIZE = "Provide a page size between 1 and " + MAX_PAGE_SIZE;
+
+    // the fields read to point to a figure in the order of the catalog.
+    private static final Set<String> CURSOR_FIELDS = Set.of("futureRelease", "issuanceJPY.releaseDate", "position");
+    // the writes made straight to the database do not move the shared version.
+    public static final Duration SNAPSHOT_MAX_AGE = Duration.ofMinutes(5);
+    // how often the shared version is checked for the writes of the other instances.
+    public static final Duration SNAPSHOT_REFRESH_INTERVAL = Duration.ofSeconds(5);
+    // the version of a catalog that has not been written since the versions were stored.
+    public static final String INITIAL_CATALOG_VERSION = "0";
 
     private CharacterFigureRepository repo;
     private CharacterFigureModelMapper modelMapper;
     private CharacterFigureFileMapper fileMapper;
 
+    // the catalog ready to be listed, it is built in background after every write.
+    private final AtomicReference<CompletableFuture<CatalogSnapshot>> snapshot = new AtomicReference<>();
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private final AtomicReference<CatalogSnapshot> latestSnapshot = new AtomicReference<>();
+    private final ScheduledExecutorService snapshotExecutor = Executors.newSingleThreadScheduledExecutor($ -> {
+        Thread thread = new Thread($, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
-     * Loads all the characters.
-     * 
-     * @param file The reference to the file with all the records.
-     * @return The total of records loaded.
+     * Gets the identity of a stored figure.
+     *
+     * @param entity The stored figure.
+     * @return The identity key.
      */
-    public long loadAllCharacters(final MultipartFile file) {
-        log.debug("Loading all the records ...");
-
-        if (Objects.isNull(file)) {
-            throw new IllegalArgumentException("The uploaded file is missing...");
-        }
-        InputStream inputStream;
-        try {
-            inputStream = file.getInputStream();
-        } catch (IOException e) {
-            throw new CharacterFigureException("Unable to read characters from file");
-        }
+    CharacterFigureKey toKey(final CharacterFigureEntity entity) {
+        // @formatter:off
+        return new CharacterFigureKey(entity.getBaseName(), entity.getLineUp(), entity.getSeries(), entity.getGroup(),
+                entity.isMetal(), entity.isOce(), entity.isRevival(), entity.isPlainCloth(), entity.isGolden(),
+                entity.isGold(), entity.isHk(), entity.isManga(), entity.isSurplice(), entity.getAnniversary());
+        // @formatter:on
+    }
 
-        // the records are read and processed now.
-        List<CharacterFigureEntity> listEntities = convertStreamToEntityList(inputStream);
+    /**
+     * Saves a figure, from now on the catalog no longer matches the file it was
+     * loaded from.
+     *
+     * @param entity The figure.
+     * @return The saved figure.
+     */
+    private CharacterFigureEntity saveCharacter(final CharacterFigureEntity entity) {
+        return saveCharacter(entity, null);
+    }
 
-        // first, removes all the records.
-        repo.deleteAll();
+    /**
+     * Saves a figure that replaces another one, from now on the catalog no longer
+     * matches the file it was loaded from.
+     *
+     * @param entity     The figure.
+     * @param replacedId The identifier of the figure to be removed once the new
+     *                   one is saved, null to keep the same identifier.
+     * @return The saved figure.
+     */
+    private CharacterFigureEntity saveCharacter(final CharacterFigureEntity entity,
+            @Nullable final String replacedId) {
+        calculateDerivedFields(entity);
+        entity.setContentHash(repo.computeContentHash(entity)); // the version of the document.
+        CharacterFigureEntity saved = repo.save(entity);
+        if (Objects.nonNull(replacedId)) {
+            repo.deleteById(replacedId);
+        }
+        repo.saveCatalogDigest(null);
+        catalogChanged();
+        return saved;
+    }
 
-        // performs a mapping and saves the records in the DB ...
-        long total = repo.saveAll(listEntities).size();
+    /**
+     * Builds a new snapshot in background once the catalog changes, the current
+     * one is replaced as soon as the new one is ready. Nothing is built while
+     * nobody has read the snapshot yet. The shared version moves first, so the
+     * other instances of the application build their snapshots again once they
+     * see it. The version moves once the changes can be read, so a version is
+     * never handed out with older data.
+     */
+    void catalogChanged() {
+        repo.incrementCatalogVersion();
+        CompletableFuture<CatalogSnapshot> current = snapshot.get();
+        if (Objects.nonNull(current)) {
+            rebuildSnapshot(current);
+        }
+    }
 
-        log.debug("Total of figures loaded correctly: {}", total);
-        return total;
+    /**
+     * Gets the current version of the catalog, it changes after every write. It
+     * is stored along with the catalog, so every instance of the application
+     * hands out the same version. The version the current snapshot was built
+     * from is taken, so nothing is read from the repository, and the version is
+     * never newer than the characters served.
+     *
+     * @return The version of the catalog.
+     */
+    public String getCatalogVersion() {
+        return Objects.requireNonNullElse(retrieveSnapshot().getCatalogVersion(), INITIAL_CATALOG_VERSION);
     }
 
     /**
-     * Converts and process the incoming records and return a list with the
-     * characters ready to be saved in a persistence storage.
-     * 
-     * @param inputStream Reference to the records read from a source.
-     * @return The list or records.
+     * Gets the version of a single figure, it changes whenever its content or its
+     * derived fields change. Only the version is read from the repository.
+     *
+     * @param id The unique identifier.
+     * @return The version of the figure, null if it was stored before the
+     *         versions were introduced.
      */
-    public List<CharacterFigureEntity> convertStreamToEntityList(InputStream inputStream) {
+    @Nullable
+    public String findDocumentVersion(final String id) {
+        if (!StringUtils.hasText(id)) {
+            throw new IllegalArgumentException("Provide a non empty id to find a character");
+        }
         // @formatter:off
-        List<CharacterFigure> allCharacters = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
-                .lines()
-                .skip(1) // we don't consider the header
-                .map($ -> fileMapper.fromLineToCharacterFigure($))
-                .collect(Collectors.toList());
+        CharacterFigureEntity entity = repo.findProjectionById(id, Set.of("contentHash", "derivedVersion"))
+                .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + id));
         // @formatter:on
+        return CharacterFigureModelMapper.toVersion(entity.getContentHash(), entity.getDerivedVersion());
+    }
 
-        // reverse the list so that we can add re-stocks easily ...
-        reverseListElements(allCharacters);
-
-        // gets the new characters with restocks
-        log.debug("Total of figures to be loaded: {}", allCharacters.size());
-        List<CharacterFigure> effectiveCharacters = getEffectiveCharacters(allCharacters);
-        log.debug("Total of effective figures to be loaded: {}", effectiveCharacters.size());
-
-        // add some tags
-        addStandardTags(effectiveCharacters);
+    private synchronized CompletableFuture<CatalogSnapshot> rebuildSnapshot(
+            final CompletableFuture<CatalogSnapshot> replaced) {
+        CompletableFuture<CatalogSnapshot> current = snapshot.get();
+        if (current != replaced) {
+            return current; // another reader has started it already.
+        }
+        long version = snapshotVersion.incrementAndGet();
+        CompletableFuture<CatalogSnapshot> next = CompletableFuture.supplyAsync(() -> buildSnapshot(version),
+                snapshotExecutor);
+        snapshot.set(next);
+        return next;
+    }
 
+    private CatalogSnapshot buildSnapshot(final long version) {
+        // the version is read first, a write in between only builds it once more.
+        String sharedVersion = repo.findCatalogVersion();
         // @formatter:off
-        return effectiveCharacters.stream()
-                .map($ -> modelMapper.toEntity($))
-                .collect(Collectors.toList());
+        List<CharacterFigure> figures = repo.findAll(getSorting()).stream()
+                .map(this::fromEntityToDisplayableFigure)
+                .toList();
         // @formatter:on
+        CatalogSnapshot built = new CatalogSnapshot(version, sharedVersion, Instant.now(), figures);
+        latestSnapshot.set(built); // the snapshots are built one at a time, in order.
+        log.debug("Catalog snapshot built: {}", built);
+        return built;
     }
 
     /**
-     * Add some standard tags to the figures. Normally this method should be called
-     * if we want to apply certain tags to a specific set of characters, as opposite
-     * to set them directly in the catalog (tags very specific).
-     * 
-     * @param effectiveCharacters The list of characters.
-     */
-    private void addStandardTags(List<CharacterFigure> effectiveCharacters) {
-        // We add some more tags depending on the name of the character.
-        for (CharacterFigure figure : effectiveCharacters) {
-            String[] nameArr = figure.getBaseName().toLowerCase().split("\\s+");
-            if (Objects.isNull(figure.getTags())) {
-                figure.setTags(new HashSet<>());
-            }
-            Set<String> existingTags = figure.getTags();
-            existingTags.addAll(Arrays.asList(nameArr));
-            figure.setTags(existingTags);
-        }
-
-        // Now, the standard tags
-        addStandardTagToFigure(effectiveCharacters, $ -> $.getLineUp() == LineUp.MYTH_CLOTH_EX, TAG_EX);
-        addStandardTagToFigure(effectiveCharacters, $ -> $.getSeries() == Series.SOG, TAG_SOG);
-        addStandardTagToFigure(effectiveCharacters, CharacterFigure::isRevival, TAG_REVIVAL);
-        addStandardTagToFigure(effectiveCharacters, CharacterFigure::isSet, TAG_SET);
-        addStandardTagToFigure(effectiveCharacters, CharacterFigure::isBrokenCloth, TAG_BROKEN);
-        addStandardTagToFigure(effectiveCharacters, CharacterFigure::isMetalBody, TAG_METAL);
-        addStandardTagToFigure(effectiveCharacters, CharacterFigure::isOce, TAG_OCE);
-        addStandardTagToFigure(effectiveCharacters, CharacterFigure::isHongKongVersion, TAG_HK);
-        addStandardTagToFigure(effectiveCharacters, CharacterFigure::isBronzeToGold, TAG_BRONZE_TO_GOLD);
+     * Adds a record of the catalog as re-stock of an existing figure, the tags of
+     * the re-stock are added to the figure as well.
+     *
+     * @param existing The base figure.
+     * @param restock  The record to be added as re-stock.
+     */
+    void mergeRestock(final CharacterFigure existing, final CharacterFigure restock) {
+        existing.setRestocks(addRestock(existing.getRestocks(), restock));
+        existing.setTags(addTags(existing.getTags(), restock.getTags()));
     }
 
     /**
-     * Add some standard tags to the figure.
+     * Retrieve all the characters ordered by release date, they are taken from
+     * the current snapshot of the catalog.
      * 
-     * @param characters The list of characters.
-     * @param predicate  The actual predicate.
-     * @param tagNames   The tag names.
-     */
-    private void addStandardTagToFigure(List<CharacterFigure> characters, Predicate<CharacterFigure> predicate,
-            String tagNames) {
-        long total = characters.stream().filter(predicate).peek($ -> {
-            if (Objects.isNull($.getTags())) {
-                $.setTags(new HashSet<>());
-            }
-            for (String tag : tagNames.split(",")) {
-                $.getTags().add(tag);
-            }
-        }).count();
-        log.debug("{} figures have been updated with new tag: [{}]", total, tagNames);
+     * @return The list of characters, it cannot be modified.
+     */
+    public List<CharacterFigure> retrieveAllCharacters() {
+        List<CharacterFigure> figureList = retrieveSnapshot().getFigures();
+        log.debug("Total of characters found: {}", figureList.size());
+        return figureList;
     }
 
     /**
-     * Gets the effective characters, this list contains the records to be saved in
-     * DB.
+     * Exports all the characters in the same order as
+     * {@link #retrieveAllCharacters()}. They are read from the catalog and handed
+     * to the sink one by one, so only a few of them are in memory at a time.
      *
-     * @param allCharacters All the characters.
-     * @return The effective characters.
-     */
-    public List<CharacterFigure> getEffectiveCharacters(final List<CharacterFigure> allCharacters) {
-        if (Objects.nonNull(allCharacters)) {
-            List<CharacterFigure> effectiveCharacters = new ArrayList<>();
-            for (CharacterFigure curr : allCharacters) {
-                if (effectiveCharacters.contains(curr)) {
-                    // add the current character as re-stock in the final list.
-                    CharacterFigure existing = effectiveCharacters.get(effectiveCharacters.indexOf(curr));
-                    existing.setRestocks(addRestock(existing.getRestocks(), curr));
-                    existing.setTags(addTags(existing.getTags(), curr.getTags()));
-                } else {
-                    // we add the current character to the final list.
-                    effectiveCharacters.add(curr);
-                }
+     * @param fields The fields to be read, null to read all of them.
+     * @param sink   Receives every character.
+     * @return The total of characters exported.
+     */
+    public long exportAllCharacters(@Nullable final FieldSelection fields, final Consumer<CharacterFigure> sink) {
+        log.debug("Exporting all the characters, fields: {} ...", fields);
+        long total = 0;
+        try (Stream<CharacterFigureEntity> entities = repo
+                .streamCatalog(Objects.isNull(fields) ? null : toProjection(fields, Set.of()))) {
+            for (Iterator<CharacterFigureEntity> it = entities.iterator(); it.hasNext();) {
+                CharacterFigureEntity entity = it.next();
+                sink.accept(Objects.isNull(fields) ? fromEntityToDisplayableFigure(entity)
+                        : fromProjectedEntity(entity));
+                total++;
             }
-            return effectiveCharacters;
         }
-        return new ArrayList<>();
+        log.debug("Total of characters exported: {}", total);
+        return total;
     }
 
     /**
-     * Retrieve all the characters ordered by release date.
-     * 
-     * @return The list of characters.
+     * Retrieve a page of the characters, in the same order as
+     * {@link #retrieveAllCharacters()}. The page is read from the catalog right
+     * after the figure the cursor points to, so no figure is skipped or repeated
+     * while the pages are read.
+     *
+     * @param cursor The cursor returned with the previous page, null for the
+     *               first page.
+     * @param limit  The maximum total of characters in the page.
+     * @param fields The fields to be read, null to read all of them.
+     * @return The page, with the cursor of the next page if there is one.
      */
-    public List<CharacterFigure> retrieveAllCharacters() {
+    public CatalogPage retrieveCharactersPage(@Nullable final String cursor, final int limit,
+            @Nullable final FieldSelection fields) {
+        log.debug("Getting a page of {} characters after: {}, fields: {}", limit, cursor, fields);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(INVALID_PAGE_SIZE);
+        }
+        CatalogCursor after = StringUtils.hasText(cursor) ? CatalogCursor.decode(cursor) : null;
+        // one more figure tells whether there is a next page.
+        List<CharacterFigureEntity> entities = repo.findCatalogPage(after, limit + 1,
+                Objects.isNull(fields) ? null : toProjection(fields, CURSOR_FIELDS));
+        boolean hasNext = entities.size() > limit;
+        if (hasNext) {
+            entities = entities.subList(0, limit);
+        }
         // @formatter:off
-        List<CharacterFigure> figureList = repo.findAll(getSorting()).stream()
-                .map(this::fromEntityToDisplayableFigure)
+        List<CharacterFigure> figures = entities.stream()
+                .map(Objects.isNull(fields) ? this::fromEntityToDisplayableFigure : this::fromProjectedEntity)
                 .toList();
         // @formatter:on
-        log.debug("Total of characters found: {}", figureList.size());
-        return figureList;
+        String nextCursor = hasNext ? toCursor(entities.get(entities.size() - 1)).encode() : null;
+        return new CatalogPage(figures, nextCursor);
     }
 
     /**
-     * This method converts an entity object to the corresponding model, after that,
-     * the price and final name are calculated to be displayed. This is a convenient
-     * method to be called from other services.
+     * Retrieves a character using its identifier, only the given fields are read.
+     *
+     * @param id     The unique identifier.
+     * @param fields The fields to be read, null to read all of them.
+     * @return The character found or exception if it was not found.
+     */
+    public CharacterFigure retrieveCharactersById(final String id, @Nullable final FieldSelection fields) {
+        if (Objects.isNull(fields)) {
+            return retrieveCharactersById(id);
+        }
+        log.debug("Finding a character by id: {}, fields: {}", id, fields);
+        if (!StringUtils.hasText(id)) {
+            throw new IllegalArgumentException("Provide a non empty id to find a character");
+        }
+        // @formatter:off
+        return fromProjectedEntity(repo.findProjectionById(id, toProjection(fields, Set.of()))
+                .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + id)));
+        // @formatter:on
+    }
+
+    // the identifier, the version of the document and the version of the derived
+    // fields are always read, along with the fields needed by the caller.
+    private Set<String> toProjection(final FieldSelection fields, final Set<String> required) {
+        Set<String> projection = new LinkedHashSet<>(fields.getEntityFields());
+        projection.add("id");
+        projection.add("derivedVersion");
+        projection.add("contentHash");
+        projection.addAll(required);
+        return projection;
+    }
+
+    /**
+     * Converts a figure read partially to the corresponding model, the nested
+     * objects that were not read are not mapped at all. An outdated figure is read
+     * as a whole, its derived fields are calculated from every field.
+     *
+     * @param entity The figure read partially.
+     * @return The figure model.
+     */
+    private CharacterFigure fromProjectedEntity(final CharacterFigureEntity entity) {
+        if (!Objects.equals(entity.getDerivedVersion(), DERIVED_FIELDS_VERSION)) {
+            return fromEntityToDisplayableFigure(repo.findById(entity.getId()).orElse(entity));
+        }
+        return modelMapper.toModel(entity);
+    }
+
+    private CatalogCursor toCursor(final CharacterFigureEntity entity) {
+        LocalDate releaseDate = Objects.nonNull(entity.getIssuanceJPY()) ? entity.getIssuanceJPY().getReleaseDate()
+                : null;
+        return new CatalogCursor(entity.isFutureRelease(), releaseDate, entity.getPosition(), entity.getId());
+    }
+
+    /**
+     * Gets the current snapshot of the catalog. The first read builds it, and a
+     * read right after a write waits until the new snapshot is ready, so the
+     * changes are always seen by the next read. Nothing else is read, the writes
+     * of the other instances of the application are picked up in background, see
+     * {@link #refreshSnapshot()}.
+     *
+     * @return The snapshot.
+     */
+    public CatalogSnapshot retrieveSnapshot() {
+        CompletableFuture<CatalogSnapshot> current = snapshot.get();
+        if (Objects.isNull(current)) {
+            current = rebuildSnapshot(null);
+        }
+        return joinSnapshot(current);
+    }
+
+    /**
+     * Builds the snapshot again when another instance of the application has
+     * written the catalog, or when it is older than {@link #SNAPSHOT_MAX_AGE}, for
+     * the writes made straight to the database. The current snapshot is served
+     * until the new one replaces it. Nothing is built while nobody has read the
+     * snapshot yet, or while it is being built.
+     */
+    void refreshSnapshot() {
+        CompletableFuture<CatalogSnapshot> current = snapshot.get();
+        if (Objects.isNull(current) || !current.isDone() || current.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            CatalogSnapshot built = current.join();
+            if (Objects.equals(built.getCatalogVersion(), repo.findCatalogVersion())
+                    && built.getBuiltAt().plus(SNAPSHOT_MAX_AGE).isAfter(Instant.now())) {
+                return;
+            }
+            log.debug("Refreshing the catalog snapshot: {}", built);
+            CatalogSnapshot next = buildSnapshot(snapshotVersion.incrementAndGet());
+            // a write in between has started a newer one already.
+            snapshot.compareAndSet(current, CompletableFuture.completedFuture(next));
+        } catch (RuntimeException e) {
+            log.warn("Unable to refresh the catalog snapshot", e); // it is tried again later.
+        }
+    }
+
+    @PostConstruct
+    public void scheduleSnapshotRefresh() {
+        // it runs along with the builds, so they are still built one at a time.
+        long interval = SNAPSHOT_REFRESH_INTERVAL.toMillis();
+        snapshotExecutor.scheduleWithFixedDelay(this::refreshSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private CatalogSnapshot joinSnapshot(final CompletableFuture<CatalogSnapshot> current) {
+        try {
+            return current.join();
+        } catch (CompletionException e) {
+            // the next read tries again.
+            snapshot.compareAndSet(current, null);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Gets the latest snapshot of the catalog that has been built, without
+     * waiting for the one being built.
+     *
+     * @return The snapshot, or null if none has been built yet.
+     */
+    @Nullable
+    public CatalogSnapshot findLatestSnapshot() {
+        return latestSnapshot.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshotExecutor.shutdownNow();
+    }
+
+    /**
+     * This method converts an entity object to the corresponding model, the price
+     * and final name to be displayed are stored with the entity, they are only
+     * calculated when they are outdated. This is a convenient method to be called
+     * from other services.
      * 
      * @param entity The raw entity.
      * @return The figure model with the name and price calculated.
      */
     public CharacterFigure fromEntityToDisplayableFigure(CharacterFigureEntity entity) {
         CharacterFigure cf = modelMapper.toModel(entity);
-        calculatePriceAndDisplayableName(cf);
+        if (!Objects.equals(entity.getDerivedVersion(), DERIVED_FIELDS_VERSION)) {
+            calculatePriceAndDisplayableName(cf);
+        }
         return cf;
     }
 
+    /**
+     * Checks if any figure was stored with a previous version of the rules, see
+     * {@link #DERIVED_FIELDS_VERSION}. The version is indexed, so the catalog is
+     * not scanned.
+     *
+     * @return true if some derived fields must be calculated again.
+     */
+    public boolean hasOutdatedDerivedFields() {
+        return repo.existsByDerivedVersionNot(DERIVED_FIELDS_VERSION);
+    }
+
+    /**
+     * Calculates again the derived fields of the figures stored with a previous
+     * version of the rules, see {@link #DERIVED_FIELDS_VERSION}, so they are not
+     * calculated on every read.
+     *
+     * @return The total of figures updated.
+     */
+    public long recomputeDerivedFields() {
+        log.debug("Calculating the outdated names and prices ...");
+        long total = 0;
+        List<CharacterFigureEntity> batch = new ArrayList<>(CatalogLoaderService.LOADER_BATCH_SIZE);
+        try (Stream<CharacterFigureEntity> outdated = repo.streamByDerivedVersionNot(DERIVED_FIELDS_VERSION)) {
+            for (Iterator<CharacterFigureEntity> it = outdated.iterator(); it.hasNext();) {
+                CharacterFigureEntity entity = it.next();
+                calculateDerivedFields(entity); // the content hash does not change.
+                batch.add(entity);
+                if (batch.size() == CatalogLoaderService.LOADER_BATCH_SIZE || !it.hasNext()) {
+                    repo.saveAll(batch);
+                    total += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        if (total > 0) {
+            catalogChanged();
+        }
+        log.debug("Total of figures with their names and prices calculated again: {}", total);
+        return total;
+    }
+
     /**
      * Retrieves a character using its identifier.
      *
@@ -275,11 +524,9 @@ public class CharacterFigureService {
         }
 
         // @formatter:off
-        CharacterFigure figure = modelMapper.toModel(repo.findById(id)
+        return fromEntityToDisplayableFigure(repo.findById(id)
                 .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + id)));
         // @formatter:on
-        calculatePriceAndDisplayableName(figure);
-        return figure;
     }
 
     /**
@@ -289,9 +536,39 @@ public class CharacterFigureService {
      */
     private void calculatePriceAndDisplayableName(final CharacterFigure figure) {
         calculateReleasePricing(figure);
+        if (Objects.nonNull(figure.getRestocks())) {
+            figure.getRestocks().forEach(this::calculateReleasePricing);
+        }
         calculateDisplayableName(figure);
     }
 
+    /**
+     * Calculates the release prices and the displayable name of a figure before
+     * it is stored, so they are not calculated on every read.
+     *
+     * @param entity The figure to be stored.
+     */
+    void calculateDerivedFields(final CharacterFigureEntity entity) {
+        calculateReleasePricing(entity);
+        if (Objects.nonNull(entity.getRestocks())) {
+            entity.getRestocks().forEach(this::calculateReleasePricing);
+        }
+        // only the fields that take part in the name.
+        CharacterFigure figure = new CharacterFigure();
+        figure.setBaseName(entity.getBaseName());
+        figure.setLineUp(entity.getLineUp());
+        figure.setGroup(entity.getGroup());
+        figure.setPlainCloth(entity.isPlainCloth());
+        figure.setBronzeToGold(entity.isGolden());
+        figure.setManga(entity.isManga());
+        figure.setOce(entity.isOce());
+        figure.setAnniversary(entity.getAnniversary());
+        figure.setHongKongVersion(entity.isHk());
+        figure.setSurplice(entity.isSurplice());
+        entity.setDisplayableName(calculateFigureDisplayableName(figure));
+        entity.setDerivedVersion(DERIVED_FIELDS_VERSION);
+    }
+
     private void calculateReleasePricing(final Figure figure) {
         Issuance jpy = figure.getIssuanceJPY();
         Issuance mxn = figure.getIssuanceMXN();
@@ -315,11 +592,10 @@ public class CharacterFigureService {
     private BigDecimal calculateReleasePrice(final BigDecimal basePrice, final LocalDate releaseDate) {
         BigDecimal releasePrice;
         if (Objects.nonNull(basePrice) && Objects.nonNull(releaseDate)) {
-            LocalDate october12019 = LocalDate.of(2019, 10, 1);
-            if (releaseDate.isBefore(october12019)) {
-                releasePrice = basePrice.add(basePrice.multiply(new BigDecimal(".08")));
+            if (releaseDate.isBefore(TAX_RATE_CHANGE_DATE)) {
+                releasePrice = basePrice.add(basePrice.multiply(PREVIOUS_TAX_RATE));
             } else {
-                releasePrice = basePrice.add(basePrice.multiply(new BigDecimal(".10")));
+                releasePrice = basePrice.add(basePrice.multiply(TAX_RATE));
             }
             return releasePrice;
         }
@@ -336,7 +612,7 @@ public class CharacterFigureService {
         StringBuilder sb = new StringBuilder();
         sb.append(figure.getBaseName());
 
-        switch (figure.getGroup()) {
+        switch (Objects.requireNonNullElse(figure.getGroup(), Group.OTHER)) {
         case V1:
             appendAttr(sb, "~Initial Bronze Cloth~");
             break;
@@ -364,7 +640,7 @@ public class CharacterFigureService {
         if (figure.isBronzeToGold()) {
             if (figure.getLineUp() == LineUp.MYTH_CLOTH) {
                 if (figure.getGroup() == Group.V1) {
-                    sb = replacePattern(sb.toString());
+                    replacePattern(sb);
                     appendAttr(sb, "~Limited Gold~");
                 }
                 if (figure.getGroup() == Group.V2) {
@@ -373,7 +649,7 @@ public class CharacterFigureService {
             }
             if (figure.getLineUp() == LineUp.MYTH_CLOTH_EX) {
                 if (figure.getGroup() == Group.V2 || figure.getGroup() == Group.V3) {
-                    sb = replacePattern(sb.toString());
+                    replacePattern(sb);
                     appendAttr(sb, "~Golden Limited Edition~");
                 }
             }
@@ -383,11 +659,11 @@ public class CharacterFigureService {
             appendAttr(sb, "~Comic Version~");
         }
         if (figure.isOce()) {
-            sb = replacePattern(sb.toString());
+            replacePattern(sb);
             appendAttr(sb, "~Original Color Edition~");
         }
         if (Objects.nonNull(figure.getAnniversary())) {
-            sb = replacePattern(sb.toString());
+            replacePattern(sb);
             appendAttr(sb, "~" + figure.getAnniversary() + "th Anniversary Ver.~");
         }
         if (figure.isHongKongVersion()) {
@@ -435,12 +711,15 @@ public class CharacterFigureService {
             repo.findById(cf.getId()).ifPresentOrElse(entity -> {
                 entity.setRestocks(addRestock(entity.getRestocks(), newCharacter));
                 entity.setTags(addTags(entity.getTags(), newCharacter.getTags()));
-                repo.save(entity); // updates with the new re-stocking
+                saveCharacter(entity); // updates with the new re-stocking
                 log.debug("The new character has been added as restock of {}, id: {}", cf.getBaseName(), cf.getId());
             }, () -> log.warn("No restock has been added"));
         } else {
-            // the new character is saved for the first time.
-            cf = modelMapper.toModel(repo.save(modelMapper.toEntity(newCharacter)));
+            // the new character is saved for the first time, with the same identifier
+            // it would get from a load of the catalog.
+            CharacterFigureEntity entity = modelMapper.toEntity(newCharacter);
+            entity.setId(toKey(entity).toId());
+            cf = modelMapper.toModel(saveCharacter(entity));
             log.debug("A new character has been saved with id: {}", cf.getId());
         }
         // finally the price and name is calculated here ...
@@ -490,11 +769,14 @@ public class CharacterFigureService {
 
     /**
      * Updates the existing character with new data, the character found will be
-     * replaced by the new one as long as it exists in the DB.
+     * replaced by the new one as long as it exists in the DB. When the fields that
+     * identify the character change, it gets the identifier derived from its new
+     * identity, see {@link CharacterFigureKey#toId()}.
      * 
      * @param id               Unique identifier of the character.
      * @param updatedCharacter The character that will replace the existing one.
      * @return The updated character.
+     * @throws IllegalArgumentException if another character has the new identity.
      */
     public CharacterFigure updateExistingCharacter(final String id, final CharacterFigure updatedCharacter) {
         log.debug("Updating existing character with id: {}", id);
@@ -509,6 +791,7 @@ public class CharacterFigureService {
 
         CharacterFigureEntity characterFigureEntity = repo.findById(id)
                 .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + id));
+        CharacterFigureKey previousKey = toKey(characterFigureEntity);
 
         // update the entity ...
         characterFigureEntity.setOriginalName(updatedCharacterEntity.getOriginalName());
@@ -544,18 +827,28 @@ public class CharacterFigureService {
             characterFigureEntity.setTags(new LinkedHashSet<>(set));
         }
 
+        // the identifier follows the identity of the character, so a later load of
+        // the catalog finds it again instead of inserting it with the same identifier.
+        CharacterFigureKey key = toKey(characterFigureEntity);
+        String newId = key.equals(previousKey) ? id : key.toId();
+        if (!newId.equals(id)) {
+            if (repo.existsById(newId)) {
+                throw new IllegalArgumentException(DUPLICATED_CHARACTER + newId);
+            }
+            log.debug("The identity of the character has changed, its new id is: {}", newId);
+            characterFigureEntity.setId(newId);
+        }
+
         // the character is updated here.
-        repo.save(characterFigureEntity);
+        saveCharacter(characterFigureEntity, newId.equals(id) ? null : id);
         log.debug("Character has been updated correctly!");
 
         // retrieves the entity directly from the DB so that we can send to the
         // response...
         // @formatter:off
-        CharacterFigure figure = modelMapper.toModel(repo.findById(id)
-                .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + id)));
+        return fromEntityToDisplayableFigure(repo.findById(newId)
+                .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + newId)));
         // @formatter:on
-        calculatePriceAndDisplayableName(figure);
-        return figure;
     }
 
     /**
@@ -592,14 +885,12 @@ public class CharacterFigureService {
         }
 
         // update the tags.
-        repo.save(characterFigureEntity);
+        saveCharacter(characterFigureEntity);
         log.debug("Tags updated correctly!!!");
 
         // gets the character updated.
-        CharacterFigure figure = modelMapper.toModel(repo.findById(id)
+        return fromEntityToDisplayableFigure(repo.findById(id)
                 .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + id)));
-        calculatePriceAndDisplayableName(figure);
-        return figure;
     }
 
     /**
@@ -622,25 +913,28 @@ public class CharacterFigureService {
         characterFigureEntity.setTags(null);
 
         // deletes the tags.
-        repo.save(characterFigureEntity);
+        saveCharacter(characterFigureEntity);
         log.debug("Tags deleted correctly!!!");
 
         // gets the character updated.
-        CharacterFigure figure = modelMapper.toModel(repo.findById(id)
+        return fromEntityToDisplayableFigure(repo.findById(id)
                 .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + id)));
-        calculatePriceAndDisplayableName(figure);
-        return figure;
     }
 
     private Sort getSorting() {
-        List<Sort.Order> orders = new ArrayList<>();
-        orders.add(new Sort.Order(Sort.Direction.DESC, "futureRelease"));
-        orders.add(new Sort.Order(Sort.Direction.DESC, "issuanceJPY.releaseDate"));
-        return Sort.by(orders);
+        return CharacterFigureRepository.CATALOG_ORDER;
     }
 
-    private StringBuilder replacePattern(String name) {
-        return new StringBuilder(name.replaceFirst("~", "(").replaceFirst("~", ")"));
+    // the first two '~' become '(' and ')'.
+    private void replacePattern(final StringBuilder name) {
+        int open = name.indexOf("~");
+        if (open >= 0) {
+            name.setCharAt(open, '(');
+            int close = name.indexOf("~", open + 1);
+            if (close >= 0) {
+                name.setCharAt(close, ')');
+            }
+        }
     }
 
     private void appendAttr(StringBuilder sb, String attribute) {
@@ -739,16 +1033,14 @@ public class CharacterFigureService {
         images.add(newImage);
 
         // The character image is added.
-        repo.save(characterFigureEntity);
+        saveCharacter(characterFigureEntity);
         log.debug("A new image has been added to the existing character correctly!!! {}",
                 characterFigureEntity.getId());
 
         // gets the character updated.
         CharacterFigureEntity characterFigureEntityUpdated = repo.findById(id)
                 .orElseThrow(() -> new CharacterFigureNotFoundException("Character not found with id: " + id));
-        CharacterFigure figure = modelMapper.toModel(characterFigureEntityUpdated);
-        calculatePriceAndDisplayableName(figure);
-        return figure;
+        return fromEntityToDisplayableFigure(characterFigureEntityUpdated);
     }
 
     /**
@@ -816,16 +1108,14 @@ public class CharacterFigureService {
      */
     private CharacterFigure deleteAndUpdateCharacterImages(CharacterFigureEntity characterFigureEntity, String id) {
         // The character image is deleted.
-        repo.save(characterFigureEntity);
+        saveCharacter(characterFigureEntity);
         log.debug("The existing character image was deleted correctly!!! {}", characterFigureEntity.getId());
 
         final String MSG = "Character not found with id: " + id;
 
         // gets the character updated.
         CharacterFigureEntity updated = repo.findById(id).orElseThrow(() -> new CharacterFigureNotFoundException(MSG));
-        CharacterFigure figure = modelMapper.toModel(updated);
-        calculatePriceAndDisplayableName(figure);
-        return figure;
+        return fromEntityToDisplayableFigure(updated);
     }
 
     /**
@@ -845,4 +1135,4 @@ public class CharacterFigureService {
             throw new IllegalArgumentException(INVALID_ORDER_NUMBER);
         }
     }
-}
\ No newline at end of file
+}
@@ -15,9 +15,7 @@ import java.util.stream.Stream;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
-import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,7 +31,6 @@ import lombok.extern.slf4j.Slf4j;
 @AllArgsConstructor
 public class CharacterFinderService {
 
-    private CharacterFigureRepository repository;
     private CharacterFigureService characterFigureService;
 
     public List<CharacterFigure> findCharacterByName(final String name) {
@@ -50,8 +47,16 @@ public class CharacterFinderService {
                 .toList();
         // @formatter:on
 
+        // the words after "from" name where the figure came from, e.g. a set, so
+        // they are not searched.
+        String[] words = name.split("\\s+");
+        int end = 1;
+        while (end < words.length && !"from".equalsIgnoreCase(words[end])) {
+            end++;
+        }
+
         // @formatter:off
-        Set<String> simpleNameKeywords = Arrays.stream(name.split("\\s+"))
+        Set<String> simpleNameKeywords = Arrays.stream(words, 0, end)
                 .map(String::toLowerCase)
                 .filter($ -> !exclusions.contains($))
                 .map(this::removeSpecialCharacters)
@@ -60,8 +65,9 @@ public class CharacterFinderService {
         // @formatter:on
         log.info("Simplified figure name: {}", simpleNameKeywords);
 
-        List<CharacterFigureEntity> list = repository.findAll();
-        List<CharacterFigureEntity> tmpList;
+        // the figures are read from the snapshot, they are ready to be displayed.
+        List<CharacterFigure> list = characterFigureService.retrieveAllCharacters();
+        List<CharacterFigure> tmpList;
         for (String nameKeyword : simpleNameKeywords) {
             // @formatter:off
             tmpList = list.stream()
@@ -79,11 +85,9 @@ public class CharacterFinderService {
                 break;
             }
         }
-        log.info("Character matches: {}",
-                list.stream().map(CharacterFigureEntity::getBaseName).collect(Collectors.toList()));
+        log.info("Character matches: {}", list.stream().map(CharacterFigure::getBaseName).collect(Collectors.toList()));
 
-        return list.stream().map($ -> characterFigureService.fromEntityToDisplayableFigure($))
-                .collect(Collectors.toList());
+        return list;
     }
 
     private String removeSpecialCharacters(String word) {
@@ -0,0 +1,508 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.ZipException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.mesofi.collection.charactercatalog.exception.CatalogNotModifiedException;
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureException;
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureNotFoundException;
+import com.mesofi.collection.charactercatalog.exception.LoaderBusyException;
+import com.mesofi.collection.charactercatalog.model.CatalogDelta;
+import com.mesofi.collection.charactercatalog.model.LoaderJob;
+import com.mesofi.collection.charactercatalog.model.LoaderStage;
+import com.mesofi.collection.charactercatalog.utils.FileUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the loads of the catalog in background. The uploaded files are spooled
+ * to the disk and a single worker runs one load at a time, the following uploads
+ * wait in a bounded queue and they are rejected once the queue is full. The
+ * compressed files are decompressed and their digest is calculated while they
+ * are spooled, a file that was loaded already is not loaded again. The delta
+ * loads are queued along with the full ones. A load that failed or was stopped
+ * keeps its spooled files, so it is resumed from its last checkpoint once the
+ * application is ready again.
+ */
+@Slf4j
+@Service
+public class LoaderJobService {
+
+    public static final String INVALID_JOB_ID = "Provide a non empty job id";
+    public static final int MAX_JOBS = 50; // total of jobs kept to be polled.
+    public static final String SPOOL_PREFIX = "catalog-";
+    public static final String SPOOL_SUFFIX = ".tsv";
+
+    private final CharacterFigureService characterFigureService;
+    private final CatalogLoaderService catalogLoaderService;
+    private final Path spoolDirectory;
+    private final ExecutorService executor;
+    // the names and prices are calculated again apart from the loads, but never
+    // while one of them is running.
+    private final ExecutorService recomputeExecutor = Executors.newSingleThreadExecutor($ -> {
+        Thread thread = new Thread($, "catalog-recompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ReentrantLock catalogLock = new ReentrantLock();
+    private final AtomicBoolean recomputing = new AtomicBoolean();
+    private final Map<String, Job> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_JOBS && eldest.getValue().stage.isFinished();
+        }
+    });
+
+    public LoaderJobService(final CharacterFigureService characterFigureService,
+            final CatalogLoaderService catalogLoaderService,
+            @Value("${catalog.loader.spool-directory:${java.io.tmpdir}}") final String spoolDirectory,
+            @Value("${catalog.loader.queue-capacity:1}") final int queueCapacity) {
+        this.characterFigureService = characterFigureService;
+        this.catalogLoaderService = catalogLoaderService;
+        this.spoolDirectory = Paths.get(spoolDirectory);
+        // @formatter:off
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), $ -> new Thread($, "catalog-loader"));
+        // @formatter:on
+    }
+
+    /**
+     * Spools the file and submits a new job to load it.
+     *
+     * @param file The reference to the file with all the records.
+     * @return The status of the new job.
+     * @throws CatalogNotModifiedException if the file was already loaded.
+     */
+    public LoaderJob submit(final MultipartFile file) {
+        return submit(Objects.isNull(file) ? List.of() : List.of(file));
+    }
+
+    /**
+     * Spools several files and submits a new job to load them together, they are
+     * merged into a single catalog in the given order.
+     *
+     * @param files The references to the files with all the records.
+     * @return The status of the new job.
+     * @throws CatalogNotModifiedException if the same files were already loaded.
+     */
+    public LoaderJob submit(final List<MultipartFile> files) {
+        return submit(files, false);
+    }
+
+    /**
+     * Spools the file and submits a new job to load only its differences with the
+     * current catalog. It waits for the loads and the calculation of the names and
+     * prices like any other job.
+     *
+     * @param file The reference to the file with all the records.
+     * @return The status of the new job.
+     * @throws CatalogNotModifiedException if the file was already loaded.
+     */
+    public LoaderJob submitDelta(final MultipartFile file) {
+        return submit(Objects.isNull(file) ? List.of() : List.of(file), true);
+    }
+
+    private LoaderJob submit(final List<MultipartFile> files, final boolean delta) {
+        if (Objects.isNull(files) || files.isEmpty() || files.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("The uploaded file is missing...");
+        }
+        List<Path> spooled = new ArrayList<>(files.size());
+        List<String> digests = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                MessageDigest digest = catalogLoaderService.createCatalogDigest();
+                spooled.add(spool(file, digest));
+                digests.add(CatalogLoaderService.toHex(digest));
+            }
+            String catalogDigest = catalogLoaderService.combineCatalogDigests(digests);
+            catalogLoaderService.checkCatalogModified(catalogDigest);
+            return enqueue(new Job(UUID.randomUUID().toString(), nameAfterDigest(spooled, catalogDigest),
+                    catalogDigest, delta));
+        } catch (RuntimeException e) {
+            spooled.forEach(this::deleteSpooledFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Resumes the load that was stopped abruptly the last time the application
+     * ran, as long as its spooled files are still there. The figures written
+     * before it was stopped are not written again.
+     *
+     * @return The status of the new job, or null if there is nothing to resume.
+     */
+    @Nullable
+    @EventListener(ApplicationReadyEvent.class)
+    public LoaderJob resumePendingLoad() {
+        String digest = catalogLoaderService.findPendingLoad();
+        if (Objects.isNull(digest)) {
+            return null;
+        }
+        List<Path> files = findSpooledFiles(digest);
+        if (files.isEmpty()) {
+            log.warn("The load of the catalog {} cannot be resumed, its files are missing", digest);
+            return null;
+        }
+        log.info("Resuming the load of the catalog {} ...", digest);
+        return enqueue(new Job(UUID.randomUUID().toString(), files, digest, false));
+    }
+
+    /**
+     * Calculates again the names and prices stored with a previous version of the
+     * rules, only when some figure is outdated. It runs on its own worker, so the
+     * uploads are still queued, and it never overlaps with a load.
+     *
+     * @return true if it was started, false if nothing is outdated or it is
+     *         running already.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public boolean recomputeDerivedFields() {
+        try {
+            if (!characterFigureService.hasOutdatedDerivedFields()) {
+                log.debug("The names and prices are up to date");
+                return false;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to find the outdated names and prices, they are calculated when read", e);
+            return false;
+        }
+        if (!recomputing.compareAndSet(false, true)) {
+            return false;
+        }
+        recomputeExecutor.submit(() -> {
+            catalogLock.lock();
+            try {
+                characterFigureService.recomputeDerivedFields();
+            } catch (RuntimeException e) {
+                log.error("The names and prices could not be calculated again", e);
+            } finally {
+                catalogLock.unlock();
+                recomputing.set(false);
+            }
+        });
+        return true;
+    }
+
+    private LoaderJob enqueue(final Job job) {
+        jobs.put(job.id, job);
+        LoaderJob queued = job.toModel(); // the job may start as soon as it is submitted.
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            job.files.forEach(this::deleteSpooledFile);
+            throw new LoaderBusyException("Another load is in progress, try again later");
+        }
+        log.debug("The loader job {} has been queued", job.id);
+        return queued;
+    }
+
+    /**
+     * Gets the status of a job.
+     *
+     * @param jobId The job identifier.
+     * @return The status of the job.
+     */
+    public LoaderJob retrieveJob(final String jobId) {
+        return findJob(jobId).toModel();
+    }
+
+    /**
+     * Cancels a job, the current catalog is kept untouched. A job that has
+     * finished already is not affected.
+     *
+     * @param jobId The job identifier.
+     * @return The status of the job.
+     */
+    public LoaderJob cancelJob(final String jobId) {
+        Job job = findJob(jobId);
+        if (!job.stage.isFinished()) {
+            log.debug("Cancelling the loader job {}", jobId);
+            job.cancelled = true;
+            if (job.stage == LoaderStage.QUEUED && job.future.cancel(false)) {
+                job.finish(LoaderStage.CANCELLED, null);
+                job.files.forEach(this::deleteSpooledFile);
+            }
+        }
+        return job.toModel();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        recomputeExecutor.shutdownNow();
+    }
+
+    private Job findJob(final String jobId) {
+        if (!StringUtils.hasText(jobId)) {
+            throw new IllegalArgumentException(INVALID_JOB_ID);
+        }
+        Job job = jobs.get(jobId);
+        if (Objects.isNull(job)) {
+            throw new CharacterFigureNotFoundException("Loader job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    private Path spool(final MultipartFile file, final MessageDigest digest) {
+        Path path = null;
+        try {
+            Files.createDirectories(spoolDirectory);
+            path = Files.createTempFile(spoolDirectory, SPOOL_PREFIX, SPOOL_SUFFIX);
+            // the file is decompressed while it is spooled, it is read twice later on.
+            InputStream decompressed = FileUtils.decompress(file.getInputStream(), file.getContentType());
+            try (InputStream inputStream = new DigestInputStream(decompressed, digest)) {
+                Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return path;
+        } catch (ZipException | EOFException e) {
+            deleteSpooledFile(path);
+            throw new IllegalArgumentException("The uploaded file is not a valid compressed file", e);
+        } catch (IOException e) {
+            deleteSpooledFile(path);
+            throw new CharacterFigureException("Unable to store the uploaded file");
+        } catch (RuntimeException e) {
+            deleteSpooledFile(path);
+            throw e;
+        }
+    }
+
+    // the files are named after the digest of the catalog, so they are found again
+    // when their load is resumed after a restart.
+    private List<Path> nameAfterDigest(final List<Path> files, final String digest) {
+        List<Path> named = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            named.add(nameAfterDigest(files.get(i), getSpooledFile(digest, files.size() == 1 ? 0 : i + 1)));
+        }
+        return named;
+    }
+
+    private Path nameAfterDigest(final Path file, final Path target) {
+        try {
+            return Files.move(file, target);
+        } catch (FileAlreadyExistsException e) {
+            return file; // the same file is waiting to be loaded already.
+        } catch (IOException e) {
+            log.warn("Unable to rename the spooled file {}", file);
+            return file;
+        }
+    }
+
+    private List<Path> findSpooledFiles(final String digest) {
+        Path single = getSpooledFile(digest, 0);
+        if (Files.exists(single)) {
+            return List.of(single);
+        }
+        List<Path> files = new ArrayList<>();
+        Path file;
+        while (Files.exists(file = getSpooledFile(digest, files.size() + 1))) {
+            files.add(file);
+        }
+        return files;
+    }
+
+    // a single file has no index, the files loaded together are numbered from 1.
+    private Path getSpooledFile(final String digest, final int index) {
+        String suffix = index == 0 ? SPOOL_SUFFIX : "-" + index + SPOOL_SUFFIX;
+        return spoolDirectory.resolve(SPOOL_PREFIX + digest + suffix);
+    }
+
+    private void run(final Job job) {
+        LoaderStage stage = LoaderStage.FAILED;
+        String message = null;
+        catalogLock.lock();
+        try {
+            job.start();
+            List<FileSystemResource> sources = job.files.stream().map(FileSystemResource::new).toList();
+            if (job.delta) {
+                CatalogDelta changes = catalogLoaderService.loadCharactersDelta(sources.get(0), job.digest, job);
+                job.changes = changes;
+                job.figuresLoaded = changes.getInserted() + changes.getUpdated() + changes.getUnchanged();
+            } else {
+                job.figuresLoaded = catalogLoaderService.loadAllCharacters(sources, job.digest, job);
+            }
+            stage = LoaderStage.COMPLETED;
+            log.debug("The loader job {} has finished, figures loaded: {}", job.id, job.figuresLoaded);
+        } catch (CatalogNotModifiedException e) {
+            // the same file was loaded by a previous job while this one was queued.
+            stage = LoaderStage.COMPLETED;
+            message = e.getMessage();
+        } catch (CancellationException e) {
+            stage = LoaderStage.CANCELLED;
+            log.debug("The loader job {} has been cancelled", job.id);
+            if (!job.delta) {
+                discardLoad(job);
+            }
+        } catch (RuntimeException e) {
+            message = e.getMessage();
+            log.error("The loader job {} has failed", job.id, e);
+        } finally {
+            // the spooled files are removed before the job is reported as finished,
+            // unless the load can be resumed from its checkpoint, a delta load has none.
+            if (stage != LoaderStage.FAILED || job.delta || !isResumable(job)) {
+                job.files.forEach(this::deleteSpooledFile);
+            }
+            if (stage == LoaderStage.COMPLETED) {
+                // the files kept by a previous attempt of the same load.
+                findSpooledFiles(job.digest).forEach(this::deleteSpooledFile);
+            }
+            catalogLock.unlock();
+            job.finish(stage, message);
+        }
+    }
+
+    // a cancelled load is not resumed after a restart, its files are removed anyway.
+    private void discardLoad(final Job job) {
+        try {
+            catalogLoaderService.discardPendingLoad();
+        } catch (RuntimeException e) {
+            log.warn("Unable to discard the checkpoint of the loader job {}", job.id, e);
+        }
+    }
+
+    // a load that failed or was interrupted by a shutdown is resumed from its
+    // checkpoint as long as its files are still there.
+    private boolean isResumable(final Job job) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        try {
+            return job.digest.equals(catalogLoaderService.findPendingLoad());
+        } catch (RuntimeException e) {
+            log.warn("Unable to find the checkpoint of the loader job {}, its files are kept", job.id);
+            return true;
+        }
+    }
+
+    private void deleteSpooledFile(final Path file) {
+        if (Objects.isNull(file)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete the spooled file {}", file);
+        }
+    }
+
+    /**
+     * A job and its progress, it stops the load as soon as it is cancelled.
+     */
+    private static class Job implements LoaderProgress {
+        private final String id;
+        private final List<Path> files;
+        private final String digest;
+        private final boolean delta;
+        private final AtomicLong rowsParsed = new AtomicLong();
+        private final AtomicLong batchesWritten = new AtomicLong();
+        private volatile LoaderStage stage = LoaderStage.QUEUED;
+        private volatile boolean cancelled;
+        private volatile long figuresLoaded;
+        private volatile long startedAt;
+        private volatile long finishedAt;
+        private volatile String message;
+        private volatile CatalogDelta changes;
+        private Future<?> future;
+
+        Job(final String id, final List<Path> files, final String digest, final boolean delta) {
+            this.id = id;
+            this.files = files;
+            this.digest = digest;
+            this.delta = delta;
+        }
+
+        @Override
+        public void stageChanged(LoaderStage stage) {
+            checkCancelled();
+            this.stage = stage;
+        }
+
+        @Override
+        public void rowParsed() {
+            checkCancelled();
+            rowsParsed.incrementAndGet();
+        }
+
+        @Override
+        public void batchWritten(int size) {
+            checkCancelled();
+            batchesWritten.incrementAndGet();
+        }
+
+        void start() {
+            startedAt = System.nanoTime();
+            checkCancelled();
+        }
+
+        void finish(final LoaderStage stage, final String message) {
+            this.finishedAt = System.nanoTime();
+            this.message = message;
+            this.stage = stage;
+        }
+
+        private void checkCancelled() {
+            if (cancelled) {
+                throw new CancellationException("The load has been cancelled");
+            }
+        }
+
+        LoaderJob toModel() {
+            LoaderJob job = new LoaderJob();
+            job.setJobId(id);
+            job.setStage(stage);
+            job.setRowsParsed(rowsParsed.get());
+            job.setBatchesWritten(batchesWritten.get());
+            job.setFiguresLoaded(figuresLoaded);
+            job.setMessage(message);
+            job.setChanges(changes);
+            if (startedAt != 0) {
+                long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+                job.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(end - startedAt));
+            }
+            return job;
+        }
+    }
+}
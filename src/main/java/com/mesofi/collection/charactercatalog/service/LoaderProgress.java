@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import com.mesofi.collection.charactercatalog.model.LoaderStage;
+
+/**
+ * Receives the progress of a load. Any implementation can stop the load by
+ * throwing an exception.
+ */
+public interface LoaderProgress {
+
+    /**
+     * Does not track anything.
+     */
+    LoaderProgress NONE = new LoaderProgress() {
+    };
+
+    /**
+     * The load moved to a new stage.
+     *
+     * @param stage The new stage.
+     */
+    default void stageChanged(LoaderStage stage) {
+    }
+
+    /**
+     * A record has been parsed.
+     */
+    default void rowParsed() {
+    }
+
+    /**
+     * A batch of figures has been written.
+     *
+     * @param size The total of figures in the batch.
+     */
+    default void batchWritten(int size) {
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.CharacterFigureKey;
+
+/**
+ * Groups the records of the catalog by figure. The first record of a figure
+ * becomes the base figure and the following ones are merged into it as
+ * re-stocks. The records are looked up by their {@link CharacterFigureKey}, so
+ * each record is grouped in constant time and the order of the base figures is
+ * kept.
+ */
+public class RestockGrouper {
+
+    private final Map<CharacterFigureKey, CharacterFigure> effectiveCharacters = new LinkedHashMap<>();
+    private final BiConsumer<CharacterFigure, CharacterFigure> restockMerger;
+
+    /**
+     * Creates a new grouper.
+     *
+     * @param restockMerger Receives the base figure and the record to be merged
+     *                      as its re-stock.
+     */
+    public RestockGrouper(final BiConsumer<CharacterFigure, CharacterFigure> restockMerger) {
+        this.restockMerger = restockMerger;
+    }
+
+    /**
+     * Adds a new record, it becomes a base figure if it was not added before,
+     * otherwise it is merged as re-stock of the existing one. Empty records are
+     * ignored.
+     *
+     * @param figure The record to be added.
+     */
+    public void add(final CharacterFigure figure) {
+        if (Objects.isNull(figure)) {
+            return;
+        }
+        CharacterFigure existing = effectiveCharacters.putIfAbsent(CharacterFigureKey.of(figure), figure);
+        if (Objects.nonNull(existing)) {
+            restockMerger.accept(existing, figure);
+        }
+    }
+
+    /**
+     * Gets the total of base figures found so far.
+     *
+     * @return The total of base figures.
+     */
+    public int size() {
+        return effectiveCharacters.size();
+    }
+
+    /**
+     * Gets the base figures in the order they were added.
+     *
+     * @return The effective characters.
+     */
+    public List<CharacterFigure> getEffectiveCharacters() {
+        return new ArrayList<>(effectiveCharacters.values());
+    }
+}
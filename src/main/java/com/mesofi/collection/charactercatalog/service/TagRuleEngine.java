@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.mesofi.collection.charactercatalog.config.TagRuleProperties;
+import com.mesofi.collection.charactercatalog.config.TagRuleProperties.Rule;
+import com.mesofi.collection.charactercatalog.mappers.EnumCodec;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adds the standard tags to the figures. The rules are compiled once, every
+ * condition becomes a predicate and every tag list is split in advance, so each
+ * figure is tagged in a single pass. The standard rules can be extended with the
+ * ones found in the configuration under {@code catalog.tags.rules}.
+ * <p>
+ * All the tags are taken from a shared pool, so the same tag found in thousands
+ * of figures is kept in memory only once.
+ */
+@Slf4j
+@Component
+public class TagRuleEngine {
+
+    public static final String TAG_EX = "ex";
+    public static final String TAG_SOG = "soul,gold,god";
+    public static final String TAG_REVIVAL = "revival";
+    public static final String TAG_SET = "set";
+    public static final String TAG_BROKEN = "broken";
+    public static final String TAG_METAL = "metal";
+    public static final String TAG_OCE = "oce,original,color";
+    public static final String TAG_HK = "asia";
+    public static final String TAG_BRONZE_TO_GOLD = "golden";
+
+    // @formatter:off
+    public static final List<Rule> STANDARD_RULES = List.of(
+            new Rule("lineUp=MYTH_CLOTH_EX", TAG_EX),
+            new Rule("series=SOG", TAG_SOG),
+            new Rule("revival", TAG_REVIVAL),
+            new Rule("set", TAG_SET),
+            new Rule("brokenCloth", TAG_BROKEN),
+            new Rule("metalBody", TAG_METAL),
+            new Rule("oce", TAG_OCE),
+            new Rule("hongKongVersion", TAG_HK),
+            new Rule("bronzeToGold", TAG_BRONZE_TO_GOLD));
+
+    private static final Map<String, Predicate<CharacterFigure>> FLAGS = Map.ofEntries(
+            Map.entry("metalBody", CharacterFigure::isMetalBody),
+            Map.entry("oce", CharacterFigure::isOce),
+            Map.entry("revival", CharacterFigure::isRevival),
+            Map.entry("plainCloth", CharacterFigure::isPlainCloth),
+            Map.entry("brokenCloth", CharacterFigure::isBrokenCloth),
+            Map.entry("bronzeToGold", CharacterFigure::isBronzeToGold),
+            Map.entry("gold", CharacterFigure::isGold),
+            Map.entry("hongKongVersion", CharacterFigure::isHongKongVersion),
+            Map.entry("manga", CharacterFigure::isManga),
+            Map.entry("surplice", CharacterFigure::isSurplice),
+            Map.entry("set", CharacterFigure::isSet));
+    // @formatter:on
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+    private final CompiledRule[] rules;
+    private final String version;
+
+    /**
+     * Creates the engine with the standard rules followed by the configured ones.
+     *
+     * @param properties The configured rules.
+     * @throws IllegalArgumentException if a configured rule is not valid.
+     */
+    public TagRuleEngine(final TagRuleProperties properties) {
+        List<Rule> all = new ArrayList<>(STANDARD_RULES);
+        all.addAll(properties.getRules());
+        this.rules = all.stream().map(this::compile).toArray(CompiledRule[]::new);
+        this.version = Integer.toHexString(all.hashCode());
+        log.debug("Tag rules compiled: {}", rules.length);
+    }
+
+    /**
+     * Adds the tags of the name and the tags of every matching rule to a figure.
+     *
+     * @param figure The figure.
+     */
+    public void addStandardTags(final CharacterFigure figure) {
+        // the tags coming from the catalog are taken from the pool as well.
+        Set<String> tags = new HashSet<>();
+        if (Objects.nonNull(figure.getTags())) {
+            figure.getTags().forEach($ -> tags.add(intern($)));
+        }
+        figure.setTags(tags);
+        addNameTags(figure.getBaseName().toLowerCase(), tags);
+        for (CompiledRule rule : rules) {
+            if (rule.predicate().test(figure)) {
+                for (String tag : rule.tags()) {
+                    tags.add(tag);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the version of the rules, it changes whenever a rule changes.
+     *
+     * @return The version of the rules.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the shared instance of a tag.
+     *
+     * @param tag The tag.
+     * @return The instance kept in the pool.
+     */
+    public String intern(final String tag) {
+        String existing = pool.putIfAbsent(tag, tag);
+        return Objects.nonNull(existing) ? existing : tag;
+    }
+
+    // every word of the name is a tag, just like splitting it on whitespaces.
+    private void addNameTags(final String name, final Set<String> tags) {
+        int start = -1;
+        for (int i = 0; i <= name.length(); i++) {
+            boolean separator = i == name.length() || Character.isWhitespace(name.charAt(i));
+            if (!separator && start < 0) {
+                start = i;
+            } else if (separator && start >= 0) {
+                tags.add(intern(name.substring(start, i)));
+                start = -1;
+            }
+        }
+    }
+
+    private CompiledRule compile(final Rule rule) {
+        if (!StringUtils.hasText(rule.getWhen()) || !StringUtils.hasText(rule.getTags())) {
+            throw new IllegalArgumentException("Provide a condition and the tags for the rule: " + rule);
+        }
+        Predicate<CharacterFigure> predicate = $ -> true;
+        for (String condition : rule.getWhen().split("&")) {
+            predicate = predicate.and(compileCondition(condition.trim()));
+        }
+        // @formatter:off
+        String[] tags = Arrays.stream(rule.getTags().split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(this::intern)
+                .toArray(String[]::new);
+        // @formatter:on
+        return new CompiledRule(predicate, tags);
+    }
+
+    private Predicate<CharacterFigure> compileCondition(final String condition) {
+        int equals = condition.indexOf('=');
+        if (equals < 0) {
+            Predicate<CharacterFigure> flag = FLAGS.get(condition);
+            if (Objects.isNull(flag)) {
+                throw new IllegalArgumentException("Unknown tag rule condition: '" + condition + "'");
+            }
+            return flag;
+        }
+        String property = condition.substring(0, equals).trim();
+        String value = condition.substring(equals + 1).trim();
+        // @formatter:off
+        return switch (property) {
+            case "lineUp" -> matches(CharacterFigure::getLineUp, EnumCodec.LINE_UP.parse(value));
+            case "series" -> matches(CharacterFigure::getSeries, EnumCodec.SERIES.parse(value));
+            case "group" -> matches(CharacterFigure::getGroup, EnumCodec.GROUP.parse(value));
+            case "distribution" -> matches(CharacterFigure::getDistribution, EnumCodec.DISTRIBUTION.parse(value));
+            default -> throw new IllegalArgumentException("Unknown tag rule condition: '" + condition + "'");
+        };
+        // @formatter:on
+    }
+
+    private static <T> Predicate<CharacterFigure> matches(final Function<CharacterFigure, T> property,
+            final T expected) {
+        return $ -> property.apply($) == expected;
+    }
+
+    private record CompiledRule(Predicate<CharacterFigure> predicate, String[] tags) {
+    }
+}
@@ -7,6 +7,8 @@ package com.mesofi.collection.charactercatalog.utils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
@@ -14,6 +16,7 @@ import java.time.temporal.ChronoField;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -28,6 +31,20 @@ import org.springframework.util.StringUtils;
  */
 public class CommonUtils {
 
+    // @formatter:off
+    private static final DateTimeFormatter DATE_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("M")
+            .appendLiteral("/")
+            .optionalStart()
+            .appendPattern("d")
+            .appendLiteral("/")
+            .optionalEnd()
+            .appendValue(ChronoField.YEAR, 4)
+            .toFormatter();
+    // @formatter:on
+    private static final DateTimeFormatter MONTH_YEAR_FORMATTER = DateTimeFormatter.ofPattern("M/yyyy");
+    private static final int MAX_PRICE_DIGITS = 18; // the digits that always fit in a long.
+
     private CommonUtils() {
 
     }
@@ -39,14 +56,7 @@ public class CommonUtils {
      * @return A BigDecimal reference or null if the input is null.
      */
     public static BigDecimal toPrice(final String value) {
-        if (StringUtils.hasText(value)) {
-            if (value.contains("$") || value.contains("¥")) {
-                return new BigDecimal(value.substring(1).replace(",", ""));
-            } else {
-                return new BigDecimal(value.replace(",", ""));
-            }
-        }
-        return null;
+        return StringUtils.hasText(value) ? toPrice(value, 0, value.length()) : null;
     }
 
     /**
@@ -66,12 +76,7 @@ public class CommonUtils {
      * @return A LocalDate reference or null if the input is null.
      */
     public static LocalDate toDate(final String value) {
-        if (StringUtils.hasText(value)) {
-            boolean yearMonthDay = Boolean.TRUE.equals(isDayMonthYear(value));
-            DateTimeFormatter formatter = getDateTimeFormatter();
-            return yearMonthDay ? LocalDate.parse(value, formatter) : YearMonth.parse(value, formatter).atDay(1);
-        }
-        return null;
+        return StringUtils.hasText(value) ? toDate(value, 0, value.length()) : null;
     }
 
     /**
@@ -88,28 +93,7 @@ public class CommonUtils {
         if (Objects.isNull(value)) {
             return null;
         }
-        if (Objects.isNull(monthYearOnly)) {
-            return value.format(getDateTimeFormatter());
-        }
-        if (monthYearOnly) {
-            return value.format(DateTimeFormatter.ofPattern("M/yyyy"));
-        } else {
-            return value.format(getDateTimeFormatter());
-        }
-    }
-
-    private static DateTimeFormatter getDateTimeFormatter() {
-        // @formatter:off
-        return new DateTimeFormatterBuilder()
-                .appendPattern("M")
-                .appendLiteral("/")
-                .optionalStart()
-                .appendPattern("d")
-                .appendLiteral("/")
-                .optionalEnd()
-                .appendValue(ChronoField.YEAR, 4)
-                .toFormatter();
-        // @formatter:on
+        return value.format(Boolean.TRUE.equals(monthYearOnly) ? MONTH_YEAR_FORMATTER : DATE_FORMATTER);
     }
 
     /**
@@ -174,12 +158,166 @@ public class CommonUtils {
      * @return true, if it's a valid date.
      */
     public static Boolean isDayMonthYear(final String value) {
-        int count = 0;
-        if (StringUtils.hasText(value)) {
-            for (int i = 0; i < value.length(); i++) {
-                if (value.charAt(i) == '/') {
-                    count++;
+        return StringUtils.hasText(value) ? isDayMonthYear(value, 0, value.length()) : null;
+    }
+
+    /**
+     * Test if a region of a text has at least one non-whitespace character.
+     *
+     * @param value The text.
+     * @param start The start of the region, inclusive.
+     * @param end   The end of the region, exclusive.
+     * @return true if the region has text.
+     */
+    public static boolean hasText(final CharSequence value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts a region of a text into a valid BigDecimal reference, the currency
+     * symbol and the thousands separators are skipped without creating
+     * intermediate strings. The digits are accumulated in a long, only the values
+     * that do not fit in it are handed over to the BigDecimal parser.
+     *
+     * @param value The text.
+     * @param start The start of the region, inclusive.
+     * @param end   The end of the region, exclusive.
+     * @return A BigDecimal reference or null if the region is empty.
+     */
+    public static BigDecimal toPrice(final CharSequence value, int start, final int end) {
+        if (!hasText(value, start, end)) {
+            return null;
+        }
+        if (indexOf(value, start, end, '$') >= 0 || indexOf(value, start, end, '¥') >= 0) {
+            start++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9' && digits < MAX_PRICE_DIGITS) {
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
                 }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c != ',') {
+                return parsePrice(value, start, end); // signs, exponents or too many digits.
+            }
+        }
+        return digits > 0 ? BigDecimal.valueOf(unscaled, Math.max(scale, 0)) : parsePrice(value, start, end);
+    }
+
+    private static BigDecimal parsePrice(final CharSequence value, final int start, final int end) {
+        char[] digits = new char[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c != ',') {
+                digits[length++] = c;
+            }
+        }
+        return new BigDecimal(digits, 0, length);
+    }
+
+    /**
+     * Converts a region of a text into a valid LocalDate reference, the formats
+     * M/yyyy and M/d/yyyy are read directly from the text, any other shape is left
+     * to the date formatter. The first day of the month is used when the day is
+     * not present.
+     *
+     * @param value The text.
+     * @param start The start of the region, inclusive.
+     * @param end   The end of the region, exclusive.
+     * @return A LocalDate reference or null if the region is empty.
+     */
+    public static LocalDate toDate(final CharSequence value, final int start, final int end) {
+        if (!hasText(value, start, end)) {
+            return null;
+        }
+        LocalDate date = parseDate(value, start, end);
+        if (Objects.nonNull(date)) {
+            return date;
+        }
+        String text = value.subSequence(start, end).toString();
+        return Boolean.TRUE.equals(isDayMonthYear(text, 0, text.length())) ? LocalDate.parse(text, DATE_FORMATTER)
+                : YearMonth.parse(text, DATE_FORMATTER).atDay(1);
+    }
+
+    // reads M/yyyy or M/d/yyyy (one or two digits for the month and the day), null
+    // if the text has any other shape.
+    private static LocalDate parseDate(final CharSequence value, final int start, final int end) {
+        int month = 0;
+        int middle = 0;
+        int last = 0;
+        int slashes = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if (slashes == 0) {
+                    month = month * 10 + digit;
+                } else if (slashes == 1) {
+                    middle = middle * 10 + digit;
+                } else {
+                    last = last * 10 + digit;
+                }
+                digits++;
+            } else if (c == '/' && slashes < 2 && digits > 0 && digits <= 2) {
+                slashes++;
+                digits = 0;
+            } else {
+                return null;
+            }
+        }
+        if (slashes == 0 || digits != 4) {
+            return null;
+        }
+        int day = slashes == 1 ? 1 : middle;
+        int year = slashes == 1 ? middle : last;
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        // the day is adjusted to the end of the month, just like the smart resolver.
+        return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+    }
+
+    /**
+     * Gets the integer value of a region of a text.
+     *
+     * @param value The text.
+     * @param start The start of the region, inclusive.
+     * @param end   The end of the region, exclusive.
+     * @return The integer or null if the region is empty.
+     */
+    public static Integer toInteger(final CharSequence value, final int start, final int end) {
+        return hasText(value, start, end) ? Integer.parseInt(value, start, end, 10) : null;
+    }
+
+    /**
+     * Test if a region of a text represents a date compound of year, month and
+     * day.
+     *
+     * @param value The text.
+     * @param start The start of the region, inclusive.
+     * @param end   The end of the region, exclusive.
+     * @return true if it's a complete date, false if it's a month and year, null if
+     *         it's not a date.
+     */
+    public static Boolean isDayMonthYear(final CharSequence value, final int start, final int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == '/') {
+                count++;
             }
         }
         if (count == 0) {
@@ -188,24 +326,32 @@ public class CommonUtils {
         return count != 1;
     }
 
+    private static int indexOf(final CharSequence value, final int start, final int end, final char c) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
-     * Reverses the elements of an existing non-empty list.
+     * Reverses the elements of an existing non-empty list. The elements are
+     * swapped in place from both ends, so it runs in linear time and uses no extra
+     * memory no matter the size of the list.
      * 
      * @param <T>  The type of the list.
      * @param list The list to be reversed.
      */
     public static <T> void reverseListElements(final List<T> list) {
-        if (Objects.nonNull(list) && !list.isEmpty()) {
-            T value = list.remove(0);
-
-            // call the recursive function to reverse
-            // the list after removing the first element
-            reverseListElements(list);
-
-            // now after the rest of the list has been
-            // reversed by the upper recursive call,
-            // add the first value at the end
-            list.add(value);
+        if (Objects.nonNull(list) && list.size() > 1) {
+            ListIterator<T> forward = list.listIterator();
+            ListIterator<T> backward = list.listIterator(list.size());
+            for (int i = 0, middle = list.size() / 2; i < middle; i++) {
+                T value = forward.next();
+                forward.set(backward.previous());
+                backward.set(value);
+            }
         }
     }
 }
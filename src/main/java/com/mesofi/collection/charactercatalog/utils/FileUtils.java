@@ -5,10 +5,19 @@
  */
 package com.mesofi.collection.charactercatalog.utils;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
 
 import org.springframework.util.ResourceUtils;
 
@@ -20,6 +29,12 @@ import org.springframework.util.ResourceUtils;
  */
 public class FileUtils {
 
+    public static final Set<String> GZIP_CONTENT_TYPES = Set.of("application/gzip", "application/x-gzip");
+    public static final Set<String> DEFLATE_CONTENT_TYPES = Set.of("application/deflate", "application/x-deflate",
+            "application/zlib");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private FileUtils() {
 
     }
@@ -42,4 +57,66 @@ public class FileUtils {
         }
         return file.toPath();
     }
+
+    /**
+     * Decompresses a stream as it is read, the whole content is never kept in
+     * memory. The gzip and zlib streams are detected by their magic bytes, the raw
+     * deflate streams have none, so they are detected by the content type. Any
+     * other stream is returned as it is.
+     *
+     * @param inputStream The stream, compressed or not.
+     * @param contentType The content type of the stream, it may be null.
+     * @return The decompressed stream.
+     * @throws IOException              if the stream cannot be read.
+     * @throws IllegalArgumentException if the content type is a compressed one
+     *                                  but the stream is not.
+     */
+    public static InputStream decompress(final InputStream inputStream, final String contentType)
+            throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+
+        String type = Objects.nonNull(contentType) ? contentType.split(";")[0].trim().toLowerCase(Locale.ROOT) : "";
+        try {
+            if ((first == 0x1f && second == 0x8b) || GZIP_CONTENT_TYPES.contains(type)) {
+                return new GZIPInputStream(buffered, BUFFER_SIZE);
+            }
+            if (isZlibHeader(first, second)) {
+                return new ReleasingInflaterInputStream(buffered, new Inflater());
+            }
+            if (DEFLATE_CONTENT_TYPES.contains(type)) {
+                return new ReleasingInflaterInputStream(buffered, new Inflater(true));
+            }
+        } catch (ZipException e) {
+            throw new IllegalArgumentException("The uploaded file is not a valid " + type + " file", e);
+        }
+        return buffered;
+    }
+
+    // the header of a zlib stream with the default window, any compression level.
+    private static boolean isZlibHeader(final int first, final int second) {
+        return first == 0x78 && (second == 0x01 || second == 0x5e || second == 0x9c || second == 0xda);
+    }
+
+    /**
+     * Releases the native memory of its inflater as soon as it is closed.
+     */
+    private static class ReleasingInflaterInputStream extends InflaterInputStream {
+
+        ReleasingInflaterInputStream(final InputStream inputStream, final Inflater inflater) {
+            super(inputStream, inflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.utils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.mesofi.collection.charactercatalog.mappers.EnumCodec;
+
+/**
+ * Walks a tab separated line once and keeps the boundaries of every column, the
+ * columns are converted directly from the line so only the values that are
+ * actually stored become new strings. A cursor is not thread safe, but it can be
+ * reused for any number of lines.
+ */
+public class TsvCursor {
+
+    private static final char SEPARATOR = '\t';
+    private static final char LIST_SEPARATOR = ',';
+
+    private String line;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private int columns;
+    private int current; // the column read the last time.
+
+    /**
+     * Points the cursor to a new line.
+     *
+     * @param line The line to be read.
+     * @return This cursor.
+     */
+    public TsvCursor reset(final String line) {
+        this.line = line;
+        this.columns = 0;
+        this.current = -1;
+        int start = 0;
+        int end;
+        while ((end = line.indexOf(SEPARATOR, start)) >= 0) {
+            addColumn(start, end);
+            start = end + 1;
+        }
+        addColumn(start, line.length());
+        return this;
+    }
+
+    /**
+     * Gets the total of columns in the line, the empty ones included.
+     *
+     * @return The total of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the column read the last time, it points to the offending column when a
+     * value cannot be converted.
+     *
+     * @return The column index, or -1 if no column has been read yet.
+     */
+    public int getCurrentColumn() {
+        return current;
+    }
+
+    /**
+     * Test if a column has at least one non-whitespace character.
+     *
+     * @param column The column index.
+     * @return true if the column has text.
+     */
+    public boolean hasText(final int column) {
+        return exists(column) && CommonUtils.hasText(line, starts[column], ends[column]);
+    }
+
+    /**
+     * Gets the column as it is.
+     *
+     * @param column The column index, a negative one is never present.
+     * @return The value, or null if the column does not exist.
+     */
+    public String raw(final int column) {
+        return exists(column) ? line.substring(starts[column], ends[column]) : null;
+    }
+
+    /**
+     * Gets the column without the surrounding whitespaces.
+     *
+     * @param column The column index.
+     * @return The value, or null if the column is empty.
+     */
+    public String text(final int column) {
+        if (!hasText(column)) {
+            return null;
+        }
+        int start = starts[column];
+        int end = ends[column];
+        while (Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        while (Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return line.substring(start, end);
+    }
+
+    /**
+     * Gets the column as boolean.
+     *
+     * @param column The column index.
+     * @return true if the value is TRUE, false otherwise.
+     */
+    public boolean bool(final int column) {
+        return matches(column, "TRUE");
+    }
+
+    /**
+     * Gets the column as integer.
+     *
+     * @param column The column index.
+     * @return The value, or null if the column is empty.
+     */
+    public Integer integer(final int column) {
+        return hasText(column) ? CommonUtils.toInteger(line, starts[column], ends[column]) : null;
+    }
+
+    /**
+     * Gets the column as price.
+     *
+     * @param column The column index.
+     * @return The value, or null if the column is empty.
+     */
+    public BigDecimal price(final int column) {
+        return hasText(column) ? CommonUtils.toPrice(line, starts[column], ends[column]) : null;
+    }
+
+    /**
+     * Gets the column as date.
+     *
+     * @param column The column index.
+     * @return The value, or null if the column is empty.
+     */
+    public LocalDate date(final int column) {
+        return hasText(column) ? CommonUtils.toDate(line, starts[column], ends[column]) : null;
+    }
+
+    /**
+     * Test if the column is a date compound of year, month and day.
+     *
+     * @param column The column index.
+     * @return true if it's a complete date, false if it's a month and year, null if
+     *         it's not a date.
+     */
+    public Boolean dayMonthYear(final int column) {
+        return hasText(column) ? CommonUtils.isDayMonthYear(line, starts[column], ends[column]) : null;
+    }
+
+    /**
+     * Gets the constant whose friendly name is the column value.
+     *
+     * @param <E>    The enum type.
+     * @param column The column index.
+     * @param codec  The codec of the enum.
+     * @return The constant found, or null if the column is empty.
+     * @throws IllegalArgumentException if the value is unknown.
+     */
+    public <E extends Enum<E>> E enumValue(final int column, final EnumCodec<E> codec) {
+        return hasText(column) ? codec.decode(line, starts[column], ends[column]) : null;
+    }
+
+    /**
+     * Gets the comma separated values of the column.
+     *
+     * @param column The column index.
+     * @return The values without the surrounding whitespaces, or null if the column
+     *         is empty.
+     */
+    public List<String> list(final int column) {
+        if (!hasText(column)) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        int start = starts[column];
+        int end = ends[column];
+        // the trailing empty values are ignored.
+        while (end > start && line.charAt(end - 1) == LIST_SEPARATOR) {
+            end--;
+        }
+        while (start < end) {
+            int separator = line.indexOf(LIST_SEPARATOR, start);
+            int valueEnd = separator < 0 || separator > end ? end : separator;
+            values.add(line.substring(start, valueEnd).trim());
+            start = valueEnd + 1;
+        }
+        return values;
+    }
+
+    /**
+     * Gets the comma separated values of the column.
+     *
+     * @param column The column index.
+     * @return The values without the surrounding whitespaces, or null if the column
+     *         is empty.
+     */
+    public Set<String> set(final int column) {
+        List<String> values = list(column);
+        return Objects.isNull(values) ? null : new HashSet<>(values);
+    }
+
+    private boolean matches(final int column, final String value) {
+        return exists(column) && ends[column] - starts[column] == value.length()
+                && line.regionMatches(starts[column], value, 0, value.length());
+    }
+
+    private boolean exists(final int column) {
+        current = column;
+        return column >= 0 && column < columns;
+    }
+
+    private void addColumn(final int start, final int end) {
+        if (columns == starts.length) {
+            starts = Arrays.copyOf(starts, columns * 2);
+            ends = Arrays.copyOf(ends, columns * 2);
+        }
+        starts[columns] = start;
+        ends[columns] = end;
+        columns++;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import com.mesofi.collection.charactercatalog.controllers.CharacterFigureController;
+import com.mesofi.collection.charactercatalog.model.LoaderJob;
+import com.mesofi.collection.charactercatalog.model.LoaderStage;
+import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Test the process of loading a compressed catalog.
+ */
+@Slf4j
+@ActiveProfiles("itest")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CharacterFigureCompressedLoaderIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CharacterFigureRepository repository;
+
+    final String BASE_URL = "";
+    final String CONTEXT = "/characters";
+    final String CATALOG = "characters/MythCloth Catalog - CatalogMyth.tsv";
+
+    /**
+     * {@link CharacterFigureController#handleFileUpload(java.util.List, boolean, boolean)}
+     */
+    @Test
+    @Order(1)
+    void should_load_gzip_catalog() throws InterruptedException {
+        log.debug("Loading the gzip catalog ...");
+
+        // We start by deleting all the existing characters.
+        repository.deleteAll();
+        repository.saveCatalogDigest(null);
+
+        // @formatter:off
+        LoaderJob job = webTestClient.post()
+                .uri(BASE_URL + CONTEXT + "/loader")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromMultipartData(createBody(new ClassPathResource(CATALOG + ".gz"),
+                        MediaType.valueOf("application/gzip"))))
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(LoaderJob.class)
+                .returnResult().getResponseBody();
+        // @formatter:on
+        LoaderJob finished = waitUntilFinished(job.getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        assertEquals(repository.count(), finished.getFiguresLoaded());
+        log.debug("The compressed characters have been loaded correctly! ...");
+    }
+
+    /**
+     * {@link CharacterFigureController#handleFileUpload(java.util.List, boolean, boolean)}
+     */
+    @Test
+    @Order(2)
+    void should_not_load_the_same_catalog_compressed_differently() throws IOException {
+        log.debug("Loading the same catalog with deflate ...");
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream outputStream = new DeflaterOutputStream(compressed)) {
+            new ClassPathResource(CATALOG).getInputStream().transferTo(outputStream);
+        }
+        Resource resource = new ByteArrayResource(compressed.toByteArray()) {
+            @Override
+            public String getFilename() {
+                return "catalog.tsv.zz";
+            }
+        };
+
+        // @formatter:off
+        webTestClient.post()
+                .uri(BASE_URL + CONTEXT + "/loader")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromMultipartData(createBody(resource, MediaType.APPLICATION_OCTET_STREAM)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.digest").exists();
+        // @formatter:on
+    }
+
+    /**
+     * {@link CharacterFigureController#getAllCharactersByName(String, String, Integer)}
+     */
+    @Test
+    @Order(3)
+    void should_verify_characters_loaded() {
+        // @formatter:off
+        webTestClient.get()
+                .uri(BASE_URL + CONTEXT)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(repository.count());
+        // @formatter:on
+    }
+
+    private MultiValueMap<String, HttpEntity<?>> createBody(Resource resource, MediaType contentType) {
+        MultipartBodyBuilder multipartBodyBuilder = new MultipartBodyBuilder();
+        multipartBodyBuilder.part("file", resource).contentType(contentType);
+        return multipartBodyBuilder.build();
+    }
+
+    private LoaderJob waitUntilFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        LoaderJob job;
+        do {
+            Thread.sleep(100);
+            // @formatter:off
+            job = webTestClient.get()
+                    .uri(BASE_URL + CONTEXT + "/loader/" + jobId)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(LoaderJob.class)
+                    .returnResult().getResponseBody();
+            // @formatter:on
+        } while (!job.getStage().isFinished() && System.currentTimeMillis() < deadline);
+        return job;
+    }
+}
@@ -5,6 +5,8 @@
  */
 package com.mesofi.collection.charactercatalog;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -20,6 +22,8 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
 
 import com.mesofi.collection.charactercatalog.controllers.CharacterFigureController;
+import com.mesofi.collection.charactercatalog.model.LoaderJob;
+import com.mesofi.collection.charactercatalog.model.LoaderStage;
 import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
 
 import lombok.extern.slf4j.Slf4j;
@@ -46,34 +50,38 @@ public class CharacterFigureLoaderIT {
     final String CONTEXT = "/characters";
 
     /**
-     * {@link CharacterFigureController#handleFileUpload(org.springframework.web.multipart.MultipartFile)}
+     * {@link CharacterFigureController#handleFileUpload(java.util.List, boolean, boolean)}
      */
     @Test
     @Order(1)
-    void should_load_all_characters_partial_file() {
+    void should_load_all_characters_partial_file() throws InterruptedException {
         log.debug("Loading all the characters for the first time (partial records) ...");
 
         // We start by deleting all the existing characters.
         repository.deleteAll();
+        repository.saveCatalogDigest(null);
 
         final String data = "characters/MythCloth Catalog - CatalogMyth-min.tsv";
         MultipartBodyBuilder multipartBodyBuilder = new MultipartBodyBuilder();
         multipartBodyBuilder.part("file", new ClassPathResource(data)).contentType(MediaType.MULTIPART_FORM_DATA);
 
         // @formatter:off
-        webTestClient.post()
+        LoaderJob job = webTestClient.post()
                 .uri(BASE_URL + CONTEXT + "/loader")
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                 .accept(MediaType.APPLICATION_JSON)
                 .body(BodyInserters.fromMultipartData(multipartBodyBuilder.build()))
                 .exchange()
-                .expectStatus().isAccepted();
+                .expectStatus().isAccepted()
+                .expectBody(LoaderJob.class)
+                .returnResult().getResponseBody();
         // @formatter:on
+        assertEquals(LoaderStage.COMPLETED, waitUntilFinished(job.getJobId()).getStage());
         log.debug("The characters have been loaded correctly! ...");
     }
 
     /**
-     * {@link CharacterFigureController#getAllCharactersByName(String)}
+     * {@link CharacterFigureController#getAllCharactersByName(String, String, Integer)}
      */
     @Test
     @Order(2)
@@ -236,29 +244,51 @@ public class CharacterFigureLoaderIT {
     }
 
     /**
-     * {@link CharacterFigureController#handleFileUpload(org.springframework.web.multipart.MultipartFile)}
+     * {@link CharacterFigureController#handleFileUpload(java.util.List, boolean, boolean)}
      */
     @Test
     @Order(3)
-    void should_load_all_characters_complete_file() {
+    void should_load_all_characters_complete_file() throws InterruptedException {
         log.debug("Loading all the characters ...");
 
         // We start by deleting all the existing characters.
         repository.deleteAll();
+        repository.saveCatalogDigest(null);
 
         final String data = "characters/MythCloth Catalog - CatalogMyth.tsv";
         MultipartBodyBuilder multipartBodyBuilder = new MultipartBodyBuilder();
         multipartBodyBuilder.part("file", new ClassPathResource(data)).contentType(MediaType.MULTIPART_FORM_DATA);
 
         // @formatter:off
-        webTestClient.post()
+        LoaderJob job = webTestClient.post()
                 .uri(BASE_URL + CONTEXT + "/loader")
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                 .accept(MediaType.APPLICATION_JSON)
                 .body(BodyInserters.fromMultipartData(multipartBodyBuilder.build()))
                 .exchange()
-                .expectStatus().isAccepted();
+                .expectStatus().isAccepted()
+                .expectBody(LoaderJob.class)
+                .returnResult().getResponseBody();
         // @formatter:on
+        assertEquals(LoaderStage.COMPLETED, waitUntilFinished(job.getJobId()).getStage());
         log.debug("The characters have been loaded correctly! ...");
     }
+
+    private LoaderJob waitUntilFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        LoaderJob job;
+        do {
+            Thread.sleep(100);
+            // @formatter:off
+            job = webTestClient.get()
+                    .uri(BASE_URL + CONTEXT + "/loader/" + jobId)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(LoaderJob.class)
+                    .returnResult().getResponseBody();
+            // @formatter:on
+        } while (!job.getStage().isFinished() && System.currentTimeMillis() < deadline);
+        return job;
+    }
 }
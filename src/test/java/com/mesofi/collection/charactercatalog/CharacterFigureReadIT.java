@@ -112,7 +112,7 @@ public class CharacterFigureReadIT {
     }
 
     /**
-     * {@link CharacterFigureController#getAllCharactersByName(String)}
+     * {@link CharacterFigureController#getAllCharactersByName(String, String, Integer)}
      * {@link CharacterFigureController#retrieveCharactersById(String)}
      * 
      */
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.benchmark;
+
+import static com.mesofi.collection.charactercatalog.utils.FileUtils.getPathFromClassPath;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
+import com.mesofi.collection.charactercatalog.service.CatalogParser;
+
+/**
+ * Compares the sequential parsing of the catalog (parallelism 1) against the
+ * parallel one. The bundled catalog is repeated {@code copies} times to get a
+ * bigger file.
+ * <p>
+ * Run it with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.mesofi.collection.charactercatalog.benchmark.CatalogParserBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CatalogParserBenchmark {
+
+    private static final String CATALOG = "characters/MythCloth Catalog - CatalogMyth.tsv";
+
+    @Param({ "1", "2", "4" })
+    private int parallelism;
+
+    @Param({ "50" })
+    private int copies;
+
+    private byte[] catalog;
+    private CatalogParser parser;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> lines = Files.readAllLines(getPathFromClassPath(CATALOG), StandardCharsets.UTF_8);
+        StringBuilder sb = new StringBuilder(lines.get(0)).append("\n");
+        for (int i = 0; i < copies; i++) {
+            lines.stream().skip(1).forEach($ -> sb.append($).append("\n"));
+        }
+        catalog = sb.toString().getBytes(StandardCharsets.UTF_8);
+        parser = new CatalogParser(new CharacterFigureFileMapper(), parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parser.shutdown();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        parser.forEachRecord(new ByteArrayInputStream(catalog), (position, figure) -> blackhole.consume(figure));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CatalogParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
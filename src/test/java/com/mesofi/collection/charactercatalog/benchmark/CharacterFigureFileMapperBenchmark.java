@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.benchmark;
+
+import static com.mesofi.collection.charactercatalog.utils.CommonUtils.isDayMonthYear;
+import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toBoolean;
+import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toDate;
+import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toInteger;
+import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toListValue;
+import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toPrice;
+import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toSetValue;
+import static com.mesofi.collection.charactercatalog.utils.CommonUtils.toStringValue;
+import static com.mesofi.collection.charactercatalog.utils.FileUtils.getPathFromClassPath;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.Distribution;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.Issuance;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.Series;
+
+/**
+ * Compares the allocations of the tokenizer used by
+ * {@link CharacterFigureFileMapper} against the previous
+ * {@code String.split} mapping, every operation maps all the rows of the bundled
+ * catalog. The previous mapping does not build the images, so its numbers are a
+ * lower bound. The scores are per row, {@code gc.alloc.rate.norm} is the total
+ * of bytes allocated per row.
+ * <p>
+ * Run it with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.mesofi.collection.charactercatalog.benchmark.CharacterFigureFileMapperBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CharacterFigureFileMapperBenchmark {
+
+    private static final String CATALOG = "characters/MythCloth Catalog - CatalogMyth.tsv";
+    private static final int ROWS = 374;
+
+    private List<String> lines;
+    private CharacterFigureFileMapper mapper;
+
+    @Setup
+    public void setup() throws IOException {
+        lines = Files.readAllLines(getPathFromClassPath(CATALOG), StandardCharsets.UTF_8).subList(1, ROWS + 1);
+        mapper = new CharacterFigureFileMapper();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void split(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(splitLine(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void cursor(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(mapper.fromLineToCharacterFigure(line));
+        }
+    }
+
+    /**
+     * The mapping used before the tokenizer, without the images.
+     */
+    private static CharacterFigure splitLine(String line) {
+        String[] columns = line.split("\t");
+        CharacterFigure characterFigure = new CharacterFigure();
+        characterFigure.setOriginalName(columns[0]);
+        characterFigure.setBaseName(columns[1]);
+        characterFigure.setIssuanceJPY(createIssuance(columns[2], columns[4], columns[5], columns[6]));
+        characterFigure.setIssuanceMXN(createIssuance(columns[7], null, columns[8], columns[9]));
+        characterFigure.setFutureRelease(columns[6].isBlank());
+        characterFigure.setUrl(toStringValue(columns[10]));
+        characterFigure.setDistribution(toEnum(columns[11], Distribution.values()));
+        characterFigure.setLineUp(toEnum(columns[12], LineUp.values()));
+        characterFigure.setSeries(toEnum(columns[13], Series.values()));
+        characterFigure.setGroup(toEnum(columns[14], Group.values()));
+        characterFigure.setMetalBody(toBoolean(columns[15]));
+        characterFigure.setOce(toBoolean(columns[16]));
+        characterFigure.setRevival(toBoolean(columns[17]));
+        characterFigure.setPlainCloth(toBoolean(columns[19]));
+        characterFigure.setBrokenCloth(toBoolean(columns[20]));
+        characterFigure.setBronzeToGold(toBoolean(columns[21]));
+        characterFigure.setGold(toBoolean(columns[22]));
+        characterFigure.setHongKongVersion(toBoolean(columns[23]));
+        characterFigure.setManga(toBoolean(columns[24]));
+        characterFigure.setSurplice(toBoolean(columns[25]));
+        characterFigure.setSet(toBoolean(columns[26]));
+        if (columns.length >= 28) {
+            characterFigure.setAnniversary(toInteger(columns[27]));
+        }
+        if (columns.length >= 29) {
+            characterFigure.setRemarks(toStringValue(columns[28]));
+        }
+        if (columns.length >= 30) {
+            characterFigure.setTags(toSetValue(columns[29]));
+        }
+        if (columns.length >= 31) {
+            toListValue(columns[30]);
+        }
+        if (columns.length >= 32) {
+            toListValue(columns[31]);
+        }
+        return characterFigure;
+    }
+
+    private static Issuance createIssuance(String price, String announcement, String preorder, String release) {
+        Issuance issuance = new Issuance();
+        issuance.setBasePrice(toPrice(price));
+        issuance.setFirstAnnouncementDate(toDate(announcement));
+        issuance.setPreorderDate(toDate(preorder));
+        issuance.setPreorderConfirmationDay(isDayMonthYear(preorder));
+        issuance.setReleaseDate(toDate(release));
+        issuance.setReleaseConfirmationDay(isDayMonthYear(release));
+        return issuance;
+    }
+
+    private static <E extends Enum<E>> E toEnum(String value, E[] values) {
+        for (E e : values) {
+            if (e.toString().equals(value)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CharacterFigureFileMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
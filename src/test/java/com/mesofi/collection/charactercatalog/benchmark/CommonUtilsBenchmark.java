@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mesofi.collection.charactercatalog.utils.CommonUtils;
+
+/**
+ * Measures the date and price parsers of {@link CommonUtils} against the
+ * implementations used before, which built a new date formatter on every call
+ * and cleaned the prices with intermediate strings. Every operation parses a
+ * sample of the values found in the catalog.
+ * <p>
+ * Run it with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.mesofi.collection.charactercatalog.benchmark.CommonUtilsBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CommonUtilsBenchmark {
+
+    private final String[] dates = { "9/15/2023", "10/30/2020", "7/3/2020", "11/2022", "5/2021", "12/31/2019" };
+    private final String[] prices = { "¥12,500", "¥9,000", "$1,234.50", "¥100,000", "3.4", "¥5,800" };
+
+    @Benchmark
+    public void toDateBefore(Blackhole blackhole) {
+        for (String date : dates) {
+            boolean yearMonthDay = Boolean.TRUE.equals(isDayMonthYearBefore(date));
+            // @formatter:off
+            DateTimeFormatter formatter = new DateTimeFormatterBuilder()
+                    .appendPattern("M").appendLiteral("/")
+                    .optionalStart().appendPattern("d").appendLiteral("/").optionalEnd()
+                    .appendValue(ChronoField.YEAR, 4)
+                    .toFormatter();
+            // @formatter:on
+            blackhole.consume(yearMonthDay ? LocalDate.parse(date, formatter) : YearMonth.parse(date, formatter).atDay(1));
+        }
+    }
+
+    @Benchmark
+    public void toDate(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(CommonUtils.toDate(date));
+        }
+    }
+
+    @Benchmark
+    public void toPriceBefore(Blackhole blackhole) {
+        for (String price : prices) {
+            if (price.contains("$") || price.contains("¥")) {
+                blackhole.consume(new BigDecimal(price.substring(1).replace(",", "")));
+            } else {
+                blackhole.consume(new BigDecimal(price.replace(",", "")));
+            }
+        }
+    }
+
+    @Benchmark
+    public void toPrice(Blackhole blackhole) {
+        for (String price : prices) {
+            blackhole.consume(CommonUtils.toPrice(price));
+        }
+    }
+
+    @Benchmark
+    public void isDayMonthYearBefore(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(isDayMonthYearBefore(date));
+        }
+    }
+
+    @Benchmark
+    public void isDayMonthYear(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(CommonUtils.isDayMonthYear(date));
+        }
+    }
+
+    private static Boolean isDayMonthYearBefore(String value) {
+        int count = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '/') {
+                count++;
+            }
+        }
+        return count == 0 ? null : count != 1;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CommonUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mesofi.collection.charactercatalog.mappers.EnumCodec;
+import com.mesofi.collection.charactercatalog.model.Distribution;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.Series;
+
+/**
+ * Measures the cost per row of decoding the four enum columns of the catalog,
+ * the linear scan over the constants used before against the
+ * {@link EnumCodec} maps, both from a whole string and from a region of the
+ * line.
+ * <p>
+ * Run it with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.mesofi.collection.charactercatalog.benchmark.EnumCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class EnumCodecBenchmark {
+
+    private static final int ROWS = 64;
+
+    private String[][] columns;
+    private String[] lines;
+    private int[][] bounds;
+
+    @Setup
+    public void setup() {
+        columns = new String[ROWS][];
+        lines = new String[ROWS];
+        bounds = new int[ROWS][8];
+        for (int i = 0; i < ROWS; i++) {
+            // @formatter:off
+            columns[i] = new String[] {
+                    Distribution.values()[i % Distribution.values().length].toString(),
+                    LineUp.values()[i % LineUp.values().length].toString(),
+                    Series.values()[i % Series.values().length].toString(),
+                    Group.values()[i % Group.values().length].toString() };
+            // @formatter:on
+            lines[i] = String.join("\t", columns[i]);
+            int start = 0;
+            for (int c = 0; c < 4; c++) {
+                bounds[i][c * 2] = start;
+                bounds[i][c * 2 + 1] = start + columns[i][c].length();
+                start += columns[i][c].length() + 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (String[] row : columns) {
+            blackhole.consume(scan(Distribution.values(), row[0]));
+            blackhole.consume(scan(LineUp.values(), row[1]));
+            blackhole.consume(scan(Series.values(), row[2]));
+            blackhole.consume(scan(Group.values(), row[3]));
+        }
+    }
+
+    @Benchmark
+    public void linearScanRegion(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            blackhole.consume(scan(Distribution.values(), lines[i].substring(bounds[i][0], bounds[i][1])));
+            blackhole.consume(scan(LineUp.values(), lines[i].substring(bounds[i][2], bounds[i][3])));
+            blackhole.consume(scan(Series.values(), lines[i].substring(bounds[i][4], bounds[i][5])));
+            blackhole.consume(scan(Group.values(), lines[i].substring(bounds[i][6], bounds[i][7])));
+        }
+    }
+
+    @Benchmark
+    public void codec(Blackhole blackhole) {
+        for (String[] row : columns) {
+            blackhole.consume(EnumCodec.DISTRIBUTION.decode(row[0]));
+            blackhole.consume(EnumCodec.LINE_UP.decode(row[1]));
+            blackhole.consume(EnumCodec.SERIES.decode(row[2]));
+            blackhole.consume(EnumCodec.GROUP.decode(row[3]));
+        }
+    }
+
+    @Benchmark
+    public void codecRegion(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            blackhole.consume(EnumCodec.DISTRIBUTION.decode(lines[i], bounds[i][0], bounds[i][1]));
+            blackhole.consume(EnumCodec.LINE_UP.decode(lines[i], bounds[i][2], bounds[i][3]));
+            blackhole.consume(EnumCodec.SERIES.decode(lines[i], bounds[i][4], bounds[i][5]));
+            blackhole.consume(EnumCodec.GROUP.decode(lines[i], bounds[i][6], bounds[i][7]));
+        }
+    }
+
+    private static <E extends Enum<E>> E scan(E[] values, String value) {
+        for (E constant : values) {
+            if (constant.toString().equals(value)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EnumCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
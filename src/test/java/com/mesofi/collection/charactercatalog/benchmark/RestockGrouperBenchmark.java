@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.Series;
+import com.mesofi.collection.charactercatalog.service.RestockGrouper;
+
+/**
+ * Compares the list scan used before to group the re-stocks against the
+ * {@link RestockGrouper}. One record out of four is a re-stock of a previous
+ * one. The merge of the re-stocks is the same for both, so only the lookup is
+ * measured.
+ * <p>
+ * Run it with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.mesofi.collection.charactercatalog.benchmark.RestockGrouperBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class RestockGrouperBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    private int rows;
+
+    private List<CharacterFigure> allCharacters;
+
+    @Setup
+    public void setup() {
+        final int figures = rows * 3 / 4;
+        allCharacters = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            CharacterFigure figure = new CharacterFigure();
+            figure.setOriginalName("Figure " + (i % figures));
+            figure.setBaseName("Figure " + (i % figures));
+            figure.setLineUp(LineUp.values()[i % LineUp.values().length]);
+            figure.setSeries(Series.SAINT_SEIYA);
+            figure.setGroup(Group.GOLD);
+            allCharacters.add(figure);
+        }
+    }
+
+    @Benchmark
+    public List<CharacterFigure> listScan(Blackhole blackhole) {
+        List<CharacterFigure> effectiveCharacters = new ArrayList<>();
+        for (CharacterFigure curr : allCharacters) {
+            if (effectiveCharacters.contains(curr)) {
+                blackhole.consume(effectiveCharacters.get(effectiveCharacters.indexOf(curr)));
+            } else {
+                effectiveCharacters.add(curr);
+            }
+        }
+        return effectiveCharacters;
+    }
+
+    @Benchmark
+    public List<CharacterFigure> hashGrouping(Blackhole blackhole) {
+        RestockGrouper grouper = new RestockGrouper((existing, restock) -> blackhole.consume(existing));
+        allCharacters.forEach(grouper::add);
+        return grouper.getEffectiveCharacters();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RestockGrouperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.benchmark;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mesofi.collection.charactercatalog.config.TagRuleProperties;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.Series;
+import com.mesofi.collection.charactercatalog.service.TagRuleEngine;
+
+/**
+ * Compares the way the standard tags were added before, a regular expression to
+ * split the name and nine rules splitting their tags on every match, against
+ * the compiled rules of the {@link TagRuleEngine}.
+ * <p>
+ * Run it with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.mesofi.collection.charactercatalog.benchmark.TagRuleEngineBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class TagRuleEngineBenchmark {
+
+    private static final int FIGURES = 1000;
+
+    private final TagRuleEngine engine = new TagRuleEngine(new TagRuleProperties());
+    private CharacterFigure[] figures;
+
+    @Setup
+    public void setup() {
+        figures = new CharacterFigure[FIGURES];
+        for (int i = 0; i < FIGURES; i++) {
+            CharacterFigure figure = new CharacterFigure();
+            figure.setBaseName("Gemini Saga " + (i % 100));
+            figure.setLineUp(i % 2 == 0 ? LineUp.MYTH_CLOTH_EX : LineUp.MYTH_CLOTH);
+            figure.setSeries(i % 5 == 0 ? Series.SOG : Series.SAINT_SEIYA);
+            figure.setGroup(Group.GOLD);
+            figure.setMetalBody(i % 3 == 0);
+            figure.setOce(i % 7 == 0);
+            figure.setRevival(i % 4 == 0);
+            figures[i] = figure;
+        }
+    }
+
+    @Benchmark
+    public CharacterFigure[] multiplePasses() {
+        for (CharacterFigure figure : figures) {
+            figure.setTags(null);
+            String[] nameArr = figure.getBaseName().toLowerCase().split("\\s+");
+            figure.setTags(new HashSet<>(List.of(nameArr)));
+            addTag(figure, $ -> $.getLineUp() == LineUp.MYTH_CLOTH_EX, TagRuleEngine.TAG_EX);
+            addTag(figure, $ -> $.getSeries() == Series.SOG, TagRuleEngine.TAG_SOG);
+            addTag(figure, CharacterFigure::isRevival, TagRuleEngine.TAG_REVIVAL);
+            addTag(figure, CharacterFigure::isSet, TagRuleEngine.TAG_SET);
+            addTag(figure, CharacterFigure::isBrokenCloth, TagRuleEngine.TAG_BROKEN);
+            addTag(figure, CharacterFigure::isMetalBody, TagRuleEngine.TAG_METAL);
+            addTag(figure, CharacterFigure::isOce, TagRuleEngine.TAG_OCE);
+            addTag(figure, CharacterFigure::isHongKongVersion, TagRuleEngine.TAG_HK);
+            addTag(figure, CharacterFigure::isBronzeToGold, TagRuleEngine.TAG_BRONZE_TO_GOLD);
+        }
+        return figures;
+    }
+
+    @Benchmark
+    public CharacterFigure[] compiledRules() {
+        for (CharacterFigure figure : figures) {
+            figure.setTags(null);
+            engine.addStandardTags(figure);
+        }
+        return figures;
+    }
+
+    private static void addTag(CharacterFigure figure, Predicate<CharacterFigure> predicate, String tagNames) {
+        if (predicate.test(figure)) {
+            if (Objects.isNull(figure.getTags())) {
+                figure.setTags(new HashSet<>());
+            }
+            for (String tag : tagNames.split(",")) {
+                figure.getTags().add(tag);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TagRuleEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
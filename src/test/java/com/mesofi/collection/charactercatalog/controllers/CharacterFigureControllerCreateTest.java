@@ -14,6 +14,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.mesofi.collection.charactercatalog.service.CharacterFinderService;
+import com.mesofi.collection.charactercatalog.service.LoaderJobService;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +27,7 @@ import com.mesofi.collection.charactercatalog.model.CharacterFigure;
 import com.mesofi.collection.charactercatalog.model.Group;
 import com.mesofi.collection.charactercatalog.model.LineUp;
 import com.mesofi.collection.charactercatalog.model.Series;
+import com.mesofi.collection.charactercatalog.service.CatalogLoaderService;
 import com.mesofi.collection.charactercatalog.service.CharacterFigureService;
 
 /**
@@ -44,7 +46,11 @@ public class CharacterFigureControllerCreateTest {
     @MockBean
     private CharacterFigureService characterFigureService;
     @MockBean
+    private CatalogLoaderService catalogLoaderService;
+    @MockBean
     private CharacterFinderService characterFinderService;
+    @MockBean
+    private LoaderJobService loaderJobService;
 
     private final String BASE_URL = "/characters";
 
@@ -12,6 +12,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.mesofi.collection.charactercatalog.service.CharacterFinderService;
+import com.mesofi.collection.charactercatalog.service.LoaderJobService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -22,6 +23,7 @@ import com.mesofi.collection.charactercatalog.model.CharacterFigure;
 import com.mesofi.collection.charactercatalog.model.Group;
 import com.mesofi.collection.charactercatalog.model.LineUp;
 import com.mesofi.collection.charactercatalog.model.Series;
+import com.mesofi.collection.charactercatalog.service.CatalogLoaderService;
 import com.mesofi.collection.charactercatalog.service.CharacterFigureService;
 
 /**
@@ -39,7 +41,11 @@ public class CharacterFigureControllerDeleteTagsTest {
     @MockBean
     private CharacterFigureService characterFigureService;
     @MockBean
+    private CatalogLoaderService catalogLoaderService;
+    @MockBean
     private CharacterFinderService characterFinderService;
+    @MockBean
+    private LoaderJobService loaderJobService;
 
     private final String BASE_URL = "/characters";
 
@@ -6,25 +6,48 @@
 package com.mesofi.collection.charactercatalog.controllers;
 
 import static com.mesofi.collection.charactercatalog.utils.FileUtils.getPathFromClassPath;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.nio.file.Files;
+import java.util.List;
 
 import com.mesofi.collection.charactercatalog.service.CharacterFinderService;
+import com.mesofi.collection.charactercatalog.service.LoaderJobService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.mesofi.collection.charactercatalog.exception.CatalogNotModifiedException;
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureNotFoundException;
+import com.mesofi.collection.charactercatalog.exception.LoaderBusyException;
+import com.mesofi.collection.charactercatalog.model.CatalogDelta;
+import com.mesofi.collection.charactercatalog.model.CatalogValidation;
+import com.mesofi.collection.charactercatalog.model.LoaderJob;
+import com.mesofi.collection.charactercatalog.model.LoaderStage;
+import com.mesofi.collection.charactercatalog.model.RecordError;
+import com.mesofi.collection.charactercatalog.service.CatalogLoaderService;
 import com.mesofi.collection.charactercatalog.service.CharacterFigureService;
 
 /**
  * Test for
- * {@link CharacterFigureController#handleFileUpload(org.springframework.web.multipart.MultipartFile)}
+ * {@link CharacterFigureController#handleFileUpload(java.util.List, boolean, boolean)}
  * 
  * @author armandorivasarzaluz
  *
@@ -38,7 +61,11 @@ public class CharacterFigureControllerLoaderTest {
     @MockBean
     private CharacterFigureService characterFigureService;
     @MockBean
+    private CatalogLoaderService catalogLoaderService;
+    @MockBean
     private CharacterFinderService characterFinderService;
+    @MockBean
+    private LoaderJobService loaderJobService;
 
     private final String BASE_URL = "/characters/loader";
 
@@ -55,13 +82,227 @@ public class CharacterFigureControllerLoaderTest {
     public void should_return_success_when_file_is_provided() throws Exception {
         final String CATALOG = "characters/MythCloth Catalog - CatalogMyth-min.tsv";
         final byte[] bytes = Files.readAllBytes(getPathFromClassPath(CATALOG));
+        when(loaderJobService.submit(anyList())).thenReturn(createJob("abc", LoaderStage.QUEUED));
 
         // @formatter:off
         mockMvc.perform(multipart(BASE_URL)
                         .file("file", bytes))
                 .andDo(print())
                 .andExpect(status().isAccepted())
-                .andExpect(content().string("")); // size of the test input file
+                .andExpect(header().string("Location", "http://localhost/characters/loader/abc"))
+                .andExpect(jsonPath("$.jobId").value("abc"))
+                .andExpect(jsonPath("$.stage").value("QUEUED"));
+        // @formatter:on
+        verify(catalogLoaderService, never()).loadAllCharacters(any());
+    }
+
+    @Test
+    public void should_load_several_files_together() throws Exception {
+        when(loaderJobService.submit(anyList())).thenReturn(createJob("abc", LoaderStage.QUEUED));
+
+        // @formatter:off
+        mockMvc.perform(multipart(BASE_URL)
+                        .file("file", "first".getBytes())
+                        .file("file", "second".getBytes()))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("abc"));
+        // @formatter:on
+        verify(loaderJobService).submit(argThat((List<MultipartFile> $) -> $.size() == 2));
+    }
+
+    @Test
+    public void should_return_bad_request_when_several_files_are_validated() throws Exception {
+        // @formatter:off
+        mockMvc.perform(multipart(BASE_URL)
+                        .file("file", "first".getBytes())
+                        .file("file", "second".getBytes())
+                        .param("dryRun", "true"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Only a single file can be validated or loaded as delta"));
+        // @formatter:on
+        verify(catalogLoaderService, never()).validateCharacters(any());
+    }
+
+    @Test
+    public void should_return_too_many_requests_when_loader_is_busy() throws Exception {
+        final String CATALOG = "characters/MythCloth Catalog - CatalogMyth-min.tsv";
+        final byte[] bytes = Files.readAllBytes(getPathFromClassPath(CATALOG));
+        when(loaderJobService.submit(anyList()))
+                .thenThrow(new LoaderBusyException("Another load is in progress, try again later"));
+
+        // @formatter:off
+        mockMvc.perform(multipart(BASE_URL)
+                        .file("file", bytes))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.message").value("Another load is in progress, try again later"));
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_the_digest_when_catalog_was_loaded() throws Exception {
+        final String CATALOG = "characters/MythCloth Catalog - CatalogMyth-min.tsv";
+        final byte[] bytes = Files.readAllBytes(getPathFromClassPath(CATALOG));
+        when(loaderJobService.submit(anyList()))
+                .thenThrow(new CatalogNotModifiedException("The catalog has not been modified", "abc123"));
+        when(loaderJobService.submitDelta(any()))
+                .thenThrow(new CatalogNotModifiedException("The catalog has not been modified", "abc123"));
+
+        // @formatter:off
+        mockMvc.perform(multipart(BASE_URL)
+                        .file("file", bytes))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("The catalog has not been modified"))
+                .andExpect(jsonPath("$.digest").value("abc123"));
+        mockMvc.perform(multipart(BASE_URL)
+                        .file("file", bytes)
+                        .param("delta", "true"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("The catalog has not been modified"))
+                .andExpect(jsonPath("$.digest").value("abc123"));
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_job_progress() throws Exception {
+        LoaderJob job = createJob("abc", LoaderStage.WRITING);
+        job.setRowsParsed(1200);
+        job.setBatchesWritten(2);
+        job.setElapsedMillis(350);
+        when(loaderJobService.retrieveJob("abc")).thenReturn(job);
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL + "/abc"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stage").value("WRITING"))
+                .andExpect(jsonPath("$.rowsParsed").value(1200))
+                .andExpect(jsonPath("$.batchesWritten").value(2))
+                .andExpect(jsonPath("$.elapsedMillis").value(350));
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_not_found_when_job_is_missing() throws Exception {
+        when(loaderJobService.retrieveJob("abc"))
+                .thenThrow(new CharacterFigureNotFoundException("Loader job not found with id: abc"));
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL + "/abc"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+        // @formatter:on
+    }
+
+    @Test
+    public void should_cancel_job() throws Exception {
+        when(loaderJobService.cancelJob("abc")).thenReturn(createJob("abc", LoaderStage.CANCELLED));
+
+        // @formatter:off
+        mockMvc.perform(delete(BASE_URL + "/abc"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stage").value("CANCELLED"));
+        // @formatter:on
+    }
+
+    @Test
+    public void should_submit_a_job_when_delta_is_requested() throws Exception {
+        final String CATALOG = "characters/MythCloth Catalog - CatalogMyth-min.tsv";
+        final byte[] bytes = Files.readAllBytes(getPathFromClassPath(CATALOG));
+        when(loaderJobService.submitDelta(any())).thenReturn(createJob("abc", LoaderStage.QUEUED));
+
+        // @formatter:off
+        mockMvc.perform(multipart(BASE_URL)
+                        .file("file", bytes)
+                        .param("delta", "true"))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/characters/loader/abc"))
+                .andExpect(jsonPath("$.jobId").value("abc"));
         // @formatter:on
+        verify(loaderJobService, never()).submit(anyList());
+        verify(catalogLoaderService, never()).loadCharactersDelta(any());
+    }
+
+    @Test
+    public void should_return_the_changes_of_a_delta_job() throws Exception {
+        LoaderJob job = createJob("abc", LoaderStage.COMPLETED);
+        job.setChanges(new CatalogDelta(1, 2, 3, 4));
+        when(loaderJobService.retrieveJob("abc")).thenReturn(job);
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL + "/abc"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.inserted").value(1))
+                .andExpect(jsonPath("$.changes.updated").value(2))
+                .andExpect(jsonPath("$.changes.deleted").value(3))
+                .andExpect(jsonPath("$.changes.unchanged").value(4));
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_validation_when_dry_run_is_requested() throws Exception {
+        final String CATALOG = "characters/MythCloth Catalog - CatalogMyth-min.tsv";
+        final byte[] bytes = Files.readAllBytes(getPathFromClassPath(CATALOG));
+        CatalogValidation validation = new CatalogValidation();
+        validation.setRows(10);
+        validation.setEffectiveFigures(7);
+        validation.setRestocks(2);
+        validation.setTotalErrors(1);
+        validation.getErrors().add(new RecordError(4, 7, "13/45/2013", "Invalid date"));
+        when(catalogLoaderService.validateCharacters(any())).thenReturn(validation);
+
+        // @formatter:off
+        mockMvc.perform(multipart(BASE_URL)
+                        .file("file", bytes)
+                        .param("dryRun", "true"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.rows").value(10))
+                .andExpect(jsonPath("$.effectiveFigures").value(7))
+                .andExpect(jsonPath("$.restocks").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(4))
+                .andExpect(jsonPath("$.errors[0].column").value(7))
+                .andExpect(jsonPath("$.errors[0].value").value("13/45/2013"))
+                .andExpect(jsonPath("$.errors[0].reason").value("Invalid date"));
+        // @formatter:on
+        verify(loaderJobService, never()).submit(anyList());
+        verify(loaderJobService, never()).submitDelta(any());
+    }
+
+    @Test
+    public void should_return_not_found_when_previous_catalog_is_missing() throws Exception {
+        doThrow(new CharacterFigureNotFoundException("No previous catalog found to be restored"))
+                .when(catalogLoaderService).rollbackCatalog();
+
+        // @formatter:off
+        mockMvc.perform(post(BASE_URL + "/rollback"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_success_when_catalog_is_restored() throws Exception {
+        // @formatter:off
+        mockMvc.perform(post(BASE_URL + "/rollback"))
+                .andDo(print())
+                .andExpect(status().isOk());
+        // @formatter:on
+        verify(catalogLoaderService).rollbackCatalog();
+    }
+
+    private LoaderJob createJob(String jobId, LoaderStage stage) {
+        LoaderJob job = new LoaderJob();
+        job.setJobId(jobId);
+        job.setStage(stage);
+        return job;
     }
 }
@@ -5,31 +5,53 @@
  */
 package com.mesofi.collection.charactercatalog.controllers;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.mesofi.collection.charactercatalog.service.CharacterFinderService;
+import com.mesofi.collection.charactercatalog.service.LoaderJobService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.mesofi.collection.charactercatalog.exception.CharacterFigureNotFoundException;
+import com.mesofi.collection.charactercatalog.model.CatalogCursor;
+import com.mesofi.collection.charactercatalog.model.CatalogPage;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.FieldSelection;
 import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.Issuance;
 import com.mesofi.collection.charactercatalog.model.LineUp;
 import com.mesofi.collection.charactercatalog.model.Series;
+import com.mesofi.collection.charactercatalog.service.CatalogLoaderService;
 import com.mesofi.collection.charactercatalog.service.CharacterFigureService;
 
 /**
- * Test for {@link CharacterFigureController#retrieveCharactersById(String)}
+ * Test for {@link CharacterFigureController#retrieveCharactersById(String, String)}
  * 
  * @author armandorivasarzaluz
  *
@@ -43,7 +65,11 @@ public class CharacterFigureControllerReadTest {
     @MockBean
     private CharacterFigureService characterFigureService;
     @MockBean
+    private CatalogLoaderService catalogLoaderService;
+    @MockBean
     private CharacterFinderService characterFinderService;
+    @MockBean
+    private LoaderJobService loaderJobService;
 
     private final String BASE_URL = "/characters";
 
@@ -195,4 +221,239 @@ public class CharacterFigureControllerReadTest {
                 ;
         // @formatter:on
     }
+
+    @Test
+    public void should_return_a_page_of_characters() throws Exception {
+
+        CharacterFigure actual = new CharacterFigure();
+        actual.setId("651e9f3bb850c2238f2dfac2");
+        actual.setBaseName("Scorpio Milo");
+
+        when(characterFigureService.retrieveCharactersPage(null, 50, null))
+                .thenReturn(new CatalogPage(List.of(actual), "abc"));
+        when(characterFigureService.retrieveCharactersPage("abc", 10, null))
+                .thenReturn(new CatalogPage(List.of(), null));
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL).param("limit", "50"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.figures.length()").value(1))
+                .andExpect(jsonPath("$.figures[0].id").value("651e9f3bb850c2238f2dfac2"))
+                .andExpect(jsonPath("$.nextCursor").value("abc"))
+                ;
+        mockMvc.perform(get(BASE_URL).param("cursor", "abc").param("limit", "10"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.figures").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                ;
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_bad_request_when_the_cursor_is_not_valid() throws Exception {
+
+        when(characterFigureService.retrieveCharactersPage("abc", CharacterFigureController.DEFAULT_PAGE_SIZE, null))
+                .thenThrow(new IllegalArgumentException(CatalogCursor.INVALID_CURSOR));
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL).param("cursor", "abc"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(CatalogCursor.INVALID_CURSOR))
+                ;
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_only_the_requested_fields() throws Exception {
+
+        CharacterFigure actual = new CharacterFigure();
+        final String id = "651e9f3bb850c2238f2dfac2";
+        actual.setId(id);
+        actual.setDisplayableName("Scorpio Milo");
+        actual.setLineUp(LineUp.MYTH_CLOTH_EX);
+        Issuance issuanceJPY = new Issuance();
+        issuanceJPY.setBasePrice(new BigDecimal("12000"));
+        issuanceJPY.setReleaseDate(LocalDate.of(2020, 1, 1));
+        actual.setIssuanceJPY(issuanceJPY);
+
+        FieldSelection fields = FieldSelection.parse("id,displayableName,lineUp,issuanceJPY.releaseDate");
+        when(characterFigureService.retrieveCharactersById(id, fields)).thenReturn(actual);
+        when(characterFigureService.retrieveCharactersPage(null, 10, fields))
+                .thenReturn(new CatalogPage(List.of(actual), "abc"));
+        when(characterFigureService.retrieveAllCharacters()).thenReturn(List.of(actual));
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL + "/" + id).param("fields", "id,displayableName,lineUp,issuanceJPY.releaseDate"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.displayableName").value("Scorpio Milo"))
+                .andExpect(jsonPath("$.lineUp").value("MYTH_CLOTH_EX"))
+                .andExpect(jsonPath("$.issuanceJPY.releaseDate").exists())
+                .andExpect(jsonPath("$.issuanceJPY.basePrice").doesNotExist())
+                .andExpect(jsonPath("$.futureRelease").doesNotExist())
+                .andExpect(jsonPath("$.metalBody").doesNotExist())
+                ;
+        mockMvc.perform(get(BASE_URL).param("limit", "10")
+                        .param("fields", "id, displayableName, lineUp, issuanceJPY.releaseDate"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.figures[0].id").value(id))
+                .andExpect(jsonPath("$.figures[0].issuanceJPY.basePrice").doesNotExist())
+                .andExpect(jsonPath("$.figures[0].metalBody").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("abc"))
+                ;
+        mockMvc.perform(get(BASE_URL).param("fields", "id,lineUp,issuanceJPY.releaseDate"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id))
+                .andExpect(jsonPath("$[0].lineUp").value("MYTH_CLOTH_EX"))
+                .andExpect(jsonPath("$[0].issuanceJPY.releaseDate").exists())
+                .andExpect(jsonPath("$[0].issuanceJPY.basePrice").doesNotExist())
+                .andExpect(jsonPath("$[0].displayableName").doesNotExist())
+                ;
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_bad_request_when_a_field_is_unknown() throws Exception {
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL).param("fields", "id,price"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(FieldSelection.INVALID_FIELD + "price"))
+                ;
+        mockMvc.perform(get(BASE_URL + "/1").param("fields", "lineUp.name"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(FieldSelection.INVALID_FIELD + "lineUp.name"))
+                ;
+        // @formatter:on
+    }
+
+    @Test
+    public void should_export_all_characters_one_per_line() throws Exception {
+
+        CharacterFigure milo = new CharacterFigure();
+        milo.setId("1");
+        milo.setBaseName("Scorpio Milo");
+        CharacterFigure shaka = new CharacterFigure();
+        shaka.setId("2");
+        shaka.setBaseName("Virgo Shaka");
+
+        FieldSelection fields = FieldSelection.parse("id,baseName");
+        doAnswer($ -> {
+            Consumer<CharacterFigure> sink = $.getArgument(1);
+            sink.accept(milo);
+            sink.accept(shaka);
+            return 2L;
+        }).when(characterFigureService).exportAllCharacters(eq(fields), any());
+
+        // @formatter:off
+        MvcResult result = mockMvc.perform(get(BASE_URL).param("fields", "id,baseName")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":\"1\",\"baseName\":\"Scorpio Milo\"}\n"
+                        + "{\"id\":\"2\",\"baseName\":\"Virgo Shaka\"}\n"))
+                ;
+        // @formatter:on
+    }
+
+    @Test
+    public void should_return_not_modified_while_the_catalog_does_not_change() throws Exception {
+
+        when(characterFigureService.getCatalogVersion()).thenReturn("abc.1");
+        when(characterFigureService.retrieveAllCharacters()).thenReturn(List.of(new CharacterFigure()));
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.1\""))
+                ;
+        mockMvc.perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "\"abc.0\", W/\"abc.1\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.1\""))
+                .andExpect(content().string(""))
+                ;
+        mockMvc.perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "\"abc.1-ndjson\"")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.1-ndjson\""))
+                ;
+        mockMvc.perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.1\""))
+                ;
+        // @formatter:on
+        // the characters are read once.
+        verify(characterFigureService).retrieveAllCharacters();
+        verify(characterFigureService, never()).exportAllCharacters(any(), any());
+    }
+
+    @Test
+    public void should_return_not_modified_while_the_character_does_not_change() throws Exception {
+
+        final String id = "651e9f3bb850c2238f2dfac2";
+        CharacterFigure actual = new CharacterFigure();
+        actual.setId(id);
+        actual.setVersion("h1");
+        when(characterFigureService.getCatalogVersion()).thenReturn("abc.2");
+        when(characterFigureService.retrieveCharactersById(id)).thenReturn(actual);
+        when(characterFigureService.findDocumentVersion(id)).thenReturn("h1");
+
+        // @formatter:off
+        mockMvc.perform(get(BASE_URL + "/" + id))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.2-h1\""))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                ;
+        // the catalog has not changed, the character is not even looked up.
+        mockMvc.perform(get(BASE_URL + "/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"abc.2-h1\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.2-h1\""))
+                ;
+        verify(characterFigureService, never()).findDocumentVersion(id);
+
+        // the catalog has changed, but the character has not.
+        mockMvc.perform(get(BASE_URL + "/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"abc.1-h1\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.2-h1\""))
+                ;
+        mockMvc.perform(get(BASE_URL + "/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"abc.0-h0\", W/\"abc.1-h1\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.2-h1\""))
+                ;
+        // the client has any version of the character.
+        mockMvc.perform(get(BASE_URL + "/" + id).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.2-h1\""))
+                ;
+        // the character has changed.
+        mockMvc.perform(get(BASE_URL + "/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"abc.1-h0\""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.2-h1\""))
+                .andExpect(jsonPath("$.id").value(id))
+                ;
+        // @formatter:on
+        verify(characterFigureService, times(2)).retrieveCharactersById(id);
+    }
 }
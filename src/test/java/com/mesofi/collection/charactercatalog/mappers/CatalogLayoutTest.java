@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mesofi.collection.charactercatalog.exception.InvalidRecordException;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+
+/**
+ * Test for {@link CatalogLayout}
+ */
+public class CatalogLayoutTest {
+
+    @Test
+    public void should_keep_the_order_of_the_spreadsheet_by_default() {
+        for (CatalogColumn column : CatalogColumn.values()) {
+            assertEquals(column.ordinal(), CatalogLayout.DEFAULT.position(column));
+        }
+        assertEquals(CatalogColumn.SET.ordinal() + 1, CatalogLayout.DEFAULT.getMinColumns());
+    }
+
+    @Test
+    public void should_find_the_columns_by_their_header() {
+        List<String> headers = new ArrayList<>(Arrays.stream(CatalogColumn.values()).map(CatalogColumn::getHeader)
+                .filter($ -> !$.equals("Remarks")).toList());
+        Collections.reverse(headers);
+        headers.add(0, "Unknown");
+        headers.set(1, " OTHER IMAGES ");
+
+        CatalogLayout layout = CatalogLayout.compile(String.join("\t", headers));
+        assertEquals(1, layout.position(CatalogColumn.OTHER_IMAGES));
+        assertEquals(headers.size() - 1, layout.position(CatalogColumn.ORIGINAL_NAME));
+        assertTrue(layout.position(CatalogColumn.REMARKS) < 0);
+        assertEquals(headers.size(), layout.getMinColumns());
+    }
+
+    @Test
+    public void should_fail_when_required_columns_are_missing() {
+        InvalidRecordException exception = assertThrows(InvalidRecordException.class,
+                () -> CatalogLayout.compile("Myth Cloth Original Name\tBase Name\tRemarks"));
+        assertEquals(1, exception.getLine());
+        assertTrue(exception.getReason().startsWith("Missing required columns: Price (JPY), Announcement (JPY)"));
+
+        assertThrows(InvalidRecordException.class, () -> CatalogLayout.compile(null));
+    }
+
+    @Test
+    public void should_fail_when_a_column_is_repeated() {
+        String header = String.join("\t",
+                Arrays.stream(CatalogColumn.values()).map(CatalogColumn::getHeader).toList()) + "\tGroup";
+        InvalidRecordException exception = assertThrows(InvalidRecordException.class,
+                () -> CatalogLayout.compile(header));
+        assertEquals(CatalogColumn.values().length + 1, exception.getColumn());
+        assertEquals("The column is repeated", exception.getReason());
+    }
+
+    @Test
+    public void should_map_a_line_with_the_optional_columns_missing() {
+        List<String> headers = Arrays.stream(CatalogColumn.values()).filter(CatalogColumn::isRequired)
+                .map(CatalogColumn::getHeader).toList();
+        CatalogLayout layout = CatalogLayout.compile(String.join("\t", headers));
+
+        String line = "Aries Mu\tAries Mu\t¥6,000\t\t\t\t\t\t\t\tStores\tMyth Cloth EX\tSaint Seiya\tGold Saint\tFALSE\tFALSE\tTRUE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE";
+        CharacterFigure figure = new CharacterFigureFileMapper().fromLineToCharacterFigure(line, layout);
+        assertEquals("Aries Mu", figure.getBaseName());
+        assertEquals(LineUp.MYTH_CLOTH_EX, figure.getLineUp());
+        assertTrue(figure.isRevival());
+        assertNull(figure.getAnniversary());
+        assertNull(figure.getTags());
+        assertEquals(1, figure.getImages().size());
+    }
+}
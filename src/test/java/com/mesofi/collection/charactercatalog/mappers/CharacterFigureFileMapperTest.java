@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
@@ -21,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.mesofi.collection.charactercatalog.exception.InvalidRecordException;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
 import com.mesofi.collection.charactercatalog.model.Distribution;
 import com.mesofi.collection.charactercatalog.model.Group;
@@ -53,6 +55,45 @@ public class CharacterFigureFileMapperTest {
         assertNull(figure);
     }
 
+    /**
+     * {@link CharacterFigureFileMapper#fromLineToCharacterFigure(String)}
+     */
+    @Test
+    public void should_fail_when_columns_are_missing() {
+        InvalidRecordException exception = assertThrows(InvalidRecordException.class,
+                () -> characterFigureFileMapper.fromLineToCharacterFigure("Seiya\tSeiya\t¥0"));
+        assertEquals(4, exception.getColumn());
+        assertEquals("Invalid record at column 4: Expected at least 27 columns but found 3", exception.getMessage());
+    }
+
+    /**
+     * {@link CharacterFigureFileMapper#fromLineToCharacterFigure(String)}
+     */
+    @Test
+    public void should_point_to_the_invalid_column() {
+        String line = "Dragon Shiryu\tDragon Shiryu\t¥6,000\t¥6,600\t\t\t8/24/2013\t\t\t\t\tStores\tMyth Cloth EX\tSaint Seiya\tBronze Saint V2\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE\tFALSE";
+        assertNotNull(characterFigureFileMapper.fromLineToCharacterFigure(line));
+
+        String date = line.replace("8/24/2013", "13/45/2013");
+        InvalidRecordException exception = assertThrows(InvalidRecordException.class,
+                () -> characterFigureFileMapper.fromLineToCharacterFigure(date));
+        assertEquals(7, exception.getColumn());
+        assertEquals("13/45/2013", exception.getValue());
+
+        String lineUp = line.replace("Myth Cloth EX", "Myth Cloth XX");
+        exception = assertThrows(InvalidRecordException.class,
+                () -> characterFigureFileMapper.fromLineToCharacterFigure(lineUp));
+        assertEquals(13, exception.getColumn());
+        assertEquals("Myth Cloth XX", exception.getValue());
+        assertEquals("Unknown LineUp: 'Myth Cloth XX'", exception.getReason());
+
+        String price = line.replace("¥6,000", "¥6,0a0");
+        exception = assertThrows(InvalidRecordException.class,
+                () -> characterFigureFileMapper.fromLineToCharacterFigure(price));
+        assertEquals(3, exception.getColumn());
+        assertEquals("¥6,0a0", exception.getValue());
+    }
+
     /**
      * {@link CharacterFigureFileMapper#fromLineToCharacterFigure(String)}
      */
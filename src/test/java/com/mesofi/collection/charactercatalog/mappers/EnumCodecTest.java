@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mesofi.collection.charactercatalog.model.Distribution;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.Series;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test for {@link EnumCodec}
+ */
+public class EnumCodecTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void beforeEach() {
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void should_decode_all_the_friendly_names() {
+        for (EnumCodec<?> codec : List.of(EnumCodec.DISTRIBUTION, EnumCodec.LINE_UP, EnumCodec.SERIES,
+                EnumCodec.GROUP)) {
+            for (Enum<?> constant : codec.getType().getEnumConstants()) {
+                assertEquals(constant, codec.decode(constant.toString()));
+                assertEquals(constant, codec.decode("\t" + constant + "\t", 1, constant.toString().length() + 1));
+                assertEquals(constant, codec.decode(new StringBuilder(constant.toString()), 0,
+                        constant.toString().length()));
+            }
+        }
+    }
+
+    @Test
+    public void should_decode_aliases() {
+        EnumCodec<Group> codec = new EnumCodec<>(Group.class, Map.of("Gold", Group.GOLD));
+        assertEquals(Group.GOLD, codec.decode("Gold"));
+        assertEquals(Group.GOLD, codec.decode("Gold Saint"));
+    }
+
+    @Test
+    public void should_decode_the_misspelled_series_without_a_value() {
+        // the figures keep the identity they have always had.
+        assertNull(EnumCodec.SERIES.decode("Legend Of Santuary"));
+        assertNull(EnumCodec.SERIES.decode("\tLegend Of Santuary\t", 1, 19));
+        assertEquals(Series.LEGEND, EnumCodec.SERIES.decode("Legend Of Sanctuary"));
+        assertEquals(0, registry.counter(EnumCodec.REJECTED_METRIC, "type", "Series").count());
+    }
+
+    @Test
+    public void should_reject_and_count_unknown_names() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> EnumCodec.LINE_UP.decode("Myth Cloth Ex"));
+        assertEquals("Unknown LineUp: 'Myth Cloth Ex'", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> EnumCodec.LINE_UP.decode("x\tMyth\t", 2, 6));
+        assertThrows(IllegalArgumentException.class, () -> EnumCodec.LINE_UP.decode(""));
+
+        assertEquals(3, registry.counter(EnumCodec.REJECTED_METRIC, "type", "LineUp").count());
+    }
+
+    @Test
+    public void should_parse_constant_and_friendly_names() {
+        assertEquals(LineUp.MYTH_CLOTH_EX, EnumCodec.LINE_UP.parse("MYTH_CLOTH_EX"));
+        assertEquals(LineUp.MYTH_CLOTH_EX, EnumCodec.LINE_UP.parse("myth_cloth_ex"));
+        assertEquals(LineUp.MYTH_CLOTH_EX, EnumCodec.LINE_UP.parse("Myth Cloth EX"));
+        assertEquals(Distribution.OTHER, EnumCodec.DISTRIBUTION.parse("Other Limited Edition"));
+        assertThrows(IllegalArgumentException.class, () -> EnumCodec.GROUP.parse("GOLDEN"));
+    }
+}
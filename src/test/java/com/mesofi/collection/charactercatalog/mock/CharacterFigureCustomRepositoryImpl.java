@@ -1,8 +1,10 @@
 package com.mesofi.collection.charactercatalog.mock;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
@@ -12,6 +14,8 @@ import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Repository;
 
 import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
+import com.mesofi.collection.charactercatalog.model.CatalogCursor;
+import com.mesofi.collection.charactercatalog.model.LoadCheckpoint;
 import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
 
 @Repository
@@ -131,4 +135,105 @@ public class CharacterFigureCustomRepositoryImpl implements CharacterFigureRepos
     public Page<CharacterFigureEntity> findAll(Pageable pageable) {
         return null;
     }
+
+    @Override
+    public Stream<CharacterFigureEntity> streamByDerivedVersionNot(Integer derivedVersion) {
+        return Stream.empty();
+    }
+
+    @Override
+    public boolean existsByDerivedVersionNot(Integer derivedVersion) {
+        return false;
+    }
+
+    @Override
+    public void prepareStaging() {
+
+    }
+
+    @Override
+    public int saveAllInStaging(List<CharacterFigureEntity> entities) {
+        return 0;
+    }
+
+    @Override
+    public void publishStaging() {
+
+    }
+
+    @Override
+    public void dropStaging() {
+
+    }
+
+    @Override
+    public boolean restorePrevious() {
+        return false;
+    }
+
+    @Override
+    public List<CharacterFigureEntity> findCatalogPage(CatalogCursor after, int limit, Collection<String> fields) {
+        return null;
+    }
+
+    @Override
+    public Stream<CharacterFigureEntity> streamCatalog(Collection<String> fields) {
+        return Stream.empty();
+    }
+
+    @Override
+    public Optional<CharacterFigureEntity> findProjectionById(String id, Collection<String> fields) {
+        return Optional.empty();
+    }
+
+    @Override
+    public List<CharacterFigureEntity> findAllContentHashes() {
+        return null;
+    }
+
+    @Override
+    public String computeContentHash(CharacterFigureEntity entity) {
+        return null;
+    }
+
+    @Override
+    public void applyChanges(List<CharacterFigureEntity> inserts, List<CharacterFigureEntity> replacements,
+            List<CharacterFigureEntity> updates, Collection<String> deletedIds) {
+
+    }
+
+    @Override
+    public String findCatalogDigest() {
+        return null;
+    }
+
+    @Override
+    public void saveCatalogDigest(String digest) {
+
+    }
+
+    @Override
+    public boolean resumeStaging(int position) {
+        return false;
+    }
+
+    @Override
+    public LoadCheckpoint findLoadCheckpoint() {
+        return null;
+    }
+
+    @Override
+    public void saveLoadCheckpoint(LoadCheckpoint checkpoint) {
+
+    }
+
+    @Override
+    public String findCatalogVersion() {
+        return null;
+    }
+
+    @Override
+    public String incrementCatalogVersion() {
+        return null;
+    }
 }
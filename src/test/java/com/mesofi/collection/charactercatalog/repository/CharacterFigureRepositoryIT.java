@@ -7,12 +7,19 @@ package com.mesofi.collection.charactercatalog.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,10 +28,15 @@ import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
+import com.mesofi.collection.charactercatalog.model.CatalogCursor;
 import com.mesofi.collection.charactercatalog.model.Group;
 import com.mesofi.collection.charactercatalog.model.Issuance;
+import com.mesofi.collection.charactercatalog.model.LoadCheckpoint;
 import com.mesofi.collection.charactercatalog.model.Series;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -34,7 +46,7 @@ import lombok.extern.slf4j.Slf4j;
  *
  */
 @Slf4j
-@DataMongoTest
+@DataMongoTest(properties = { "catalog.loader.write.batch-size=7", "catalog.loader.write.max-in-flight=3" })
 @ActiveProfiles("itest")
 public class CharacterFigureRepositoryIT {
 
@@ -93,4 +105,189 @@ public class CharacterFigureRepositoryIT {
         characterFigureRepository.deleteById(saved.getId());
         assertFalse(characterFigureRepository.findById(saved.getId()).isPresent());
     }
+
+    @Test
+    public void should_apply_changes_in_bulk() {
+        CharacterFigureEntity seiya = createEntity("Seiya");
+        CharacterFigureEntity shiryu = createEntity("Shiryu");
+        characterFigureRepository.saveAll(List.of(seiya, shiryu));
+
+        // the hash does not depend on the identifier, the order of the tags, the
+        // position nor the derived fields.
+        CharacterFigureEntity copy = createEntity("Seiya");
+        copy.setTags(new LinkedHashSet<>(List.of("b", "a")));
+        copy.setPosition(5);
+        copy.setDisplayableName("Seiya");
+        copy.setDerivedVersion(1);
+        copy.getIssuanceJPY().setReleasePrice(new BigDecimal("13.200"));
+        seiya.setTags(new LinkedHashSet<>(List.of("a", "b")));
+        assertEquals(characterFigureRepository.computeContentHash(seiya),
+                characterFigureRepository.computeContentHash(copy));
+
+        shiryu.setSeries(Series.LOST_CANVAS);
+        characterFigureRepository.applyChanges(List.of(createEntity("Hyoga")), List.of(shiryu), List.of(),
+                List.of(seiya.getId()));
+
+        List<CharacterFigureEntity> all = characterFigureRepository.findAllContentHashes();
+        assertEquals(2, all.size());
+        assertFalse(characterFigureRepository.findById(seiya.getId()).isPresent());
+        assertEquals(Series.LOST_CANVAS, characterFigureRepository.findById(shiryu.getId()).orElseThrow().getSeries());
+        assertTrue(all.stream().allMatch($ -> Objects.isNull($.getIssuanceJPY())));
+    }
+
+    @Test
+    public void should_write_the_staging_in_concurrent_batches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            characterFigureRepository.save(createEntity("Current"));
+            characterFigureRepository.prepareStaging();
+            List<CharacterFigureEntity> entities = IntStream.range(0, 50).mapToObj($ -> createEntity("Figure " + $))
+                    .toList();
+            assertEquals(50, characterFigureRepository.saveAllInStaging(entities));
+            // nothing is visible until the staging collection is published.
+            assertEquals(1, characterFigureRepository.count());
+
+            characterFigureRepository.publishStaging();
+            List<CharacterFigureEntity> all = characterFigureRepository.findAll();
+            assertEquals(50, all.size());
+            assertTrue(all.stream().allMatch($ -> Objects.nonNull($.getContentHash())));
+
+            // 50 figures in batches of 7, every batch reports its latency.
+            Timer timer = registry.find(CharacterFigureCatalogRepositoryImpl.BATCH_LATENCY_METRIC).timer();
+            assertNotNull(timer);
+            assertEquals(8, timer.count());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    @Test
+    public void should_keep_the_published_catalog_as_the_previous_one() {
+        characterFigureRepository.save(createEntity("First"));
+        characterFigureRepository.prepareStaging();
+        characterFigureRepository.saveAllInStaging(List.of(createEntity("Second"), createEntity("Third")));
+        characterFigureRepository.publishStaging();
+        assertEquals(2, characterFigureRepository.count());
+
+        // the catalog replaced by the latest load is the one restored.
+        characterFigureRepository.prepareStaging();
+        characterFigureRepository.saveAllInStaging(List.of(createEntity("Fourth")));
+        characterFigureRepository.publishStaging();
+        assertEquals(1, characterFigureRepository.count());
+        assertTrue(characterFigureRepository.restorePrevious());
+        assertEquals(2, characterFigureRepository.count());
+        assertFalse(characterFigureRepository.restorePrevious());
+    }
+
+    @Test
+    public void should_save_and_clear_the_catalog_digest() {
+        characterFigureRepository.saveCatalogDigest(null);
+        assertNull(characterFigureRepository.findCatalogDigest());
+
+        characterFigureRepository.saveCatalogDigest("abc");
+        characterFigureRepository.saveCatalogDigest("def");
+        assertEquals("def", characterFigureRepository.findCatalogDigest());
+
+        characterFigureRepository.saveCatalogDigest(null);
+        assertNull(characterFigureRepository.findCatalogDigest());
+    }
+
+    @Test
+    public void should_move_the_catalog_version_forward() {
+        String first = characterFigureRepository.incrementCatalogVersion();
+        assertEquals(first, characterFigureRepository.findCatalogVersion());
+
+        // the version survives the digest being cleared.
+        characterFigureRepository.saveCatalogDigest(null);
+        String second = characterFigureRepository.incrementCatalogVersion();
+        assertNotEquals(first, second);
+        assertEquals(second, characterFigureRepository.findCatalogVersion());
+    }
+
+    @Test
+    public void should_resume_the_staging_from_a_checkpoint() {
+        assertNull(characterFigureRepository.findLoadCheckpoint());
+
+        characterFigureRepository.prepareStaging();
+        List<CharacterFigureEntity> entities = IntStream.range(1, 11).mapToObj($ -> {
+            CharacterFigureEntity entity = createEntity("Figure " + $);
+            entity.setPosition($);
+            return entity;
+        }).toList();
+        characterFigureRepository.saveAllInStaging(entities);
+        characterFigureRepository.saveLoadCheckpoint(new LoadCheckpoint("abc", 6));
+        assertEquals(new LoadCheckpoint("abc", 6), characterFigureRepository.findLoadCheckpoint());
+
+        // the figures written after the checkpoint are removed.
+        assertTrue(characterFigureRepository.resumeStaging(6));
+        characterFigureRepository.publishStaging();
+        assertEquals(6, characterFigureRepository.count());
+
+        characterFigureRepository.saveLoadCheckpoint(null);
+        assertNull(characterFigureRepository.findLoadCheckpoint());
+    }
+
+    @Test
+    public void should_read_the_catalog_page_by_page() {
+        List<CharacterFigureEntity> entities = IntStream.range(0, 20).mapToObj($ -> {
+            CharacterFigureEntity entity = createEntity("Figure " + $);
+            entity.setFutureRelease($ % 5 == 0);
+            // some figures share the release date, some of them have no date or no position.
+            entity.getIssuanceJPY().setReleaseDate($ % 4 == 0 ? null : LocalDate.of(2020, 1 + $ % 3, 1));
+            entity.setPosition($ % 6 == 0 ? null : $ % 7);
+            return entity;
+        }).toList();
+        characterFigureRepository.saveAll(entities);
+        List<String> expected = characterFigureRepository.findAll(CharacterFigureCatalogRepository.CATALOG_ORDER)
+                .stream().map(CharacterFigureEntity::getId).toList();
+
+        List<String> actual = new ArrayList<>();
+        CatalogCursor after = null;
+        List<CharacterFigureEntity> page;
+        do {
+            page = characterFigureRepository.findCatalogPage(after, 3, null);
+            page.forEach($ -> actual.add($.getId()));
+            if (!page.isEmpty()) {
+                CharacterFigureEntity last = page.get(page.size() - 1);
+                after = new CatalogCursor(last.isFutureRelease(), last.getIssuanceJPY().getReleaseDate(),
+                        last.getPosition(), last.getId());
+            }
+        } while (page.size() == 3);
+
+        // every figure is read once, in the same order as the whole catalog.
+        assertEquals(expected, actual);
+        try (Stream<CharacterFigureEntity> stream = characterFigureRepository.streamCatalog(List.of("baseName"))) {
+            assertEquals(expected, stream.map(CharacterFigureEntity::getId).toList());
+        }
+    }
+
+    @Test
+    public void should_read_only_the_requested_fields() {
+        CharacterFigureEntity entity = createEntity("Virgo Shaka");
+        entity.getIssuanceJPY().setReleaseDate(LocalDate.of(2020, 1, 1));
+        entity.setRemarks("Remarks");
+        characterFigureRepository.save(entity);
+
+        // the release date is already part of the issuance.
+        CharacterFigureEntity actual = characterFigureRepository
+                .findProjectionById(entity.getId(), List.of("baseName", "issuanceJPY", "issuanceJPY.releaseDate"))
+                .orElseThrow();
+        assertEquals("Virgo Shaka", actual.getBaseName());
+        assertEquals(LocalDate.of(2020, 1, 1), actual.getIssuanceJPY().getReleaseDate());
+        assertNotNull(actual.getIssuanceJPY().getBasePrice());
+        assertNull(actual.getRemarks());
+        assertNull(actual.getGroup());
+    }
+
+    private CharacterFigureEntity createEntity(String baseName) {
+        CharacterFigureEntity entity = new CharacterFigureEntity();
+        entity.setBaseName(baseName);
+        Issuance issuance = new Issuance();
+        issuance.setBasePrice(new BigDecimal("12.000"));
+        entity.setIssuanceJPY(issuance);
+        entity.setGroup(Group.V1);
+        entity.setSeries(Series.SAINT_SEIYA);
+        return entity;
+    }
 }
@@ -0,0 +1,834 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import static com.mesofi.collection.charactercatalog.utils.FileUtils.getPathFromClassPath;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.mesofi.collection.charactercatalog.config.TagRuleProperties;
+import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
+import com.mesofi.collection.charactercatalog.exception.CatalogNotModifiedException;
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureNotFoundException;
+import com.mesofi.collection.charactercatalog.mappers.CatalogColumn;
+import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
+import com.mesofi.collection.charactercatalog.mappers.CharacterFigureModelMapper;
+import com.mesofi.collection.charactercatalog.mappers.CharacterFigureModelMapperImpl;
+import com.mesofi.collection.charactercatalog.model.CatalogDelta;
+import com.mesofi.collection.charactercatalog.model.CatalogValidation;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.CharacterFigureKey;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.Issuance;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.LoadCheckpoint;
+import com.mesofi.collection.charactercatalog.model.RecordError;
+import com.mesofi.collection.charactercatalog.model.Series;
+import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
+
+/**
+ * Test for {@link CatalogLoaderService}
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CatalogLoaderServiceTest {
+
+    private static final String HEADER = Arrays.stream(CatalogColumn.values()).map(CatalogColumn::getHeader)
+            .collect(Collectors.joining("\t"));
+
+    @Mock
+    private CharacterFigureRepository repository;
+    @Mock
+    private CharacterFigureModelMapper modelMapper;
+    @Mock
+    private CharacterFigureFileMapper fileMapper;
+
+    private CharacterFigureService characterFigureService;
+    private CatalogLoaderService service;
+
+    @BeforeEach
+    public void init() {
+        characterFigureService = new CharacterFigureService(repository, modelMapper, fileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, modelMapper,
+                new CatalogParser(fileMapper, 1), new TagRuleEngine(new TagRuleProperties()));
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadAllCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_fail_when_input_file_is_missing() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.loadAllCharacters(null));
+        assertEquals("The uploaded file is missing...", exception.getMessage());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadAllCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_load_all_records() throws IOException {
+
+        CharacterFigure cf = new CharacterFigure();
+        cf.setBaseName("MyName");
+        when(fileMapper.fromLineToCharacterFigure(anyString(), any())).thenReturn(cf);
+        when(modelMapper.toEntity(any(CharacterFigure.class))).thenReturn(new CharacterFigureEntity());
+        when(repository.saveAllInStaging(anyList())).thenReturn(0);
+
+        final String folder = "characters/";
+        final String name = "MythCloth Catalog - CatalogMyth-min.tsv";
+        final byte[] bytes = Files.readAllBytes(getPathFromClassPath(folder + name));
+        MultipartFile result = new MockMultipartFile(name, name, MediaType.TEXT_PLAIN_VALUE, bytes);
+
+        assertEquals(0, service.loadAllCharacters(result));
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).prepareStaging();
+        inOrder.verify(repository).saveAllInStaging(anyList());
+        inOrder.verify(repository).publishStaging();
+        inOrder.verify(repository).saveCatalogDigest(anyString());
+        verify(repository, never()).deleteAll();
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadAllCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_not_load_the_same_catalog_twice() {
+        CharacterFigure cf = new CharacterFigure();
+        cf.setBaseName("MyName");
+        when(fileMapper.fromLineToCharacterFigure(anyString(), any())).thenReturn(cf);
+        when(modelMapper.toEntity(any(CharacterFigure.class))).thenReturn(new CharacterFigureEntity());
+
+        MultipartFile result = new MockMultipartFile("catalog.tsv", (HEADER + "\nline\n").getBytes(StandardCharsets.UTF_8));
+        service.loadAllCharacters(result);
+
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        verify(repository).saveCatalogDigest(digest.capture());
+        when(repository.findCatalogDigest()).thenReturn(digest.getValue());
+
+        CatalogNotModifiedException exception = assertThrows(CatalogNotModifiedException.class,
+                () -> service.loadAllCharacters(result));
+        assertEquals("The catalog has not been modified", exception.getMessage());
+        assertEquals(digest.getValue(), exception.getDigest());
+        assertThrows(CatalogNotModifiedException.class, () -> service.loadCharactersDelta(result));
+        assertThrows(CatalogNotModifiedException.class,
+                () -> service.loadAllCharacters(result, digest.getValue(), LoaderProgress.NONE));
+        verify(repository).prepareStaging();
+        verify(repository).publishStaging();
+        verify(repository, never()).applyChanges(anyList(), anyList(), anyList(), anyCollection());
+
+        // a different file is loaded.
+        MultipartFile other = new MockMultipartFile("catalog.tsv", (HEADER + "\nline 2\n").getBytes(StandardCharsets.UTF_8));
+        service.loadAllCharacters(other);
+        verify(repository, times(2)).publishStaging();
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadAllCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_load_compressed_catalog_like_the_original_one() throws IOException {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+        when(repository.saveAllInStaging(anyList())).thenAnswer($ -> $.<List<?>>getArgument(0).size());
+
+        final String name = "characters/MythCloth Catalog - CatalogMyth.tsv";
+        MultipartFile plain = new MockMultipartFile("file", "catalog.tsv", MediaType.TEXT_PLAIN_VALUE,
+                Files.readAllBytes(getPathFromClassPath(name)));
+        MultipartFile compressed = new MockMultipartFile("file", "catalog.tsv.gz", "application/gzip",
+                Files.readAllBytes(getPathFromClassPath(name + ".gz")));
+
+        long total = service.loadAllCharacters(plain);
+        assertTrue(total > 0);
+        assertEquals(total, service.loadAllCharacters(compressed));
+
+        // both files have the same content, so they have the same digest.
+        ArgumentCaptor<String> digests = ArgumentCaptor.forClass(String.class);
+        verify(repository, times(2)).saveCatalogDigest(digests.capture());
+        assertEquals(digests.getAllValues().get(0), digests.getAllValues().get(1));
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#createCatalogDigest()}
+     */
+    @Test
+    public void should_change_the_digest_when_the_tag_rules_change() {
+        TagRuleProperties properties = new TagRuleProperties();
+        properties.setRules(List.of(new TagRuleProperties.Rule("manga", "manga")));
+        CatalogLoaderService other = new CatalogLoaderService(repository, characterFigureService, modelMapper,
+                new CatalogParser(fileMapper, 1), new TagRuleEngine(properties));
+
+        String digest = CatalogLoaderService.toHex(service.createCatalogDigest());
+        assertEquals(digest, CatalogLoaderService.toHex(service.createCatalogDigest()));
+        assertNotEquals(digest, CatalogLoaderService.toHex(other.createCatalogDigest()));
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadAllCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_keep_current_catalog_when_load_fails() {
+        CharacterFigure cf = new CharacterFigure();
+        cf.setBaseName("MyName");
+        when(fileMapper.fromLineToCharacterFigure(anyString(), any())).thenReturn(cf);
+        when(modelMapper.toEntity(any(CharacterFigure.class))).thenReturn(new CharacterFigureEntity());
+        when(repository.saveAllInStaging(anyList())).thenThrow(new IllegalStateException("Connection lost"));
+
+        MultipartFile result = new MockMultipartFile("catalog.tsv", (HEADER + "\nline\n").getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalStateException.class, () -> service.loadAllCharacters(result));
+        verify(repository).prepareStaging();
+        verify(repository, never()).publishStaging();
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#validateCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_fail_validation_when_input_file_is_missing() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.validateCharacters(null));
+        assertEquals("The uploaded file is missing...", exception.getMessage());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#validateCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_validate_all_the_records_without_loading_them() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+
+        // @formatter:off
+        String catalog = String.join("\n", HEADER,
+                createLine("Figure A", "¥1000"),
+                createLine("Figure B", "¥1a00"),
+                createLine("Figure A", "¥2000"),
+                "Figure C\tFigure C",
+                "",
+                createLine("Figure D", "¥1000"));
+        // @formatter:on
+        MultipartFile result = new MockMultipartFile("catalog.tsv", catalog.getBytes(StandardCharsets.UTF_8));
+
+        CatalogValidation validation = service.validateCharacters(result);
+        assertFalse(validation.isValid());
+        assertEquals(5, validation.getRows());
+        assertEquals(2, validation.getEffectiveFigures());
+        assertEquals(1, validation.getRestocks());
+        assertEquals(2, validation.getTotalErrors());
+        assertFalse(validation.isTruncated());
+        RecordError error = validation.getErrors().get(0);
+        assertEquals(3, error.getLine());
+        assertEquals(3, error.getColumn());
+        assertEquals("¥1a00", error.getValue());
+        assertNotNull(error.getReason());
+        assertEquals(5, validation.getErrors().get(1).getLine());
+        assertEquals(3, validation.getErrors().get(1).getColumn());
+        verifyNoInteractions(repository);
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#validateCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_limit_the_reported_errors() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+
+        StringBuilder sb = new StringBuilder(HEADER + "\n");
+        for (int i = 0; i < CatalogLoaderService.MAX_REPORTED_ERRORS + 5; i++) {
+            sb.append("invalid\n");
+        }
+        MultipartFile result = new MockMultipartFile("catalog.tsv", sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        CatalogValidation validation = service.validateCharacters(result);
+        assertEquals(CatalogLoaderService.MAX_REPORTED_ERRORS + 5, validation.getTotalErrors());
+        assertEquals(CatalogLoaderService.MAX_REPORTED_ERRORS, validation.getErrors().size());
+        assertTrue(validation.isTruncated());
+        assertEquals(0, validation.getEffectiveFigures());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadCharactersDelta(MultipartFile)}
+     */
+    @Test
+    public void should_fail_delta_when_input_file_is_missing() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.loadCharactersDelta(null));
+        assertEquals("The uploaded file is missing...", exception.getMessage());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadCharactersDelta(MultipartFile)}
+     */
+    @Test
+    public void should_load_only_the_changes() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+
+        StringBuilder sb = new StringBuilder(HEADER + "\n");
+        for (String name : List.of("Figure A", "Figure B", "Figure C", "Figure D")) {
+            sb.append(createLine(name, "¥1000")).append("\n");
+        }
+        MultipartFile result = new MockMultipartFile("catalog.tsv", sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        CharacterFigureEntity figureA = createFigureEntity("1", "Figure A", "Figure A", Group.GOLD, false);
+        figureA.setContentHash("Figure A");
+        figureA.setPosition(2); // a row was removed before it.
+        figureA.setDerivedVersion(CharacterFigureService.DERIVED_FIELDS_VERSION);
+        CharacterFigureEntity figureB = createFigureEntity("2", "Figure B", "Figure B", Group.GOLD, false);
+        figureB.setContentHash("old");
+        CharacterFigureEntity figureE = createFigureEntity("3", "Figure E", "Figure E", Group.GOLD, false);
+        CharacterFigureEntity duplicatedA = createFigureEntity("4", "Figure A", "Figure A", Group.GOLD, false);
+        when(repository.findAllContentHashes()).thenReturn(List.of(figureA, figureB, figureE, duplicatedA));
+        when(repository.computeContentHash(any(CharacterFigureEntity.class)))
+                .thenAnswer($ -> $.<CharacterFigureEntity>getArgument(0).getBaseName());
+
+        List<CharacterFigureEntity> inserts = new ArrayList<>();
+        List<CharacterFigureEntity> replacements = new ArrayList<>();
+        List<CharacterFigureEntity> updates = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        doAnswer($ -> {
+            inserts.addAll($.getArgument(0));
+            replacements.addAll($.getArgument(1));
+            updates.addAll($.getArgument(2));
+            deletedIds.addAll($.getArgument(3));
+            return null;
+        }).when(repository).applyChanges(anyList(), anyList(), anyList(), anyCollection());
+
+        // the figure A is reported as updated, its position changed.
+        assertEquals(new CatalogDelta(2, 2, 2, 0), service.loadCharactersDelta(result));
+        assertEquals(List.of("Figure C", "Figure D"), inserts.stream().map(CharacterFigureEntity::getBaseName).toList());
+        assertEquals(1, replacements.size());
+        assertEquals("2", replacements.get(0).getId());
+        assertEquals("Figure B", replacements.get(0).getContentHash());
+        // the content of the figure A is the same, only its position is set.
+        assertEquals(1, updates.size());
+        assertEquals("1", updates.get(0).getId());
+        assertEquals(1, updates.get(0).getPosition());
+        assertEquals(Set.of("3", "4"), Set.copyOf(deletedIds));
+        verify(repository, never()).prepareStaging();
+        verify(repository, never()).deleteAll();
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#discardPendingLoad()}
+     */
+    @Test
+    public void should_discard_the_pending_load() {
+        service.discardPendingLoad();
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).saveLoadCheckpoint(null);
+        inOrder.verify(repository).dropStaging();
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#rollbackCatalog()}
+     */
+    @Test
+    public void should_fail_rollback_when_previous_catalog_is_missing() {
+        when(repository.restorePrevious()).thenReturn(false);
+
+        CharacterFigureNotFoundException exception = assertThrows(CharacterFigureNotFoundException.class,
+                () -> service.rollbackCatalog());
+        assertEquals("No previous catalog found to be restored", exception.getMessage());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#rollbackCatalog()}
+     */
+    @Test
+    public void should_rollback_catalog() {
+        when(repository.restorePrevious()).thenReturn(true);
+        when(repository.findCatalogVersion()).thenReturn(null, "e.1");
+
+        String version = characterFigureService.getCatalogVersion();
+        assertEquals(CharacterFigureService.INITIAL_CATALOG_VERSION, version);
+        service.rollbackCatalog();
+        verify(repository).restorePrevious();
+        verify(repository).saveCatalogDigest(null);
+        // every write moves the version shared by every instance.
+        verify(repository).incrementCatalogVersion();
+        assertEquals("e.1", characterFigureService.getCatalogVersion());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadAllCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_load_all_records_in_batches() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+
+        final int total = CatalogLoaderService.LOADER_BATCH_SIZE * 2 + 10;
+        StringBuilder sb = new StringBuilder(HEADER + "\n");
+        for (int i = 0; i < total; i++) {
+            // every figure is released twice, the second time as a re-stock.
+            sb.append(createLine("Figure " + (i % (total / 2)), "¥" + (i + 1))).append("\n");
+        }
+        MultipartFile result = new MockMultipartFile("catalog.tsv", sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Integer> batchSizes = new ArrayList<>();
+        List<CharacterFigureEntity> saved = new ArrayList<>();
+        doAnswer((Answer<Integer>) invocation -> {
+            List<CharacterFigureEntity> batch = new ArrayList<>(invocation.getArgument(0));
+            batchSizes.add(batch.size());
+            saved.addAll(batch);
+            return batch.size();
+        }).when(repository).saveAllInStaging(anyList());
+
+        assertEquals(total / 2, service.loadAllCharacters(result));
+        assertEquals(List.of(CatalogLoaderService.LOADER_BATCH_SIZE, 5), batchSizes);
+        assertTrue(saved.stream().allMatch($ -> $.getRestocks().size() == 1));
+
+        // the last record is the base figure and the previous one is the re-stock.
+        CharacterFigureEntity first = saved.get(0);
+        assertEquals("Figure 0", first.getBaseName());
+        assertEquals(total / 2 + 1, first.getPosition());
+        assertEquals(new BigDecimal(total / 2 + 1), first.getIssuanceJPY().getBasePrice());
+        assertEquals(new BigDecimal("1"), first.getRestocks().get(0).getIssuanceJPY().getBasePrice());
+        // the name is calculated before the figure is stored.
+        assertEquals("Figure 0", first.getDisplayableName());
+        assertEquals(CharacterFigureService.DERIVED_FIELDS_VERSION, first.getDerivedVersion());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadAllCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_keep_the_ids_on_every_load() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+
+        List<CharacterFigureEntity> saved = new ArrayList<>();
+        doAnswer($ -> {
+            saved.addAll($.getArgument(0));
+            return saved.size();
+        }).when(repository).saveAllInStaging(anyList());
+
+        String figureA = createLine("Figure A", "¥1000");
+        String figureB = createLine("Figure B", "¥1000");
+        service.loadAllCharacters(new MockMultipartFile("catalog.tsv",
+                String.join("\n", HEADER, figureA, figureB).getBytes(StandardCharsets.UTF_8)));
+        List<String> firstIds = saved.stream().map(CharacterFigureEntity::getId).toList();
+
+        // the figures are reordered, priced differently and a re-stock is added.
+        saved.clear();
+        service.loadAllCharacters(new MockMultipartFile("catalog.tsv", String
+                .join("\n", HEADER, createLine("Figure B", "¥2000"), figureA, createLine("Figure A", "¥3000"))
+                .getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, saved.size());
+        assertEquals(firstIds.get(1), saved.get(0).getId());
+        assertEquals(firstIds.get(0), saved.get(1).getId());
+        assertNotEquals(firstIds.get(0), firstIds.get(1));
+        assertTrue(firstIds.get(0).matches("[0-9a-f]{24}"));
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadAllCharacters(MultipartFile)}
+     */
+    @Test
+    public void should_resume_the_load_from_the_last_checkpoint() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+
+        List<CharacterFigureEntity> saved = new ArrayList<>();
+        doAnswer($ -> {
+            saved.addAll($.getArgument(0));
+            return $.<List<?>>getArgument(0).size();
+        }).when(repository).saveAllInStaging(anyList());
+        List<LoadCheckpoint> checkpoints = new ArrayList<>();
+        doAnswer($ -> checkpoints.add($.getArgument(0))).when(repository).saveLoadCheckpoint(any());
+
+        MultipartFile file = new MockMultipartFile("catalog.tsv", String.join("\n", HEADER,
+                createLine("Figure A", "¥1000"), createLine("Figure B", "¥1000"), createLine("Figure C", "¥1000"))
+                .getBytes(StandardCharsets.UTF_8));
+        assertEquals(3, service.loadAllCharacters(file));
+        String digest = checkpoints.get(0).getDigest();
+        assertEquals(new LoadCheckpoint(digest, 0), checkpoints.get(0));
+        assertEquals(new LoadCheckpoint(digest, saved.get(2).getPosition()), checkpoints.get(1));
+        assertNull(checkpoints.get(2));
+
+        // the previous load was stopped after the first figure was saved.
+        int position = saved.get(0).getPosition();
+        when(repository.findLoadCheckpoint()).thenReturn(new LoadCheckpoint(digest, position));
+        when(repository.resumeStaging(position)).thenReturn(true);
+        saved.clear();
+
+        assertEquals(3, service.loadAllCharacters(file));
+        assertEquals(List.of("Figure B", "Figure C"), saved.stream().map(CharacterFigureEntity::getBaseName).toList());
+        verify(repository).prepareStaging();
+        verify(repository, times(2)).publishStaging();
+    }
+
+    /**
+     * Test for
+     * {@link CatalogLoaderService#loadAllCharacters(List, String, LoaderProgress)}
+     */
+    @Test
+    public void should_load_several_files_as_a_single_catalog() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+
+        List<CharacterFigureEntity> saved = new ArrayList<>();
+        doAnswer($ -> {
+            saved.addAll($.getArgument(0));
+            return $.<List<?>>getArgument(0).size();
+        }).when(repository).saveAllInStaging(anyList());
+
+        // the re-stock of Figure A is in the first file and the figure in the second one.
+        MultipartFile first = new MockMultipartFile("first.tsv", String.join("\n", HEADER,
+                createLine("Figure A", "¥1000"), "", createLine("Figure B", "¥2000")).getBytes(StandardCharsets.UTF_8));
+        MultipartFile second = new MockMultipartFile("second.tsv", String.join("\n", HEADER,
+                createLine("Figure C", "¥3000"), createLine("Figure A", "¥4000")).getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(3, service.loadAllCharacters(List.of(first, second), null, LoaderProgress.NONE));
+        assertEquals(List.of("Figure B", "Figure C", "Figure A"),
+                saved.stream().map(CharacterFigureEntity::getBaseName).toList());
+        assertEquals(List.of(3, 4, 5), saved.stream().map(CharacterFigureEntity::getPosition).toList());
+        CharacterFigureEntity figureA = saved.get(2);
+        assertEquals(new BigDecimal("4000"), figureA.getIssuanceJPY().getBasePrice());
+        assertEquals(1, figureA.getRestocks().size());
+        assertEquals(new BigDecimal("1000"), figureA.getRestocks().get(0).getIssuanceJPY().getBasePrice());
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).prepareStaging();
+        inOrder.verify(repository).publishStaging();
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        inOrder.verify(repository).saveCatalogDigest(digest.capture());
+
+        // the order of the files is part of the digest, a single file keeps its own.
+        saved.clear();
+        service.loadAllCharacters(List.of(second, first), null, LoaderProgress.NONE);
+        service.loadAllCharacters(first);
+        verify(repository, times(3)).saveCatalogDigest(digest.capture());
+        assertEquals(3, digest.getAllValues().stream().distinct().count());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#convertStreamToEntityList(InputStream)}
+     */
+    @Test
+    public void should_convert_large_catalog_without_overflowing_the_stack() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+
+        final int total = 200_000;
+        StringBuilder sb = new StringBuilder(HEADER + "\n");
+        for (int i = 0; i < total; i++) {
+            // every figure is released twice, the second time as a re-stock.
+            sb.append(createLine("Figure " + (i % (total / 2)), "¥" + (i + 1))).append("\n");
+        }
+        InputStream inputStream = new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<CharacterFigureEntity> list = service.convertStreamToEntityList(inputStream);
+        assertEquals(total / 2, list.size());
+
+        // the latest record is the base figure and the catalog is read from the end.
+        CharacterFigureEntity first = list.get(0);
+        assertEquals("Figure " + (total / 2 - 1), first.getBaseName());
+        assertEquals(new BigDecimal(total), first.getIssuanceJPY().getBasePrice());
+        assertEquals(1, first.getRestocks().size());
+        assertEquals(new BigDecimal(total / 2), first.getRestocks().get(0).getIssuanceJPY().getBasePrice());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#getEffectiveCharacters(List)}
+     */
+    @Test
+    public void should_get_effective_characters_with_empty_records() {
+        List<CharacterFigure> list = service.getEffectiveCharacters(null);
+        assertNotNull(list);
+        assertEquals(0, list.size());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#getEffectiveCharacters(List)}
+     */
+    @Test
+    public void should_get_effective_characters_with_restocks() {
+        List<CharacterFigure> allCharacters = new ArrayList<>();
+        allCharacters.add(createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2018, 1, 27), LineUp.MYTH_CLOTH_EX,
+                Series.SOG, Group.GOLD, false, false));
+        allCharacters.add(createFigure(null, "Seiya", LocalDate.of(2019, 2, 1), LineUp.MYTH_CLOTH, Series.SAINT_SEIYA,
+                Group.V2, true, true));
+        allCharacters.add(createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2021, 9, 18), LineUp.MYTH_CLOTH_EX,
+                Series.SOG, Group.GOLD, false, false));
+
+        List<CharacterFigure> list = service.getEffectiveCharacters(allCharacters);
+        assertNotNull(list);
+        assertEquals(2, list.size());
+        assertEquals("Libra Dohko (God Cloth)", list.get(0).getOriginalName());
+        assertNotNull(list.get(0).getRestocks());
+        assertEquals(1, list.get(0).getRestocks().size());
+        assertEquals("Seiya", list.get(1).getOriginalName());
+        assertNull(list.get(1).getRestocks());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#getEffectiveCharacters(List)}
+     */
+    @Test
+    public void should_get_effective_characters_with_restocks_and_new_tags() {
+        List<CharacterFigure> allCharacters = new ArrayList<>();
+        CharacterFigure c1 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2018, 1, 27),
+                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
+
+        CharacterFigure c2 = createFigure(null, "Seiya", LocalDate.of(2019, 2, 1), LineUp.MYTH_CLOTH,
+                Series.SAINT_SEIYA, Group.V2, true, true);
+
+        CharacterFigure c3 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2021, 9, 18),
+                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
+        c3.setTags(Set.of("god", "gold", "ex")); // adds new tags
+
+        allCharacters.add(c1);
+        allCharacters.add(c2);
+        allCharacters.add(c3);
+
+        List<CharacterFigure> list = service.getEffectiveCharacters(allCharacters);
+        assertNotNull(list);
+        assertEquals(2, list.size());
+        assertEquals("Libra Dohko (God Cloth)", list.get(0).getOriginalName());
+        assertNotNull(list.get(0).getRestocks());
+        assertNotNull(list.get(0).getTags());
+        assertEquals(3, list.get(0).getTags().size());
+        assertEquals(Set.of("god", "gold", "ex"), list.get(0).getTags());
+
+        assertEquals(1, list.get(0).getRestocks().size());
+        assertEquals("Seiya", list.get(1).getOriginalName());
+        assertNull(list.get(1).getRestocks());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#getEffectiveCharacters(List)}
+     */
+    @Test
+    public void should_get_effective_characters_with_restocks_and_existing_tags() {
+        List<CharacterFigure> allCharacters = new ArrayList<>();
+        CharacterFigure c1 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2018, 1, 27),
+                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
+        c1.setTags(Set.of("god", "gold", "ex")); // adds new tags
+
+        CharacterFigure c2 = createFigure(null, "Seiya", LocalDate.of(2019, 2, 1), LineUp.MYTH_CLOTH,
+                Series.SAINT_SEIYA, Group.V2, true, true);
+
+        CharacterFigure c3 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2021, 9, 18),
+                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
+
+        allCharacters.add(c1);
+        allCharacters.add(c2);
+        allCharacters.add(c3);
+
+        List<CharacterFigure> list = service.getEffectiveCharacters(allCharacters);
+        assertNotNull(list);
+        assertEquals(2, list.size());
+        assertEquals("Libra Dohko (God Cloth)", list.get(0).getOriginalName());
+        assertNotNull(list.get(0).getRestocks());
+        assertNotNull(list.get(0).getTags());
+        assertEquals(3, list.get(0).getTags().size());
+        assertEquals(Set.of("god", "gold", "ex"), list.get(0).getTags());
+
+        assertEquals(1, list.get(0).getRestocks().size());
+        assertEquals("Seiya", list.get(1).getOriginalName());
+        assertNull(list.get(1).getRestocks());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#getEffectiveCharacters(List)}
+     */
+    @Test
+    public void should_get_effective_characters_with_restocks_and_new_existing_tags() {
+        List<CharacterFigure> allCharacters = new ArrayList<>();
+        CharacterFigure c1 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2018, 1, 27),
+                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
+        c1.setTags(Set.of("god", "gold", "ex")); // adds new tags
+
+        CharacterFigure c2 = createFigure(null, "Seiya", LocalDate.of(2019, 2, 1), LineUp.MYTH_CLOTH,
+                Series.SAINT_SEIYA, Group.V2, true, true);
+
+        CharacterFigure c3 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2021, 9, 18),
+                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
+        c3.setTags(Set.of("god", "gold", "libra", "ex", "revival")); // adds new tags
+
+        allCharacters.add(c1);
+        allCharacters.add(c2);
+        allCharacters.add(c3);
+
+        List<CharacterFigure> list = service.getEffectiveCharacters(allCharacters);
+        assertNotNull(list);
+        assertEquals(2, list.size());
+        assertEquals("Libra Dohko (God Cloth)", list.get(0).getOriginalName());
+        assertNotNull(list.get(0).getRestocks());
+        assertNotNull(list.get(0).getTags());
+        assertEquals(5, list.get(0).getTags().size());
+        assertEquals(Set.of("gold", "ex", "libra", "revival", "god"), list.get(0).getTags());
+
+        assertEquals(1, list.get(0).getRestocks().size());
+        assertEquals("Seiya", list.get(1).getOriginalName());
+        assertNull(list.get(1).getRestocks());
+    }
+
+    /**
+     * Test for {@link CatalogLoaderService#loadCharactersDelta(MultipartFile)}
+     */
+    @Test
+    public void should_load_the_original_identity_again_after_it_was_updated() {
+        CharacterFigureFileMapper realFileMapper = new CharacterFigureFileMapper();
+        CharacterFigureModelMapper realModelMapper = new CharacterFigureModelMapperImpl();
+        characterFigureService = new CharacterFigureService(repository, realModelMapper, realFileMapper);
+        service = new CatalogLoaderService(repository, characterFigureService, realModelMapper,
+                new CatalogParser(realFileMapper, 4), new TagRuleEngine(new TagRuleProperties()));
+        String originalId = new CharacterFigureKey("Figure A", LineUp.MYTH_CLOTH_EX, Series.SAINT_SEIYA, Group.GOLD,
+                false, false, false, false, false, false, false, false, false, null).toId();
+
+        // the figure A loaded from the catalog was renamed as figure B.
+        CharacterFigureEntity loaded = createFigureEntity(originalId, "Figure A", "Figure A", Group.GOLD, false);
+        when(repository.findById(anyString())).thenReturn(Optional.of(loaded));
+        CharacterFigure renamed = new CharacterFigure();
+        renamed.setBaseName("Figure B");
+        renamed.setGroup(Group.GOLD);
+        characterFigureService.updateExistingCharacter(originalId, renamed);
+        String renamedId = loaded.getId();
+        assertNotEquals(originalId, renamedId);
+        verify(repository).deleteById(originalId);
+
+        // the catalog still has the figure A, it is inserted with its original id
+        // which is no longer taken.
+        MultipartFile result = new MockMultipartFile("catalog.tsv",
+                (HEADER + "\n" + createLine("Figure A", "¥1000") + "\n").getBytes(StandardCharsets.UTF_8));
+        when(repository.findAllContentHashes()).thenReturn(List.of(loaded));
+        when(repository.computeContentHash(any(CharacterFigureEntity.class)))
+                .thenAnswer($ -> $.<CharacterFigureEntity>getArgument(0).getBaseName());
+        List<CharacterFigureEntity> inserts = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        doAnswer($ -> {
+            inserts.addAll($.getArgument(0));
+            deletedIds.addAll($.getArgument(3));
+            return null;
+        }).when(repository).applyChanges(anyList(), anyList(), anyList(), anyCollection());
+
+        assertEquals(new CatalogDelta(1, 0, 1, 0), service.loadCharactersDelta(result));
+        assertEquals(List.of(originalId), inserts.stream().map(CharacterFigureEntity::getId).toList());
+        assertEquals(List.of(renamedId), deletedIds);
+    }
+
+    private String createLine(String name, String price) {
+        return String.join("\t", name, name, price, "", "", "", "", "", "", "", "", "", "Myth Cloth EX", "Saint Seiya",
+                "Gold Saint", "FALSE", "FALSE", "FALSE", "FALSE", "FALSE", "FALSE", "FALSE", "FALSE", "FALSE", "FALSE",
+                "FALSE", "FALSE");
+    }
+
+    private CharacterFigureEntity createFigureEntity(String id, String originalName, String baseName, Group group,
+            boolean revival) {
+        CharacterFigureEntity characterFigure = new CharacterFigureEntity();
+        characterFigure.setId(id);
+        characterFigure.setOriginalName(originalName);
+        characterFigure.setBaseName(baseName);
+        characterFigure.setLineUp(LineUp.MYTH_CLOTH_EX);
+        characterFigure.setSeries(Series.SAINT_SEIYA);
+        characterFigure.setGroup(group);
+        characterFigure.setMetal(false);
+        characterFigure.setOce(false);
+        characterFigure.setRevival(revival);
+        characterFigure.setPlainCloth(false);
+        characterFigure.setHk(false);
+        characterFigure.setManga(false);
+        characterFigure.setSurplice(false);
+
+        return characterFigure;
+    }
+
+    private CharacterFigure createFigure(String id, String originalName, LocalDate releaseDate, LineUp lineUp,
+            Series series, Group group, boolean oce, boolean revival) {
+        CharacterFigure characterFigure = new CharacterFigure();
+        characterFigure.setId(id);
+        characterFigure.setOriginalName(originalName);
+        characterFigure.setBaseName(originalName);
+        Issuance issuanceJPY = new Issuance();
+        issuanceJPY.setReleaseConfirmationDay(true);
+        issuanceJPY.setReleaseDate(releaseDate);
+        issuanceJPY.setBasePrice(new BigDecimal("12000"));
+        characterFigure.setIssuanceJPY(issuanceJPY);
+        characterFigure.setLineUp(lineUp);
+        characterFigure.setSeries(series);
+        characterFigure.setGroup(group);
+        characterFigure.setOce(oce);
+        characterFigure.setRevival(revival);
+
+        return characterFigure;
+    }
+}
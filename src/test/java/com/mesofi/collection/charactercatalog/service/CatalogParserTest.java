@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import static com.mesofi.collection.charactercatalog.utils.FileUtils.getPathFromClassPath;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.mesofi.collection.charactercatalog.exception.InvalidRecordException;
+import com.mesofi.collection.charactercatalog.mappers.CatalogColumn;
+import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.GalleryImage;
+import com.mesofi.collection.charactercatalog.model.Issuance;
+
+/**
+ * Test for {@link CatalogParser}
+ */
+public class CatalogParserTest {
+
+    private static final String CATALOG = "characters/MythCloth Catalog - CatalogMyth.tsv";
+    private static final String HEADER = Arrays.stream(CatalogColumn.values()).map(CatalogColumn::getHeader)
+            .collect(Collectors.joining("\t"));
+
+    @Test
+    public void should_use_available_processors_by_default() {
+        CatalogParser parser = new CatalogParser(new CharacterFigureFileMapper(), 0);
+        assertEquals(Runtime.getRuntime().availableProcessors(), parser.getParallelism());
+        parser.shutdown();
+    }
+
+    @Test
+    public void should_parse_in_parallel_keeping_the_order() throws IOException {
+        byte[] catalog = createCatalog(5);
+
+        List<Integer> sequentialPositions = new ArrayList<>();
+        List<String> sequentialNames = new ArrayList<>();
+        CatalogParser sequential = new CatalogParser(new CharacterFigureFileMapper(), 1);
+        sequential.forEachRecord(new ByteArrayInputStream(catalog), (position, figure) -> {
+            sequentialPositions.add(position);
+            sequentialNames.add(figure.getOriginalName());
+        });
+
+        List<Integer> parallelPositions = new ArrayList<>();
+        List<String> parallelNames = new ArrayList<>();
+        CatalogParser parallel = new CatalogParser(new CharacterFigureFileMapper(), 4);
+        parallel.forEachRecord(new ByteArrayInputStream(catalog), (position, figure) -> {
+            parallelPositions.add(position);
+            parallelNames.add(figure.getOriginalName());
+        });
+        parallel.shutdown();
+
+        assertTrue(sequentialNames.size() > CatalogParser.CHUNK_SIZE);
+        assertEquals(sequentialPositions, parallelPositions);
+        assertEquals(sequentialNames, parallelNames);
+    }
+
+    @Test
+    public void should_skip_empty_lines_but_count_them() {
+        CatalogParser parser = new CatalogParser(new CharacterFigureFileMapper(), 2);
+        InputStream inputStream = new ByteArrayInputStream((HEADER + "\n\n\n").getBytes(StandardCharsets.UTF_8));
+        List<CharacterFigure> figures = new ArrayList<>();
+        assertEquals(2, parser.forEachRecord(inputStream, (position, figure) -> figures.add(figure)));
+        assertTrue(figures.isEmpty());
+        parser.shutdown();
+    }
+
+    @Test
+    public void should_propagate_parsing_errors() {
+        CatalogParser parser = new CatalogParser(new CharacterFigureFileMapper(), 2);
+        InputStream inputStream = new ByteArrayInputStream((HEADER + "\ninvalid\n").getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> parser.forEachRecord(inputStream, (p, f) -> {
+        }));
+        parser.shutdown();
+    }
+
+    @Test
+    public void should_report_the_line_of_the_first_error() {
+        CatalogParser parser = new CatalogParser(new CharacterFigureFileMapper(), 2);
+        InputStream inputStream = new ByteArrayInputStream((HEADER + "\n\ninvalid\n").getBytes(StandardCharsets.UTF_8));
+        InvalidRecordException exception = assertThrows(InvalidRecordException.class,
+                () -> parser.forEachRecord(inputStream, (p, f) -> {
+                }));
+        assertEquals(3, exception.getLine());
+        parser.shutdown();
+    }
+
+    @Test
+    public void should_collect_all_the_errors_in_order() throws IOException {
+        List<String> lines = new ArrayList<>(List.of(new String(createCatalog(3), StandardCharsets.UTF_8).split("\n")));
+        lines.set(10, "invalid");
+        lines.set(lines.size() - 2, lines.get(lines.size() - 2).replaceFirst("\tMyth Cloth", "\tMyth Clot"));
+        byte[] catalog = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        List<Integer> sequentialErrors = new ArrayList<>();
+        CatalogParser sequential = new CatalogParser(new CharacterFigureFileMapper(), 1);
+        sequential.forEachRecord(new ByteArrayInputStream(catalog), (position, figure) -> {
+        }, $ -> sequentialErrors.add($.getLine()));
+
+        List<Integer> parallelErrors = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        CatalogParser parallel = new CatalogParser(new CharacterFigureFileMapper(), 4);
+        parallel.forEachRecord(new ByteArrayInputStream(catalog), (position, figure) -> positions.add(position),
+                $ -> parallelErrors.add($.getLine()));
+        parallel.shutdown();
+
+        assertEquals(List.of(11, lines.size() - 1), sequentialErrors);
+        assertEquals(sequentialErrors, parallelErrors);
+        assertEquals(lines.size() - 3, positions.size());
+    }
+
+    @Test
+    public void should_find_the_columns_by_their_header() throws IOException {
+        List<String> lines = Files.readAllLines(getPathFromClassPath(CATALOG), StandardCharsets.UTF_8);
+        // the columns are reversed.
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            List<String> columns = new ArrayList<>(List.of(line.split("\t", -1)));
+            Collections.reverse(columns);
+            sb.append(String.join("\t", columns)).append("\n");
+        }
+
+        CatalogParser parser = new CatalogParser(new CharacterFigureFileMapper(), 2);
+        List<CharacterFigure> expected = new ArrayList<>();
+        parser.forEachRecord(new ByteArrayInputStream(Files.readAllBytes(getPathFromClassPath(CATALOG))),
+                (position, figure) -> expected.add(figure));
+        List<CharacterFigure> reversed = new ArrayList<>();
+        parser.forEachRecord(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)),
+                (position, figure) -> reversed.add(figure));
+        parser.shutdown();
+
+        assertEquals(expected.size(), reversed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getOriginalName(), reversed.get(i).getOriginalName());
+            assertEquals(toList(expected.get(i).getIssuanceJPY()), toList(reversed.get(i).getIssuanceJPY()));
+            assertEquals(toList(expected.get(i).getIssuanceMXN()), toList(reversed.get(i).getIssuanceMXN()));
+            assertEquals(expected.get(i).getLineUp(), reversed.get(i).getLineUp());
+            assertEquals(expected.get(i).getTags(), reversed.get(i).getTags());
+            assertEquals(expected.get(i).getImages().stream().map(GalleryImage::getUrl).toList(),
+                    reversed.get(i).getImages().stream().map(GalleryImage::getUrl).toList());
+        }
+    }
+
+    @Test
+    public void should_reject_a_header_without_the_required_columns() {
+        CatalogParser parser = new CatalogParser(new CharacterFigureFileMapper(), 2);
+        String header = HEADER.replace("\tLineUp\t", "\tLine\t");
+        InvalidRecordException exception = assertThrows(InvalidRecordException.class,
+                () -> parser.forEachRecord(new ByteArrayInputStream((header + "\n").getBytes(StandardCharsets.UTF_8)),
+                        (p, f) -> {
+                        }));
+        assertEquals(1, exception.getLine());
+
+        List<InvalidRecordException> errors = new ArrayList<>();
+        parser.forEachRecord(new ByteArrayInputStream((header + "\ninvalid\n").getBytes(StandardCharsets.UTF_8)),
+                (p, f) -> {
+                }, errors::add);
+        assertEquals(1, errors.size());
+        assertEquals("Missing required columns: LineUp", errors.get(0).getReason());
+        parser.shutdown();
+    }
+
+    private List<Object> toList(Issuance issuance) {
+        return Objects.isNull(issuance) ? null
+                : Arrays.asList(issuance.getBasePrice(), issuance.getFirstAnnouncementDate(),
+                        issuance.getPreorderDate(), issuance.getReleaseDate(), issuance.getReleaseConfirmationDay());
+    }
+
+    private byte[] createCatalog(int copies) throws IOException {
+        List<String> lines = Files.readAllLines(getPathFromClassPath(CATALOG), StandardCharsets.UTF_8);
+        StringBuilder sb = new StringBuilder(lines.get(0)).append("\n");
+        for (int i = 0; i < copies; i++) {
+            lines.stream().skip(1).forEach($ -> sb.append($).append("\n"));
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -5,50 +5,57 @@
  */
 package com.mesofi.collection.charactercatalog.service;
 
-import static com.mesofi.collection.charactercatalog.utils.FileUtils.getPathFromClassPath;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.mockito.stubbing.Answer;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.MediaType;
-import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.web.multipart.MultipartFile;
 
 import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
 import com.mesofi.collection.charactercatalog.exception.CharacterFigureNotFoundException;
 import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
 import com.mesofi.collection.charactercatalog.mappers.CharacterFigureModelMapper;
+import com.mesofi.collection.charactercatalog.model.CatalogCursor;
+import com.mesofi.collection.charactercatalog.model.CatalogPage;
+import com.mesofi.collection.charactercatalog.model.CatalogSnapshot;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.CharacterFigureKey;
+import com.mesofi.collection.charactercatalog.model.FieldSelection;
 import com.mesofi.collection.charactercatalog.model.Group;
 import com.mesofi.collection.charactercatalog.model.Issuance;
 import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.RestockFigure;
 import com.mesofi.collection.charactercatalog.model.Series;
 import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
 
@@ -77,189 +84,345 @@ public class CharacterFigureServiceTest {
     }
 
     /**
-     * Test for {@link CharacterFigureService#loadAllCharacters(MultipartFile)}
+     * Test for {@link CharacterFigureService#findDocumentVersion(String)}
      */
     @Test
-    public void should_fail_when_input_file_is_missing() {
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> service.loadAllCharacters(null));
-        assertEquals("The uploaded file is missing...", exception.getMessage());
+    public void should_find_the_version_of_a_document() {
+        CharacterFigureEntity entity = new CharacterFigureEntity();
+        entity.setContentHash("abc");
+        entity.setDerivedVersion(3);
+        when(repository.findProjectionById("1", Set.of("contentHash", "derivedVersion")))
+                .thenReturn(Optional.of(entity));
+
+        // the version changes with the derived fields too.
+        assertEquals("abc.3", service.findDocumentVersion("1"));
+        CharacterFigureNotFoundException exception = assertThrows(CharacterFigureNotFoundException.class,
+                () -> service.findDocumentVersion("2"));
+        assertEquals("Character not found with id: 2", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> service.findDocumentVersion(" "));
     }
 
     /**
-     * Test for {@link CharacterFigureService#loadAllCharacters(MultipartFile)}
+     * Test for {@link CharacterFigureService#hasOutdatedDerivedFields()}
      */
     @Test
-    public void should_load_all_records() throws IOException {
+    public void should_find_the_outdated_derived_fields() {
+        when(repository.existsByDerivedVersionNot(CharacterFigureService.DERIVED_FIELDS_VERSION)).thenReturn(true);
 
-        doNothing().when(repository).deleteAll();
-        CharacterFigure cf = new CharacterFigure();
-        cf.setBaseName("MyName");
-        when(fileMapper.fromLineToCharacterFigure(anyString())).thenReturn(cf);
-        when(repository.saveAll(anyIterable())).thenReturn(new ArrayList<>());
-
-        final String folder = "characters/";
-        final String name = "MythCloth Catalog - CatalogMyth-min.tsv";
-        final byte[] bytes = Files.readAllBytes(getPathFromClassPath(folder + name));
-        MultipartFile result = new MockMultipartFile(name, name, MediaType.TEXT_PLAIN_VALUE, bytes);
-
-        assertEquals(0, service.loadAllCharacters(result));
+        assertTrue(service.hasOutdatedDerivedFields());
+        verify(repository, never()).streamByDerivedVersionNot(any());
     }
 
     /**
-     * Test for {@link CharacterFigureService#getEffectiveCharacters(List)}
+     * Test for {@link CharacterFigureService#recomputeDerivedFields()}
      */
     @Test
-    public void should_get_effective_characters_with_empty_records() {
-        List<CharacterFigure> list = service.getEffectiveCharacters(null);
-        assertNotNull(list);
-        assertEquals(0, list.size());
+    public void should_recompute_the_outdated_derived_fields() {
+        CharacterFigureEntity entity = createFigureEntity("1", "Virgo Shaka", "Virgo Shaka", Group.GOLD, false);
+        Issuance issuanceJPY = new Issuance();
+        issuanceJPY.setBasePrice(new BigDecimal("10000"));
+        issuanceJPY.setReleaseDate(LocalDate.of(2019, 9, 30));
+        entity.setIssuanceJPY(issuanceJPY);
+        RestockFigure restock = new RestockFigure();
+        Issuance restockJPY = new Issuance();
+        restockJPY.setBasePrice(new BigDecimal("10000"));
+        restockJPY.setReleaseDate(LocalDate.of(2019, 10, 1));
+        restock.setIssuanceJPY(restockJPY);
+        entity.setRestocks(List.of(restock));
+
+        when(repository.streamByDerivedVersionNot(CharacterFigureService.DERIVED_FIELDS_VERSION))
+                .thenReturn(Stream.of(entity));
+        List<CharacterFigureEntity> saved = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer($ -> {
+            saved.addAll($.getArgument(0));
+            return saved;
+        });
+
+        assertEquals(1, service.recomputeDerivedFields());
+        assertEquals(List.of(entity), saved);
+        assertEquals("Virgo Shaka", entity.getDisplayableName());
+        assertEquals(new BigDecimal("10800.00"), entity.getIssuanceJPY().getReleasePrice());
+        assertEquals(new BigDecimal("11000.00"), entity.getRestocks().get(0).getIssuanceJPY().getReleasePrice());
+        assertEquals(CharacterFigureService.DERIVED_FIELDS_VERSION, entity.getDerivedVersion());
     }
 
     /**
-     * Test for {@link CharacterFigureService#getEffectiveCharacters(List)}
+     * Test for {@link CharacterFigureService#recomputeDerivedFields()}
      */
     @Test
-    public void should_get_effective_characters_with_restocks() {
-        List<CharacterFigure> allCharacters = new ArrayList<>();
-        allCharacters.add(createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2018, 1, 27), LineUp.MYTH_CLOTH_EX,
-                Series.SOG, Group.GOLD, false, false));
-        allCharacters.add(createFigure(null, "Seiya", LocalDate.of(2019, 2, 1), LineUp.MYTH_CLOTH, Series.SAINT_SEIYA,
-                Group.V2, true, true));
-        allCharacters.add(createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2021, 9, 18), LineUp.MYTH_CLOTH_EX,
-                Series.SOG, Group.GOLD, false, false));
-
-        List<CharacterFigure> list = service.getEffectiveCharacters(allCharacters);
-        assertNotNull(list);
-        assertEquals(2, list.size());
-        assertEquals("Libra Dohko (God Cloth)", list.get(0).getOriginalName());
-        assertNotNull(list.get(0).getRestocks());
-        assertEquals(1, list.get(0).getRestocks().size());
-        assertEquals("Seiya", list.get(1).getOriginalName());
-        assertNull(list.get(1).getRestocks());
+    public void should_not_save_anything_when_the_derived_fields_are_up_to_date() {
+        when(repository.streamByDerivedVersionNot(CharacterFigureService.DERIVED_FIELDS_VERSION))
+                .thenReturn(Stream.empty());
+
+        assertEquals(0, service.recomputeDerivedFields());
+        verify(repository, never()).saveAll(anyList());
     }
 
     /**
-     * Test for {@link CharacterFigureService#getEffectiveCharacters(List)}
+     * Test for
+     * {@link CharacterFigureService#fromEntityToDisplayableFigure(CharacterFigureEntity)}
      */
     @Test
-    public void should_get_effective_characters_with_restocks_and_new_tags() {
-        List<CharacterFigure> allCharacters = new ArrayList<>();
-        CharacterFigure c1 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2018, 1, 27),
-                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
+    public void should_keep_the_stored_derived_fields() {
+        CharacterFigureEntity entity = createFigureEntity("1", "Virgo Shaka", "Virgo Shaka", Group.GOLD, false);
+        entity.setDerivedVersion(CharacterFigureService.DERIVED_FIELDS_VERSION);
 
-        CharacterFigure c2 = createFigure(null, "Seiya", LocalDate.of(2019, 2, 1), LineUp.MYTH_CLOTH,
-                Series.SAINT_SEIYA, Group.V2, true, true);
-
-        CharacterFigure c3 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2021, 9, 18),
-                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
-        c3.setTags(Set.of("god", "gold", "ex")); // adds new tags
+        CharacterFigure figure = new CharacterFigure();
+        figure.setBaseName("Virgo Shaka");
+        figure.setLineUp(LineUp.MYTH_CLOTH_EX);
+        figure.setGroup(Group.GOLD);
+        figure.setDisplayableName("Stored name");
+        when(modelMapper.toModel(entity)).thenReturn(figure);
 
-        allCharacters.add(c1);
-        allCharacters.add(c2);
-        allCharacters.add(c3);
+        assertEquals("Stored name", service.fromEntityToDisplayableFigure(entity).getDisplayableName());
 
-        List<CharacterFigure> list = service.getEffectiveCharacters(allCharacters);
-        assertNotNull(list);
-        assertEquals(2, list.size());
-        assertEquals("Libra Dohko (God Cloth)", list.get(0).getOriginalName());
-        assertNotNull(list.get(0).getRestocks());
-        assertNotNull(list.get(0).getTags());
-        assertEquals(3, list.get(0).getTags().size());
-        assertEquals(Set.of("god", "gold", "ex"), list.get(0).getTags());
-
-        assertEquals(1, list.get(0).getRestocks().size());
-        assertEquals("Seiya", list.get(1).getOriginalName());
-        assertNull(list.get(1).getRestocks());
+        // an outdated figure is calculated again.
+        entity.setDerivedVersion(null);
+        assertEquals("Virgo Shaka", service.fromEntityToDisplayableFigure(entity).getDisplayableName());
     }
 
     /**
-     * Test for {@link CharacterFigureService#getEffectiveCharacters(List)}
+     * Test for {@link CharacterFigureService#retrieveAllCharacters()}
      */
     @Test
-    public void should_get_effective_characters_with_restocks_and_existing_tags() {
-        List<CharacterFigure> allCharacters = new ArrayList<>();
-        CharacterFigure c1 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2018, 1, 27),
-                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
-        c1.setTags(Set.of("god", "gold", "ex")); // adds new tags
+    public void should_get_all_characters() {
+        List<CharacterFigureEntity> mockList = new ArrayList<>();
+        CharacterFigureEntity entity1 = createFigureEntity("1", "Pegasus Seiya", "Pegasus Seiya", Group.V1, false);
+        CharacterFigure figure1 = createFigure(null, "Pegasus Seiya", LocalDate.of(2018, 1, 27), LineUp.MYTH_CLOTH_EX,
+                Series.SOG, Group.GOLD, false, false);
 
-        CharacterFigure c2 = createFigure(null, "Seiya", LocalDate.of(2019, 2, 1), LineUp.MYTH_CLOTH,
-                Series.SAINT_SEIYA, Group.V2, true, true);
+        mockList.add(entity1);
+        when(repository.findAll(any(Sort.class))).thenReturn(mockList);
+        when(modelMapper.toModel(entity1)).thenReturn(figure1);
 
-        CharacterFigure c3 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2021, 9, 18),
-                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
+        List<CharacterFigure> list = service.retrieveAllCharacters();
+        assertNotNull(list);
+        assertFalse(list.isEmpty());
+        assertEquals("Pegasus Seiya", list.get(0).getDisplayableName());
+    }
 
-        allCharacters.add(c1);
-        allCharacters.add(c2);
-        allCharacters.add(c3);
+    /**
+     * Test for
+     * {@link CharacterFigureService#retrieveCharactersPage(String, int, FieldSelection)}
+     */
+    @Test
+    public void should_fail_when_the_page_size_is_not_valid() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.retrieveCharactersPage(null, 0, null));
+        assertEquals(CharacterFigureService.INVALID_PAGE_SIZE, exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> service.retrieveCharactersPage(null, CharacterFigureService.MAX_PAGE_SIZE + 1, null));
+        assertEquals(CharacterFigureService.INVALID_PAGE_SIZE, exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> service.retrieveCharactersPage("%%%", 10, null));
+        assertEquals(CatalogCursor.INVALID_CURSOR, exception.getMessage());
+        verifyNoInteractions(repository);
+    }
 
-        List<CharacterFigure> list = service.getEffectiveCharacters(allCharacters);
-        assertNotNull(list);
-        assertEquals(2, list.size());
-        assertEquals("Libra Dohko (God Cloth)", list.get(0).getOriginalName());
-        assertNotNull(list.get(0).getRestocks());
-        assertNotNull(list.get(0).getTags());
-        assertEquals(3, list.get(0).getTags().size());
-        assertEquals(Set.of("god", "gold", "ex"), list.get(0).getTags());
-
-        assertEquals(1, list.get(0).getRestocks().size());
-        assertEquals("Seiya", list.get(1).getOriginalName());
-        assertNull(list.get(1).getRestocks());
+    /**
+     * Test for
+     * {@link CharacterFigureService#retrieveCharactersPage(String, int, FieldSelection)}
+     */
+    @Test
+    public void should_read_the_characters_page_by_page() {
+        CharacterFigureEntity shaka = createFigureEntity("1", "Virgo Shaka", "Virgo Shaka", Group.GOLD, false);
+        Issuance issuanceJPY = new Issuance();
+        issuanceJPY.setReleaseDate(LocalDate.of(2020, 1, 1));
+        shaka.setIssuanceJPY(issuanceJPY);
+        shaka.setPosition(3);
+        CharacterFigureEntity mu = createFigureEntity("2", "Aries Mu", "Aries Mu", Group.GOLD, false);
+        CharacterFigureEntity aldebaran = createFigureEntity("3", "Taurus Aldebaran", "Taurus Aldebaran", Group.GOLD,
+                false);
+        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenAnswer($ -> new CharacterFigure());
+
+        // one more figure than the page size is read.
+        when(repository.findCatalogPage(null, 3, null)).thenReturn(List.of(shaka, mu, aldebaran));
+        CatalogPage first = service.retrieveCharactersPage(null, 2, null);
+        assertEquals(2, first.getFigures().size());
+        assertNotNull(first.getNextCursor());
+
+        CatalogCursor after = new CatalogCursor(false, null, null, "2");
+        assertEquals(after, CatalogCursor.decode(first.getNextCursor()));
+        when(repository.findCatalogPage(after, 3, null)).thenReturn(List.of(aldebaran));
+        CatalogPage last = service.retrieveCharactersPage(first.getNextCursor(), 2, null);
+        assertEquals(1, last.getFigures().size());
+        assertNull(last.getNextCursor());
+
+        // every field of the order is kept in the cursor.
+        CatalogCursor cursor = new CatalogCursor(true, LocalDate.of(2020, 1, 1), 3, "1");
+        assertEquals(cursor, CatalogCursor.decode(cursor.encode()));
     }
 
     /**
-     * Test for {@link CharacterFigureService#getEffectiveCharacters(List)}
+     * Test for
+     * {@link CharacterFigureService#exportAllCharacters(FieldSelection, java.util.function.Consumer)}
      */
     @Test
-    public void should_get_effective_characters_with_restocks_and_new_existing_tags() {
-        List<CharacterFigure> allCharacters = new ArrayList<>();
-        CharacterFigure c1 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2018, 1, 27),
-                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
-        c1.setTags(Set.of("god", "gold", "ex")); // adds new tags
+    public void should_export_the_characters_one_by_one() {
+        CharacterFigureEntity shaka = createFigureEntity("1", "Virgo Shaka", "Virgo Shaka", Group.GOLD, false);
+        shaka.setDerivedVersion(CharacterFigureService.DERIVED_FIELDS_VERSION);
+        CharacterFigureEntity mu = createFigureEntity("2", "Aries Mu", "Aries Mu", Group.GOLD, false);
+        mu.setDerivedVersion(CharacterFigureService.DERIVED_FIELDS_VERSION);
+        List<Boolean> closed = new ArrayList<>();
+        when(repository.streamCatalog(null)).thenReturn(Stream.of(shaka, mu).onClose(() -> closed.add(true)));
+        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenAnswer($ -> {
+            CharacterFigure figure = new CharacterFigure();
+            figure.setId($.<CharacterFigureEntity>getArgument(0).getId());
+            return figure;
+        });
+
+        List<String> exported = new ArrayList<>();
+        assertEquals(2, service.exportAllCharacters(null, $ -> exported.add($.getId())));
+        assertEquals(List.of("1", "2"), exported);
+        assertEquals(List.of(true), closed);
+
+        // only the requested fields are read.
+        when(repository.streamCatalog(Set.of("baseName", "id", "derivedVersion", "contentHash"))).thenReturn(Stream.of(mu));
+        exported.clear();
+        assertEquals(1, service.exportAllCharacters(FieldSelection.parse("baseName"), $ -> exported.add($.getId())));
+        assertEquals(List.of("2"), exported);
+    }
 
-        CharacterFigure c2 = createFigure(null, "Seiya", LocalDate.of(2019, 2, 1), LineUp.MYTH_CLOTH,
-                Series.SAINT_SEIYA, Group.V2, true, true);
+    /**
+     * Test for
+     * {@link CharacterFigureService#retrieveCharactersById(String, FieldSelection)}
+     */
+    @Test
+    public void should_read_only_the_requested_fields() {
+        FieldSelection fields = FieldSelection.parse("displayableName,metalBody,issuanceJPY.releaseDate");
+        CharacterFigureEntity entity = new CharacterFigureEntity();
+        entity.setId("1");
+        entity.setDisplayableName("Virgo Shaka");
+        entity.setDerivedVersion(CharacterFigureService.DERIVED_FIELDS_VERSION);
+        CharacterFigure figure = new CharacterFigure();
+        figure.setDisplayableName("Virgo Shaka");
+        when(modelMapper.toModel(entity)).thenReturn(figure);
 
-        CharacterFigure c3 = createFigure(null, "Libra Dohko (God Cloth)", LocalDate.of(2021, 9, 18),
-                LineUp.MYTH_CLOTH_EX, Series.SOG, Group.GOLD, false, false);
-        c3.setTags(Set.of("god", "gold", "libra", "ex", "revival")); // adds new tags
+        Set<String> projection = Set.of("displayableName", "metal", "issuanceJPY.releaseDate", "id",
+                "derivedVersion", "contentHash");
+        when(repository.findProjectionById("1", projection)).thenReturn(Optional.of(entity));
+        // the stored name is kept, nothing else is read.
+        assertSame(figure, service.retrieveCharactersById("1", fields));
+        verify(repository, never()).findById(anyString());
 
-        allCharacters.add(c1);
-        allCharacters.add(c2);
-        allCharacters.add(c3);
+        // the fields used by the cursor are read as well.
+        when(repository.findCatalogPage(null, 11, Set.of("displayableName", "metal", "issuanceJPY.releaseDate",
+                "id", "derivedVersion", "contentHash", "futureRelease", "position"))).thenReturn(List.of(entity));
+        assertEquals(List.of(figure), service.retrieveCharactersPage(null, 10, fields).getFigures());
 
-        List<CharacterFigure> list = service.getEffectiveCharacters(allCharacters);
-        assertNotNull(list);
-        assertEquals(2, list.size());
-        assertEquals("Libra Dohko (God Cloth)", list.get(0).getOriginalName());
-        assertNotNull(list.get(0).getRestocks());
-        assertNotNull(list.get(0).getTags());
-        assertEquals(5, list.get(0).getTags().size());
-        assertEquals(Set.of("gold", "ex", "libra", "revival", "god"), list.get(0).getTags());
-
-        assertEquals(1, list.get(0).getRestocks().size());
-        assertEquals("Seiya", list.get(1).getOriginalName());
-        assertNull(list.get(1).getRestocks());
+        CharacterFigureNotFoundException exception = assertThrows(CharacterFigureNotFoundException.class,
+                () -> service.retrieveCharactersById("2", fields));
+        assertEquals("Character not found with id: 2", exception.getMessage());
     }
 
     /**
-     * Test for {@link CharacterFigureService#retrieveAllCharacters()}
+     * Test for
+     * {@link CharacterFigureService#retrieveCharactersById(String, FieldSelection)}
      */
     @Test
-    public void should_get_all_characters() {
-        List<CharacterFigureEntity> mockList = new ArrayList<>();
+    public void should_read_the_whole_figure_when_it_is_outdated() {
+        FieldSelection fields = FieldSelection.parse("displayableName");
+        CharacterFigureEntity projected = new CharacterFigureEntity();
+        projected.setId("1");
+        when(repository.findProjectionById("1", Set.of("displayableName", "id", "derivedVersion", "contentHash")))
+                .thenReturn(Optional.of(projected));
+        CharacterFigureEntity entity = createFigureEntity("1", "Virgo Shaka", "Virgo Shaka", Group.GOLD, false);
+        when(repository.findById("1")).thenReturn(Optional.of(entity));
+        CharacterFigure figure = new CharacterFigure();
+        figure.setBaseName("Virgo Shaka");
+        figure.setLineUp(LineUp.MYTH_CLOTH_EX);
+        figure.setGroup(Group.GOLD);
+        when(modelMapper.toModel(entity)).thenReturn(figure);
+
+        assertEquals("Virgo Shaka", service.retrieveCharactersById("1", fields).getDisplayableName());
+    }
+
+    /**
+     * Test for {@link CharacterFigureService#retrieveSnapshot()}
+     */
+    @Test
+    public void should_serve_the_characters_from_the_snapshot() {
         CharacterFigureEntity entity1 = createFigureEntity("1", "Pegasus Seiya", "Pegasus Seiya", Group.V1, false);
-        CharacterFigure figure1 = createFigure(null, "Pegasus Seiya", LocalDate.of(2018, 1, 27), LineUp.MYTH_CLOTH_EX,
-                Series.SOG, Group.GOLD, false, false);
+        CharacterFigureEntity entity2 = createFigureEntity("2", "Dragon Shiryu", "Dragon Shiryu", Group.V1, false);
+        when(repository.findAll(any(Sort.class))).thenReturn(List.of(entity1))
+                .thenReturn(List.of(entity1, entity2));
+        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenAnswer($ -> {
+            CharacterFigureEntity entity = $.getArgument(0);
+            return createFigure(null, entity.getBaseName(), LocalDate.of(2018, 1, 27), LineUp.MYTH_CLOTH_EX,
+                    Series.SOG, Group.GOLD, false, false);
+        });
+        assertNull(service.findLatestSnapshot());
+
+        // the catalog is read only once for every version.
+        CatalogSnapshot first = service.retrieveSnapshot();
+        assertEquals(1, service.retrieveAllCharacters().size());
+        assertSame(first, service.retrieveSnapshot());
+        assertSame(first, service.findLatestSnapshot());
+        assertThrows(UnsupportedOperationException.class, () -> first.getFigures().clear());
+        verify(repository).findAll(any(Sort.class));
+
+        // the next read sees the changes.
+        when(repository.streamByDerivedVersionNot(CharacterFigureService.DERIVED_FIELDS_VERSION))
+                .thenReturn(Stream.of(createFigureEntity("3", "Cygnus Hyoga", "Cygnus Hyoga", Group.V1, false)));
+        service.recomputeDerivedFields();
+        CatalogSnapshot second = service.retrieveSnapshot();
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        assertEquals(List.of("Pegasus Seiya", "Dragon Shiryu"),
+                second.getFigures().stream().map(CharacterFigure::getDisplayableName).toList());
+        verify(repository, times(2)).findAll(any(Sort.class));
+        verify(repository).incrementCatalogVersion();
+        service.shutdown();
+    }
 
-        mockList.add(entity1);
-        when(repository.findAll(any(Sort.class))).thenReturn(mockList);
-        when(modelMapper.toModel(entity1)).thenReturn(figure1);
+    /**
+     * Test for {@link CharacterFigureService#refreshSnapshot()}
+     */
+    @Test
+    public void should_build_the_snapshot_again_when_another_instance_changes_the_catalog() {
+        CharacterFigureEntity entity1 = createFigureEntity("1", "Pegasus Seiya", "Pegasus Seiya", Group.V1, false);
+        CharacterFigureEntity entity2 = createFigureEntity("2", "Dragon Shiryu", "Dragon Shiryu", Group.V1, false);
+        when(repository.findAll(any(Sort.class))).thenReturn(List.of(entity1))
+                .thenReturn(List.of(entity1, entity2));
+        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenAnswer($ -> {
+            CharacterFigureEntity entity = $.getArgument(0);
+            return createFigure(null, entity.getBaseName(), LocalDate.of(2018, 1, 27), LineUp.MYTH_CLOTH_EX,
+                    Series.SOG, Group.GOLD, false, false);
+        });
+        // the version is read to build the snapshot and every time it is refreshed.
+        when(repository.findCatalogVersion()).thenReturn("e.1").thenReturn("e.1").thenReturn("e.2");
+
+        service.refreshSnapshot(); // nobody has read it yet.
+        CatalogSnapshot first = service.retrieveSnapshot();
+        assertEquals("e.1", first.getCatalogVersion());
+        assertEquals("e.1", service.getCatalogVersion()); // taken from the snapshot.
+        service.refreshSnapshot();
+        assertSame(first, service.retrieveSnapshot());
+
+        // another instance has written the catalog.
+        service.refreshSnapshot();
+        CatalogSnapshot second = service.retrieveSnapshot();
+        assertEquals("e.2", second.getCatalogVersion());
+        assertEquals(2, second.getFigures().size());
+        assertEquals("e.2", service.getCatalogVersion());
+        verify(repository, times(2)).findAll(any(Sort.class));
+        verify(repository, times(4)).findCatalogVersion();
+        verify(repository, never()).incrementCatalogVersion();
+        service.shutdown();
+    }
 
-        List<CharacterFigure> list = service.retrieveAllCharacters();
-        assertNotNull(list);
-        assertFalse(list.isEmpty());
-        assertEquals("Pegasus Seiya", list.get(0).getDisplayableName());
+    /**
+     * Test for {@link CharacterFigureService#retrieveSnapshot()}
+     */
+    @Test
+    public void should_build_the_snapshot_again_when_it_fails() {
+        when(repository.findAll(any(Sort.class))).thenThrow(new IllegalStateException("Connection lost"))
+                .thenReturn(List.of());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> service.retrieveAllCharacters());
+        assertEquals("Connection lost", exception.getMessage());
+        assertTrue(service.retrieveAllCharacters().isEmpty());
+        service.shutdown();
     }
 
     /**
@@ -793,22 +956,31 @@ public class CharacterFigureServiceTest {
 
         CharacterFigureEntity entity = createFigureEntity(id, "Scorpio Milo", "Scorpio Milo", Group.GOLD, false);
         entity.setId(id);
-        when(repository.findById(id)).thenReturn(Optional.of(entity));
+        when(repository.findById(anyString())).thenReturn(Optional.of(entity));
 
         CharacterFigure figure = new CharacterFigure();
-        figure.setId(id);
         figure.setOriginalName("Scorpio Ecarlet");
         figure.setBaseName("Scorpio Ecarlet");
         figure.setGroup(Group.GOLD);
         figure.setRevival(true);
         figure.setLineUp(LineUp.MYTH_CLOTH_EX);
         figure.setSeries(Series.SAINT_SEIYA);
-        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenReturn(figure);
+        // the identity has changed, so the character gets a new identifier.
+        String newId = CharacterFigureKey.of(figure).toId();
+        figure.setId(newId);
+        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenAnswer(withStoredFields(figure));
+        when(repository.computeContentHash(entity)).thenReturn("abc");
 
         CharacterFigure actual = service.updateExistingCharacter(id, updatedCharacter);
+        // the version of the document changes with its content.
+        assertEquals("abc", entity.getContentHash());
+        assertEquals(newId, entity.getId());
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).save(entity);
+        inOrder.verify(repository).deleteById(id);
+        inOrder.verify(repository).findById(newId);
         assertNotNull(actual);
-        assertNotNull(actual);
-        assertEquals("122kk3j4h5hdn", actual.getId());
+        assertEquals(newId, actual.getId());
         assertEquals("Scorpio Ecarlet", actual.getOriginalName());
         assertEquals("Scorpio Ecarlet", actual.getBaseName());
         assertEquals("Scorpio Ecarlet", actual.getDisplayableName());
@@ -836,6 +1008,60 @@ public class CharacterFigureServiceTest {
         assertNull(actual.getRemarks());
     }
 
+    /**
+     * Test for
+     * {@link CharacterFigureService#updateExistingCharacter(String, CharacterFigure)}
+     */
+    @Test
+    public void should_keep_the_id_when_the_identity_does_not_change() {
+        String id = "122kk3j4h5hdn";
+        CharacterFigure updatedCharacter = new CharacterFigure();
+        updatedCharacter.setBaseName("Scorpio Milo");
+        updatedCharacter.setGroup(Group.GOLD);
+        updatedCharacter.setRemarks("Remarks");
+
+        CharacterFigureEntity updatedCharacterEntity = createFigureEntity(null, "Scorpio Milo", "Scorpio Milo",
+                Group.GOLD, false);
+        updatedCharacterEntity.setRemarks("Remarks");
+        when(modelMapper.toEntity(updatedCharacter)).thenReturn(updatedCharacterEntity);
+        CharacterFigureEntity entity = createFigureEntity(id, "Scorpio Milo", "Scorpio Milo", Group.GOLD, false);
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
+        when(modelMapper.toModel(entity)).thenReturn(new CharacterFigure());
+
+        service.updateExistingCharacter(id, updatedCharacter);
+        assertEquals(id, entity.getId());
+        assertEquals("Remarks", entity.getRemarks());
+        verify(repository).save(entity);
+        verify(repository, never()).existsById(anyString());
+        verify(repository, never()).deleteById(anyString());
+    }
+
+    /**
+     * Test for
+     * {@link CharacterFigureService#updateExistingCharacter(String, CharacterFigure)}
+     */
+    @Test
+    public void should_fail_update_character_when_another_character_has_the_new_identity() {
+        String id = "122kk3j4h5hdn";
+        CharacterFigure updatedCharacter = new CharacterFigure();
+        updatedCharacter.setBaseName("Scorpio Ecarlet");
+        updatedCharacter.setGroup(Group.GOLD);
+
+        when(modelMapper.toEntity(updatedCharacter)).thenReturn(
+                createFigureEntity(null, "Scorpio Ecarlet", "Scorpio Ecarlet", Group.GOLD, false));
+        CharacterFigureEntity entity = createFigureEntity(id, "Scorpio Milo", "Scorpio Milo", Group.GOLD, false);
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
+        String newId = new CharacterFigureKey("Scorpio Ecarlet", LineUp.MYTH_CLOTH_EX, Series.SAINT_SEIYA,
+                Group.GOLD, false, false, false, false, false, false, false, false, false, null).toId();
+        when(repository.existsById(newId)).thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.updateExistingCharacter(id, updatedCharacter));
+        assertEquals(CharacterFigureService.DUPLICATED_CHARACTER + newId, exception.getMessage());
+        verify(repository, never()).save(any());
+        verify(repository, never()).deleteById(anyString());
+    }
+
     /**
      * Test for {@link CharacterFigureService#updateTagsInCharacter(String, Set)}
      */
@@ -946,7 +1172,7 @@ public class CharacterFigureServiceTest {
         cf.setGroup(Group.GOLD);
         cf.setRevival(true);
         cf.setTags(Set.of("ex", "virgo"));
-        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenReturn(cf);
+        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenAnswer(withStoredFields(cf));
 
         // the tags are provided.
         CharacterFigure actual = service.updateTagsInCharacter(id, Set.of("ex", "virgo"));
@@ -1019,7 +1245,7 @@ public class CharacterFigureServiceTest {
         cf.setGroup(Group.GOLD);
         cf.setRevival(true);
         cf.setTags(Set.of("ex", "virgo", "shaka"));
-        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenReturn(cf);
+        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenAnswer(withStoredFields(cf));
 
         // the tags are provided.
         CharacterFigure actual = service.updateTagsInCharacter(id, Set.of("ex", "virgo"));
@@ -1111,10 +1337,11 @@ public class CharacterFigureServiceTest {
         cf.setGroup(Group.GOLD);
         cf.setRevival(true);
         cf.setTags(null);
-        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenReturn(cf);
+        when(modelMapper.toModel(any(CharacterFigureEntity.class))).thenAnswer(withStoredFields(cf));
 
         // the tags are deleted.
         CharacterFigure actual = service.deleteAllTagsInCharacter(id);
+        verify(repository).saveCatalogDigest(null);
         assertNotNull(actual);
         assertEquals("65215079a5d1a04590202d6f", actual.getId());
         assertEquals("Virgo Shaka", actual.getOriginalName());
@@ -1145,6 +1372,14 @@ public class CharacterFigureServiceTest {
         assertNull(actual.getTags());
     }
 
+    private Answer<CharacterFigure> withStoredFields(CharacterFigure figure) {
+        // the mapper copies the fields stored along with the figure.
+        return $ -> {
+            figure.setDisplayableName($.<CharacterFigureEntity>getArgument(0).getDisplayableName());
+            return figure;
+        };
+    }
+
     private CharacterFigureEntity createFigureEntity(String id, String originalName, String baseName, Group group,
             boolean revival) {
         CharacterFigureEntity characterFigure = new CharacterFigureEntity();
@@ -9,7 +9,6 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
@@ -33,12 +32,11 @@ import org.springframework.core.io.Resource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
+import com.mesofi.collection.charactercatalog.config.TagRuleProperties;
 import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
 import com.mesofi.collection.charactercatalog.mappers.CharacterFigureModelMapperImpl;
 import com.mesofi.collection.charactercatalog.mock.CharacterFigureCustomRepositoryImpl;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
-import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
 import com.mesofi.collection.charactercatalog.test.LoggingUtils;
 
 import lombok.extern.slf4j.Slf4j;
@@ -56,20 +54,22 @@ import lombok.extern.slf4j.Slf4j;
         CharacterFinderService.class,
         CharacterFigureCustomRepositoryImpl.class,
         CharacterFigureService.class,
+        CatalogLoaderService.class,
         CharacterFigureModelMapperImpl.class,
-        CharacterFigureFileMapper.class })
+        CharacterFigureFileMapper.class,
+        CatalogParser.class,
+        TagRuleEngine.class,
+        TagRuleProperties.class })
 // @formatter:on
 @DisplayName("CharacterFinder - Myth Cloth EX")
 public class CharacterFinderServiceMythClothEXTest {
 
-    @Mock
-    private CharacterFigureRepository repository;
     @Mock
     private CharacterFigureService characterFigureService;
 
     private CharacterFinderService service;
 
-    private static List<CharacterFigureEntity> entities = new ArrayList<>();
+    private static List<CharacterFigure> figures = new ArrayList<>();
 
     private final String CSV = ".csv";
     private final String PREFIX = "should_find: ";
@@ -86,23 +86,25 @@ public class CharacterFinderServiceMythClothEXTest {
     private final String THIRD_GOLDEN_OCE = "The Third Golden Saint Warrior EX OCE";
 
     @BeforeAll
-    public static void initAll(@Autowired CharacterFigureService characterFigureRealService) throws IOException {
+    public static void initAll(@Autowired CatalogLoaderService catalogLoaderService,
+            @Autowired CharacterFigureService characterFigureRealService) throws IOException {
         LoggingUtils.enableLog(log); // enabled DEBUG
         log.debug("Loading the whole DB so that we can test the names.");
 
         Resource resource = new ClassPathResource("characters/MythCloth Catalog - CatalogMyth.tsv");
 
-        // We assign a fake id to the records just loaded.
+        // We assign a fake id to the records just loaded, they are served as the snapshot.
         // @formatter:off
-        entities = characterFigureRealService.convertStreamToEntityList(resource.getInputStream())
+        figures = catalogLoaderService.convertStreamToEntityList(resource.getInputStream())
                 .stream().peek($ -> $.setId(new UID().toString()))
+                .map(characterFigureRealService::fromEntityToDisplayableFigure)
                 .collect(Collectors.toList());
         // @formatter:on
     }
 
     @BeforeEach
     public void init() {
-        service = new CharacterFinderService(repository, characterFigureService);
+        service = new CharacterFinderService(characterFigureService);
     }
 
     @ParameterizedTest
@@ -182,12 +184,8 @@ public class CharacterFinderServiceMythClothEXTest {
     private void shouldMatchCharacterFigure(final String input, final String originalName, int expectedItems) {
         log.debug("==> Find: [{}] and expect: [{}] <==", input, originalName);
 
-        entities.stream().filter($ -> originalName.equals($.getOriginalName())).findFirst().ifPresentOrElse((ddd) -> {
-            CharacterFigure cf = new CharacterFigure();
-            cf.setOriginalName(originalName);
-
-            when(repository.findAll()).thenReturn(entities);
-            when(characterFigureService.fromEntityToDisplayableFigure(any(CharacterFigureEntity.class))).thenReturn(cf);
+        figures.stream().filter($ -> originalName.equals($.getOriginalName())).findFirst().ifPresentOrElse((ddd) -> {
+            when(characterFigureService.retrieveAllCharacters()).thenReturn(figures);
 
             // call the service ...
             List<CharacterFigure> characterFigureList = service.findCharacterByName(input);
@@ -9,7 +9,6 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
@@ -32,12 +31,11 @@ import org.springframework.core.io.Resource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import com.mesofi.collection.charactercatalog.entity.CharacterFigureEntity;
+import com.mesofi.collection.charactercatalog.config.TagRuleProperties;
 import com.mesofi.collection.charactercatalog.mappers.CharacterFigureFileMapper;
 import com.mesofi.collection.charactercatalog.mappers.CharacterFigureModelMapperImpl;
 import com.mesofi.collection.charactercatalog.mock.CharacterFigureCustomRepositoryImpl;
 import com.mesofi.collection.charactercatalog.model.CharacterFigure;
-import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
 
 /**
  * Test for {@link CharacterFinderService}
@@ -51,20 +49,22 @@ import com.mesofi.collection.charactercatalog.repository.CharacterFigureReposito
         CharacterFinderService.class,
         CharacterFigureCustomRepositoryImpl.class,
         CharacterFigureService.class,
+        CatalogLoaderService.class,
         CharacterFigureModelMapperImpl.class,
-        CharacterFigureFileMapper.class })
+        CharacterFigureFileMapper.class,
+        CatalogParser.class,
+        TagRuleEngine.class,
+        TagRuleProperties.class })
 // @formatter:on
 @DisplayName("CharacterFinder - Myth Cloth")
 public class CharacterFinderServiceMythClothTest {
 
-    @Mock
-    private CharacterFigureRepository repository;
     @Mock
     private CharacterFigureService characterFigureService;
 
     private CharacterFinderService service;
 
-    private static List<CharacterFigureEntity> entities = new ArrayList<>();
+    private static List<CharacterFigure> figures = new ArrayList<>();
 
     private final String CSV = ".csv";
     private final String PREFIX = "should_find: ";
@@ -73,20 +73,22 @@ public class CharacterFinderServiceMythClothTest {
     private final String ACHERON_CHARON = "Acheron Charon";
 
     @BeforeAll
-    public static void initAll(@Autowired CharacterFigureService characterFigureRealService) throws IOException {
+    public static void initAll(@Autowired CatalogLoaderService catalogLoaderService,
+            @Autowired CharacterFigureService characterFigureRealService) throws IOException {
         Resource resource = new ClassPathResource("characters/MythCloth Catalog - CatalogMyth.tsv");
 
-        // We assign a fake id to the records just loaded.
+        // We assign a fake id to the records just loaded, they are served as the snapshot.
         // @formatter:off
-        entities = characterFigureRealService.convertStreamToEntityList(resource.getInputStream())
+        figures = catalogLoaderService.convertStreamToEntityList(resource.getInputStream())
                 .stream().peek($ -> $.setId(new UID().toString()))
+                .map(characterFigureRealService::fromEntityToDisplayableFigure)
                 .collect(Collectors.toList());
         // @formatter:on
     }
 
     @BeforeEach
     public void init() {
-        service = new CharacterFinderService(repository, characterFigureService);
+        service = new CharacterFinderService(characterFigureService);
     }
 
     @ParameterizedTest
@@ -98,12 +100,8 @@ public class CharacterFinderServiceMythClothTest {
 
     private void shouldMatchCharacterFigure(final String input, final String originalName) {
 
-        entities.stream().filter($ -> originalName.equals($.getOriginalName())).findFirst().ifPresentOrElse((ddd) -> {
-            CharacterFigure cf = new CharacterFigure();
-            cf.setOriginalName(originalName);
-
-            when(repository.findAll()).thenReturn(entities);
-            when(characterFigureService.fromEntityToDisplayableFigure(any(CharacterFigureEntity.class))).thenReturn(cf);
+        figures.stream().filter($ -> originalName.equals($.getOriginalName())).findFirst().ifPresentOrElse((ddd) -> {
+            when(characterFigureService.retrieveAllCharacters()).thenReturn(figures);
 
             List<CharacterFigure> characterFigureList = service.findCharacterByName(input);
             assertNotNull(characterFigureList);
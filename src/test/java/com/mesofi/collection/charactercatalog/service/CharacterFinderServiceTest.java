@@ -14,8 +14,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.mesofi.collection.charactercatalog.repository.CharacterFigureRepository;
-
 /**
  * Test for {@link CharacterFinderService}
  * 
@@ -25,8 +23,6 @@ import com.mesofi.collection.charactercatalog.repository.CharacterFigureReposito
 @ExtendWith(MockitoExtension.class)
 public class CharacterFinderServiceTest {
 
-    @Mock
-    private CharacterFigureRepository repository;
     @Mock
     private CharacterFigureService characterFigureService;
 
@@ -34,7 +30,7 @@ public class CharacterFinderServiceTest {
 
     @BeforeEach
     public void init() {
-        service = new CharacterFinderService(repository, characterFigureService);
+        service = new CharacterFinderService(characterFigureService);
     }
 
     /**
@@ -0,0 +1,482 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.mesofi.collection.charactercatalog.exception.CatalogNotModifiedException;
+import com.mesofi.collection.charactercatalog.exception.CharacterFigureNotFoundException;
+import com.mesofi.collection.charactercatalog.exception.LoaderBusyException;
+import com.mesofi.collection.charactercatalog.model.CatalogDelta;
+import com.mesofi.collection.charactercatalog.model.LoaderJob;
+import com.mesofi.collection.charactercatalog.model.LoaderStage;
+
+/**
+ * Test for {@link LoaderJobService}
+ */
+@ExtendWith(MockitoExtension.class)
+public class LoaderJobServiceTest {
+
+    @TempDir
+    private Path spoolDirectory;
+
+    @Mock
+    private CharacterFigureService characterFigureService;
+    @Mock
+    private CatalogLoaderService catalogLoaderService;
+
+    private LoaderJobService service;
+
+    @BeforeEach
+    public void beforeEach() {
+        lenient().when(catalogLoaderService.createCatalogDigest())
+                .thenAnswer($ -> MessageDigest.getInstance(CatalogLoaderService.CATALOG_DIGEST_ALGORITHM));
+        lenient().when(catalogLoaderService.combineCatalogDigests(anyList()))
+                .thenAnswer($ -> String.join("+", $.<List<String>>getArgument(0)));
+        service = new LoaderJobService(characterFigureService, catalogLoaderService, spoolDirectory.toString(), 1);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        service.shutdown();
+    }
+
+    @Test
+    public void should_fail_when_input_file_is_missing() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.submit((MultipartFile) null));
+        assertEquals("The uploaded file is missing...", exception.getMessage());
+    }
+
+    @Test
+    public void should_fail_when_job_id_is_missing() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.retrieveJob(" "));
+        assertEquals(LoaderJobService.INVALID_JOB_ID, exception.getMessage());
+    }
+
+    @Test
+    public void should_fail_when_job_is_not_found() {
+        CharacterFigureNotFoundException exception = assertThrows(CharacterFigureNotFoundException.class,
+                () -> service.cancelJob("abc"));
+        assertEquals("Loader job not found with id: abc", exception.getMessage());
+    }
+
+    @Test
+    public void should_run_job_and_report_progress() throws Exception {
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class)))
+                .thenAnswer($ -> {
+                    InputStreamSource source = $.<List<InputStreamSource>>getArgument(0).get(0);
+                    LoaderProgress progress = $.getArgument(2);
+                    assertEquals("header\nline", new String(source.getInputStream().readAllBytes(),
+                            StandardCharsets.UTF_8));
+                    progress.stageChanged(LoaderStage.PARSING);
+                    progress.rowParsed();
+                    progress.rowParsed();
+                    progress.stageChanged(LoaderStage.WRITING);
+                    progress.batchWritten(2);
+                    return 2L;
+                });
+
+        LoaderJob job = service.submit(createFile());
+        assertEquals(LoaderStage.QUEUED, job.getStage());
+
+        LoaderJob finished = waitUntilFinished(job.getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        assertEquals(2, finished.getRowsParsed());
+        assertEquals(1, finished.getBatchesWritten());
+        assertEquals(2, finished.getFiguresLoaded());
+        assertTrue(finished.getElapsedMillis() >= 0);
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_run_delta_job_and_report_the_changes() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class)))
+                .thenAnswer($ -> {
+                    started.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return 1L;
+                });
+        when(catalogLoaderService.loadCharactersDelta(any(InputStreamSource.class), anyString(),
+                any(LoaderProgress.class))).thenAnswer($ -> {
+                    InputStreamSource source = $.getArgument(0);
+                    assertEquals("header\nother", new String(source.getInputStream().readAllBytes(),
+                            StandardCharsets.UTF_8));
+                    return new CatalogDelta(1, 2, 3, 4);
+                });
+
+        // the delta load waits for the full load that is running.
+        LoaderJob full = service.submit(createFile());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        LoaderJob delta = service.submitDelta(
+                new MockMultipartFile("other.tsv", "header\nother".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(LoaderStage.QUEUED, service.retrieveJob(delta.getJobId()).getStage());
+        release.countDown();
+
+        assertEquals(LoaderStage.COMPLETED, waitUntilFinished(full.getJobId()).getStage());
+        LoaderJob finished = waitUntilFinished(delta.getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        assertEquals(new CatalogDelta(1, 2, 3, 4), finished.getChanges());
+        assertEquals(7, finished.getFiguresLoaded());
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_report_failed_job() throws Exception {
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class)))
+                .thenThrow(new IllegalArgumentException("Invalid record"));
+
+        LoaderJob finished = waitUntilFinished(service.submit(createFile()).getJobId());
+        assertEquals(LoaderStage.FAILED, finished.getStage());
+        assertEquals("Invalid record", finished.getMessage());
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_keep_the_spooled_file_of_a_load_that_can_be_resumed() throws Exception {
+        List<String> digests = new ArrayList<>();
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class)))
+                .thenAnswer($ -> {
+                    digests.add($.getArgument(1));
+                    throw new IllegalStateException("Interrupted");
+                }).thenReturn(1L);
+        when(catalogLoaderService.findPendingLoad()).thenAnswer($ -> digests.get(0));
+
+        LoaderJob failed = waitUntilFinished(service.submit(createFile()).getJobId());
+        assertEquals(LoaderStage.FAILED, failed.getStage());
+        assertEquals(1, countSpooledFiles());
+
+        // the same load goes on from the file kept.
+        LoaderJob finished = waitUntilFinished(service.resumePendingLoad().getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        verify(catalogLoaderService, times(2)).loadAllCharacters(anyList(), eq(digests.get(0)),
+                any(LoaderProgress.class));
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_reject_jobs_when_queue_is_full_and_cancel_them() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class)))
+                .thenAnswer($ -> {
+                    LoaderProgress progress = $.getArgument(2);
+                    progress.stageChanged(LoaderStage.PARSING);
+                    started.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    progress.rowParsed(); // the job stops here once it is cancelled.
+                    return 1L;
+                });
+
+        LoaderJob running = service.submit(createFile());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        LoaderJob queued = service.submit(createFile());
+
+        LoaderBusyException exception = assertThrows(LoaderBusyException.class, () -> service.submit(createFile()));
+        assertEquals("Another load is in progress, try again later", exception.getMessage());
+
+        // the queued job is cancelled right away, the running one at the next step.
+        assertEquals(LoaderStage.CANCELLED, service.cancelJob(queued.getJobId()).getStage());
+        assertEquals(LoaderStage.PARSING, service.cancelJob(running.getJobId()).getStage());
+        release.countDown();
+
+        assertEquals(LoaderStage.CANCELLED, waitUntilFinished(running.getJobId()).getStage());
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_not_resume_a_cancelled_load() throws Exception {
+        AtomicReference<String> pending = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class)))
+                .thenAnswer($ -> {
+                    pending.set($.getArgument(1)); // the checkpoint of the load.
+                    LoaderProgress progress = $.getArgument(2);
+                    progress.stageChanged(LoaderStage.WRITING);
+                    started.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    progress.batchWritten(1); // the job stops here once it is cancelled.
+                    return 1L;
+                });
+        doAnswer($ -> {
+            pending.set(null);
+            return null;
+        }).when(catalogLoaderService).discardPendingLoad();
+        when(catalogLoaderService.findPendingLoad()).thenAnswer($ -> pending.get());
+
+        LoaderJob running = service.submit(createFile());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        service.cancelJob(running.getJobId());
+        release.countDown();
+
+        assertEquals(LoaderStage.CANCELLED, waitUntilFinished(running.getJobId()).getStage());
+        verify(catalogLoaderService).discardPendingLoad();
+        assertNull(service.resumePendingLoad());
+        verify(catalogLoaderService).loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class));
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_pass_the_digest_of_the_file() throws Exception {
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest("header\nline".getBytes(StandardCharsets.UTF_8)));
+        when(catalogLoaderService.loadAllCharacters(anyList(), eq(expected),
+                any(LoaderProgress.class))).thenReturn(1L);
+
+        LoaderJob finished = waitUntilFinished(service.submit(createFile()).getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        assertEquals(1, finished.getFiguresLoaded());
+        verify(catalogLoaderService).checkCatalogModified(expected);
+    }
+
+    @Test
+    public void should_spool_compressed_files_decompressed() throws Exception {
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(),
+                any(LoaderProgress.class))).thenAnswer($ -> {
+                    InputStreamSource source = $.<List<InputStreamSource>>getArgument(0).get(0);
+                    assertEquals("header\nline", new String(source.getInputStream().readAllBytes(),
+                            StandardCharsets.UTF_8));
+                    return 1L;
+                });
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+            outputStream.write("header\nline".getBytes(StandardCharsets.UTF_8));
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "catalog.tsv.gz", "application/gzip",
+                compressed.toByteArray());
+
+        LoaderJob finished = waitUntilFinished(service.submit(file).getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        assertEquals(1, finished.getFiguresLoaded());
+    }
+
+    @Test
+    public void should_reject_invalid_compressed_files() throws Exception {
+        byte[] truncated = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0, 1, 2, 3 };
+        MockMultipartFile file = new MockMultipartFile("file", "catalog.tsv.gz", "application/gzip", truncated);
+
+        assertThrows(IllegalArgumentException.class, () -> service.submit(file));
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_not_queue_a_catalog_already_loaded() throws Exception {
+        doThrow(new CatalogNotModifiedException("The catalog has not been modified", "abc"))
+                .when(catalogLoaderService).checkCatalogModified(anyString());
+
+        assertThrows(CatalogNotModifiedException.class, () -> service.submit(createFile()));
+        verify(catalogLoaderService, never()).loadAllCharacters(anyList(), any(), any());
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_complete_a_queued_job_already_loaded() throws Exception {
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(),
+                any(LoaderProgress.class)))
+                .thenThrow(new CatalogNotModifiedException("The catalog has not been modified", "abc"));
+
+        LoaderJob finished = waitUntilFinished(service.submit(createFile()).getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        assertEquals("The catalog has not been modified", finished.getMessage());
+        assertEquals(0, finished.getFiguresLoaded());
+    }
+
+    @Test
+    public void should_resume_the_pending_load() throws Exception {
+        when(catalogLoaderService.findPendingLoad()).thenReturn("abc");
+        when(catalogLoaderService.loadAllCharacters(anyList(), eq("abc"),
+                any(LoaderProgress.class))).thenAnswer($ -> {
+                    InputStreamSource source = $.<List<InputStreamSource>>getArgument(0).get(0);
+                    assertEquals("header\nline", new String(source.getInputStream().readAllBytes(),
+                            StandardCharsets.UTF_8));
+                    return 1L;
+                });
+        Files.writeString(spoolDirectory.resolve("catalog-abc.tsv"), "header\nline");
+
+        LoaderJob finished = waitUntilFinished(service.resumePendingLoad().getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        assertEquals(1, finished.getFiguresLoaded());
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_not_resume_without_the_spooled_file() {
+        when(catalogLoaderService.findPendingLoad()).thenReturn("abc");
+
+        assertNull(service.resumePendingLoad());
+        verify(catalogLoaderService, never()).loadAllCharacters(anyList(), any(), any());
+    }
+
+    @Test
+    public void should_not_resume_when_there_is_no_pending_load() {
+        assertNull(service.resumePendingLoad());
+    }
+
+    @Test
+    public void should_recompute_the_derived_fields_apart_from_the_loads() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        when(characterFigureService.hasOutdatedDerivedFields()).thenReturn(true);
+        when(characterFigureService.recomputeDerivedFields()).thenAnswer($ -> {
+            assertEquals("catalog-recompute", Thread.currentThread().getName());
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return 1L;
+        });
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class)))
+                .thenAnswer($ -> {
+                    loaded.countDown();
+                    return 1L;
+                });
+
+        assertTrue(service.recomputeDerivedFields());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        // it is running already.
+        assertFalse(service.recomputeDerivedFields());
+
+        // the upload is queued, but it is not loaded until the names and prices are ready.
+        LoaderJob job = service.submit(createFile());
+        assertFalse(loaded.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertEquals(LoaderStage.COMPLETED, waitUntilFinished(job.getJobId()).getStage());
+    }
+
+    @Test
+    public void should_not_recompute_the_derived_fields_when_they_are_up_to_date() {
+        when(characterFigureService.hasOutdatedDerivedFields()).thenReturn(false);
+
+        assertFalse(service.recomputeDerivedFields());
+        verify(characterFigureService, never()).recomputeDerivedFields();
+    }
+
+    @Test
+    public void should_name_the_spooled_file_after_its_digest() throws Exception {
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest("header\nline".getBytes(StandardCharsets.UTF_8)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(),
+                any(LoaderProgress.class))).thenAnswer($ -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return 1L;
+                });
+
+        LoaderJob job = service.submit(createFile());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(Files.exists(spoolDirectory.resolve("catalog-" + expected + ".tsv")));
+        release.countDown();
+        assertEquals(LoaderStage.COMPLETED, waitUntilFinished(job.getJobId()).getStage());
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_load_several_files_in_a_single_job() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(catalogLoaderService.loadAllCharacters(anyList(), anyString(), any(LoaderProgress.class)))
+                .thenAnswer($ -> {
+                    List<InputStreamSource> sources = $.getArgument(0);
+                    assertEquals(2, sources.size());
+                    assertEquals("header\nline", new String(sources.get(0).getInputStream().readAllBytes(),
+                            StandardCharsets.UTF_8));
+                    assertEquals("header\nother", new String(sources.get(1).getInputStream().readAllBytes(),
+                            StandardCharsets.UTF_8));
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return 2L;
+                });
+        MockMultipartFile other = new MockMultipartFile("other.tsv", "header\nother".getBytes(StandardCharsets.UTF_8));
+
+        LoaderJob job = service.submit(List.of(createFile(), other));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // the files are named after the digest of both of them, in order.
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(List.of("-1.tsv", "-2.tsv"), files.map($ -> $.getFileName().toString())
+                    .map($ -> $.substring($.lastIndexOf('-'))).sorted().toList());
+        }
+        release.countDown();
+        assertEquals(LoaderStage.COMPLETED, waitUntilFinished(job.getJobId()).getStage());
+        assertEquals(0, countSpooledFiles());
+    }
+
+    @Test
+    public void should_resume_the_pending_load_of_several_files() throws Exception {
+        when(catalogLoaderService.findPendingLoad()).thenReturn("abc");
+        when(catalogLoaderService.loadAllCharacters(anyList(), eq("abc"), any(LoaderProgress.class)))
+                .thenAnswer($ -> (long) $.<List<?>>getArgument(0).size());
+        Files.writeString(spoolDirectory.resolve("catalog-abc-1.tsv"), "header\nline");
+        Files.writeString(spoolDirectory.resolve("catalog-abc-2.tsv"), "header\nother");
+
+        LoaderJob finished = waitUntilFinished(service.resumePendingLoad().getJobId());
+        assertEquals(LoaderStage.COMPLETED, finished.getStage());
+        assertEquals(2, finished.getFiguresLoaded());
+        assertEquals(0, countSpooledFiles());
+    }
+
+    private MockMultipartFile createFile() {
+        return new MockMultipartFile("catalog.tsv", "header\nline".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LoaderJob waitUntilFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        LoaderJob job = service.retrieveJob(jobId);
+        while (!job.getStage().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = service.retrieveJob(jobId);
+        }
+        return job;
+    }
+
+    private long countSpooledFiles() throws Exception {
+        try (var files = Files.list(spoolDirectory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+
+/**
+ * Test for {@link RestockGrouper}
+ */
+public class RestockGrouperTest {
+
+    @Test
+    public void should_ignore_empty_records() {
+        RestockGrouper grouper = new RestockGrouper((existing, restock) -> {
+        });
+        grouper.add(null);
+        assertEquals(0, grouper.size());
+        assertTrue(grouper.getEffectiveCharacters().isEmpty());
+    }
+
+    @Test
+    public void should_keep_the_first_record_as_base_figure() {
+        List<CharacterFigure[]> merged = new ArrayList<>();
+        RestockGrouper grouper = new RestockGrouper(
+                (existing, restock) -> merged.add(new CharacterFigure[] { existing, restock }));
+
+        CharacterFigure shaka = createFigure("Virgo Shaka", "Virgo Shaka", LineUp.MYTH_CLOTH_EX);
+        CharacterFigure mu = createFigure("Aries Mu", "Aries Mu", LineUp.MYTH_CLOTH_EX);
+        CharacterFigure shakaMythCloth = createFigure("Virgo Shaka", "Virgo Shaka", LineUp.MYTH_CLOTH);
+        CharacterFigure shakaRestock = createFigure("Virgo Shaka <Revival>", "Virgo Shaka", LineUp.MYTH_CLOTH_EX);
+
+        grouper.add(shaka);
+        grouper.add(mu);
+        grouper.add(shakaMythCloth);
+        grouper.add(shakaRestock);
+
+        assertEquals(3, grouper.size());
+        assertEquals(List.of(shaka, mu, shakaMythCloth), grouper.getEffectiveCharacters());
+        assertSame(shaka, grouper.getEffectiveCharacters().get(0));
+        assertEquals(1, merged.size());
+        assertSame(shaka, merged.get(0)[0]);
+        assertSame(shakaRestock, merged.get(0)[1]);
+    }
+
+    private CharacterFigure createFigure(String originalName, String baseName, LineUp lineUp) {
+        CharacterFigure figure = new CharacterFigure();
+        figure.setOriginalName(originalName);
+        figure.setBaseName(baseName);
+        figure.setLineUp(lineUp);
+        figure.setGroup(Group.GOLD);
+        return figure;
+    }
+}
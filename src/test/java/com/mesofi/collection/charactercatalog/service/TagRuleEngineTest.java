@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.mesofi.collection.charactercatalog.config.TagRuleProperties;
+import com.mesofi.collection.charactercatalog.config.TagRuleProperties.Rule;
+import com.mesofi.collection.charactercatalog.model.CharacterFigure;
+import com.mesofi.collection.charactercatalog.model.Distribution;
+import com.mesofi.collection.charactercatalog.model.Group;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+import com.mesofi.collection.charactercatalog.model.Series;
+
+/**
+ * Test for {@link TagRuleEngine}
+ */
+public class TagRuleEngineTest {
+
+    @Test
+    public void should_add_the_standard_tags() {
+        TagRuleEngine engine = new TagRuleEngine(new TagRuleProperties());
+
+        CharacterFigure figure = createFigure("  Virgo   Shaka ");
+        figure.setLineUp(LineUp.MYTH_CLOTH_EX);
+        figure.setSeries(Series.SOG);
+        figure.setOce(true);
+        figure.setTags(Set.of("buddha"));
+        engine.addStandardTags(figure);
+        assertEquals(Set.of("buddha", "virgo", "shaka", "ex", "soul", "gold", "god", "oce", "original", "color"),
+                figure.getTags());
+
+        figure = createFigure("Aries Mu");
+        figure.setRevival(true);
+        figure.setSet(true);
+        figure.setBrokenCloth(true);
+        figure.setMetalBody(true);
+        figure.setHongKongVersion(true);
+        figure.setBronzeToGold(true);
+        engine.addStandardTags(figure);
+        assertEquals(Set.of("aries", "mu", "revival", "set", "broken", "metal", "asia", "golden"), figure.getTags());
+    }
+
+    @Test
+    public void should_add_the_configured_tags() {
+        TagRuleProperties properties = new TagRuleProperties();
+        properties.setRules(List.of(new Rule("group = GOLD & manga", "manga, zodiac"),
+                new Rule("distribution=TAMASHII_WEB_SHOP", "web")));
+        TagRuleEngine engine = new TagRuleEngine(properties);
+
+        CharacterFigure figure = createFigure("Leo Aiolia");
+        figure.setManga(true);
+        figure.setDistribution(Distribution.TAMASHII_WEB_SHOP);
+        engine.addStandardTags(figure);
+        assertEquals(Set.of("leo", "aiolia", "manga", "zodiac", "web"), figure.getTags());
+
+        figure = createFigure("Leo Aiolia");
+        figure.setGroup(Group.V1);
+        figure.setManga(true);
+        engine.addStandardTags(figure);
+        assertEquals(Set.of("leo", "aiolia"), figure.getTags());
+    }
+
+    @Test
+    public void should_share_the_same_tag_instances() {
+        TagRuleEngine engine = new TagRuleEngine(new TagRuleProperties());
+
+        CharacterFigure first = createFigure(new String("Virgo Shaka"));
+        first.setMetalBody(true);
+        CharacterFigure second = createFigure(new String("Virgo Shaka"));
+        second.setMetalBody(true);
+        second.setTags(Set.of(new String("metal")));
+        engine.addStandardTags(first);
+        engine.addStandardTags(second);
+
+        assertSame(tag(first, "virgo"), tag(second, "virgo"));
+        assertSame(tag(first, "metal"), tag(second, "metal"));
+        assertSame(engine.intern("metal"), tag(second, "metal"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "unknown", "lineUp=UNKNOWN", "color=GOLD", "revival & " })
+    public void should_fail_invalid_rules(String when) {
+        TagRuleProperties properties = new TagRuleProperties();
+        properties.setRules(List.of(new Rule(when, "tag")));
+        assertThrows(IllegalArgumentException.class, () -> new TagRuleEngine(properties));
+    }
+
+    @Test
+    public void should_fail_rules_without_tags() {
+        TagRuleProperties properties = new TagRuleProperties();
+        properties.setRules(List.of(new Rule("revival", " ")));
+        assertThrows(IllegalArgumentException.class, () -> new TagRuleEngine(properties));
+    }
+
+    private String tag(CharacterFigure figure, String tag) {
+        return figure.getTags().stream().filter(tag::equals).findFirst().orElseThrow();
+    }
+
+    private CharacterFigure createFigure(String baseName) {
+        CharacterFigure figure = new CharacterFigure();
+        figure.setBaseName(baseName);
+        figure.setGroup(Group.GOLD);
+        return figure;
+    }
+}
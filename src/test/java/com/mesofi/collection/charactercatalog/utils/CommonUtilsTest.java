@@ -9,11 +9,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -117,6 +124,74 @@ public class CommonUtilsTest {
         assertTrue(list.contains("seiya"));
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = { "¥12,500", "¥0", "$11.9", "3.4", "1,234,567.50" })
+    public void should_convert_price_region_like_the_string_version(String input) {
+        String line = "x\t" + input + "\ty";
+        assertEquals(CommonUtils.toPrice(input), CommonUtils.toPrice(line, 2, 2 + input.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "9/15/2023", "10/30/2020", "7/3/2020", "11/2022", "5/2021", "2/30/2023", "2/29/2024" })
+    public void should_convert_date_region_like_the_string_version(String input) {
+        String line = "x\t" + input + "\ty";
+        assertEquals(CommonUtils.toDate(input), CommonUtils.toDate(line, 2, 2 + input.length()));
+        assertEquals(CommonUtils.isDayMonthYear(input), CommonUtils.isDayMonthYear(line, 2, 2 + input.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "2023", "13/2023", "5/23", "a/2023", "5//2023", "1/32/2023", "5/2023 " })
+    public void should_fail_invalid_date_region(String input) {
+        assertThrows(DateTimeParseException.class, () -> CommonUtils.toDate(input));
+        assertThrows(DateTimeParseException.class, () -> CommonUtils.toDate(input, 0, input.length()));
+    }
+
+    @Test
+    public void should_read_dates_like_the_formatter() {
+        // @formatter:off
+        DateTimeFormatter formatter = new DateTimeFormatterBuilder()
+                .appendPattern("M").appendLiteral("/")
+                .optionalStart().appendPattern("d").appendLiteral("/").optionalEnd()
+                .appendValue(ChronoField.YEAR, 4)
+                .toFormatter();
+        // @formatter:on
+        for (int month = 1; month <= 12; month++) {
+            for (int day = 1; day <= 31; day++) {
+                for (String format : List.of("%d/%d/2024", "%02d/%02d/2023")) {
+                    String text = String.format(format, month, day);
+                    assertEquals(LocalDate.parse(text, formatter), CommonUtils.toDate(text));
+                }
+            }
+            String text = month + "/2023";
+            assertEquals(YearMonth.parse(text, formatter).atDay(1), CommonUtils.toDate(text));
+        }
+        assertEquals(LocalDate.of(2023, 12, 1), CommonUtils.toDate("012/2023"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "¥1,234,567,890,123,456,789", "12.", ".5", "-3", "1E+3", "$0.000" })
+    public void should_convert_any_price_like_big_decimal(String input) {
+        String text = input.startsWith("$") || input.startsWith("¥") ? input.substring(1) : input;
+        assertEquals(new BigDecimal(text.replace(",", "")), CommonUtils.toPrice(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "¥", "1.2.3", "12a" })
+    public void should_fail_invalid_price(String input) {
+        assertThrows(NumberFormatException.class, () -> CommonUtils.toPrice(input));
+    }
+
+    @Test
+    public void should_return_null_for_empty_regions() {
+        assertFalse(CommonUtils.hasText("a  b", 1, 3));
+        assertTrue(CommonUtils.hasText("a  b", 1, 4));
+        assertNull(CommonUtils.toPrice("a  b", 1, 3));
+        assertNull(CommonUtils.toDate("a  b", 1, 3));
+        assertNull(CommonUtils.toInteger("a  b", 1, 3));
+        assertNull(CommonUtils.isDayMonthYear("a  b", 1, 3));
+        assertEquals(20, CommonUtils.toInteger("a20b", 1, 3));
+    }
+
     @Test
     public void should_validate_day_month_date() {
         assertNull(CommonUtils.isDayMonthYear(null));
@@ -152,4 +227,22 @@ public class CommonUtilsTest {
         assertEquals("a", myList.get(3));
         assertEquals("1", myList.get(4));
     }
+
+    @Test
+    public void should_reverse_large_list() {
+        final int total = 200_000;
+        List<Integer> myList = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            myList.add(i);
+        }
+        CommonUtils.reverseListElements(myList);
+        assertEquals(total, myList.size());
+        for (int i = 0; i < total; i++) {
+            assertEquals(total - 1 - i, myList.get(i));
+        }
+
+        List<String> linkedList = new LinkedList<>(List.of("a", "b", "c"));
+        CommonUtils.reverseListElements(linkedList);
+        assertEquals(List.of("c", "b", "a"), linkedList);
+    }
 }
@@ -5,15 +5,27 @@
  */
 package com.mesofi.collection.charactercatalog.utils;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 /**
@@ -45,4 +57,66 @@ public class FileUtilsTest {
         assertNotNull(path);
         assertTrue(path.toString().contains("characters/MythCloth Catalog - CatalogMyth-min.tsv"));
     }
+
+    @Test
+    public void should_decompress_gzip_catalog() throws IOException {
+        byte[] expected = Files.readAllBytes(getPath("MythCloth Catalog - CatalogMyth.tsv"));
+        try (InputStream compressed = Files.newInputStream(getPath("MythCloth Catalog - CatalogMyth.tsv.gz"))) {
+            assertArrayEquals(expected, FileUtils.decompress(compressed, null).readAllBytes());
+        }
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = { "application/octet-stream", "application/zlib", "application/deflate; charset=utf-8" })
+    public void should_decompress_zlib_by_magic_bytes(String contentType) throws IOException {
+        byte[] expected = "header\nline\n".getBytes(StandardCharsets.UTF_8);
+        for (int level : new int[] { Deflater.NO_COMPRESSION, Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION,
+                Deflater.BEST_COMPRESSION }) {
+            byte[] compressed = deflate(expected, new Deflater(level));
+            assertArrayEquals(expected,
+                    FileUtils.decompress(new ByteArrayInputStream(compressed), contentType).readAllBytes());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "application/deflate", "application/x-deflate" })
+    public void should_decompress_raw_deflate_by_content_type(String contentType) throws IOException {
+        byte[] expected = "header\nline\n".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(expected, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+        assertArrayEquals(expected,
+                FileUtils.decompress(new ByteArrayInputStream(compressed), contentType).readAllBytes());
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = { "text/tab-separated-values", "multipart/form-data" })
+    public void should_keep_plain_files(String contentType) throws IOException {
+        byte[] expected = "xheader\nline\n".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected,
+                FileUtils.decompress(new ByteArrayInputStream(expected), contentType).readAllBytes());
+        assertArrayEquals(new byte[0],
+                FileUtils.decompress(new ByteArrayInputStream(new byte[0]), contentType).readAllBytes());
+    }
+
+    @Test
+    public void should_fail_when_gzip_file_is_not_compressed() {
+        byte[] plain = "header\nline\n".getBytes(StandardCharsets.UTF_8);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> FileUtils.decompress(new ByteArrayInputStream(plain), "application/gzip"));
+        assertEquals("The uploaded file is not a valid application/gzip file", exception.getMessage());
+    }
+
+    private Path getPath(String name) {
+        return FileUtils.getPathFromClassPath("characters/" + name);
+    }
+
+    private byte[] deflate(byte[] content, Deflater deflater) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflaterStream = new DeflaterOutputStream(outputStream, deflater)) {
+            deflaterStream.write(content);
+        }
+        deflater.end();
+        return outputStream.toByteArray();
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) Mesofi - All Rights Reserved Unauthorized copying of this file,
+ * via any medium is strictly prohibited Proprietary and confidential.
+ */
+package com.mesofi.collection.charactercatalog.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.mesofi.collection.charactercatalog.mappers.EnumCodec;
+import com.mesofi.collection.charactercatalog.model.LineUp;
+
+/**
+ * Test for {@link TsvCursor}
+ */
+public class TsvCursorTest {
+
+    @Test
+    public void should_find_all_the_columns() {
+        TsvCursor cursor = new TsvCursor().reset("a\t\t b \t");
+        assertEquals(4, cursor.getColumns());
+        assertEquals("a", cursor.raw(0));
+        assertEquals("", cursor.raw(1));
+        assertEquals(" b ", cursor.raw(2));
+        assertEquals("b", cursor.text(2));
+        assertNull(cursor.text(1));
+        assertNull(cursor.text(3));
+        assertNull(cursor.raw(4));
+        assertNull(cursor.raw(-1));
+        assertFalse(cursor.hasText(-1));
+    }
+
+    @Test
+    public void should_grow_for_long_lines() {
+        TsvCursor cursor = new TsvCursor().reset("x\t".repeat(99) + "last");
+        assertEquals(100, cursor.getColumns());
+        assertEquals("last", cursor.raw(99));
+
+        // the cursor is reused for a shorter line.
+        cursor.reset("one");
+        assertEquals(1, cursor.getColumns());
+        assertNull(cursor.raw(1));
+    }
+
+    @Test
+    public void should_convert_the_columns() {
+        TsvCursor cursor = new TsvCursor().reset("¥12,500\t9/15/2023\t11/2022\tTRUE\ttrue\t20\tMyth Cloth EX\tMyth Cloth");
+        assertEquals(new BigDecimal("12500"), cursor.price(0));
+        assertEquals(LocalDate.of(2023, 9, 15), cursor.date(1));
+        assertTrue(cursor.dayMonthYear(1));
+        assertEquals(LocalDate.of(2022, 11, 1), cursor.date(2));
+        assertFalse(cursor.dayMonthYear(2));
+        assertTrue(cursor.bool(3));
+        assertFalse(cursor.bool(4));
+        assertEquals(20, cursor.integer(5));
+        assertEquals(LineUp.MYTH_CLOTH_EX, cursor.enumValue(6, EnumCodec.LINE_UP));
+        assertEquals(LineUp.MYTH_CLOTH, cursor.enumValue(7, EnumCodec.LINE_UP));
+        assertNull(cursor.enumValue(8, EnumCodec.LINE_UP));
+        assertNull(cursor.price(8));
+        assertNull(cursor.date(8));
+        assertNull(cursor.integer(8));
+        assertNull(cursor.dayMonthYear(8));
+    }
+
+    @Test
+    public void should_split_the_values_like_the_string_version() {
+        for (String value : List.of("ikki, ex, gold,seiya", "a,,b", ",a", "a,,", "a, ,", "3", ",,")) {
+            TsvCursor cursor = new TsvCursor().reset("x\t" + value + "\ty");
+            assertEquals(CommonUtils.toListValue(value), cursor.list(1), value);
+            assertEquals(CommonUtils.toSetValue(value), cursor.set(1), value);
+        }
+        TsvCursor cursor = new TsvCursor().reset("x\t \ty");
+        assertNull(cursor.list(1));
+        assertNull(cursor.set(1));
+        assertEquals(Set.of("y"), cursor.set(2));
+    }
+}